@@ -0,0 +1,89 @@
+package egovframework.ragchat.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.Metadata;
+
+/**
+ * 벤치마크 입력 데이터.
+ * 적재 대상과 같은 classpath:data/*.md 문서를 사용하고, 답변 샘플은 문서 본문(코드 블록, 목록, 표 포함)에서 잘라 만든다.
+ */
+final class BenchmarkData {
+
+	// 모델 답변 한 건에 해당하는 길이
+	private static final int ANSWER_CHARS = 3000;
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * 적재 대상 마크다운 문서 로드 (source 메타데이터 포함)
+	 *
+	 * @return 문서 목록 (파일 이름 순)
+	 */
+	static List<Document> loadDocuments() throws IOException {
+		Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:data/*.md");
+		List<Document> documents = new ArrayList<>();
+		for (Resource resource : resources) {
+			try (InputStream in = resource.getInputStream()) {
+				String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+				documents.add(Document.from(content, Metadata.from(Map.of("source", resource.getFilename()))));
+			}
+		}
+		if (documents.isEmpty()) {
+			throw new IllegalStateException("classpath:data/*.md 문서가 없습니다");
+		}
+		documents.sort(Comparator.comparing(document -> document.metadata().getString("source")));
+		return documents;
+	}
+
+	/**
+	 * 모델 답변 샘플 (가장 긴 문서의 앞부분을 줄 단위로 자름)
+	 *
+	 * @return 마크다운 답변
+	 */
+	static String sampleAnswer() throws IOException {
+		String longest = loadDocuments().stream()
+				.map(Document::text)
+				.max(Comparator.comparingInt(String::length))
+				.orElseThrow();
+		if (longest.length() <= ANSWER_CHARS) {
+			return longest;
+		}
+		int end = longest.lastIndexOf('\n', ANSWER_CHARS);
+		return longest.substring(0, end > 0 ? end + 1 : ANSWER_CHARS);
+	}
+
+	/**
+	 * 스트리밍으로 받은 것처럼 고정 길이 청크로 분할
+	 *
+	 * @param text 원문
+	 * @param chunkChars 청크 길이 (토큰 단위 수신은 2~4자, 전송 버퍼 단위는 16~64자)
+	 * @return 청크 목록
+	 */
+	static List<String> streamedChunks(String text, int chunkChars) {
+		List<String> chunks = new ArrayList<>();
+		int start = 0;
+		while (start < text.length()) {
+			int end = Math.min(text.length(), start + chunkChars);
+			// 서로게이트 쌍은 나누지 않음
+			if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+				end++;
+			}
+			chunks.add(text.substring(start, end));
+			start = end;
+		}
+		return chunks;
+	}
+
+}
@@ -0,0 +1,102 @@
+package egovframework.ragchat.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import egovframework.ragchat.ollama.GenerationScheduler;
+import egovframework.ragchat.util.VirtualThreads;
+
+/**
+ * 블로킹 채팅 경로의 플랫폼 스레드 / 가상 스레드 실행 비교.
+ * 요청 하나는 검색 대기(Qdrant 응답) 후 GenerationScheduler 로 동시 실행 수가 제한된 모델 호출을 기다린다.
+ * 플랫폼 스레드는 Tomcat 기본 최대 스레드 수(200)의 고정 풀, 가상 스레드는 요청마다 새 가상 스레드로 실행하며
+ * 모든 요청이 끝날 때까지의 시간을 측정한다. 모델 동시 실행 수가 스레드 풀보다 크면 플랫폼 스레드 풀이 병목이 된다.
+ * virtual 은 JDK 21 이상에서만 실행된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BlockingChatBenchmark {
+
+	// server.tomcat.threads.max 기본값
+	private static final int PLATFORM_THREADS = 200;
+	private static final long RETRIEVAL_MILLIS = 20L;
+	private static final long GENERATION_MILLIS = 200L;
+
+	@Param({ "platform", "virtual" })
+	String threads;
+
+	@Param({ "2000" })
+	int requests;
+
+	// 모델 동시 실행 수 (스레드 풀보다 작은 경우와 큰 경우)
+	@Param({ "64", "1000" })
+	int modelConcurrency;
+
+	private ExecutorService executor;
+	private GenerationScheduler scheduler;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if ("virtual".equals(threads)) {
+			executor = VirtualThreads.newExecutor("bench-virtual-");
+		} else {
+			executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+		}
+
+		scheduler = new GenerationScheduler(modelConcurrency, requests, requests, TimeUnit.MINUTES.toMillis(10));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public void completeAllRequests() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(requests);
+		for (int i = 0; i < requests; i++) {
+			String clientId = "client-" + i;
+			executor.execute(() -> {
+				try {
+					sleep(RETRIEVAL_MILLIS);
+					scheduler.execute(clientId, () -> {
+						sleep(GENERATION_MILLIS);
+						return null;
+					});
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
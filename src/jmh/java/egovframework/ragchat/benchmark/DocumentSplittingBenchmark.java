@@ -0,0 +1,51 @@
+package egovframework.ragchat.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.DocumentSplitter;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
+
+/**
+ * 문서 분할 벤치마크 (적재와 BM25 색인 생성에서 사용하는 분할 설정으로 data/*.md 전체 분할).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentSplittingBenchmark {
+
+	private List<Document> documents;
+	private DocumentSplitter splitter;
+
+	@Setup
+	public void setup() throws IOException {
+		documents = BenchmarkData.loadDocuments();
+		// DataIngestionServiceImpl 과 같은 설정
+		splitter = DocumentSplitters.recursive(1000, 150);
+	}
+
+	@Benchmark
+	public void splitAllDocuments(Blackhole blackhole) {
+		for (Document document : documents) {
+			blackhole.consume(splitter.split(document));
+		}
+	}
+
+}
@@ -0,0 +1,85 @@
+package egovframework.ragchat.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.bgesmallenv15q.BgeSmallEnV15QuantizedEmbeddingModel;
+
+/**
+ * 양자화 BGE 임베딩 처리량 벤치마크.
+ * 같은 세그먼트를 embedAll 호출 한 번에 넘기는 개수별로 나누어 임베딩하며, 결과는 세그먼트 한 건당 시간으로 보고한다.
+ * langchain4j 0.35 의 in-process 모델은 세그먼트마다 ONNX 추론을 한 번씩 실행하므로 이 값은 텐서 배치 크기가 아니라
+ * 호출 한 번이 추론 스레드에 동시에 나누어 주는 세그먼트 수(호출당 병렬도)이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmbeddingBenchmark {
+
+	private static final int SEGMENTS = 64;
+
+	// embedAll 호출 한 번에 넘기는 세그먼트 수
+	@Param({ "1", "8", "32" })
+	int segmentsPerCall;
+
+	private ExecutorService inferenceExecutor;
+	private EmbeddingModel model;
+	private List<TextSegment> segments;
+
+	@Setup
+	public void setup() throws IOException {
+		// 운영 설정(rag.embedding.batch.pool-size)과 같은 추론 스레드 수
+		inferenceExecutor = Executors.newFixedThreadPool(2);
+		model = new BgeSmallEnV15QuantizedEmbeddingModel(inferenceExecutor);
+
+		List<TextSegment> all = new ArrayList<>();
+		for (Document document : BenchmarkData.loadDocuments()) {
+			all.addAll(DocumentSplitters.recursive(1000, 150).split(document));
+		}
+		segments = new ArrayList<>(SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments.add(all.get(i % all.size()));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		inferenceExecutor.shutdown();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SEGMENTS)
+	public void embedSegments(Blackhole blackhole) {
+		for (int start = 0; start < SEGMENTS; start += segmentsPerCall) {
+			List<TextSegment> call = segments.subList(start, Math.min(SEGMENTS, start + segmentsPerCall));
+			blackhole.consume(model.embedAll(call));
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+package egovframework.ragchat.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import egovframework.ragchat.util.IncrementalMarkdownRenderer;
+import egovframework.ragchat.util.MarkdownConverter;
+
+/**
+ * 마크다운 변환 벤치마크.
+ * 답변 전체 변환(블로킹 응답, 스트림 종료 시 보정)과 스트리밍 청크 단위 변환을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkdownBenchmark {
+
+	private MarkdownConverter converter;
+	private String answer;
+
+	/**
+	 * 스트리밍 청크 입력
+	 */
+	@State(Scope.Benchmark)
+	public static class StreamedChunks {
+
+		// 토큰 단위 수신(4자)과 전송 버퍼 단위(32자)
+		@Param({ "4", "32" })
+		int chunkChars;
+
+		List<String> chunks;
+
+		@Setup
+		public void setup() throws IOException {
+			chunks = BenchmarkData.streamedChunks(BenchmarkData.sampleAnswer(), chunkChars);
+		}
+	}
+
+	@Setup
+	public void setup() throws IOException {
+		converter = new MarkdownConverter();
+		answer = BenchmarkData.sampleAnswer();
+	}
+
+	/**
+	 * 답변 전체를 한 번에 변환
+	 */
+	@Benchmark
+	public String convertWholeAnswer() {
+		return converter.convertToHtml(answer);
+	}
+
+	/**
+	 * 청크마다 독립적으로 변환 (청크 단위 변환 비용의 상한)
+	 */
+	@Benchmark
+	public void convertEachChunk(StreamedChunks input, Blackhole blackhole) {
+		for (String chunk : input.chunks) {
+			blackhole.consume(converter.convertToHtml(chunk));
+		}
+	}
+
+	/**
+	 * 스트리밍 경로와 같은 점진적 렌더링 (완성된 블록만 변환 후 종료 시 전체 보정)
+	 */
+	@Benchmark
+	public String renderIncrementally(StreamedChunks input, Blackhole blackhole) {
+		IncrementalMarkdownRenderer renderer = converter.newIncrementalRenderer();
+		for (String chunk : input.chunks) {
+			blackhole.consume(renderer.append(chunk));
+		}
+		return renderer.finish();
+	}
+
+}
@@ -0,0 +1,88 @@
+package egovframework.ragchat.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.retrieval.ContextAssembler;
+import egovframework.ragchat.service.impl.ChatServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 프롬프트 구성 벤치마크 (검색 결과로 컨텍스트 조립 후 스트리밍 RAG 프롬프트 생성).
+ * 검색 결과는 인접 청크(겹침 제거 대상)와 다른 문서의 청크가 섞이도록 구성한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBenchmark {
+
+	private static final String QUERY = "OpenSearch 에서 한국어 인덱스는 어떻게 설정하나요?";
+	private static final int RESULTS_PER_DOCUMENT = 3;
+
+	private ContextAssembler assembler;
+	private List<Content> contents;
+	private String context;
+
+	@Setup
+	public void setup() throws IOException {
+		assembler = new ContextAssembler(new RagMetrics(new SimpleMeterRegistry()));
+		// application.properties 의 rag.context.max-tokens
+		ReflectionTestUtils.setField(assembler, "maxTokens", 2048);
+
+		contents = new ArrayList<>();
+		for (Document document : BenchmarkData.loadDocuments()) {
+			List<TextSegment> segments = DocumentSplitters.recursive(1000, 150).split(document);
+			for (int i = 0; i < Math.min(RESULTS_PER_DOCUMENT, segments.size()); i++) {
+				contents.add(Content.from(segments.get(i)));
+			}
+		}
+		context = assembler.assemble(contents);
+	}
+
+	/**
+	 * 컨텍스트 조립 (토큰 예산 선택, 출처별 정렬, 겹침 제거)
+	 */
+	@Benchmark
+	public String assembleContext() {
+		return assembler.assemble(contents);
+	}
+
+	/**
+	 * 조립된 컨텍스트로 프롬프트 문자열 생성
+	 */
+	@Benchmark
+	public String buildPrompt() {
+		return ChatServiceImpl.buildRagPrompt(context, QUERY);
+	}
+
+	/**
+	 * 컨텍스트 조립과 프롬프트 생성 전체
+	 */
+	@Benchmark
+	public String assembleAndBuildPrompt() {
+		return ChatServiceImpl.buildRagPrompt(assembler.assemble(contents), QUERY);
+	}
+
+}
@@ -0,0 +1,67 @@
+package egovframework.ragchat.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import egovframework.ragchat.util.IncrementalMarkdownRenderer;
+import egovframework.ragchat.util.MarkdownConverter;
+import egovframework.ragchat.util.SseFrame;
+
+/**
+ * SSE 이벤트 직렬화 벤치마크.
+ * 답변 한 건을 스트리밍할 때 전송되는 이벤트(HTML 조각, tail, reconcile)를 SseEmitter 이벤트로 만들고
+ * 메시지 변환기와 같이 UTF-8 바이트로 인코딩한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseEncodingBenchmark {
+
+	// 전송 버퍼 단위 청크 길이 (rag.streaming.flush.max-chars 이하)
+	private static final int CHUNK_CHARS = 32;
+
+	private List<SseFrame> frames;
+
+	@Setup
+	public void setup() throws IOException {
+		IncrementalMarkdownRenderer renderer = new MarkdownConverter().newIncrementalRenderer();
+		frames = new ArrayList<>();
+		for (String chunk : BenchmarkData.streamedChunks(BenchmarkData.sampleAnswer(), CHUNK_CHARS)) {
+			IncrementalMarkdownRenderer.Delta delta = renderer.append(chunk);
+			if (!delta.getHtml().isEmpty()) {
+				frames.add(new SseFrame(null, delta.getHtml()));
+			}
+			frames.add(new SseFrame("tail", delta.getTail()));
+		}
+		frames.add(new SseFrame("reconcile", renderer.finish()));
+	}
+
+	@Benchmark
+	public void encodeAnswerFrames(Blackhole blackhole) {
+		for (SseFrame frame : frames) {
+			for (ResponseBodyEmitter.DataWithMediaType part : frame.toEvent().build()) {
+				blackhole.consume(part.getData().toString().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+}
@@ -3,9 +3,11 @@ package egovframework.ragchat;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.filter.CharacterEncodingFilter;
 
 @SpringBootApplication
+@EnableScheduling
 public class EgovBootApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,284 @@
+package egovframework.ragchat.cache;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.embedding.Embedding;
+import egovframework.ragchat.util.SseFrame;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RAG 응답 의미 기반 캐시.
+ * 새 질의의 임베딩이 캐시된 질의와 코사인 유사도 임계값 이상이고 검색된 세그먼트 목록이 동일하면
+ * 저장된 응답을 반환한다. 항목은 세그먼트 목록별로 나누어 두므로 조회 시에는 같은 목록의 항목과만 비교하며,
+ * 조회는 잠금 없이 동작한다. 메모리 사용량 상한(최근 조회 여부를 보는 CLOCK 방식)과 TTL 기준으로
+ * 저장 시 만료되며, 문서 적재로 컬렉션이 변경되면 세대(epoch)를 올려 전체를 무효화한다.
+ */
+@Slf4j
+@Component
+public class SemanticAnswerCache {
+
+	@Value("${rag.answer-cache.enabled}")
+	private boolean enabled;
+
+	@Value("${rag.answer-cache.similarity-threshold}")
+	private double similarityThreshold;
+
+	@Value("${rag.answer-cache.max-bytes}")
+	private long maxBytes;
+
+	@Value("${rag.answer-cache.ttl-seconds}")
+	private long ttlSeconds;
+
+	// 세그먼트 목록별 항목 (조회는 잠금 없이 읽고, 변경은 this 잠금 안에서만)
+	private final Map<List<String>, List<CachedAnswer>> buckets = new ConcurrentHashMap<>();
+	// 만료/제거 순서 (저장 순서, 제거 시점에 최근 조회된 항목은 뒤로 옮김), this 잠금 안에서만 사용
+	private final LinkedHashMap<Long, CachedAnswer> entries = new LinkedHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong epoch = new AtomicLong();
+	private long totalBytes;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 현재 캐시 세대 조회.
+	 * 응답 생성 시작 시점의 세대를 기억했다가 저장 시 전달하면, 생성 도중 적재가 일어난 응답은 저장되지 않는다.
+	 *
+	 * @return 현재 세대
+	 */
+	public long currentEpoch() {
+		return epoch.get();
+	}
+
+	/**
+	 * 유사 질의에 대한 캐시된 응답 조회.
+	 *
+	 * @param queryEmbedding 질의 임베딩
+	 * @param segmentKeys 검색된 세그먼트 키 목록
+	 * @return 캐시된 응답
+	 */
+	public Optional<CachedAnswer> lookup(Embedding queryEmbedding, List<String> segmentKeys) {
+		if (!enabled) {
+			return Optional.empty();
+		}
+
+		List<CachedAnswer> bucket = buckets.get(segmentKeys);
+		if (bucket != null) {
+			float[] query = normalize(queryEmbedding.vector());
+			long now = System.currentTimeMillis();
+			long ttlMillis = ttlSeconds * 1000L;
+
+			CachedAnswer best = null;
+			double bestScore = similarityThreshold;
+			for (CachedAnswer candidate : bucket) {
+				// 만료된 항목은 건너뛰기만 하고 제거는 저장 시 처리
+				if (now - candidate.createdAt > ttlMillis) {
+					continue;
+				}
+				double score = dot(query, candidate.queryVector);
+				if (score >= bestScore) {
+					bestScore = score;
+					best = candidate;
+				}
+			}
+
+			if (best != null) {
+				hitCount.increment();
+				best.referenced = true;
+				log.debug("응답 캐시 적중 - 유사도: {}", bestScore);
+				return Optional.of(best);
+			}
+		}
+
+		missCount.increment();
+		return Optional.empty();
+	}
+
+	/**
+	 * 응답을 캐시에 저장. 만료된 항목을 정리하고 메모리 상한을 넘으면 오래 조회되지 않은 항목부터 제거한다.
+	 *
+	 * @param startEpoch 응답 생성을 시작한 시점의 세대
+	 * @param queryEmbedding 질의 임베딩
+	 * @param segmentKeys 검색된 세그먼트 키 목록
+	 * @param answer 마크다운 원문 응답
+	 * @param frames 스트리밍으로 전송된 SSE 이벤트 순서 (스트리밍이 아닌 경우 null)
+	 */
+	public void put(long startEpoch, Embedding queryEmbedding, List<String> segmentKeys, String answer,
+			List<SseFrame> frames) {
+		if (!enabled || answer == null || answer.isEmpty()) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		CachedAnswer cachedAnswer = new CachedAnswer(normalize(queryEmbedding.vector()), List.copyOf(segmentKeys),
+				answer, frames != null ? List.copyOf(frames) : null, now);
+		if (cachedAnswer.sizeBytes > maxBytes) {
+			return;
+		}
+
+		synchronized (this) {
+			// 생성 도중 컬렉션이 변경되었다면 이전 문서 기준 응답이므로 저장하지 않음
+			if (startEpoch != epoch.get()) {
+				return;
+			}
+			expire(now);
+
+			entries.put(sequence.incrementAndGet(), cachedAnswer);
+			buckets.computeIfAbsent(cachedAnswer.segmentKeys, keys -> new CopyOnWriteArrayList<>()).add(cachedAnswer);
+			totalBytes += cachedAnswer.sizeBytes;
+
+			// 최근 조회된 항목은 표시만 지우고 뒤로 옮겨 한 번 더 유지 (표시가 모두 지워지면 반드시 제거되므로 종료)
+			while (totalBytes > maxBytes && !entries.isEmpty()) {
+				Iterator<CachedAnswer> iterator = entries.values().iterator();
+				CachedAnswer oldest = iterator.next();
+				iterator.remove();
+				if (oldest.referenced && oldest != cachedAnswer) {
+					oldest.referenced = false;
+					entries.put(sequence.incrementAndGet(), oldest);
+				} else {
+					detach(oldest);
+				}
+			}
+		}
+	}
+
+	/**
+	 * TTL 이 지난 항목 제거 (this 잠금 안에서 호출)
+	 */
+	private void expire(long now) {
+		long ttlMillis = ttlSeconds * 1000L;
+		Iterator<CachedAnswer> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			CachedAnswer candidate = iterator.next();
+			if (now - candidate.createdAt > ttlMillis) {
+				iterator.remove();
+				detach(candidate);
+			}
+		}
+	}
+
+	/**
+	 * 세그먼트 목록별 항목에서 제거하고 사용량 반영 (this 잠금 안에서 호출)
+	 */
+	private void detach(CachedAnswer answer) {
+		totalBytes -= answer.sizeBytes;
+		List<CachedAnswer> bucket = buckets.get(answer.segmentKeys);
+		if (bucket != null) {
+			bucket.remove(answer);
+			if (bucket.isEmpty()) {
+				buckets.remove(answer.segmentKeys);
+			}
+		}
+	}
+
+	/**
+	 * 캐시 전체 무효화 (세대 증가).
+	 */
+	public synchronized void invalidate() {
+		epoch.incrementAndGet();
+		entries.clear();
+		buckets.clear();
+		totalBytes = 0;
+		log.info("응답 캐시 무효화 - 세대: {}", epoch.get());
+	}
+
+	/**
+	 * 캐시 통계 조회.
+	 *
+	 * @return 적중/미적중 횟수, 항목 수, 사용 메모리
+	 */
+	public synchronized Map<String, Object> getStats() {
+		long hits = hitCount.sum();
+		long misses = missCount.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("entries", entries.size());
+		stats.put("bytes", totalBytes);
+		stats.put("maxBytes", maxBytes);
+		stats.put("epoch", epoch.get());
+		stats.put("hits", hits);
+		stats.put("misses", misses);
+		stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+		return stats;
+	}
+
+	private static float[] normalize(float[] vector) {
+		double norm = 0;
+		for (float v : vector) {
+			norm += v * v;
+		}
+		norm = Math.sqrt(norm);
+		float[] normalized = new float[vector.length];
+		if (norm == 0) {
+			return normalized;
+		}
+		for (int i = 0; i < vector.length; i++) {
+			normalized[i] = (float) (vector[i] / norm);
+		}
+		return normalized;
+	}
+
+	private static double dot(float[] a, float[] b) {
+		if (a.length != b.length) {
+			return -1;
+		}
+		double sum = 0;
+		for (int i = 0; i < a.length; i++) {
+			sum += a[i] * b[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * 캐시된 응답
+	 */
+	@Getter
+	public static final class CachedAnswer {
+		private final float[] queryVector;
+		private final List<String> segmentKeys;
+		private final String answer;
+		private final List<SseFrame> frames;
+		private final long createdAt;
+		private final long sizeBytes;
+		// 마지막 제거 검사 이후 조회 여부
+		@Getter(AccessLevel.NONE)
+		private volatile boolean referenced;
+
+		private CachedAnswer(float[] queryVector, List<String> segmentKeys, String answer, List<SseFrame> frames,
+				long createdAt) {
+			this.queryVector = queryVector;
+			this.segmentKeys = segmentKeys;
+			this.answer = answer;
+			this.frames = frames;
+			this.createdAt = createdAt;
+
+			long size = 128L + queryVector.length * 4L + answer.length() * 2L;
+			for (String key : segmentKeys) {
+				size += 48L + key.length() * 2L;
+			}
+			for (SseFrame frame : frames != null ? frames : Collections.<SseFrame>emptyList()) {
+				size += frame.estimateBytes();
+			}
+			this.sizeBytes = size;
+		}
+	}
+
+}
@@ -1,6 +1,8 @@
 package egovframework.ragchat.config;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,14 +12,19 @@ import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.chat.StreamingChatLanguageModel;
 import dev.langchain4j.model.ollama.OllamaChatModel;
 import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
+import egovframework.ragchat.ollama.GenerationScheduler;
+import egovframework.ragchat.ollama.OllamaEndpoint;
+import egovframework.ragchat.ollama.OllamaEndpointPool;
+import egovframework.ragchat.ollama.PooledChatLanguageModel;
+import egovframework.ragchat.ollama.PooledStreamingChatLanguageModel;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Configuration
 public class OllamaConfig {
 
-    @Value("${ollama.base-url}")
-    private String ollamaBaseUrl;
+    @Value("${ollama.base-urls}")
+    private String[] ollamaBaseUrls;
 
     @Value("${ollama.model-name}")
     private String ollamaModelName;
@@ -25,32 +32,85 @@ public class OllamaConfig {
     @Value("${ollama.temperature}")
     private Double temperature;
 
+    @Value("${ollama.num-ctx}")
+    private Integer numCtx;
+
+    @Value("${ollama.num-predict}")
+    private Integer numPredict;
+
+    @Value("${ollama.pool.max-concurrent-per-endpoint}")
+    private Integer maxConcurrentPerEndpoint;
+
+    @Value("${ollama.pool.probe.timeout-ms}")
+    private Long probeTimeoutMillis;
+
+    @Value("${ollama.pool.probe.max-latency-ms}")
+    private Long probeMaxLatencyMillis;
+
+    @Value("${ollama.pool.probe.failure-threshold}")
+    private Integer probeFailureThreshold;
+
+    /**
+     * Ollama 서버 풀 빈 생성 (서버마다 채팅 모델과 스트리밍 채팅 모델을 하나씩 생성)
+     */
+    @Bean
+    public OllamaEndpointPool ollamaEndpointPool(GenerationScheduler generationScheduler) {
+        List<OllamaEndpoint> endpoints = new ArrayList<>();
+        for (String url : ollamaBaseUrls) {
+            String baseUrl = url.trim();
+            if (baseUrl.isEmpty()) {
+                continue;
+            }
+            log.info("Ollama 서버 등록 - URL: {}, 동시 실행 상한: {}", baseUrl, maxConcurrentPerEndpoint);
+            endpoints.add(new OllamaEndpoint(baseUrl, maxConcurrentPerEndpoint, ollamaChatModel(baseUrl),
+                    ollamaStreamingChatModel(baseUrl)));
+        }
+
+        OllamaEndpointPool pool = new OllamaEndpointPool(endpoints, probeTimeoutMillis, probeMaxLatencyMillis,
+                probeFailureThreshold);
+        // 정상 서버의 동시 실행 상한 합계를 넘지 않도록 생성 스케줄러와 연동
+        pool.setCapacityListener(generationScheduler::updateCapacity);
+        return pool;
+    }
+
     /**
      * Ollama 채팅 모델 빈 생성
      */
     @Bean
-    public ChatLanguageModel chatLanguageModel() {
-        log.info("Ollama 채팅 모델 초기화 - URL: {}, 모델: {}, 온도: {}",
-                ollamaBaseUrl, ollamaModelName, temperature);
+    public ChatLanguageModel chatLanguageModel(OllamaEndpointPool ollamaEndpointPool) {
+        log.info("Ollama 채팅 모델 초기화 - 서버: {}개, 모델: {}, 온도: {}, num_ctx: {}, num_predict: {}",
+                ollamaEndpointPool.getEndpoints().size(), ollamaModelName, temperature, numCtx, numPredict);
+        return new PooledChatLanguageModel(ollamaEndpointPool);
+    }
+
+    /**
+     * Ollama 스트리밍 채팅 모델 빈 생성
+     */
+    @Bean
+    public StreamingChatLanguageModel streamingChatLanguageModel(OllamaEndpointPool ollamaEndpointPool) {
+        log.info("Ollama 스트리밍 채팅 모델 초기화 - 서버: {}개, 모델: {}, 온도: {}, num_ctx: {}, num_predict: {}",
+                ollamaEndpointPool.getEndpoints().size(), ollamaModelName, temperature, numCtx, numPredict);
+        return new PooledStreamingChatLanguageModel(ollamaEndpointPool);
+    }
+
+    private ChatLanguageModel ollamaChatModel(String baseUrl) {
         return OllamaChatModel.builder()
-                .baseUrl(ollamaBaseUrl)
+                .baseUrl(baseUrl)
                 .modelName(ollamaModelName)
                 .temperature(temperature)
+                .numCtx(numCtx)
+                .numPredict(numPredict)
                 .timeout(Duration.ofSeconds(120))
                 .build();
     }
-    
-    /**
-     * Ollama 스트리밍 채팅 모델 빈 생성
-     */
-    @Bean
-    public StreamingChatLanguageModel streamingChatLanguageModel() {
-        log.info("Ollama 스트리밍 채팅 모델 초기화 - URL: {}, 모델: {}, 온도: {}",
-                ollamaBaseUrl, ollamaModelName, temperature);
+
+    private StreamingChatLanguageModel ollamaStreamingChatModel(String baseUrl) {
         return OllamaStreamingChatModel.builder()
-                .baseUrl(ollamaBaseUrl)
+                .baseUrl(baseUrl)
                 .modelName(ollamaModelName)
                 .temperature(temperature)
+                .numCtx(numCtx)
+                .numPredict(numPredict)
                 .timeout(Duration.ofSeconds(120))
                 .build();
     }
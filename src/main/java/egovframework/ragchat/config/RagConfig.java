@@ -1,5 +1,17 @@
 package egovframework.ragchat.config;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,14 +19,44 @@ import org.springframework.context.annotation.Configuration;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.embedding.onnx.bgesmallenv15q.BgeSmallEnV15QuantizedEmbeddingModel;
+import dev.langchain4j.model.scoring.ScoringModel;
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
 import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.qdrant.QdrantEmbeddingStore;
+import egovframework.ragchat.embedding.BatchingEmbeddingModel;
+import egovframework.ragchat.embedding.CachingEmbeddingModel;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.metrics.TimedContentRetriever;
+import egovframework.ragchat.metrics.TimedEmbeddingModel;
+import egovframework.ragchat.metrics.TimedEmbeddingStore;
+import egovframework.ragchat.retrieval.HybridContentRetriever;
+import egovframework.ragchat.retrieval.LexicalIndex;
+import egovframework.ragchat.retrieval.OnnxCrossEncoderScoringModel;
+import egovframework.ragchat.retrieval.RerankingContentRetriever;
+import egovframework.ragchat.store.LocalSegmentEmbeddingStore;
+import egovframework.ragchat.store.QdrantSegmentEmbeddingStore;
+import egovframework.ragchat.store.SegmentEmbeddingStore;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.QdrantGrpcClient;
+import io.qdrant.client.grpc.Collections.BinaryQuantization;
+import io.qdrant.client.grpc.Collections.CollectionParamsDiff;
+import io.qdrant.client.grpc.Collections.CreateCollection;
+import io.qdrant.client.grpc.Collections.Disabled;
 import io.qdrant.client.grpc.Collections.Distance;
+import io.qdrant.client.grpc.Collections.HnswConfigDiff;
+import io.qdrant.client.grpc.Collections.PayloadSchemaType;
+import io.qdrant.client.grpc.Collections.QuantizationConfig;
+import io.qdrant.client.grpc.Collections.QuantizationConfigDiff;
+import io.qdrant.client.grpc.Collections.QuantizationType;
+import io.qdrant.client.grpc.Collections.ScalarQuantization;
+import io.qdrant.client.grpc.Collections.UpdateCollection;
 import io.qdrant.client.grpc.Collections.VectorParams;
+import io.qdrant.client.grpc.Collections.VectorParamsDiff;
+import io.qdrant.client.grpc.Collections.VectorsConfig;
+import io.qdrant.client.grpc.Collections.VectorsConfigDiff;
+import io.qdrant.client.grpc.Points.QuantizationSearchParams;
+import io.qdrant.client.grpc.Points.SearchParams;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -38,6 +80,104 @@ public class RagConfig {
 	@Value("${rag.embedding.size}")
 	private Integer embeddingSize;
 
+	@Value("${rag.qdrant.hnsw.m}")
+	private Integer hnswM;
+
+	@Value("${rag.qdrant.hnsw.ef-construct}")
+	private Integer hnswEfConstruct;
+
+	@Value("${rag.qdrant.quantization.type}")
+	private String quantizationType;
+
+	@Value("${rag.qdrant.quantization.always-ram}")
+	private Boolean quantizationAlwaysRam;
+
+	@Value("${rag.qdrant.on-disk-vectors}")
+	private Boolean onDiskVectors;
+
+	@Value("${rag.qdrant.on-disk-payload}")
+	private Boolean onDiskPayload;
+
+	@Value("${rag.qdrant.payload-indexes}")
+	private List<String> payloadIndexes;
+
+	@Value("${rag.qdrant.update-existing}")
+	private Boolean updateExistingCollection;
+
+	@Value("${rag.qdrant.search.hnsw-ef}")
+	private Integer searchHnswEf;
+
+	@Value("${rag.qdrant.search.rescore}")
+	private Boolean searchRescore;
+
+	@Value("${rag.qdrant.search.oversampling}")
+	private Double searchOversampling;
+
+	@Value("${rag.retrieval.max-results}")
+	private Integer maxResults;
+
+	@Value("${rag.retrieval.min-score}")
+	private Double minScore;
+
+	@Value("${rag.retrieval.hybrid.enabled}")
+	private Boolean hybridEnabled;
+
+	@Value("${rag.retrieval.hybrid.candidates}")
+	private Integer hybridCandidates;
+
+	@Value("${rag.retrieval.hybrid.rrf-k}")
+	private Integer rrfK;
+
+	@Value("${rag.retrieval.hybrid.lexical-min-score}")
+	private Double lexicalMinScore;
+
+	@Value("${rag.retrieval.rerank.enabled}")
+	private Boolean rerankEnabled;
+
+	@Value("${rag.retrieval.rerank.model-path}")
+	private String rerankModelPath;
+
+	@Value("${rag.retrieval.rerank.tokenizer-path}")
+	private String rerankTokenizerPath;
+
+	@Value("${rag.retrieval.rerank.candidates}")
+	private Integer rerankCandidates;
+
+	@Value("${rag.retrieval.rerank.batch-size}")
+	private Integer rerankBatchSize;
+
+	@Value("${rag.retrieval.rerank.budget-ms}")
+	private Long rerankBudgetMillis;
+
+	@Value("${rag.store.type}")
+	private String storeType;
+
+	@Value("${rag.store.local.path}")
+	private String localStorePath;
+
+	@Value("${rag.embedding.cache.max-size}")
+	private Integer embeddingCacheMaxSize;
+
+	@Value("${rag.embedding.cache.ttl-seconds}")
+	private Long embeddingCacheTtlSeconds;
+
+	@Value("${rag.embedding.batch.window-ms}")
+	private Long embeddingBatchWindowMillis;
+
+	@Value("${rag.embedding.batch.max-size}")
+	private Integer embeddingBatchMaxSize;
+
+	@Value("${rag.embedding.batch.pool-size}")
+	private Integer embeddingPoolSize;
+
+	private ExecutorService inferenceExecutor;
+
+	// 캐시 빈 안에 감싸여 컨테이너가 종료하지 않으므로 직접 종료
+	private BatchingEmbeddingModel batchingEmbeddingModel;
+
+	// 교차 인코더는 지식 베이스마다 만들지 않고 모든 검색기가 공유
+	private ScoringModel scoringModel;
+
 	/**
 	 * Qdrant 클라이언트 빈 생성
 	 */
@@ -49,51 +189,311 @@ public class RagConfig {
 
 	/**
 	 * 임베딩 모델 빈 생성
+	 * 반복되는 질의의 ONNX 추론을 피하기 위해 질의 임베딩 캐시로 감싸고,
+	 * 검색과 문서 적재의 동시 요청은 짧은 대기 시간 동안 모아 embedAll 로 넘기고, 동시 추론 수는 추론 스레드 수로 제한
+	 * (배치는 배치 처리기의 단일 스레드에서 하나씩 실행되고 세그먼트별 추론만 추론 스레드에 나누어 실행)
 	 */
 	@Bean
-	public EmbeddingModel embeddingModel() {
-		log.info("BgeSmallEnV15QuantizedEmbeddingModel 초기화");
-		return new BgeSmallEnV15QuantizedEmbeddingModel();
+	public CachingEmbeddingModel embeddingModel() {
+		log.info("BgeSmallEnV15QuantizedEmbeddingModel 초기화 - 질의 임베딩 캐시 최대 {}개, TTL {}초", embeddingCacheMaxSize,
+				embeddingCacheTtlSeconds);
+		log.info("임베딩 마이크로 배치 - 대기 {}ms, 최대 배치 {}개, 추론 스레드 {}개", embeddingBatchWindowMillis,
+				embeddingBatchMaxSize, embeddingPoolSize);
+
+		// ONNX 세션은 모델 클래스에서 공유되므로 세그먼트별 추론 스레드 수를 설정값으로 제한
+		AtomicInteger threadNumber = new AtomicInteger();
+		inferenceExecutor = Executors.newFixedThreadPool(embeddingPoolSize, runnable -> {
+			Thread thread = new Thread(runnable, "embedding-inference-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		batchingEmbeddingModel = new BatchingEmbeddingModel(
+				new BgeSmallEnV15QuantizedEmbeddingModel(inferenceExecutor),
+				Duration.ofMillis(embeddingBatchWindowMillis), embeddingBatchMaxSize);
+		return new CachingEmbeddingModel(batchingEmbeddingModel, embeddingCacheMaxSize,
+				Duration.ofSeconds(embeddingCacheTtlSeconds));
 	}
 
 	/**
-	 * 임베딩 저장소 빈 생성
+	 * 임베딩 저장소 빈 생성 (기본 지식 베이스의 컬렉션)
+	 * 증분 적재를 위해 결정적 ID 기반 upsert/삭제를 지원하는 저장소로 제공
+	 * rag.store.type 이 local 이면 Qdrant 대신 프로세스 내 로컬 저장소 사용
 	 */
 	@Bean
-	public EmbeddingStore<TextSegment> embeddingStore() {
-		log.info("Qdrant 임베딩 저장소 초기화 - 컬렉션: {}", collectionName);
-		return QdrantEmbeddingStore.builder().collectionName(collectionName).host(qdrantHost).port(qdrantPort)
-				.useTls(useTls).build();
+	public SegmentEmbeddingStore embeddingStore(QdrantClient qdrantClient) {
+		return createEmbeddingStore(qdrantClient, collectionName);
 	}
 
 	/**
-	 * 컨텐츠 검색기 빈 생성
+	 * 컨텐츠 검색기 빈 생성 (기본 지식 베이스의 검색기)
 	 */
 	@Bean
 	public ContentRetriever contentRetriever(EmbeddingStore<TextSegment> embeddingStore,
-			EmbeddingModel embeddingModel) {
-		log.info("컨텐츠 검색기 초기화");
-		return EmbeddingStoreContentRetriever.builder().embeddingStore(embeddingStore).embeddingModel(embeddingModel)
-				.maxResults(3).minScore(0.6).build();
+			EmbeddingModel embeddingModel, LexicalIndex lexicalIndex, RagMetrics ragMetrics) {
+		return createContentRetriever(embeddingStore, embeddingModel, lexicalIndex, maxResults, minScore,
+				lexicalMinScore, ragMetrics);
+	}
+
+	/**
+	 * 컬렉션의 임베딩 저장소 생성
+	 *
+	 * @param qdrantClient Qdrant 클라이언트
+	 * @param collection 컬렉션 이름
+	 * @return 임베딩 저장소
+	 */
+	public SegmentEmbeddingStore createEmbeddingStore(QdrantClient qdrantClient, String collection) {
+		if (isLocalStore()) {
+			Path directory = Paths.get(localStorePath, collection);
+			log.info("로컬 임베딩 저장소 초기화 - 경로: {}", directory.toAbsolutePath());
+			return new LocalSegmentEmbeddingStore(directory, embeddingSize);
+		}
+
+		log.info("Qdrant 임베딩 저장소 초기화 - 컬렉션: {}", collection);
+		QdrantEmbeddingStore qdrantEmbeddingStore = QdrantEmbeddingStore.builder().collectionName(collection)
+				.host(qdrantHost).port(qdrantPort).useTls(useTls).build();
+		return new QdrantSegmentEmbeddingStore(qdrantEmbeddingStore, qdrantClient, collection, searchParams());
+	}
+
+	/**
+	 * 저장소 하나를 검색하는 컨텐츠 검색기 생성
+	 * 하이브리드 검색 사용 시 벡터 검색 후보와 BM25 검색 후보를 RRF 로 합쳐 상위 결과 반환
+	 * 재정렬 사용 시 1차 검색에서 후보를 넓게 가져온 뒤 교차 인코더 점수로 상위 결과 선택
+	 *
+	 * @param embeddingStore 검색할 저장소
+	 * @param embeddingModel 질의 임베딩 모델
+	 * @param lexicalIndex 저장소와 같은 문서로 만든 BM25 색인
+	 * @param maxResults 최종 결과 수
+	 * @param minScore 벡터 검색 최소 점수
+	 * @param lexicalMinScore BM25 검색 최소 정규화 점수 (하이브리드 검색 사용 시)
+	 * @param ragMetrics 성능 지표
+	 * @return 컨텐츠 검색기
+	 */
+	public ContentRetriever createContentRetriever(EmbeddingStore<TextSegment> embeddingStore,
+			EmbeddingModel embeddingModel, LexicalIndex lexicalIndex, int maxResults, double minScore,
+			double lexicalMinScore, RagMetrics ragMetrics) {
+		int firstStageResults = rerankEnabled ? rerankCandidates : maxResults;
+
+		// 질의 임베딩, 벡터 검색, 전체 검색 시간을 각각 기록
+		EmbeddingModel queryEmbeddingModel = new TimedEmbeddingModel(embeddingModel, ragMetrics);
+		EmbeddingStore<TextSegment> searchStore = new TimedEmbeddingStore(embeddingStore, ragMetrics);
+
+		ContentRetriever retriever;
+		if (!hybridEnabled) {
+			log.info("컨텐츠 검색기 초기화 - 최대 {}개, 최소 점수 {}", firstStageResults, minScore);
+			retriever = EmbeddingStoreContentRetriever.builder().embeddingStore(searchStore)
+					.embeddingModel(queryEmbeddingModel).maxResults(firstStageResults).minScore(minScore).build();
+		} else {
+			log.info("하이브리드 컨텐츠 검색기 초기화 - 후보 {}개, 최대 {}개, 최소 점수(벡터/BM25) {}/{}, RRF k={}",
+					hybridCandidates, firstStageResults, minScore, lexicalMinScore, rrfK);
+			ContentRetriever vectorRetriever = EmbeddingStoreContentRetriever.builder().embeddingStore(searchStore)
+					.embeddingModel(queryEmbeddingModel).maxResults(Math.max(hybridCandidates, firstStageResults))
+					.minScore(minScore).build();
+			retriever = new HybridContentRetriever(vectorRetriever, lexicalIndex,
+					Math.max(hybridCandidates, firstStageResults), lexicalMinScore, firstStageResults, rrfK);
+		}
+
+		if (!rerankEnabled) {
+			return new TimedContentRetriever(retriever, ragMetrics);
+		}
+		log.info("교차 인코더 재정렬 초기화 - 모델: {}, 후보 {}개 -> {}개, 배치 {}개, 시간 예산 {}ms", rerankModelPath,
+				rerankCandidates, maxResults, rerankBatchSize, rerankBudgetMillis);
+		return new TimedContentRetriever(new RerankingContentRetriever(retriever, scoringModel(), maxResults,
+				rerankBatchSize, Duration.ofMillis(rerankBudgetMillis)), ragMetrics);
+	}
+
+	@PreDestroy
+	public void shutdownInferenceExecutor() {
+		// 대기 중인 임베딩 요청을 실패 처리한 뒤 추론 스레드 종료
+		if (batchingEmbeddingModel != null) {
+			batchingEmbeddingModel.close();
+		}
+		if (inferenceExecutor != null) {
+			inferenceExecutor.shutdown();
+		}
+	}
+
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	public Integer getMaxResults() {
+		return maxResults;
+	}
+
+	public Double getMinScore() {
+		return minScore;
+	}
+
+	public Double getLexicalMinScore() {
+		return lexicalMinScore;
+	}
+
+	public Integer getRrfK() {
+		return rrfK;
+	}
+
+	/**
+	 * 로컬 저장소 사용 여부
+	 */
+	public boolean isLocalStore() {
+		return "local".equalsIgnoreCase(storeType);
 	}
 
 	/**
 	 * 컬렉션 생성 처리
+	 * HNSW, 양자화, 디스크 저장 설정을 적용하고 source/type 키워드 페이로드 인덱스 생성
+	 * 이미 존재하는 컬렉션은 rag.qdrant.update-existing 이 true 인 경우 변경된 설정을 반영
 	 */
 	public void createCollection(QdrantClient client) {
-		log.info("Qdrant 컬렉션 생성 시도: {}", collectionName);
+		createCollection(client, collectionName);
+	}
+
+	/**
+	 * 지정한 컬렉션 생성 처리 (설정은 {@link #createCollection(QdrantClient)} 와 같음)
+	 */
+	public void createCollection(QdrantClient client, String collectionName) {
+		if (isLocalStore()) {
+			// 로컬 저장소는 처음 사용할 때 파일을 생성하므로 별도 컬렉션이 없음
+			return;
+		}
+		log.info("Qdrant 컬렉션 생성 시도: {} - HNSW m={}, ef_construct={}, 양자화: {}, 디스크 저장(벡터/페이로드): {}/{}",
+				collectionName, hnswM, hnswEfConstruct, quantizationType, onDiskVectors, onDiskPayload);
 		try {
-			client.createCollectionAsync(collectionName,
-					VectorParams.newBuilder().setDistance(Distance.Dot).setSize(embeddingSize).build()).get();
+			CreateCollection.Builder request = CreateCollection.newBuilder()
+					.setCollectionName(collectionName)
+					.setVectorsConfig(VectorsConfig.newBuilder()
+							.setParams(VectorParams.newBuilder()
+									.setDistance(Distance.Dot)
+									.setSize(embeddingSize)
+									.setOnDisk(onDiskVectors)))
+					.setHnswConfig(hnswConfig())
+					.setOnDiskPayload(onDiskPayload);
+			QuantizationConfig quantizationConfig = quantizationConfig();
+			if (quantizationConfig != null) {
+				request.setQuantizationConfig(quantizationConfig);
+			}
+			client.createCollectionAsync(request.build()).get();
 			log.info("컬렉션 생성 완료: {}", collectionName);
 		} catch (Exception e) {
 			if (e.getMessage() != null && e.getMessage().contains("already exists")) {
 				log.info("컬렉션이 이미 존재합니다: {}", collectionName);
+				if (updateExistingCollection) {
+					updateCollection(client, collectionName);
+				}
 			} else {
 				log.error("컬렉션 생성 중 오류 발생", e);
 				throw new RuntimeException("컬렉션 생성 실패: " + e.getMessage(), e);
 			}
 		}
+
+		createPayloadIndexes(client, collectionName);
+	}
+
+	/**
+	 * 기존 컬렉션에 현재 HNSW, 양자화, 디스크 저장 설정 반영
+	 * (Qdrant 가 백그라운드에서 인덱스와 세그먼트를 다시 구성함)
+	 */
+	public void updateCollection(QdrantClient client) {
+		updateCollection(client, collectionName);
+	}
+
+	/**
+	 * 지정한 기존 컬렉션에 현재 설정 반영
+	 */
+	public void updateCollection(QdrantClient client, String collectionName) {
+		log.info("Qdrant 컬렉션 설정 변경: {}", collectionName);
+		QuantizationConfig quantizationConfig = quantizationConfig();
+		QuantizationConfigDiff.Builder quantizationDiff = QuantizationConfigDiff.newBuilder();
+		if (quantizationConfig == null) {
+			quantizationDiff.setDisabled(Disabled.getDefaultInstance());
+		} else if (quantizationConfig.hasBinary()) {
+			quantizationDiff.setBinary(quantizationConfig.getBinary());
+		} else {
+			quantizationDiff.setScalar(quantizationConfig.getScalar());
+		}
+
+		try {
+			client.updateCollectionAsync(UpdateCollection.newBuilder()
+					.setCollectionName(collectionName)
+					.setHnswConfig(hnswConfig())
+					.setQuantizationConfig(quantizationDiff)
+					.setVectorsConfig(VectorsConfigDiff.newBuilder()
+							.setParams(VectorParamsDiff.newBuilder().setOnDisk(onDiskVectors)))
+					.setParams(CollectionParamsDiff.newBuilder().setOnDiskPayload(onDiskPayload))
+					.build()).get();
+			log.info("컬렉션 설정 변경 완료: {}", collectionName);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("컬렉션 설정 변경 중단: " + collectionName, e);
+		} catch (ExecutionException e) {
+			log.error("컬렉션 설정 변경 중 오류 발생", e);
+			throw new RuntimeException("컬렉션 설정 변경 실패: " + e.getMessage(), e);
+		}
+	}
+
+	private void createPayloadIndexes(QdrantClient client, String collectionName) {
+		for (String field : payloadIndexes) {
+			if (field.isBlank()) {
+				continue;
+			}
+			try {
+				client.createPayloadIndexAsync(collectionName, field.trim(), PayloadSchemaType.Keyword, null, true,
+						null, null).get();
+				log.info("페이로드 인덱스 생성: {} - 컬렉션: {}", field.trim(), collectionName);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("페이로드 인덱스 생성 중단: " + field, e);
+			} catch (ExecutionException e) {
+				// 인덱스가 없어도 검색과 필터 삭제는 동작하므로 경고만 기록
+				log.warn("페이로드 인덱스 생성 실패: {} - {}", field, e.getMessage());
+			}
+		}
+	}
+
+	private synchronized ScoringModel scoringModel() {
+		if (scoringModel == null) {
+			scoringModel = new OnnxCrossEncoderScoringModel(rerankModelPath, rerankTokenizerPath);
+		}
+		return scoringModel;
+	}
+
+	private HnswConfigDiff hnswConfig() {
+		return HnswConfigDiff.newBuilder().setM(hnswM).setEfConstruct(hnswEfConstruct).build();
+	}
+
+	private QuantizationConfig quantizationConfig() {
+		switch (quantizationType.trim().toLowerCase(Locale.ROOT)) {
+		case "scalar":
+			return QuantizationConfig.newBuilder()
+					.setScalar(ScalarQuantization.newBuilder()
+							.setType(QuantizationType.Int8)
+							.setAlwaysRam(quantizationAlwaysRam))
+					.build();
+		case "binary":
+			return QuantizationConfig.newBuilder()
+					.setBinary(BinaryQuantization.newBuilder().setAlwaysRam(quantizationAlwaysRam))
+					.build();
+		case "none":
+			return null;
+		default:
+			throw new IllegalArgumentException("지원하지 않는 양자화 방식입니다: " + quantizationType);
+		}
+	}
+
+	/**
+	 * 검색 시 적용할 HNSW ef 와 양자화 재채점 설정
+	 */
+	private SearchParams searchParams() {
+		SearchParams.Builder params = SearchParams.newBuilder();
+		if (searchHnswEf > 0) {
+			params.setHnswEf(searchHnswEf);
+		}
+		if (quantizationConfig() != null) {
+			params.setQuantization(QuantizationSearchParams.newBuilder()
+					.setRescore(searchRescore)
+					.setOversampling(searchOversampling));
+		}
+		return params.build();
 	}
 
 }
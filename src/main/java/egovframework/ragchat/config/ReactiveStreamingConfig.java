@@ -0,0 +1,67 @@
+package egovframework.ragchat.config;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 리액티브 스트리밍(/api/chat/reactive) 실행 설정.
+ * 블로킹 검색은 고정 크기 검색 스케줄러에서 실행하고, Flux 를 응답으로 쓰는 작업은 고정 크기 MVC 비동기 실행기에서 처리하여
+ * 열린 스트림 수와 관계없이 스레드 수가 일정하게 유지된다.
+ */
+@Slf4j
+@Configuration
+public class ReactiveStreamingConfig implements WebMvcConfigurer {
+
+	@Value("${rag.reactive.retrieval-threads}")
+	private Integer retrievalThreads;
+
+	@Value("${rag.reactive.writer-threads}")
+	private Integer writerThreads;
+
+	@Value("${rag.reactive.timeout-ms}")
+	private Long timeoutMillis;
+
+	private final ThreadPoolTaskExecutor streamWriterExecutor = new ThreadPoolTaskExecutor();
+
+	/**
+	 * 검색(질의 임베딩, 벡터 검색) 스케줄러 빈 생성
+	 */
+	@Bean(destroyMethod = "dispose")
+	public Scheduler retrievalScheduler() {
+		log.info("리액티브 검색 스케줄러 초기화 - 스레드 {}개", retrievalThreads);
+		return Schedulers.newBoundedElastic(retrievalThreads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+				"rag-retrieval", 60, true);
+	}
+
+	/**
+	 * Flux 응답 전송 실행기 설정.
+	 * 빈으로 등록하면 Spring Boot 기본 실행기(applicationTaskExecutor)가 생성되지 않으므로 설정 내부에서만 사용한다.
+	 */
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		streamWriterExecutor.setCorePoolSize(writerThreads);
+		streamWriterExecutor.setMaxPoolSize(writerThreads);
+		streamWriterExecutor.setThreadNamePrefix("sse-writer-");
+		streamWriterExecutor.setDaemon(true);
+		streamWriterExecutor.initialize();
+		configurer.setTaskExecutor(streamWriterExecutor);
+		// SseEmitter 는 생성 시 지정한 시간, Flux 응답은 이 시간을 사용
+		configurer.setDefaultTimeout(timeoutMillis);
+	}
+
+	@PreDestroy
+	public void shutdownStreamWriterExecutor() {
+		streamWriterExecutor.shutdown();
+	}
+
+}
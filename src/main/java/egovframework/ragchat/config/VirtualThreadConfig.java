@@ -0,0 +1,56 @@
+package egovframework.ragchat.config;
+
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import egovframework.ragchat.util.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 가상 스레드 실행 설정 (JDK 21 이상, rag.virtual-threads.enabled=true 인 경우).
+ * 내장 Tomcat 의 요청 처리 스레드 풀을 요청마다 가상 스레드를 만드는 실행기로 바꾸어,
+ * 블로킹 채팅(/api/chat, /api/chat/simple)이 모델 응답이나 Qdrant 검색을 기다리는 동안 플랫폼 스레드를 점유하지 않게 한다.
+ * 스레드 수가 더 이상 동시 요청 수를 제한하지 않으므로 모델 동시 실행 수는 GenerationScheduler 가 따로 제한한다.
+ * 지원하지 않는 런타임에서는 경고 후 기존 스레드 풀을 사용한다.
+ */
+@Slf4j
+@Configuration
+public class VirtualThreadConfig {
+
+	@Value("${rag.virtual-threads.enabled}")
+	private Boolean enabled;
+
+	private ExecutorService requestExecutor;
+
+	@Bean
+	public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer() {
+		return factory -> {
+			if (!enabled) {
+				return;
+			}
+			if (!VirtualThreads.isSupported()) {
+				log.warn("가상 스레드를 지원하지 않는 런타임입니다 (JDK {}). 플랫폼 스레드 풀로 요청을 처리합니다.",
+						System.getProperty("java.version"));
+				return;
+			}
+			log.info("가상 스레드로 요청 처리 - 모델 동시 실행 수는 ollama.generation.max-concurrent 로 제한");
+			requestExecutor = VirtualThreads.newExecutor("tomcat-handler-");
+			factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler.setExecutor(requestExecutor));
+		};
+	}
+
+	@PreDestroy
+	public void shutdownRequestExecutor() {
+		if (requestExecutor != null) {
+			requestExecutor.shutdown();
+		}
+	}
+
+}
@@ -3,22 +3,43 @@ package egovframework.ragchat.controller;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import egovframework.ragchat.cache.SemanticAnswerCache;
 import egovframework.ragchat.dto.ChatRequest;
 import egovframework.ragchat.dto.ChatResponse;
+import egovframework.ragchat.embedding.CachingEmbeddingModel;
+import egovframework.ragchat.knowledge.KnowledgeBaseRegistry;
+import egovframework.ragchat.knowledge.UnknownKnowledgeBaseException;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.ollama.AdmissionRejectedException;
+import egovframework.ragchat.ollama.GenerationScheduler;
+import egovframework.ragchat.ollama.OllamaEndpointPool;
 import egovframework.ragchat.service.ChatService;
-import egovframework.ragchat.service.DataIngestionService;
+import egovframework.ragchat.service.ReactiveChatService;
+import egovframework.ragchat.session.ConversationSessions;
+import egovframework.ragchat.stream.FlushPolicy;
+import egovframework.ragchat.stream.InFlightGenerations;
 import egovframework.ragchat.util.MarkdownConverter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
 /**
  * 채팅 API를 제공하는 컨트롤러
@@ -30,18 +51,30 @@ import lombok.extern.slf4j.Slf4j;
 public class ChatController {
 
     private final ChatService chatService;
-    private final DataIngestionService dataIngestionService;
+    private final ReactiveChatService reactiveChatService;
     private final MarkdownConverter markdownConverter;
+    private final CachingEmbeddingModel embeddingModel;
+    private final SemanticAnswerCache answerCache;
+    private final GenerationScheduler generationScheduler;
+    private final InFlightGenerations inFlightGenerations;
+    private final FlushPolicy flushPolicy;
+    private final RagMetrics ragMetrics;
+    private final ConversationSessions conversationSessions;
+    private final OllamaEndpointPool ollamaEndpointPool;
+    private final KnowledgeBaseRegistry knowledgeBaseRegistry;
 
     /**
      * 사용자 질의에 대한 RAG 기반 응답을 제공하는 엔드포인트.
      * 
      * @param chatRequest 사용자 질의가 포함된 요청 객체
+     * @param request HTTP 요청 (공정 대기열용 클라이언트 식별)
      * @return AI 모델의 응답
      */
     @PostMapping
-    public ResponseEntity<?> chat(@RequestBody ChatRequest chatRequest) {
+    public ResponseEntity<?> chat(@RequestBody ChatRequest chatRequest, HttpServletRequest request) {
         String query = chatRequest.getQuery();
+        chatRequest.setClientId(resolveClientId(request));
+        chatRequest.setSessionId(resolveSessionId(chatRequest, request));
         log.info("사용자 질의 수신: {}", query);
 
         if (query == null || query.trim().isEmpty()) {
@@ -50,10 +83,13 @@ public class ChatController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
 
-        String response = chatService.generateRagResponse(chatRequest);
+        String htmlResponse;
+        try (RagMetrics.Scope scope = ragMetrics.endpoint(RagMetrics.CHAT)) {
+            String response = chatService.generateRagResponse(chatRequest);
 
-        // 마크다운을 HTML로 변환
-        String htmlResponse = markdownConverter.convertToHtml(response);
+            // 마크다운을 HTML로 변환
+            htmlResponse = ragMetrics.timeRender(RagMetrics.CHAT, () -> markdownConverter.convertToHtml(response));
+        }
 
         ChatResponse chatResponse = new ChatResponse(htmlResponse);
         return ResponseEntity.ok(chatResponse);
@@ -63,11 +99,14 @@ public class ChatController {
      * RAG 없이 일반 채팅 응답을 제공하는 엔드포인트
      * 
      * @param chatRequest 사용자 질의가 포함된 요청 객체
+     * @param request HTTP 요청 (공정 대기열용 클라이언트 식별)
      * @return AI 모델의 응답
      */
     @PostMapping("/simple")
-    public ResponseEntity<?> simpleChat(@RequestBody ChatRequest chatRequest) {
+    public ResponseEntity<?> simpleChat(@RequestBody ChatRequest chatRequest, HttpServletRequest request) {
         String query = chatRequest.getQuery();
+        chatRequest.setClientId(resolveClientId(request));
+        chatRequest.setSessionId(resolveSessionId(chatRequest, request));
         log.info("일반 채팅 질의 수신: {}", query);
 
         if (query == null || query.trim().isEmpty()) {
@@ -76,44 +115,18 @@ public class ChatController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
 
-        String response = chatService.generateSimpleResponse(chatRequest);
+        String htmlResponse;
+        try (RagMetrics.Scope scope = ragMetrics.endpoint(RagMetrics.SIMPLE)) {
+            String response = chatService.generateSimpleResponse(chatRequest);
 
-        // 마크다운을 HTML로 변환
-        String htmlResponse = markdownConverter.convertToHtml(response);
+            // 마크다운을 HTML로 변환
+            htmlResponse = ragMetrics.timeRender(RagMetrics.SIMPLE, () -> markdownConverter.convertToHtml(response));
+        }
 
         ChatResponse chatResponse = new ChatResponse(htmlResponse);
         return ResponseEntity.ok(chatResponse);
     }
 
-    /**
-     * 데이터 임베딩 커렉션을 생성하고 문서를 임베딩하는 엔드포인트
-     * 
-     * @return 처리 결과
-     */
-    @PostMapping("/setup")
-    public ResponseEntity<Map<String, Object>> setupCollection() {
-        log.info("컬렉션 생성 및 문서 임베딩 시작");
-
-        try {
-            int processedCount = dataIngestionService.setupRagChatbot();
-
-            Map<String, Object> result = new HashMap<>();
-            result.put("success", true);
-            result.put("message", "컬렉션 생성 및 문서 임베딩 완료");
-            result.put("processedDocuments", processedCount);
-
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            log.error("컬렉션 생성 중 오류 발생", e);
-
-            Map<String, Object> error = new HashMap<>();
-            error.put("success", false);
-            error.put("message", "컬렉션 생성 중 오류 발생: " + e.getMessage());
-
-            return ResponseEntity.internalServerError().body(error);
-        }
-    }
-
     /**
      * 서버 상태를 확인하는 엔드포인트
      * 
@@ -128,16 +141,57 @@ public class ChatController {
         return ResponseEntity.ok(status);
     }
 
+    /**
+     * 요청자의 대화 세션을 삭제하는 엔드포인트 (새 대화 시작).
+     * 서버가 발급한 HTTP 세션의 대화만 삭제하며, 다음 대화 요청에는 새 세션을 발급한다.
+     * 
+     * @param request HTTP 요청
+     * @return 삭제 결과
+     */
+    @DeleteMapping("/session")
+    public ResponseEntity<Void> deleteSession(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return ResponseEntity.notFound().build();
+        }
+        conversationSessions.remove(session.getId());
+        session.invalidate();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * 캐시 통계를 확인하는 엔드포인트
+     * 
+     * @return 캐시 적중/미적중 통계
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("embeddingCache", embeddingModel.getStats());
+        stats.put("answerCache", answerCache.getStats());
+        stats.put("generation", generationScheduler.getStats());
+        stats.put("coalescing", inFlightGenerations.getStats());
+        stats.put("flush", flushPolicy.getStats());
+        stats.put("sessions", conversationSessions.getStats());
+        stats.put("ollama", ollamaEndpointPool.getStats());
+        stats.put("knowledgeBases", knowledgeBaseRegistry.getStats());
+
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * 스트리밍 방식으로 RAG 기반 응답을 제공하는 엔드포인트.
      * Server-Sent Events(SSE)를 사용하여 실시간으로 응답을 스트리밍합니다.
      * 
      * @param chatRequest 사용자 질의가 포함된 요청 객체
+     * @param request HTTP 요청 (공정 대기열용 클라이언트 식별)
      * @return SSE 이미터
      */
     @PostMapping(path = "/streaming", produces = MediaType.TEXT_EVENT_STREAM_VALUE + ";charset=UTF-8")
-    public SseEmitter streamingChat(@RequestBody ChatRequest chatRequest) {
+    public SseEmitter streamingChat(@RequestBody ChatRequest chatRequest, HttpServletRequest request) {
         String query = chatRequest.getQuery();
+        chatRequest.setClientId(resolveClientId(request));
+        chatRequest.setSessionId(resolveSessionId(chatRequest, request));
         log.info("스트리밍 RAG 질의 수신: {}", query);
 
         if (query == null || query.trim().isEmpty()) {
@@ -151,10 +205,10 @@ public class ChatController {
             return emitter;
         }
 
-        // UTF-8 인코딩을 위한 SseEmitter 설정 추가
-        SseEmitter emitter = chatService.generateStreamingRagResponse(chatRequest);
-        emitter.onCompletion(() -> log.info("스트리밍 RAG 응답 완료"));
-        return emitter;
+        // 완료 콜백은 서비스에서 등록 (SseEmitter 는 콜백을 하나만 보관하므로 여기서 덮어쓰지 않음)
+        try (RagMetrics.Scope scope = ragMetrics.endpoint(RagMetrics.STREAMING)) {
+            return chatService.generateStreamingRagResponse(chatRequest);
+        }
     }
 
     /**
@@ -162,11 +216,14 @@ public class ChatController {
      * Server-Sent Events(SSE)를 사용하여 실시간으로 응답을 스트리밍합니다.
      * 
      * @param chatRequest 사용자 질의가 포함된 요청 객체
+     * @param request HTTP 요청 (공정 대기열용 클라이언트 식별)
      * @return SSE 이미터
      */
     @PostMapping(path = "/streaming/simple", produces = MediaType.TEXT_EVENT_STREAM_VALUE + ";charset=UTF-8")
-    public SseEmitter streamingSimpleChat(@RequestBody ChatRequest chatRequest) {
+    public SseEmitter streamingSimpleChat(@RequestBody ChatRequest chatRequest, HttpServletRequest request) {
         String query = chatRequest.getQuery();
+        chatRequest.setClientId(resolveClientId(request));
+        chatRequest.setSessionId(resolveSessionId(chatRequest, request));
         log.info("스트리밍 일반 채팅 질의 수신: {}", query);
 
         if (query == null || query.trim().isEmpty()) {
@@ -180,10 +237,128 @@ public class ChatController {
             return emitter;
         }
 
-        // UTF-8 인코딩을 위한 SseEmitter 설정 추가
-        SseEmitter emitter = chatService.generateStreamingSimpleResponse(chatRequest);
-        emitter.onCompletion(() -> log.info("스트리밍 일반 채팅 응답 완료"));
-        return emitter;
+        // 완료 콜백은 서비스에서 등록 (SseEmitter 는 콜백을 하나만 보관하므로 여기서 덮어쓰지 않음)
+        try (RagMetrics.Scope scope = ragMetrics.endpoint(RagMetrics.STREAMING_SIMPLE)) {
+            return chatService.generateStreamingSimpleResponse(chatRequest);
+        }
+    }
+
+    /**
+     * 리액티브 스트림으로 RAG 기반 응답을 제공하는 엔드포인트.
+     * 검색부터 토큰 생성까지 하나의 Flux 로 처리하며, 연결이 끊기면 구독 취소로 생성이 중단됩니다.
+     * 
+     * @param chatRequest 사용자 질의가 포함된 요청 객체
+     * @param request HTTP 요청 (공정 대기열용 클라이언트 식별)
+     * @return SSE 이벤트 스트림
+     */
+    @PostMapping(path = "/reactive", produces = MediaType.TEXT_EVENT_STREAM_VALUE + ";charset=UTF-8")
+    public Flux<ServerSentEvent<String>> reactiveChat(@RequestBody ChatRequest chatRequest, HttpServletRequest request) {
+        String query = chatRequest.getQuery();
+        chatRequest.setClientId(resolveClientId(request));
+        chatRequest.setSessionId(resolveSessionId(chatRequest, request));
+        log.info("리액티브 RAG 질의 수신: {}", query);
+
+        if (query == null || query.trim().isEmpty()) {
+            return Flux.just(ServerSentEvent.builder("질의가 비어있습니다").build());
+        }
+
+        try (RagMetrics.Scope scope = ragMetrics.endpoint(RagMetrics.REACTIVE)) {
+            return reactiveChatService.streamRagResponse(chatRequest);
+        }
+    }
+
+    /**
+     * 리액티브 스트림으로 일반 채팅 응답을 제공하는 엔드포인트.
+     * 
+     * @param chatRequest 사용자 질의가 포함된 요청 객체
+     * @param request HTTP 요청 (공정 대기열용 클라이언트 식별)
+     * @return SSE 이벤트 스트림
+     */
+    @PostMapping(path = "/reactive/simple", produces = MediaType.TEXT_EVENT_STREAM_VALUE + ";charset=UTF-8")
+    public Flux<ServerSentEvent<String>> reactiveSimpleChat(@RequestBody ChatRequest chatRequest,
+            HttpServletRequest request) {
+        String query = chatRequest.getQuery();
+        chatRequest.setClientId(resolveClientId(request));
+        chatRequest.setSessionId(resolveSessionId(chatRequest, request));
+        log.info("리액티브 일반 채팅 질의 수신: {}", query);
+
+        if (query == null || query.trim().isEmpty()) {
+            return Flux.just(ServerSentEvent.builder("질의가 비어있습니다").build());
+        }
+
+        try (RagMetrics.Scope scope = ragMetrics.endpoint(RagMetrics.REACTIVE_SIMPLE)) {
+            return reactiveChatService.streamSimpleResponse(chatRequest);
+        }
+    }
+
+    /**
+     * 생성 대기열이 가득 찬 경우 429 응답과 Retry-After 헤더 반환
+     * 
+     * @param e 수락 거절 예외
+     * @param request HTTP 요청
+     * @return 429 응답
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionRejected(AdmissionRejectedException e,
+            HttpServletRequest request) {
+        // 스트리밍 엔드포인트의 produces(text/event-stream) 제약 없이 JSON 으로 응답
+        request.removeAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        errorResponse.put("retryAfterSeconds", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    /**
+     * 요청에서 지정한 지식 베이스가 설정에 없는 경우 400 응답 반환
+     * 
+     * @param e 지식 베이스 조회 예외
+     * @param request HTTP 요청
+     * @return 400 응답
+     */
+    @ExceptionHandler(UnknownKnowledgeBaseException.class)
+    public ResponseEntity<Map<String, Object>> handleUnknownKnowledgeBase(UnknownKnowledgeBaseException e,
+            HttpServletRequest request) {
+        // 스트리밍 엔드포인트의 produces(text/event-stream) 제약 없이 JSON 으로 응답
+        request.removeAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        errorResponse.put("knowledgeBase", e.getKnowledgeBase());
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    /**
+     * 클라이언트 식별자 결정 (생성 대기열의 클라이언트별 제한 기준).
+     * 요청 헤더는 클라이언트가 임의로 바꿀 수 있으므로 원격 주소만 사용하며,
+     * 프록시 경유 시에는 server.tomcat.remoteip.internal-proxies 에 등록한 프록시가 보낸 X-Forwarded-For 만 원격 주소에 반영된다.
+     * 
+     * @param request HTTP 요청
+     * @return 클라이언트 식별자
+     */
+    private static String resolveClientId(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * 대화 세션 식별자 결정.
+     * 클라이언트가 정한 값은 받지 않고, 대화를 이어 가는 요청이면 서버가 발급한 HTTP 세션(쿠키)의 식별자를 사용한다.
+     * 
+     * @param chatRequest 요청 객체
+     * @param request HTTP 요청
+     * @return 세션 식별자 (대화 요청이 아니거나 세션 기능을 사용하지 않으면 null)
+     */
+    private String resolveSessionId(ChatRequest chatRequest, HttpServletRequest request) {
+        if (!chatRequest.isConversation() || !conversationSessions.isEnabled()) {
+            return null;
+        }
+        return request.getSession(true).getId();
     }
 
 }
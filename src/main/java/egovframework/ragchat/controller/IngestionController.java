@@ -0,0 +1,115 @@
+package egovframework.ragchat.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import egovframework.ragchat.dto.IngestionJobStatus;
+import egovframework.ragchat.knowledge.UnknownKnowledgeBaseException;
+import egovframework.ragchat.service.IngestionJobConflictException;
+import egovframework.ragchat.service.IngestionJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 문서 적재 작업 API를 제공하는 컨트롤러.
+ * 적재는 백그라운드 작업으로 실행되며, 작업 ID로 상태 조회, 진행 상황 구독(SSE), 취소를 할 수 있습니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/chat/setup")
+@RequiredArgsConstructor
+public class IngestionController {
+
+    private final IngestionJobService ingestionJobService;
+
+    /**
+     * 컬렉션 생성 및 문서 임베딩 작업을 시작하는 엔드포인트
+     * 
+     * @param knowledgeBase 적재할 지식 베이스 이름 (없으면 기본 지식 베이스)
+     * @return 시작된 작업 ID (이미 실행 중인 작업이 있으면 409, 알 수 없는 지식 베이스면 400)
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startSetup(
+            @RequestParam(required = false) String knowledgeBase) {
+        log.info("컬렉션 생성 및 문서 임베딩 작업 요청 - 지식 베이스: {}", knowledgeBase);
+
+        try {
+            IngestionJobStatus status = ingestionJobService.startJob(knowledgeBase);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("message", "문서 적재 작업을 시작했습니다");
+            result.put("jobId", status.getJobId());
+            result.put("status", status);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+        } catch (IngestionJobConflictException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            error.put("jobId", e.getRunningJobId());
+
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        } catch (UnknownKnowledgeBaseException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * 작업 상태를 조회하는 엔드포인트
+     * 
+     * @param jobId 작업 ID
+     * @return 작업 상태
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<IngestionJobStatus> getJob(@PathVariable String jobId) {
+        return ingestionJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 작업 진행 상황을 SSE 로 전송하는 엔드포인트.
+     * 실행 중에는 progress 이벤트를 주기적으로, 종료 시 done 이벤트를 한 번 전송합니다.
+     * 
+     * @param jobId 작업 ID
+     * @return SSE 이미터
+     */
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable String jobId) {
+        return ingestionJobService.subscribe(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 작업을 취소하는 엔드포인트.
+     * 처리 중인 문서는 마무리하고, 완료된 문서까지의 결과는 매니페스트에 반영됩니다.
+     * 
+     * @param jobId 작업 ID
+     * @return 취소 요청 후 작업 상태
+     */
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<IngestionJobStatus> cancel(@PathVariable String jobId) {
+        return ingestionJobService.cancel(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+}
@@ -1,5 +1,8 @@
 package egovframework.ragchat.dto;
 
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,4 +15,18 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ChatRequest {
 	private String query;
+
+	// 이전 대화를 이어서 처리할지 여부 (서버가 발급한 HTTP 세션 기준)
+	private boolean conversation;
+
+	// 대화 세션 식별자 (요청 본문이 아니라 컨트롤러에서 HTTP 세션 기준으로 설정, 없으면 이전 대화 없이 처리)
+	@JsonIgnore
+	private String sessionId;
+
+	// 검색할 지식 베이스 이름 목록 (없으면 기본 지식 베이스, 여럿이면 병렬로 검색하여 합침)
+	private List<String> knowledgeBases;
+
+	// 공정 대기열용 클라이언트 식별자 (요청 본문이 아니라 컨트롤러에서 설정)
+	@JsonIgnore
+	private String clientId;
 }
@@ -0,0 +1,30 @@
+package egovframework.ragchat.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionJobStatus {
+	private String jobId;
+	private String collection;
+	private String state;
+	private String message;
+	private int totalDocuments;
+	private int completedDocuments;
+	private int failedDocuments;
+	private long splitSegments;
+	private long embeddedSegments;
+	private long writtenSegments;
+	private double embeddingsPerSecond;
+	private Integer processedDocuments;
+	private List<String> errors;
+	private long startedAt;
+	private Long finishedAt;
+}
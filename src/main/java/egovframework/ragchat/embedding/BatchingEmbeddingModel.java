@@ -0,0 +1,210 @@
+package egovframework.ragchat.embedding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 동시에 들어온 임베딩 요청을 작은 묶음으로 모아 처리하는 EmbeddingModel 데코레이터.
+ * 첫 요청이 도착한 뒤 짧은 대기 시간 동안 모인 요청을 최대 묶음 크기까지 모아 한 번의 embedAll 로 위임하며,
+ * 묶음은 배치 구성 스레드에서 하나씩 실행한다. 질의 임베딩(embed)은 문서 적재(embedAll)보다 먼저 묶음에 담는다.
+ * langchain4j 0.35 의 in-process 모델은 embedAll 에서도 세그먼트마다 ONNX 추론을 한 번씩 실행하므로
+ * (모델의 추론 스레드에 나누어 실행) 하나의 텐서 배치로 추론하지는 않는다. 이 클래스의 효과는 동시 요청 묶음과
+ * 질의 우선 처리이며, 동시 추론 수와 추론 처리량은 모델의 추론 스레드 수로 결정된다.
+ */
+@Slf4j
+public class BatchingEmbeddingModel implements EmbeddingModel, AutoCloseable {
+
+	private final EmbeddingModel delegate;
+	private final long windowNanos;
+	private final int maxBatchSize;
+
+	// 질의 요청과 적재 요청을 나누어 질의가 적재 뒤에서 기다리지 않도록 함
+	private final BlockingQueue<Request> interactiveQueue = new LinkedBlockingQueue<>();
+	private final BlockingQueue<Request> bulkQueue = new LinkedBlockingQueue<>();
+	// 두 큐에 대기 중인 요청 수 (요청 하나당 허가 하나)
+	private final Semaphore pending = new Semaphore(0);
+
+	private final Thread dispatcher;
+	private volatile boolean closed;
+
+	private final LongAdder batchCount = new LongAdder();
+	private final LongAdder segmentCount = new LongAdder();
+
+	public BatchingEmbeddingModel(EmbeddingModel delegate, Duration window, int maxBatchSize) {
+		this.delegate = delegate;
+		this.windowNanos = window.toNanos();
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+
+		this.dispatcher = new Thread(this::dispatch, "embedding-batch-dispatcher");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	@Override
+	public Response<Embedding> embed(String text) {
+		return embed(TextSegment.from(text));
+	}
+
+	@Override
+	public Response<Embedding> embed(TextSegment textSegment) {
+		Request request = new Request(textSegment);
+		enqueue(interactiveQueue, request);
+		return Response.from(await(request.future));
+	}
+
+	@Override
+	public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+		if (textSegments.isEmpty()) {
+			return Response.from(Collections.emptyList());
+		}
+
+		List<Request> requests = new ArrayList<>(textSegments.size());
+		for (TextSegment textSegment : textSegments) {
+			Request request = new Request(textSegment);
+			requests.add(request);
+			enqueue(bulkQueue, request);
+		}
+
+		List<Embedding> embeddings = new ArrayList<>(requests.size());
+		for (Request request : requests) {
+			embeddings.add(await(request.future));
+		}
+		return Response.from(embeddings);
+	}
+
+	/**
+	 * 배치 통계 조회.
+	 *
+	 * @return 배치 수, 처리 세그먼트 수, 평균 배치 크기
+	 */
+	public Map<String, Object> getStats() {
+		long batches = batchCount.sum();
+		long segments = segmentCount.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("batches", batches);
+		stats.put("segments", segments);
+		stats.put("averageBatchSize", batches == 0 ? 0.0 : (double) segments / batches);
+		stats.put("pending", interactiveQueue.size() + bulkQueue.size());
+		return stats;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		dispatcher.interrupt();
+		failPending(interactiveQueue);
+		failPending(bulkQueue);
+	}
+
+	private void enqueue(BlockingQueue<Request> queue, Request request) {
+		if (closed) {
+			throw new IllegalStateException("임베딩 배치 처리기가 종료되었습니다.");
+		}
+		queue.add(request);
+		pending.release();
+	}
+
+	private static Embedding await(CompletableFuture<Embedding> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("임베딩 대기 중단", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException("임베딩 실패: " + cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * 배치 구성 및 실행 루프 (단일 스레드).
+	 * 세그먼트별 추론은 모델의 추론 스레드에 나누어 실행되므로 별도 스레드 풀에 넘기지 않으며,
+	 * 배치를 실행하는 동안 도착한 요청은 다음 배치에 쌓인다.
+	 */
+	private void dispatch() {
+		while (!closed) {
+			try {
+				run(collectBatch());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private List<Request> collectBatch() throws InterruptedException {
+		List<Request> batch = new ArrayList<>(maxBatchSize);
+		pending.acquire();
+		batch.add(next());
+
+		// 첫 요청 이후 대기 시간 동안 도착한 요청을 최대 배치 크기까지 추가
+		long deadline = System.nanoTime() + windowNanos;
+		while (batch.size() < maxBatchSize) {
+			long remaining = Math.max(0, deadline - System.nanoTime());
+			if (!pending.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+				break;
+			}
+			batch.add(next());
+		}
+		return batch;
+	}
+
+	private Request next() {
+		Request request = interactiveQueue.poll();
+		return request != null ? request : bulkQueue.poll();
+	}
+
+	private void run(List<Request> batch) {
+		try {
+			List<TextSegment> segments = new ArrayList<>(batch.size());
+			batch.forEach(request -> segments.add(request.segment));
+
+			List<Embedding> embeddings = delegate.embedAll(segments).content();
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).future.complete(embeddings.get(i));
+			}
+			batchCount.increment();
+			segmentCount.add(batch.size());
+		} catch (Exception e) {
+			log.error("임베딩 배치 {}건 처리 중 오류 발생", batch.size(), e);
+			batch.forEach(request -> request.future.completeExceptionally(e));
+		}
+	}
+
+	private static void failPending(BlockingQueue<Request> queue) {
+		List<Request> pending = new ArrayList<>();
+		queue.drainTo(pending);
+		IllegalStateException error = new IllegalStateException("임베딩 배치 처리기가 종료되었습니다.");
+		pending.forEach(request -> request.future.completeExceptionally(error));
+	}
+
+	private static final class Request {
+		private final TextSegment segment;
+		private final CompletableFuture<Embedding> future = new CompletableFuture<>();
+
+		private Request(TextSegment segment) {
+			this.segment = segment;
+		}
+	}
+
+}
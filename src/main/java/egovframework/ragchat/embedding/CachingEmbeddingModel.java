@@ -0,0 +1,175 @@
+package egovframework.ragchat.embedding;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 질의 임베딩 결과를 캐싱하는 EmbeddingModel 데코레이터.
+ * 정규화된 질의 텍스트를 키로 하여 최대 개수(LRU)와 TTL 기준으로 만료시킨다.
+ * 문서 적재에 쓰이는 embedAll 호출은 캐싱하지 않고 그대로 위임한다.
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel, AutoCloseable {
+
+	private final EmbeddingModel delegate;
+	private final int maxSize;
+	private final long ttlMillis;
+
+	private final Map<String, CacheEntry> cache;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	public CachingEmbeddingModel(EmbeddingModel delegate, int maxSize, Duration ttl) {
+		this.delegate = delegate;
+		this.maxSize = maxSize;
+		this.ttlMillis = ttl.toMillis();
+		// accessOrder=true 로 생성하여 조회 순서 기준 LRU 로 동작
+		this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+				if (size() > CachingEmbeddingModel.this.maxSize) {
+					evictionCount.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public Response<Embedding> embed(String text) {
+		String key = normalize(text);
+		Embedding cached = get(key);
+		if (cached != null) {
+			hitCount.increment();
+			return Response.from(cached);
+		}
+
+		missCount.increment();
+		Response<Embedding> response = delegate.embed(key);
+		put(key, response.content());
+		return response;
+	}
+
+	@Override
+	public Response<Embedding> embed(TextSegment textSegment) {
+		return delegate.embed(textSegment);
+	}
+
+	@Override
+	public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+		return delegate.embedAll(textSegments);
+	}
+
+	/**
+	 * 캐시 키로 사용할 질의 텍스트 정규화.
+	 * BGE 모델은 소문자 기반(uncased) 토크나이저를 사용하므로 소문자 변환은 임베딩 결과에 영향이 없다.
+	 *
+	 * @param text 원본 질의
+	 * @return 정규화된 질의
+	 */
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFC);
+		return normalized.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+	private synchronized Embedding get(String key) {
+		CacheEntry entry = cache.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (System.currentTimeMillis() - entry.createdAt > ttlMillis) {
+			cache.remove(key);
+			evictionCount.increment();
+			return null;
+		}
+		return entry.embedding;
+	}
+
+	private synchronized void put(String key, Embedding embedding) {
+		cache.put(key, new CacheEntry(embedding, System.currentTimeMillis()));
+	}
+
+	/**
+	 * 캐시 전체 비우기
+	 */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	/**
+	 * 캐시 통계 조회.
+	 *
+	 * @return 적중/미적중 횟수, 적중률, 현재 크기
+	 */
+	public Map<String, Object> getStats() {
+		long hits = getHitCount();
+		long misses = getMissCount();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", size());
+		stats.put("maxSize", maxSize);
+		stats.put("hits", hits);
+		stats.put("misses", misses);
+		stats.put("evictions", getEvictionCount());
+		stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+		if (delegate instanceof BatchingEmbeddingModel) {
+			stats.put("batching", ((BatchingEmbeddingModel) delegate).getStats());
+		}
+		return stats;
+	}
+
+	/**
+	 * 위임 모델이 자원을 가진 경우 함께 종료 (빈 소멸 시 호출)
+	 */
+	@Override
+	public void close() throws Exception {
+		if (delegate instanceof AutoCloseable) {
+			((AutoCloseable) delegate).close();
+		}
+	}
+
+	private static final class CacheEntry {
+		private final Embedding embedding;
+		private final long createdAt;
+
+		private CacheEntry(Embedding embedding, long createdAt) {
+			this.embedding = embedding;
+			this.createdAt = createdAt;
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package egovframework.ragchat.knowledge;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 이름으로 검색 대상을 지정하는 지식 베이스.
+ * 지식 베이스마다 별도 컬렉션, 적재할 문서 경로, 검색 설정(최대 결과 수, 벡터/BM25 최소 점수)을 가진다.
+ */
+public final class KnowledgeBase {
+
+	private final String name;
+	private final String collectionName;
+	private final String source;
+	private final int maxResults;
+	private final double minScore;
+	private final double lexicalMinScore;
+
+	/**
+	 * @param name 지식 베이스 이름
+	 * @param collectionName 컬렉션 이름
+	 * @param source 적재할 마크다운 문서 경로 패턴 (예: classpath:data/*.md, file:/docs/hr/*.md)
+	 * @param maxResults 검색 결과 수
+	 * @param minScore 벡터 검색 최소 점수
+	 * @param lexicalMinScore BM25 검색 최소 정규화 점수
+	 */
+	public KnowledgeBase(String name, String collectionName, String source, int maxResults, double minScore,
+			double lexicalMinScore) {
+		this.name = name;
+		this.collectionName = collectionName;
+		this.source = source;
+		this.maxResults = maxResults;
+		this.minScore = minScore;
+		this.lexicalMinScore = lexicalMinScore;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getCollectionName() {
+		return collectionName;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public int getMaxResults() {
+		return maxResults;
+	}
+
+	public double getMinScore() {
+		return minScore;
+	}
+
+	public double getLexicalMinScore() {
+		return lexicalMinScore;
+	}
+
+	Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("name", name);
+		stats.put("collection", collectionName);
+		stats.put("source", source);
+		stats.put("maxResults", maxResults);
+		stats.put("minScore", minScore);
+		stats.put("lexicalMinScore", lexicalMinScore);
+		return stats;
+	}
+
+}
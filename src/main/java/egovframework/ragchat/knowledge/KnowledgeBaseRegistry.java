@@ -0,0 +1,237 @@
+package egovframework.ragchat.knowledge;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import egovframework.ragchat.config.RagConfig;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.retrieval.FanOutContentRetriever;
+import egovframework.ragchat.retrieval.LexicalIndex;
+import egovframework.ragchat.store.SegmentEmbeddingStore;
+import io.qdrant.client.QdrantClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 지식 베이스 목록과 컬렉션별 저장소, BM25 색인, 검색기 보관.
+ * 기본 지식 베이스는 rag.collection.name 컬렉션과 기존 저장소/검색기 빈을 그대로 사용하고,
+ * rag.knowledge-base.names 에 나열한 지식 베이스는 처음 사용할 때 컬렉션별 인스턴스를 만들어 재사용한다.
+ * 요청이 여러 지식 베이스를 지정하면 각 검색기를 고정 크기 스레드 풀에서 병렬로 실행하여 제한 시간 안의 결과를 합친다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KnowledgeBaseRegistry {
+
+	private static final String PROPERTY_PREFIX = "rag.knowledge-base.";
+
+	private final RagConfig ragConfig;
+	private final QdrantClient qdrantClient;
+	private final EmbeddingModel embeddingModel;
+	private final SegmentEmbeddingStore embeddingStore;
+	private final ContentRetriever contentRetriever;
+	private final LexicalIndex lexicalIndex;
+	private final RagMetrics ragMetrics;
+	private final Environment environment;
+
+	@Value("${rag.knowledge-base.default-name}")
+	private String defaultName;
+
+	@Value("${rag.knowledge-base.names}")
+	private String[] names;
+
+	@Value("${rag.ingestion.source}")
+	private String defaultSource;
+
+	@Value("${rag.knowledge-base.fanout.deadline-ms}")
+	private Long fanOutDeadlineMillis;
+
+	@Value("${rag.knowledge-base.fanout.threads}")
+	private Integer fanOutThreads;
+
+	// 설정 순서 유지 (첫 항목이 기본 지식 베이스)
+	private final Map<String, KnowledgeBase> knowledgeBases = new LinkedHashMap<>();
+
+	// 컬렉션 이름별 인스턴스 (검색기는 저장소와 색인을 감싸므로 함께 재사용)
+	private final Map<String, SegmentEmbeddingStore> stores = new ConcurrentHashMap<>();
+	private final Map<String, LexicalIndex> lexicalIndexes = new ConcurrentHashMap<>();
+	private final Map<String, ContentRetriever> retrievers = new ConcurrentHashMap<>();
+
+	private KnowledgeBase defaultKnowledgeBase;
+	private ExecutorService fanOutExecutor;
+
+	@PostConstruct
+	public void init() {
+		defaultKnowledgeBase = new KnowledgeBase(defaultName, ragConfig.getCollectionName(), defaultSource,
+				ragConfig.getMaxResults(), ragConfig.getMinScore(), ragConfig.getLexicalMinScore());
+		register(defaultKnowledgeBase);
+		stores.put(defaultKnowledgeBase.getCollectionName(), embeddingStore);
+		lexicalIndexes.put(defaultKnowledgeBase.getCollectionName(), lexicalIndex);
+		retrievers.put(defaultKnowledgeBase.getCollectionName(), contentRetriever);
+
+		for (String name : names) {
+			if (name.isBlank()) {
+				continue;
+			}
+			String prefix = PROPERTY_PREFIX + name.trim() + ".";
+			register(new KnowledgeBase(name.trim(), environment.getRequiredProperty(prefix + "collection"),
+					environment.getRequiredProperty(prefix + "source"),
+					environment.getProperty(prefix + "max-results", Integer.class, ragConfig.getMaxResults()),
+					environment.getProperty(prefix + "min-score", Double.class, ragConfig.getMinScore()),
+					environment.getProperty(prefix + "lexical-min-score", Double.class,
+							ragConfig.getLexicalMinScore())));
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		fanOutExecutor = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+			Thread thread = new Thread(runnable, "knowledge-fanout-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (fanOutExecutor != null) {
+			fanOutExecutor.shutdownNow();
+		}
+	}
+
+	public KnowledgeBase getDefault() {
+		return defaultKnowledgeBase;
+	}
+
+	public List<KnowledgeBase> getAll() {
+		return new ArrayList<>(knowledgeBases.values());
+	}
+
+	/**
+	 * 이름으로 지식 베이스 조회
+	 *
+	 * @param name 지식 베이스 이름 (없으면 기본 지식 베이스)
+	 * @return 지식 베이스
+	 * @throws UnknownKnowledgeBaseException 설정에 없는 이름인 경우
+	 */
+	public KnowledgeBase get(String name) {
+		if (name == null || name.isBlank()) {
+			return defaultKnowledgeBase;
+		}
+		KnowledgeBase knowledgeBase = knowledgeBases.get(name.trim());
+		if (knowledgeBase == null) {
+			throw new UnknownKnowledgeBaseException(name);
+		}
+		return knowledgeBase;
+	}
+
+	/**
+	 * 지식 베이스의 임베딩 저장소 (컬렉션별로 한 번만 생성)
+	 */
+	public SegmentEmbeddingStore store(KnowledgeBase knowledgeBase) {
+		return stores.computeIfAbsent(knowledgeBase.getCollectionName(),
+				collection -> ragConfig.createEmbeddingStore(qdrantClient, collection));
+	}
+
+	/**
+	 * 지식 베이스의 BM25 색인 (컬렉션별로 한 번만 생성)
+	 */
+	public LexicalIndex lexicalIndex(KnowledgeBase knowledgeBase) {
+		return lexicalIndexes.computeIfAbsent(knowledgeBase.getCollectionName(), collection -> new LexicalIndex());
+	}
+
+	/**
+	 * 지식 베이스의 검색기 (컬렉션별로 한 번만 생성)
+	 */
+	public ContentRetriever retriever(KnowledgeBase knowledgeBase) {
+		return retrievers.computeIfAbsent(knowledgeBase.getCollectionName(), collection -> {
+			log.info("지식 베이스 검색기 생성 - 이름: {}, 컬렉션: {}", knowledgeBase.getName(), collection);
+			return ragConfig.createContentRetriever(store(knowledgeBase), embeddingModel,
+					lexicalIndex(knowledgeBase), knowledgeBase.getMaxResults(), knowledgeBase.getMinScore(),
+					knowledgeBase.getLexicalMinScore(), ragMetrics);
+		});
+	}
+
+	/**
+	 * 요청에서 지정한 지식 베이스의 검색기.
+	 * 지정하지 않으면 기본 검색기, 하나면 해당 지식 베이스의 검색기, 여럿이면 병렬로 검색하여 합치는 검색기를 반환한다.
+	 * 합친 결과 수는 선택한 지식 베이스의 max-results 중 가장 큰 값이다.
+	 *
+	 * @param names 지식 베이스 이름 목록
+	 * @return 검색기
+	 * @throws UnknownKnowledgeBaseException 설정에 없는 이름이 있는 경우
+	 */
+	public ContentRetriever retriever(List<String> names) {
+		if (names == null || names.isEmpty()) {
+			return contentRetriever;
+		}
+
+		Map<String, ContentRetriever> selected = new LinkedHashMap<>();
+		int maxResults = 0;
+		for (String name : names) {
+			KnowledgeBase knowledgeBase = get(name);
+			selected.putIfAbsent(knowledgeBase.getName(), retriever(knowledgeBase));
+			maxResults = Math.max(maxResults, knowledgeBase.getMaxResults());
+		}
+		if (selected.size() == 1) {
+			return selected.values().iterator().next();
+		}
+		return new FanOutContentRetriever(selected, fanOutExecutor, Duration.ofMillis(fanOutDeadlineMillis),
+				maxResults, ragConfig.getRrfK(), ragMetrics);
+	}
+
+	/**
+	 * 지식 베이스 통계
+	 *
+	 * @return 통계 정보
+	 */
+	public Map<String, Object> getStats() {
+		List<Map<String, Object>> knowledgeBaseStats = new ArrayList<>(knowledgeBases.size());
+		for (KnowledgeBase knowledgeBase : knowledgeBases.values()) {
+			Map<String, Object> stats = knowledgeBase.getStats();
+			LexicalIndex index = lexicalIndexes.get(knowledgeBase.getCollectionName());
+			stats.put("lexicalSegments", index != null ? index.get().size() : 0);
+			stats.put("retrieverCreated", retrievers.containsKey(knowledgeBase.getCollectionName()));
+			knowledgeBaseStats.add(stats);
+		}
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("default", defaultKnowledgeBase.getName());
+		stats.put("fanOutDeadlineMillis", fanOutDeadlineMillis);
+		stats.put("knowledgeBases", knowledgeBaseStats);
+		return stats;
+	}
+
+	/**
+	 * 지식 베이스 등록 (이름과 컬렉션은 지식 베이스마다 달라야 함)
+	 */
+	private void register(KnowledgeBase knowledgeBase) {
+		for (KnowledgeBase registered : knowledgeBases.values()) {
+			if (registered.getName().equals(knowledgeBase.getName())) {
+				throw new IllegalStateException("지식 베이스 이름이 중복됩니다: " + knowledgeBase.getName());
+			}
+			// 같은 컬렉션을 공유하면 적재 매니페스트가 서로의 문서를 삭제된 문서로 판단함
+			if (registered.getCollectionName().equals(knowledgeBase.getCollectionName())) {
+				throw new IllegalStateException("지식 베이스 컬렉션이 중복됩니다: " + knowledgeBase.getCollectionName());
+			}
+		}
+		knowledgeBases.put(knowledgeBase.getName(), knowledgeBase);
+		log.info("지식 베이스 등록 - 이름: {}, 컬렉션: {}, 문서: {}, 최대 {}개, 최소 점수(벡터/BM25) {}/{}",
+				knowledgeBase.getName(), knowledgeBase.getCollectionName(), knowledgeBase.getSource(),
+				knowledgeBase.getMaxResults(), knowledgeBase.getMinScore(), knowledgeBase.getLexicalMinScore());
+	}
+
+}
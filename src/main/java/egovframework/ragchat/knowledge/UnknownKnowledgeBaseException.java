@@ -0,0 +1,21 @@
+package egovframework.ragchat.knowledge;
+
+import lombok.Getter;
+
+/**
+ * 요청에서 지정한 지식 베이스가 설정에 없는 경우 발생하는 예외.
+ * 컨트롤러에서 400 응답으로 변환한다.
+ */
+@Getter
+public class UnknownKnowledgeBaseException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String knowledgeBase;
+
+	public UnknownKnowledgeBaseException(String knowledgeBase) {
+		super("알 수 없는 지식 베이스입니다: " + knowledgeBase);
+		this.knowledgeBase = knowledgeBase;
+	}
+
+}
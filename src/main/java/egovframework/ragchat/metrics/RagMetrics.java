@@ -0,0 +1,242 @@
+package egovframework.ragchat.metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import egovframework.ragchat.retrieval.ContextAssembler;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * RAG 처리 경로 성능 지표 (Micrometer).
+ * 질의 임베딩, 벡터 검색, 전체 검색, 프롬프트/컨텍스트 크기, 첫 토큰까지의 시간(TTFT), 초당 토큰 수,
+ * 생성 시간, SSE 전송 이벤트 수, 마크다운 렌더링 시간, 문서 적재 처리량을 기록하며
+ * 모든 채팅 지표는 엔드포인트 태그로 구분한다. Actuator 의 /actuator/prometheus 로 노출된다.
+ *
+ * 임베딩과 검색은 요청 스레드에서 호출되는 하위 구성 요소에서 측정하므로,
+ * 서비스 진입 시 {@link #endpoint(String)} 로 현재 스레드의 엔드포인트를 지정한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RagMetrics {
+
+	public static final String CHAT = "/api/chat";
+	public static final String SIMPLE = "/api/chat/simple";
+	public static final String STREAMING = "/api/chat/streaming";
+	public static final String STREAMING_SIMPLE = "/api/chat/streaming/simple";
+	public static final String REACTIVE = "/api/chat/reactive";
+	public static final String REACTIVE_SIMPLE = "/api/chat/reactive/simple";
+	// 채팅 요청 밖(적재, 예열 등)에서 호출된 경우
+	public static final String NONE = "none";
+
+	private static final ThreadLocal<String> CURRENT_ENDPOINT = new ThreadLocal<>();
+
+	private final MeterRegistry registry;
+
+	/**
+	 * 현재 스레드의 엔드포인트 지정 (try-with-resources 로 사용).
+	 *
+	 * @param endpoint 엔드포인트
+	 * @return 종료 시 이전 값을 복원하는 범위 객체
+	 */
+	public Scope endpoint(String endpoint) {
+		String previous = CURRENT_ENDPOINT.get();
+		CURRENT_ENDPOINT.set(endpoint);
+		return () -> {
+			if (previous == null) {
+				CURRENT_ENDPOINT.remove();
+			} else {
+				CURRENT_ENDPOINT.set(previous);
+			}
+		};
+	}
+
+	/**
+	 * 현재 스레드의 엔드포인트를 다른 스레드에서 실행할 작업에 전달.
+	 * 작업을 실행하는 스레드에서 호출 시점의 엔드포인트를 지정하고, 끝나면 이전 값으로 복원한다.
+	 *
+	 * @param task 다른 스레드에서 실행할 작업
+	 * @return 엔드포인트를 지정하여 실행하는 작업
+	 */
+	public <T> Callable<T> withCurrentEndpoint(Callable<T> task) {
+		String endpoint = currentEndpoint();
+		return () -> {
+			try (Scope scope = endpoint(endpoint)) {
+				return task.call();
+			}
+		};
+	}
+
+	/**
+	 * 현재 스레드의 엔드포인트
+	 *
+	 * @return 엔드포인트 (지정되지 않았으면 none)
+	 */
+	public static String currentEndpoint() {
+		String endpoint = CURRENT_ENDPOINT.get();
+		return endpoint != null ? endpoint : NONE;
+	}
+
+	/**
+	 * 질의 임베딩 시간 기록
+	 */
+	public void recordQueryEmbedding(long nanos) {
+		timer("rag.query.embedding", "질의 임베딩 시간", currentEndpoint()).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 벡터 저장소 검색 시간 기록
+	 */
+	public void recordVectorSearch(long nanos) {
+		timer("rag.vector.search", "벡터 저장소 검색 시간", currentEndpoint()).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 전체 검색(임베딩, 벡터/BM25 검색, 재정렬 포함) 시간 기록
+	 */
+	public void recordRetrieval(long nanos) {
+		timer("rag.retrieval", "전체 검색 시간", currentEndpoint()).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 모델에 보내는 프롬프트 크기 기록 (문자 수, 추정 토큰 수)
+	 */
+	public void recordPrompt(String endpoint, String prompt) {
+		summary("rag.prompt.chars", "프롬프트 문자 수", endpoint).record(prompt.length());
+		summary("rag.prompt.tokens", "프롬프트 추정 토큰 수", endpoint).record(ContextAssembler.estimateTokens(prompt));
+	}
+
+	/**
+	 * 검색 결과로 조립한 컨텍스트 크기 기록 (문자 수, 추정 토큰 수)
+	 */
+	public void recordContext(String context) {
+		String endpoint = currentEndpoint();
+		summary("rag.context.chars", "컨텍스트 문자 수", endpoint).record(context.length());
+		summary("rag.context.tokens", "컨텍스트 추정 토큰 수", endpoint).record(ContextAssembler.estimateTokens(context));
+	}
+
+	/**
+	 * 마크다운 렌더링 시간을 측정하며 실행
+	 */
+	public <T> T timeRender(String endpoint, Supplier<T> render) {
+		long start = System.nanoTime();
+		try {
+			return render.get();
+		} finally {
+			timer("rag.markdown.render", "마크다운 렌더링 시간", endpoint).record(System.nanoTime() - start,
+					TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * SSE 이벤트 전송 수 기록 (구독자별 전송 건수)
+	 */
+	public void recordSseFrames(String endpoint, int frames) {
+		registry.counter("rag.sse.frames", "endpoint", endpoint).increment(frames);
+	}
+
+	/**
+	 * 생성 측정 시작
+	 *
+	 * @param endpoint 엔드포인트
+	 * @return 생성 측정 객체
+	 */
+	public Generation startGeneration(String endpoint) {
+		return new Generation(endpoint);
+	}
+
+	/**
+	 * 문서 적재 처리량 기록
+	 *
+	 * @param embeddedSegments 임베딩한 세그먼트 수
+	 * @param nanos 적재 소요 시간
+	 */
+	public void recordIngestion(int embeddedSegments, long nanos) {
+		Timer.builder("rag.ingestion.duration").description("문서 적재 소요 시간").register(registry)
+				.record(nanos, TimeUnit.NANOSECONDS);
+		registry.counter("rag.ingestion.segments").increment(embeddedSegments);
+		if (nanos > 0 && embeddedSegments > 0) {
+			DistributionSummary.builder("rag.ingestion.segments.per.second").description("적재 처리량 (세그먼트/초)")
+					.register(registry).record(embeddedSegments / (nanos / 1_000_000_000.0));
+		}
+	}
+
+	private Timer timer(String name, String description, String endpoint) {
+		return Timer.builder(name).description(description).tag("endpoint", endpoint).register(registry);
+	}
+
+	private DistributionSummary summary(String name, String description, String endpoint) {
+		return DistributionSummary.builder(name).description(description).tag("endpoint", endpoint)
+				.register(registry);
+	}
+
+	/**
+	 * 엔드포인트 지정 범위
+	 */
+	public interface Scope extends AutoCloseable {
+		@Override
+		void close();
+	}
+
+	/**
+	 * 생성 한 건의 측정 (TTFT, 초당 토큰 수, 전체 생성 시간).
+	 * 모델 콜백 스레드에서 호출되므로 엔드포인트는 생성 시점에 고정한다.
+	 */
+	public final class Generation {
+
+		private final String endpoint;
+		private volatile long startNanos;
+		private volatile long firstTokenNanos;
+		private volatile int tokens;
+
+		private Generation(String endpoint) {
+			this.endpoint = endpoint;
+			this.startNanos = System.nanoTime();
+		}
+
+		/**
+		 * 모델 호출 시작 시점 지정 (생성 슬롯 대기 시간 제외)
+		 */
+		public void start() {
+			startNanos = System.nanoTime();
+		}
+
+		/**
+		 * 토큰 수신
+		 */
+		public void onToken() {
+			if (firstTokenNanos == 0) {
+				firstTokenNanos = System.nanoTime();
+				timer("rag.generation.ttft", "첫 토큰까지의 시간", endpoint).record(firstTokenNanos - startNanos,
+						TimeUnit.NANOSECONDS);
+			}
+			tokens++;
+		}
+
+		/**
+		 * 생성 종료 기록
+		 *
+		 * @param outcome 결과 (completed, cancelled, failed)
+		 * @param outputTokens 모델이 보고한 출력 토큰 수 (없으면 null, 수신한 토큰 수로 대체)
+		 */
+		public void finish(String outcome, Integer outputTokens) {
+			long end = System.nanoTime();
+			Timer.builder("rag.generation.duration").description("생성 소요 시간").tag("endpoint", endpoint)
+					.tag("outcome", outcome).register(registry).record(end - startNanos, TimeUnit.NANOSECONDS);
+
+			int count = outputTokens != null ? outputTokens : tokens;
+			// 초당 토큰 수는 디코딩 구간(첫 토큰 이후) 기준
+			long decodeStart = firstTokenNanos != 0 ? firstTokenNanos : startNanos;
+			if ("completed".equals(outcome) && count > 1 && end > decodeStart) {
+				summary("rag.generation.tokens.per.second", "초당 생성 토큰 수", endpoint)
+						.record((count - 1) / ((end - decodeStart) / 1_000_000_000.0));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,32 @@
+package egovframework.ragchat.metrics;
+
+import java.util.List;
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+
+/**
+ * 전체 검색 시간을 기록하는 ContentRetriever 데코레이터.
+ */
+public class TimedContentRetriever implements ContentRetriever {
+
+	private final ContentRetriever delegate;
+	private final RagMetrics metrics;
+
+	public TimedContentRetriever(ContentRetriever delegate, RagMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public List<Content> retrieve(Query query) {
+		long start = System.nanoTime();
+		try {
+			return delegate.retrieve(query);
+		} finally {
+			metrics.recordRetrieval(System.nanoTime() - start);
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+package egovframework.ragchat.metrics;
+
+import java.util.List;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+/**
+ * 질의 임베딩 시간을 기록하는 EmbeddingModel 데코레이터 (검색기에서만 사용).
+ */
+public class TimedEmbeddingModel implements EmbeddingModel {
+
+	private final EmbeddingModel delegate;
+	private final RagMetrics metrics;
+
+	public TimedEmbeddingModel(EmbeddingModel delegate, RagMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Response<Embedding> embed(String text) {
+		long start = System.nanoTime();
+		try {
+			return delegate.embed(text);
+		} finally {
+			metrics.recordQueryEmbedding(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public Response<Embedding> embed(TextSegment textSegment) {
+		long start = System.nanoTime();
+		try {
+			return delegate.embed(textSegment);
+		} finally {
+			metrics.recordQueryEmbedding(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+		return delegate.embedAll(textSegments);
+	}
+
+}
@@ -0,0 +1,59 @@
+package egovframework.ragchat.metrics;
+
+import java.util.List;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+/**
+ * 벡터 검색 시간을 기록하는 EmbeddingStore 데코레이터 (검색기에서만 사용, 저장은 그대로 위임).
+ */
+public class TimedEmbeddingStore implements EmbeddingStore<TextSegment> {
+
+	private final EmbeddingStore<TextSegment> delegate;
+	private final RagMetrics metrics;
+
+	public TimedEmbeddingStore(EmbeddingStore<TextSegment> delegate, RagMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public String add(Embedding embedding) {
+		return delegate.add(embedding);
+	}
+
+	@Override
+	public void add(String id, Embedding embedding) {
+		delegate.add(id, embedding);
+	}
+
+	@Override
+	public String add(Embedding embedding, TextSegment textSegment) {
+		return delegate.add(embedding, textSegment);
+	}
+
+	@Override
+	public List<String> addAll(List<Embedding> embeddings) {
+		return delegate.addAll(embeddings);
+	}
+
+	@Override
+	public List<String> addAll(List<Embedding> embeddings, List<TextSegment> textSegments) {
+		return delegate.addAll(embeddings, textSegments);
+	}
+
+	@Override
+	public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
+		long start = System.nanoTime();
+		try {
+			return delegate.search(request);
+		} finally {
+			metrics.recordVectorSearch(System.nanoTime() - start);
+		}
+	}
+
+}
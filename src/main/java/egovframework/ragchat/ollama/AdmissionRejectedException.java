@@ -0,0 +1,21 @@
+package egovframework.ragchat.ollama;
+
+import lombok.Getter;
+
+/**
+ * 생성 대기열이 가득 차거나 대기 시간이 초과되어 요청을 받을 수 없는 경우 발생하는 예외.
+ * 컨트롤러에서 429 응답과 Retry-After 헤더로 변환한다.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long retryAfterSeconds;
+
+	public AdmissionRejectedException(String message, long retryAfterSeconds) {
+		super(message);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+}
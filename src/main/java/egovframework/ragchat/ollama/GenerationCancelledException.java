@@ -0,0 +1,30 @@
+package egovframework.ragchat.ollama;
+
+/**
+ * 응답을 받을 클라이언트가 모두 떠나 생성을 중단할 때 스트리밍 콜백에서 던지는 예외.
+ * Ollama 클라이언트가 이 예외를 받으면 응답 스트림(HTTP 연결)을 닫으므로 Ollama 도 생성을 멈춘다.
+ */
+public class GenerationCancelledException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public GenerationCancelledException() {
+		super("클라이언트 연결 종료로 생성 중단");
+	}
+
+	/**
+	 * 예외 원인 중에 생성 중단 예외가 있는지 확인
+	 *
+	 * @param error 예외
+	 * @return 생성 중단 여부
+	 */
+	public static boolean isCause(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof GenerationCancelledException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
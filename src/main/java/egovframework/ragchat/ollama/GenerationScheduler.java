@@ -0,0 +1,381 @@
+package egovframework.ragchat.ollama;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * LLM 생성 요청 수락 제어 및 공정 대기열.
+ * 동시에 Ollama 로 보내는 생성 요청 수를 병렬 슬롯 수(OLLAMA_NUM_PARALLEL)로 제한하고,
+ * 나머지는 클라이언트별 FIFO 대기열에 넣어 클라이언트 사이를 라운드 로빈으로 번갈아 처리한다.
+ * 대기열이 가득 차면 기다리게 하지 않고 즉시 거절하여 Retry-After 로 재시도 시점을 알려준다.
+ * 클라이언트가 모두 떠나 중단된 생성은 cancelled, 대기 중에 떠난 요청은 abandoned 로 집계한다.
+ * Ollama 서버 풀을 사용하면 정상 서버의 동시 실행 상한 합계({@link #updateCapacity(int)})를 넘지 않도록 함께 제한한다.
+ */
+@Slf4j
+@Component
+public class GenerationScheduler {
+
+	// 평균 생성 시간 측정 전 Retry-After 계산에 사용할 기본값
+	private static final long DEFAULT_GENERATION_MILLIS = 10_000L;
+	private static final long MAX_RETRY_AFTER_SECONDS = 120L;
+
+	private final int maxConcurrent;
+	private final int queueCapacity;
+	private final int perClientQueueLimit;
+	private final long maxWaitMillis;
+
+	private final Object lock = new Object();
+
+	// 삽입 순서가 라운드 로빈 순서 (차례가 된 클라이언트는 맨 뒤로 이동)
+	private final LinkedHashMap<String, ArrayDeque<Ticket>> queues = new LinkedHashMap<>();
+	private int active;
+	private int queued;
+	// 정상 Ollama 서버의 동시 실행 상한 합계 (서버 풀이 알려주기 전까지는 제한 없음)
+	private int endpointCapacity = Integer.MAX_VALUE;
+	private double averageGenerationMillis = DEFAULT_GENERATION_MILLIS;
+
+	private final LongAdder admittedCount = new LongAdder();
+	private final LongAdder rejectedCount = new LongAdder();
+	private final LongAdder abandonedCount = new LongAdder();
+	private final LongAdder cancelledCount = new LongAdder();
+
+	/**
+	 * @param maxConcurrent 동시 생성 요청 수 상한 (Ollama 병렬 슬롯 수)
+	 * @param queueCapacity 전체 대기열 크기
+	 * @param perClientQueueLimit 클라이언트별 대기 요청 수 상한
+	 * @param maxWaitMillis 블로킹 실행의 슬롯 대기 시간 상한
+	 */
+	public GenerationScheduler(@Value("${ollama.generation.max-concurrent}") int maxConcurrent,
+			@Value("${ollama.generation.queue-capacity}") int queueCapacity,
+			@Value("${ollama.generation.per-client-queue-limit}") int perClientQueueLimit,
+			@Value("${ollama.generation.max-wait-ms}") long maxWaitMillis) {
+		this.maxConcurrent = maxConcurrent;
+		this.queueCapacity = queueCapacity;
+		this.perClientQueueLimit = perClientQueueLimit;
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	/**
+	 * 생성 슬롯 배정 콜백
+	 */
+	@FunctionalInterface
+	public interface Listener {
+
+		/**
+		 * 대기 순번이 정해지거나 바뀐 경우 호출 (1부터 시작).
+		 *
+		 * @param position 대기 순번
+		 */
+		default void onQueued(int position) {
+		}
+
+		/**
+		 * 생성 슬롯이 배정된 경우 호출.
+		 * 생성이 끝나면 반드시 ticket.release() 를 호출해야 한다.
+		 *
+		 * @param ticket 배정된 티켓
+		 */
+		void onGranted(Ticket ticket);
+	}
+
+	/**
+	 * 생성 요청 제출.
+	 * 빈 슬롯이 있으면 호출 스레드에서 바로 onGranted 가 호출되고, 없으면 대기열에 들어가 순번을 통지받는다.
+	 *
+	 * @param clientId 클라이언트 식별자
+	 * @param listener 슬롯 배정 콜백
+	 * @return 대기 취소 또는 슬롯 반환에 사용할 티켓
+	 * @throws AdmissionRejectedException 대기열이 가득 찬 경우
+	 */
+	public Ticket submit(String clientId, Listener listener) {
+		String key = clientId != null ? clientId : "anonymous";
+		Ticket ticket = new Ticket(key, listener);
+		List<Runnable> notifications;
+
+		synchronized (lock) {
+			if (active < limit() && queued == 0) {
+				ticket.grant();
+				active++;
+				admittedCount.increment();
+				notifications = List.of(() -> notifyGranted(ticket));
+			} else {
+				ArrayDeque<Ticket> clientQueue = queues.get(key);
+				int clientQueued = clientQueue != null ? clientQueue.size() : 0;
+				if (queued >= queueCapacity || clientQueued >= perClientQueueLimit) {
+					rejectedCount.increment();
+					long retryAfter = retryAfterSeconds();
+					log.warn("생성 요청 거절 - 클라이언트: {}, 대기: {}, 클라이언트 대기: {}, 재시도: {}초", key, queued,
+							clientQueued, retryAfter);
+					throw new AdmissionRejectedException("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.", retryAfter);
+				}
+				queues.computeIfAbsent(key, k -> new ArrayDeque<>()).addLast(ticket);
+				queued++;
+				notifications = updatePositions();
+			}
+		}
+
+		notifications.forEach(Runnable::run);
+		return ticket;
+	}
+
+	/**
+	 * 슬롯을 배정받을 때까지 기다린 뒤 작업을 실행하고 슬롯을 반환 (블로킹 경로용).
+	 *
+	 * @param clientId 클라이언트 식별자
+	 * @param task 생성 작업
+	 * @return 작업 결과
+	 * @throws AdmissionRejectedException 대기열이 가득 찼거나 최대 대기 시간을 넘긴 경우
+	 */
+	public <T> T execute(String clientId, Supplier<T> task) {
+		CompletableFuture<Ticket> granted = new CompletableFuture<>();
+		Ticket ticket = submit(clientId, granted::complete);
+		try {
+			granted.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			ticket.release();
+			throw new AdmissionRejectedException("대기 시간이 초과되었습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds());
+		} catch (InterruptedException e) {
+			ticket.release();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("생성 대기 중단", e);
+		} catch (ExecutionException e) {
+			ticket.release();
+			throw new IllegalStateException("생성 대기 실패", e.getCause());
+		}
+
+		try {
+			return task.get();
+		} finally {
+			ticket.release();
+		}
+	}
+
+	/**
+	 * 현재 상황 기준 재시도 권장 시간(초).
+	 * 평균 생성 시간과 대기열 길이로 앞선 요청이 빠지는 데 걸릴 시간을 추정한다.
+	 *
+	 * @return 재시도 권장 시간(초)
+	 */
+	public long retryAfterSeconds() {
+		synchronized (lock) {
+			double rounds = (double) (queued + active) / Math.max(1, limit());
+			long seconds = (long) Math.ceil(averageGenerationMillis * rounds / 1000.0);
+			return Math.max(1L, Math.min(MAX_RETRY_AFTER_SECONDS, seconds));
+		}
+	}
+
+	/**
+	 * 생성을 보낼 수 있는 서버 용량 갱신 (서버가 순환에서 빠지거나 복귀할 때 호출).
+	 * 용량이 늘면 대기 중인 요청을 바로 배정하고, 줄면 실행 중인 생성이 끝날 때까지 새 배정을 멈춘다.
+	 *
+	 * @param capacity 정상 서버의 동시 실행 상한 합계
+	 */
+	public void updateCapacity(int capacity) {
+		List<Runnable> notifications;
+		synchronized (lock) {
+			endpointCapacity = capacity;
+			notifications = dispatch();
+		}
+		notifications.forEach(Runnable::run);
+	}
+
+	/**
+	 * 스케줄러 통계 조회
+	 *
+	 * @return 통계 정보
+	 */
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		synchronized (lock) {
+			stats.put("active", active);
+			stats.put("queued", queued);
+			stats.put("queuedClients", queues.size());
+			stats.put("averageGenerationMillis", Math.round(averageGenerationMillis));
+			stats.put("endpointCapacity", endpointCapacity);
+		}
+		stats.put("maxConcurrent", maxConcurrent);
+		stats.put("queueCapacity", queueCapacity);
+		stats.put("admitted", admittedCount.sum());
+		stats.put("rejected", rejectedCount.sum());
+		stats.put("abandoned", abandonedCount.sum());
+		stats.put("cancelled", cancelledCount.sum());
+		return stats;
+	}
+
+	/**
+	 * 현재 동시 실행 상한 (lock 보유 상태에서 호출)
+	 */
+	private int limit() {
+		return Math.min(maxConcurrent, endpointCapacity);
+	}
+
+	/**
+	 * 티켓 반환 처리 (대기 중이면 대기열에서 제거, 실행 중이면 슬롯 반환 후 다음 요청 배정)
+	 */
+	private void release(Ticket ticket, boolean cancelled) {
+		List<Runnable> notifications;
+		synchronized (lock) {
+			if (ticket.state == TicketState.WAITING) {
+				ArrayDeque<Ticket> clientQueue = queues.get(ticket.clientId);
+				if (clientQueue != null && clientQueue.remove(ticket)) {
+					queued--;
+					if (clientQueue.isEmpty()) {
+						queues.remove(ticket.clientId);
+					}
+				}
+				abandonedCount.increment();
+			} else if (ticket.state == TicketState.ACTIVE) {
+				active--;
+				if (cancelled) {
+					cancelledCount.increment();
+				}
+				long elapsed = System.currentTimeMillis() - ticket.grantedAt;
+				averageGenerationMillis = averageGenerationMillis * 0.8 + elapsed * 0.2;
+			} else {
+				return;
+			}
+			ticket.state = TicketState.RELEASED;
+			notifications = dispatch();
+		}
+		notifications.forEach(Runnable::run);
+	}
+
+	/**
+	 * 빈 슬롯만큼 라운드 로빈 순서로 대기 요청을 배정 (lock 보유 상태에서 호출, 통지는 lock 밖에서 실행)
+	 */
+	private List<Runnable> dispatch() {
+		List<Runnable> notifications = new ArrayList<>();
+		while (active < limit() && !queues.isEmpty()) {
+			Iterator<Map.Entry<String, ArrayDeque<Ticket>>> iterator = queues.entrySet().iterator();
+			Map.Entry<String, ArrayDeque<Ticket>> next = iterator.next();
+			iterator.remove();
+			Ticket ticket = next.getValue().pollFirst();
+			if (!next.getValue().isEmpty()) {
+				// 같은 클라이언트의 나머지 요청은 다른 클라이언트 뒤로
+				queues.put(next.getKey(), next.getValue());
+			}
+			queued--;
+			active++;
+			admittedCount.increment();
+			ticket.grant();
+			notifications.add(() -> notifyGranted(ticket));
+		}
+		notifications.addAll(updatePositions());
+		return notifications;
+	}
+
+	/**
+	 * 라운드 로빈 순서를 따라 각 대기 요청의 순번을 다시 계산하고, 바뀐 요청에 대한 통지 목록을 반환
+	 */
+	private List<Runnable> updatePositions() {
+		List<Runnable> notifications = new ArrayList<>();
+		List<Iterator<Ticket>> iterators = new ArrayList<>(queues.size());
+		for (ArrayDeque<Ticket> clientQueue : queues.values()) {
+			iterators.add(clientQueue.iterator());
+		}
+
+		int position = 1;
+		boolean remaining = true;
+		while (remaining) {
+			remaining = false;
+			for (Iterator<Ticket> iterator : iterators) {
+				if (!iterator.hasNext()) {
+					continue;
+				}
+				Ticket ticket = iterator.next();
+				if (ticket.position != position) {
+					ticket.position = position;
+					int notified = position;
+					notifications.add(() -> notifyQueued(ticket, notified));
+				}
+				position++;
+				remaining = true;
+			}
+		}
+		return notifications;
+	}
+
+	private void notifyQueued(Ticket ticket, int position) {
+		try {
+			ticket.listener.onQueued(position);
+		} catch (Exception e) {
+			log.debug("대기 순번 통지 실패: {}", e.getMessage());
+		}
+	}
+
+	private void notifyGranted(Ticket ticket) {
+		try {
+			ticket.listener.onGranted(ticket);
+		} catch (Exception e) {
+			log.error("생성 시작 중 오류 발생", e);
+			ticket.release();
+		}
+	}
+
+	private enum TicketState {
+		WAITING, ACTIVE, RELEASED
+	}
+
+	/**
+	 * 생성 요청 한 건의 대기/실행 상태.
+	 * release() 는 여러 번 호출해도 안전하며, 대기 중이면 대기를 취소하고 실행 중이면 슬롯을 반환한다.
+	 */
+	public final class Ticket {
+
+		private final String clientId;
+		private final Listener listener;
+		private TicketState state = TicketState.WAITING;
+		private int position;
+		private long grantedAt;
+
+		private Ticket(String clientId, Listener listener) {
+			this.clientId = clientId;
+			this.listener = listener;
+		}
+
+		private void grant() {
+			state = TicketState.ACTIVE;
+			position = 0;
+			grantedAt = System.currentTimeMillis();
+		}
+
+		public void release() {
+			GenerationScheduler.this.release(this, false);
+		}
+
+		/**
+		 * 클라이언트가 모두 떠나 중단된 생성으로 기록하고 반환 (대기 중이면 대기 취소)
+		 */
+		public void cancel() {
+			GenerationScheduler.this.release(this, true);
+		}
+
+		/**
+		 * 아직 슬롯을 기다리는 중인지 여부
+		 *
+		 * @return 대기 중 여부
+		 */
+		public boolean isWaiting() {
+			synchronized (lock) {
+				return state == TicketState.WAITING;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+package egovframework.ragchat.ollama;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 모델 예열(warm-up) 및 유지.
+ * 애플리케이션 시작 후 ONNX 임베딩 모델로 한 번 임베딩하고 Ollama 채팅 모델을 메모리에 적재하며,
+ * 예열이 끝날 때까지 readiness 를 준비되지 않음(OUT_OF_SERVICE)으로 보고하여 트래픽이 들어오지 않게 한다.
+ * 예열 후에는 일정 주기로 적재 요청을 보내 유휴 시간에도 모델이 내려가지 않도록 한다.
+ */
+@Slf4j
+@Component("warmup")
+@RequiredArgsConstructor
+public class ModelWarmup implements HealthIndicator {
+
+	private static final long RETRY_INTERVAL_MILLIS = 10_000L;
+
+	private final EmbeddingModel embeddingModel;
+	private final OllamaModelLoader modelLoader;
+
+	@Value("${ollama.warmup.enabled}")
+	private Boolean warmupEnabled;
+
+	private final AtomicBoolean ready = new AtomicBoolean();
+	private volatile boolean embeddingReady;
+	private volatile Thread warmupThread;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!warmupEnabled) {
+			ready.set(true);
+			return;
+		}
+		warmupThread = new Thread(this::warmup, "model-warmup");
+		warmupThread.setDaemon(true);
+		warmupThread.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		Thread thread = warmupThread;
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	private void warmup() {
+		long startTime = System.currentTimeMillis();
+		while (!Thread.currentThread().isInterrupted()) {
+			if (!embeddingReady) {
+				try {
+					embeddingModel.embed("warm-up");
+					embeddingReady = true;
+					log.info("임베딩 모델 예열 완료");
+				} catch (Exception e) {
+					log.warn("임베딩 모델 예열 실패: {}", e.getMessage());
+				}
+			}
+			if (embeddingReady && modelLoader.load()) {
+				ready.set(true);
+				log.info("모델 예열 완료 - {}ms", System.currentTimeMillis() - startTime);
+				return;
+			}
+
+			log.info("모델 예열 재시도 대기 - {}ms", RETRY_INTERVAL_MILLIS);
+			try {
+				Thread.sleep(RETRY_INTERVAL_MILLIS);
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 예열이 끝난 뒤 주기적으로 모델 유지 요청
+	 */
+	@Scheduled(initialDelayString = "${ollama.keep-alive-ping-interval-ms}",
+			fixedDelayString = "${ollama.keep-alive-ping-interval-ms}")
+	public void keepAlive() {
+		if (warmupEnabled && ready.get() && !modelLoader.load()) {
+			log.warn("Ollama 모델 유지 요청 실패");
+		}
+	}
+
+	public boolean isReady() {
+		return ready.get();
+	}
+
+	@Override
+	public Health health() {
+		if (ready.get()) {
+			return Health.up().build();
+		}
+		return Health.outOfService().withDetail("embeddingModel", embeddingReady ? "ready" : "warming up")
+				.withDetail("chatModel", "warming up").build();
+	}
+
+}
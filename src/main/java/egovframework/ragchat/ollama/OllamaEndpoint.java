@@ -0,0 +1,121 @@
+package egovframework.ragchat.ollama;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+
+/**
+ * 생성 요청을 보낼 Ollama 서버 하나.
+ * 서버별 채팅 모델과 동시 실행 상한, 실행 중인 생성 수, 상태 확인 결과(정상 여부, 응답 시간)를 가진다.
+ */
+public final class OllamaEndpoint {
+
+	private final String baseUrl;
+	private final int maxConcurrent;
+	private final ChatLanguageModel chatModel;
+	private final StreamingChatLanguageModel streamingChatModel;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder requestCount = new LongAdder();
+	private final LongAdder failureCount = new LongAdder();
+	private volatile boolean healthy = true;
+	private volatile int consecutiveFailures;
+	private volatile double latencyMillis;
+
+	public OllamaEndpoint(String baseUrl, int maxConcurrent, ChatLanguageModel chatModel,
+			StreamingChatLanguageModel streamingChatModel) {
+		this.baseUrl = baseUrl;
+		this.maxConcurrent = maxConcurrent;
+		this.chatModel = chatModel;
+		this.streamingChatModel = streamingChatModel;
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public boolean isHealthy() {
+		return healthy;
+	}
+
+	public double getLatencyMillis() {
+		return latencyMillis;
+	}
+
+	ChatLanguageModel chatModel() {
+		return chatModel;
+	}
+
+	StreamingChatLanguageModel streamingChatModel() {
+		return streamingChatModel;
+	}
+
+	void acquired() {
+		inFlight.incrementAndGet();
+		requestCount.increment();
+	}
+
+	void released() {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * 상태 확인 또는 요청 성공 기록 (응답 시간은 지수 이동 평균으로 반영)
+	 *
+	 * @param millis 응답 시간 (요청 성공처럼 측정하지 않은 경우 음수)
+	 * @return 상태가 바뀌었는지 여부
+	 */
+	synchronized boolean recordSuccess(long millis) {
+		if (millis >= 0) {
+			latencyMillis = latencyMillis == 0 ? millis : latencyMillis * 0.7 + millis * 0.3;
+		}
+		consecutiveFailures = 0;
+		boolean changed = !healthy;
+		healthy = true;
+		return changed;
+	}
+
+	/**
+	 * 상태 확인 또는 요청 실패 기록
+	 *
+	 * @param failureThreshold 연속 실패가 이 횟수에 도달하면 순환에서 제외
+	 * @return 상태가 바뀌었는지 여부
+	 */
+	synchronized boolean recordFailure(int failureThreshold) {
+		failureCount.increment();
+		consecutiveFailures++;
+		boolean changed = healthy && consecutiveFailures >= failureThreshold;
+		if (changed) {
+			healthy = false;
+		}
+		return changed;
+	}
+
+	/**
+	 * 서버 통계
+	 */
+	Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("baseUrl", baseUrl);
+		stats.put("healthy", healthy);
+		stats.put("inFlight", inFlight.get());
+		stats.put("maxConcurrent", maxConcurrent);
+		stats.put("latencyMillis", Math.round(latencyMillis));
+		stats.put("requests", requestCount.sum());
+		stats.put("failures", failureCount.sum());
+		return stats;
+	}
+
+}
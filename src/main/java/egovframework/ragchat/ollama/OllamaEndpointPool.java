@@ -0,0 +1,217 @@
+package egovframework.ragchat.ollama;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ollama 서버 풀.
+ * 생성 요청은 실행 중인 생성이 가장 적은 정상 서버로 보내고(같으면 응답 시간이 짧은 서버),
+ * 서버마다 동시 실행 상한을 두어 상한에 여유가 있는 서버를 먼저 고른다.
+ * 주기적인 상태 확인(/api/version)이 연속으로 실패하거나 응답 시간이 상한을 넘는 서버, 생성 요청이 연속으로 실패한 서버는
+ * 순환에서 제외하고, 다시 성공하면 복귀시킨다. 정상 서버가 하나도 없으면 모든 서버를 후보로 사용한다.
+ * 정상 서버의 동시 실행 상한 합계가 바뀌면 용량 콜백으로 알려 생성 스케줄러의 동시 실행 수를 맞춘다.
+ */
+@Slf4j
+public class OllamaEndpointPool {
+
+	private final List<OllamaEndpoint> endpoints;
+	private final Duration probeTimeout;
+	private final long maxLatencyMillis;
+	private final int failureThreshold;
+	private final HttpClient httpClient;
+
+	private volatile IntConsumer capacityListener = capacity -> {
+	};
+
+	/**
+	 * @param endpoints 서버 목록
+	 * @param probeTimeoutMillis 상태 확인 요청 제한 시간
+	 * @param maxLatencyMillis 이 시간보다 느린 상태 확인 응답은 실패로 간주
+	 * @param failureThreshold 순환에서 제외할 연속 실패 횟수
+	 */
+	public OllamaEndpointPool(List<OllamaEndpoint> endpoints, long probeTimeoutMillis, long maxLatencyMillis,
+			int failureThreshold) {
+		if (endpoints.isEmpty()) {
+			throw new IllegalArgumentException("Ollama 서버가 하나 이상 필요합니다.");
+		}
+		this.endpoints = List.copyOf(endpoints);
+		this.probeTimeout = Duration.ofMillis(probeTimeoutMillis);
+		this.maxLatencyMillis = maxLatencyMillis;
+		this.failureThreshold = failureThreshold;
+		this.httpClient = HttpClient.newBuilder().connectTimeout(probeTimeout).build();
+	}
+
+	public List<OllamaEndpoint> getEndpoints() {
+		return endpoints;
+	}
+
+	/**
+	 * 생성 가능 용량이 바뀔 때 호출할 콜백 설정 (설정 즉시 현재 용량으로 한 번 호출)
+	 *
+	 * @param capacityListener 정상 서버의 동시 실행 상한 합계를 받는 콜백
+	 */
+	public void setCapacityListener(IntConsumer capacityListener) {
+		this.capacityListener = capacityListener;
+		capacityListener.accept(capacity());
+	}
+
+	/**
+	 * 생성 요청을 보낼 서버 선택. 생성이 끝나면 반드시 {@link #release(OllamaEndpoint, Throwable)} 를 호출해야 한다.
+	 *
+	 * @return 선택된 서버
+	 */
+	public synchronized OllamaEndpoint acquire() {
+		List<OllamaEndpoint> candidates = candidates();
+		OllamaEndpoint selected = null;
+		for (OllamaEndpoint endpoint : candidates) {
+			if (selected == null || isBetter(endpoint, selected)) {
+				selected = endpoint;
+			}
+		}
+		selected.acquired();
+		return selected;
+	}
+
+	/**
+	 * 생성 종료 처리. 생성 중단이 아닌 오류는 서버 실패로 집계한다.
+	 *
+	 * @param endpoint 생성을 보낸 서버
+	 * @param error 오류 (성공이면 null)
+	 */
+	public void release(OllamaEndpoint endpoint, Throwable error) {
+		endpoint.released();
+		boolean changed;
+		if (error == null) {
+			changed = endpoint.recordSuccess(-1);
+		} else if (GenerationCancelledException.isCause(error)) {
+			return;
+		} else {
+			changed = endpoint.recordFailure(failureThreshold);
+		}
+		if (changed) {
+			onHealthChanged(endpoint);
+		}
+	}
+
+	/**
+	 * 정상 서버의 동시 실행 상한 합계 (정상 서버가 없으면 전체 서버 기준)
+	 *
+	 * @return 생성 가능 용량
+	 */
+	public int capacity() {
+		int capacity = 0;
+		for (OllamaEndpoint endpoint : candidates()) {
+			capacity += endpoint.getMaxConcurrent();
+		}
+		return capacity;
+	}
+
+	/**
+	 * 모든 서버 상태 확인 (응답 여부와 응답 시간)
+	 */
+	@Scheduled(initialDelayString = "${ollama.pool.probe.interval-ms}",
+			fixedDelayString = "${ollama.pool.probe.interval-ms}")
+	public void probe() {
+		for (OllamaEndpoint endpoint : endpoints) {
+			long latency = probe(endpoint);
+			boolean changed = latency >= 0 ? endpoint.recordSuccess(latency) : endpoint.recordFailure(failureThreshold);
+			if (changed) {
+				onHealthChanged(endpoint);
+			}
+		}
+	}
+
+	/**
+	 * 서버 풀 통계
+	 *
+	 * @return 통계 정보
+	 */
+	public Map<String, Object> getStats() {
+		List<Map<String, Object>> endpointStats = new ArrayList<>(endpoints.size());
+		for (OllamaEndpoint endpoint : endpoints) {
+			endpointStats.add(endpoint.getStats());
+		}
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("capacity", capacity());
+		stats.put("endpoints", endpointStats);
+		return stats;
+	}
+
+	/**
+	 * 서버 하나의 상태 확인
+	 *
+	 * @return 응답 시간 (실패하거나 상한보다 느리면 -1)
+	 */
+	private long probe(OllamaEndpoint endpoint) {
+		long startTime = System.currentTimeMillis();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getBaseUrl() + "/api/version"))
+					.timeout(probeTimeout).GET().build();
+			HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+			long elapsed = System.currentTimeMillis() - startTime;
+			if (response.statusCode() != 200) {
+				log.debug("Ollama 상태 확인 실패 - URL: {}, 상태: {}", endpoint.getBaseUrl(), response.statusCode());
+				return -1;
+			}
+			if (elapsed > maxLatencyMillis) {
+				log.debug("Ollama 상태 확인 응답 지연 - URL: {}, {}ms", endpoint.getBaseUrl(), elapsed);
+				return -1;
+			}
+			return elapsed;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		} catch (IOException e) {
+			log.debug("Ollama 상태 확인 요청 실패 - URL: {}, {}", endpoint.getBaseUrl(), e.getMessage());
+			return -1;
+		}
+	}
+
+	private List<OllamaEndpoint> candidates() {
+		List<OllamaEndpoint> healthy = new ArrayList<>(endpoints.size());
+		for (OllamaEndpoint endpoint : endpoints) {
+			if (endpoint.isHealthy()) {
+				healthy.add(endpoint);
+			}
+		}
+		return healthy.isEmpty() ? endpoints : healthy;
+	}
+
+	/**
+	 * 상한에 여유가 있는 서버, 실행 중인 생성이 적은 서버, 응답 시간이 짧은 서버 순으로 우선
+	 */
+	private static boolean isBetter(OllamaEndpoint candidate, OllamaEndpoint current) {
+		boolean candidateAvailable = candidate.getInFlight() < candidate.getMaxConcurrent();
+		boolean currentAvailable = current.getInFlight() < current.getMaxConcurrent();
+		if (candidateAvailable != currentAvailable) {
+			return candidateAvailable;
+		}
+		if (candidate.getInFlight() != current.getInFlight()) {
+			return candidate.getInFlight() < current.getInFlight();
+		}
+		return candidate.getLatencyMillis() < current.getLatencyMillis();
+	}
+
+	private void onHealthChanged(OllamaEndpoint endpoint) {
+		if (endpoint.isHealthy()) {
+			log.info("Ollama 서버 복귀 - URL: {}", endpoint.getBaseUrl());
+		} else {
+			log.warn("Ollama 서버 순환 제외 - URL: {}", endpoint.getBaseUrl());
+		}
+		capacityListener.accept(capacity());
+	}
+
+}
@@ -0,0 +1,94 @@
+package egovframework.ragchat.ollama;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ollama 모델 적재(preload) 및 메모리 유지 요청.
+ * 프롬프트 없이 /api/generate 를 호출하면 Ollama 는 응답을 생성하지 않고 모델만 메모리에 올리며,
+ * keep_alive 로 지정한 시간 동안 모델을 내리지 않는다.
+ * 러너 설정(num_ctx)이 채팅 요청과 다르면 Ollama 가 모델을 다시 적재하므로 채팅 모델과 같은 값을 전달한다.
+ * 서버 풀의 모든 서버에 요청하며, 하나 이상 적재되면 성공으로 본다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OllamaModelLoader {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final OllamaEndpointPool endpointPool;
+
+	@Value("${ollama.model-name}")
+	private String ollamaModelName;
+
+	@Value("${ollama.num-ctx}")
+	private Integer numCtx;
+
+	@Value("${ollama.keep-alive}")
+	private String keepAlive;
+
+	private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+	/**
+	 * 모든 서버에서 채팅 모델을 메모리에 적재하고 유지 시간 갱신.
+	 *
+	 * @return 적재 성공 여부 (하나 이상의 서버에서 성공)
+	 */
+	public boolean load() {
+		boolean loaded = false;
+		for (OllamaEndpoint endpoint : endpointPool.getEndpoints()) {
+			loaded |= load(endpoint.getBaseUrl());
+		}
+		return loaded;
+	}
+
+	private boolean load(String ollamaBaseUrl) {
+		long startTime = System.currentTimeMillis();
+		try {
+			Map<String, Object> options = new LinkedHashMap<>();
+			options.put("num_ctx", numCtx);
+
+			Map<String, Object> body = new LinkedHashMap<>();
+			body.put("model", ollamaModelName);
+			body.put("keep_alive", keepAlive);
+			body.put("options", options);
+
+			HttpRequest request = HttpRequest.newBuilder(URI.create(ollamaBaseUrl + "/api/generate"))
+					.timeout(Duration.ofSeconds(120))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(body)))
+					.build();
+			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() != 200) {
+				log.warn("Ollama 모델 적재 실패 - URL: {}, 상태: {}, 응답: {}", ollamaBaseUrl, response.statusCode(),
+						response.body());
+				return false;
+			}
+			log.debug("Ollama 모델 적재 완료 - URL: {}, 모델: {}, 유지 시간: {}, {}ms", ollamaBaseUrl, ollamaModelName,
+					keepAlive, System.currentTimeMillis() - startTime);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (IOException e) {
+			log.warn("Ollama 모델 적재 요청 실패 - URL: {}, {}", ollamaBaseUrl, e.getMessage());
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package egovframework.ragchat.ollama;
+
+import java.util.List;
+import java.util.function.Function;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+/**
+ * Ollama 서버 풀로 요청을 나누어 보내는 채팅 모델.
+ * 호출마다 {@link OllamaEndpointPool} 에서 서버를 골라 해당 서버의 모델로 생성하고, 끝나면 서버를 반환한다.
+ */
+public class PooledChatLanguageModel implements ChatLanguageModel {
+
+	private final OllamaEndpointPool pool;
+
+	public PooledChatLanguageModel(OllamaEndpointPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public Response<AiMessage> generate(List<ChatMessage> messages) {
+		return call(model -> model.generate(messages));
+	}
+
+	@Override
+	public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+		return call(model -> model.generate(messages, toolSpecifications));
+	}
+
+	@Override
+	public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+		return call(model -> model.generate(messages, toolSpecification));
+	}
+
+	private Response<AiMessage> call(Function<ChatLanguageModel, Response<AiMessage>> generation) {
+		OllamaEndpoint endpoint = pool.acquire();
+		Response<AiMessage> response;
+		try {
+			response = generation.apply(endpoint.chatModel());
+		} catch (RuntimeException e) {
+			pool.release(endpoint, e);
+			throw e;
+		}
+		pool.release(endpoint, null);
+		return response;
+	}
+
+}
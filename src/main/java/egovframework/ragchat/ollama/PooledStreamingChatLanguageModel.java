@@ -0,0 +1,81 @@
+package egovframework.ragchat.ollama;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+/**
+ * Ollama 서버 풀로 요청을 나누어 보내는 스트리밍 채팅 모델.
+ * 호출마다 {@link OllamaEndpointPool} 에서 서버를 골라 생성하고, 완료 또는 오류 콜백에서 서버를 반환한다.
+ */
+public class PooledStreamingChatLanguageModel implements StreamingChatLanguageModel {
+
+	private final OllamaEndpointPool pool;
+
+	public PooledStreamingChatLanguageModel(OllamaEndpointPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+		call(handler, (model, releasing) -> model.generate(messages, releasing));
+	}
+
+	@Override
+	public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+			StreamingResponseHandler<AiMessage> handler) {
+		call(handler, (model, releasing) -> model.generate(messages, toolSpecifications, releasing));
+	}
+
+	@Override
+	public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+			StreamingResponseHandler<AiMessage> handler) {
+		call(handler, (model, releasing) -> model.generate(messages, toolSpecification, releasing));
+	}
+
+	private void call(StreamingResponseHandler<AiMessage> handler,
+			BiConsumer<StreamingChatLanguageModel, StreamingResponseHandler<AiMessage>> generation) {
+		OllamaEndpoint endpoint = pool.acquire();
+		AtomicBoolean released = new AtomicBoolean();
+
+		StreamingResponseHandler<AiMessage> releasing = new StreamingResponseHandler<AiMessage>() {
+			@Override
+			public void onNext(String token) {
+				handler.onNext(token);
+			}
+
+			@Override
+			public void onComplete(Response<AiMessage> response) {
+				if (released.compareAndSet(false, true)) {
+					pool.release(endpoint, null);
+				}
+				handler.onComplete(response);
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				if (released.compareAndSet(false, true)) {
+					pool.release(endpoint, error);
+				}
+				handler.onError(error);
+			}
+		};
+
+		try {
+			generation.accept(endpoint.streamingChatModel(), releasing);
+		} catch (RuntimeException e) {
+			if (released.compareAndSet(false, true)) {
+				pool.release(endpoint, e);
+			}
+			throw e;
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+package egovframework.ragchat.retrieval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import dev.langchain4j.data.segment.TextSegment;
+import lombok.Getter;
+
+/**
+ * 세그먼트 본문에 대한 BM25 역색인 (생성 후 변경하지 않음).
+ * 한글은 형태소 분석 없이 음절 바이그램으로, 영문/숫자는 단어 단위로 색인하여
+ * API 이름이나 쿼리 DSL 키워드처럼 임베딩 검색에서 놓치기 쉬운 정확한 용어를 찾는다.
+ * 포스팅 목록은 용어별 int 배열(문서 번호, 출현 빈도)로 보관한다.
+ */
+public final class Bm25Index {
+
+	private static final float K1 = 1.2f;
+	private static final float B = 0.75f;
+
+	private static final Bm25Index EMPTY = new Bm25Index(new TextSegment[0], Collections.emptyMap(), new int[0][],
+			new int[0][], new int[0]);
+
+	private final TextSegment[] segments;
+	private final Map<String, Integer> termIds;
+	private final int[][] postingDocs;
+	private final int[][] postingFreqs;
+	private final int[] docLengths;
+	private final float averageDocLength;
+
+	private Bm25Index(TextSegment[] segments, Map<String, Integer> termIds, int[][] postingDocs, int[][] postingFreqs,
+			int[] docLengths) {
+		this.segments = segments;
+		this.termIds = termIds;
+		this.postingDocs = postingDocs;
+		this.postingFreqs = postingFreqs;
+		this.docLengths = docLengths;
+		long total = 0;
+		for (int length : docLengths) {
+			total += length;
+		}
+		this.averageDocLength = docLengths.length == 0 ? 0 : (float) total / docLengths.length;
+	}
+
+	public static Bm25Index empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * 세그먼트 목록으로 색인 생성.
+	 *
+	 * @param segments 색인할 세그먼트
+	 * @return BM25 색인
+	 */
+	public static Bm25Index build(List<TextSegment> segments) {
+		Map<String, Integer> termIds = new HashMap<>();
+		List<IntList> docs = new ArrayList<>();
+		List<IntList> freqs = new ArrayList<>();
+		int[] docLengths = new int[segments.size()];
+
+		Map<String, Integer> termFreqs = new HashMap<>();
+		for (int doc = 0; doc < segments.size(); doc++) {
+			List<String> tokens = tokenize(segments.get(doc).text());
+			docLengths[doc] = tokens.size();
+
+			termFreqs.clear();
+			for (String token : tokens) {
+				termFreqs.merge(token, 1, Integer::sum);
+			}
+			for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+				Integer termId = termIds.get(entry.getKey());
+				if (termId == null) {
+					termId = termIds.size();
+					termIds.put(entry.getKey(), termId);
+					docs.add(new IntList());
+					freqs.add(new IntList());
+				}
+				docs.get(termId).add(doc);
+				freqs.get(termId).add(entry.getValue());
+			}
+		}
+
+		int[][] postingDocs = new int[docs.size()][];
+		int[][] postingFreqs = new int[freqs.size()][];
+		for (int termId = 0; termId < docs.size(); termId++) {
+			postingDocs[termId] = docs.get(termId).toArray();
+			postingFreqs[termId] = freqs.get(termId).toArray();
+		}
+		return new Bm25Index(segments.toArray(new TextSegment[0]), termIds, postingDocs, postingFreqs, docLengths);
+	}
+
+	/**
+	 * BM25 점수 기준 상위 세그먼트 검색.
+	 * 결과마다 질의 기준 정규화 점수(0~1)를 함께 반환한다. 정규화 점수는 BM25 점수를 질의 용어가 모두 무한히 출현할 때의
+	 * 상한(색인에 있는 질의 용어별 IDF x (k1 + 1) 의 합)으로 나눈 값으로, 색인 크기나 질의 길이와 관계없이 같은 기준으로 비교할 수 있다.
+	 *
+	 * @param query 질의
+	 * @param maxResults 최대 결과 수
+	 * @return 점수 내림차순 검색 결과
+	 */
+	public List<Match> search(String query, int maxResults) {
+		if (segments.length == 0 || maxResults <= 0) {
+			return Collections.emptyList();
+		}
+
+		float[] scores = new float[segments.length];
+		boolean matched = false;
+		double maxScore = 0;
+		for (String term : new LinkedHashSet<>(tokenize(query))) {
+			Integer termId = termIds.get(term);
+			if (termId == null) {
+				continue;
+			}
+			matched = true;
+			int[] docs = postingDocs[termId];
+			int[] freqs = postingFreqs[termId];
+			double idf = Math.log(1 + (segments.length - docs.length + 0.5) / (docs.length + 0.5));
+			maxScore += idf * (K1 + 1);
+			for (int i = 0; i < docs.length; i++) {
+				float tf = freqs[i];
+				float norm = K1 * (1 - B + B * docLengths[docs[i]] / averageDocLength);
+				scores[docs[i]] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+			}
+		}
+		if (!matched) {
+			return Collections.emptyList();
+		}
+
+		PriorityQueue<Integer> top = new PriorityQueue<>(maxResults + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+		for (int doc = 0; doc < scores.length; doc++) {
+			if (scores[doc] <= 0) {
+				continue;
+			}
+			if (top.size() < maxResults) {
+				top.add(doc);
+			} else if (scores[doc] > scores[top.peek()]) {
+				top.poll();
+				top.add(doc);
+			}
+		}
+
+		List<Match> matches = new ArrayList<>(top.size());
+		while (!top.isEmpty()) {
+			int doc = top.poll();
+			matches.add(new Match(segments[doc], scores[doc], scores[doc] / maxScore));
+		}
+		Collections.reverse(matches);
+		return matches;
+	}
+
+	/**
+	 * 색인된 세그먼트 수
+	 */
+	public int size() {
+		return segments.length;
+	}
+
+	/**
+	 * 색인된 용어 수
+	 */
+	public int termCount() {
+		return termIds.size();
+	}
+
+	/**
+	 * 색인/질의 공통 토큰화.
+	 * 한글 음절이 이어진 구간은 음절 바이그램(한 음절이면 그대로), 영문/숫자/밑줄 구간은 소문자 단어로 분리한다.
+	 *
+	 * @param text 본문
+	 * @return 토큰 목록
+	 */
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		int length = text.length();
+		int i = 0;
+		while (i < length) {
+			char c = text.charAt(i);
+			if (isHangul(c)) {
+				int start = i;
+				while (i < length && isHangul(text.charAt(i))) {
+					i++;
+				}
+				if (i - start == 1) {
+					tokens.add(text.substring(start, i));
+				} else {
+					for (int j = start; j + 1 < i; j++) {
+						tokens.add(text.substring(j, j + 2));
+					}
+				}
+			} else if (isWordChar(c)) {
+				int start = i;
+				while (i < length && isWordChar(text.charAt(i))) {
+					i++;
+				}
+				tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+			} else {
+				i++;
+			}
+		}
+		return tokens;
+	}
+
+	private static boolean isHangul(char c) {
+		return c >= '가' && c <= '힣';
+	}
+
+	private static boolean isWordChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	/**
+	 * 검색 결과
+	 */
+	@Getter
+	public static final class Match {
+		private final TextSegment segment;
+		private final double score;
+		// 질의의 점수 상한 대비 비율 (0~1)
+		private final double normalizedScore;
+
+		private Match(TextSegment segment, double score, double normalizedScore) {
+			this.segment = segment;
+			this.score = score;
+			this.normalizedScore = normalizedScore;
+		}
+	}
+
+	/**
+	 * 박싱 없이 int 를 모으는 가변 배열
+	 */
+	private static final class IntList {
+		private int[] values = new int[4];
+		private int size;
+
+		private void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		private int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+package egovframework.ragchat.retrieval;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.aggregator.ContentAggregator;
+import dev.langchain4j.rag.query.Query;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.util.ContentKeys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 검색 결과로 프롬프트 컨텍스트를 구성.
+ * 관련도 순으로 토큰 예산 안에 들어가는 세그먼트를 고른 뒤, 같은 출처끼리 문서 내 순서(index 메타데이터)대로 정렬하고
+ * 인접한 청크는 분할 시 겹친 부분을 제거하여 하나로 합친다. 메타데이터 문자열 없이 본문과 출처만 포함한다.
+ * 여러 지식 베이스의 결과는 같은 이름의 문서라도 지식 베이스별로 따로 묶는다.
+ * AiServices 경로에서는 ContentAggregator 로 사용되어 조립된 컨텍스트 하나를 반환한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContextAssembler implements ContentAggregator {
+
+	// 분할 시 겹치는 문자 수(150)보다 넉넉하게 비교하고, 우연히 같은 짧은 문자열은 겹침으로 보지 않음
+	private static final int MAX_OVERLAP_CHARS = 400;
+	private static final int MIN_OVERLAP_CHARS = 20;
+
+	private final RagMetrics metrics;
+
+	@Value("${rag.context.max-tokens}")
+	private int maxTokens;
+
+	@Override
+	public List<Content> aggregate(Map<Query, Collection<List<Content>>> queryToContents) {
+		List<Content> contents = new ArrayList<>();
+		for (Collection<List<Content>> lists : queryToContents.values()) {
+			lists.forEach(contents::addAll);
+		}
+		String context = assemble(contents);
+		if (context.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Collections.singletonList(Content.from(context));
+	}
+
+	/**
+	 * 검색 결과로 컨텍스트 문자열 구성.
+	 *
+	 * @param contents 관련도 순 검색 결과
+	 * @return 출처별로 묶인 컨텍스트
+	 */
+	public String assemble(List<Content> contents) {
+		// 관련도 순으로 예산 안에서 선택 (중복 세그먼트 제외)
+		Map<String, List<Chunk>> bySource = new LinkedHashMap<>();
+		Set<String> seen = new HashSet<>();
+		int usedTokens = 0;
+		int selected = 0;
+		for (Content content : contents) {
+			TextSegment segment = content.textSegment();
+			if (!seen.add(ContentKeys.of(segment))) {
+				continue;
+			}
+			// 겹침이 공백에서 시작하거나 끝날 수 있으므로 원문 그대로 보관하고 출력할 때 앞뒤 공백 제거
+			String text = segment.text();
+			int tokens = estimateTokens(text);
+			if (usedTokens + tokens > maxTokens) {
+				if (selected > 0) {
+					continue;
+				}
+				// 첫 세그먼트가 예산보다 크면 예산만큼 잘라서 사용
+				text = truncate(text, maxTokens);
+				tokens = estimateTokens(text);
+			}
+			usedTokens += tokens;
+			selected++;
+
+			bySource.computeIfAbsent(sourceLabel(segment), key -> new ArrayList<>())
+					.add(new Chunk(indexOf(segment), text));
+		}
+
+		StringBuilder context = new StringBuilder();
+		for (Map.Entry<String, List<Chunk>> entry : bySource.entrySet()) {
+			List<Chunk> chunks = entry.getValue();
+			chunks.sort((a, b) -> Integer.compare(a.index, b.index));
+
+			if (context.length() > 0) {
+				context.append("\n\n");
+			}
+			if (!entry.getKey().isEmpty()) {
+				context.append("[출처: ").append(entry.getKey()).append("]\n");
+			}
+
+			// 이어지는 청크를 합친 구간
+			StringBuilder run = new StringBuilder();
+			Chunk previous = null;
+			for (Chunk chunk : chunks) {
+				if (previous == null) {
+					run.append(chunk.text);
+				} else if (previous.index >= 0 && chunk.index == previous.index + 1) {
+					// 인접 청크는 겹친 부분을 제거하고 이어 붙임
+					int overlap = overlap(previous.text, chunk.text);
+					if (overlap > 0) {
+						run.append(chunk.text, overlap, chunk.text.length());
+					} else {
+						stripTrailing(run);
+						run.append('\n').append(chunk.text.stripLeading());
+					}
+				} else {
+					context.append(run.toString().strip()).append("\n...\n");
+					run.setLength(0);
+					run.append(chunk.text);
+				}
+				previous = chunk;
+			}
+			context.append(run.toString().strip());
+		}
+
+		log.debug("컨텍스트 구성 - 세그먼트 {}개 중 {}개, 약 {}토큰", contents.size(), selected, usedTokens);
+		String assembled = context.toString();
+		metrics.recordContext(assembled);
+		return assembled;
+	}
+
+	/**
+	 * 토큰 수 추정 (한글 음절은 1토큰, 그 외 문자는 4자당 1토큰으로 계산)
+	 *
+	 * @param text 본문
+	 * @return 추정 토큰 수
+	 */
+	public static int estimateTokens(String text) {
+		int hangul = 0;
+		int other = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= '가' && c <= '힣') {
+				hangul++;
+			} else if (!Character.isWhitespace(c)) {
+				other++;
+			}
+		}
+		return hangul + (other + 3) / 4;
+	}
+
+	/**
+	 * 앞 청크의 끝과 뒤 청크의 시작이 겹치는 최대 길이
+	 */
+	static int overlap(String previous, String next) {
+		int max = Math.min(MAX_OVERLAP_CHARS, Math.min(previous.length(), next.length()));
+		for (int length = max; length >= MIN_OVERLAP_CHARS; length--) {
+			if (previous.regionMatches(previous.length() - length, next, 0, length)) {
+				return length;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * 추정 토큰 수가 예산 안에 들어오도록 뒷부분을 잘라낸 문자열
+	 *
+	 * @param text 본문
+	 * @param tokenBudget 토큰 예산
+	 * @return 잘라낸 본문
+	 */
+	public static String truncate(String text, int tokenBudget) {
+		int end = text.length();
+		while (end > 0 && estimateTokens(text.substring(0, end)) > tokenBudget) {
+			end = Math.max(0, end - Math.max(1, (end - tokenBudget) / 2));
+		}
+		return text.substring(0, end);
+	}
+
+	/**
+	 * 출처 표시 (여러 지식 베이스의 결과면 지식 베이스 이름 포함, 출처가 없으면 빈 문자열)
+	 */
+	private static String sourceLabel(TextSegment segment) {
+		String source = segment.metadata().getString("source");
+		String knowledgeBase = segment.metadata().getString(ContentKeys.KNOWLEDGE_BASE);
+		if (knowledgeBase == null) {
+			return source != null ? source : "";
+		}
+		return knowledgeBase + "/" + (source != null ? source : "");
+	}
+
+	private static void stripTrailing(StringBuilder text) {
+		int end = text.length();
+		while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+			end--;
+		}
+		text.setLength(end);
+	}
+
+	private static int indexOf(TextSegment segment) {
+		Object index = segment.metadata().toMap().get("index");
+		if (index == null) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(index.toString());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static final class Chunk {
+		private final int index;
+		private final String text;
+
+		private Chunk(int index, String text) {
+			this.index = index;
+			this.text = text;
+		}
+	}
+
+}
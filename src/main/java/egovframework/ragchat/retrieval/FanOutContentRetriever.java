@@ -0,0 +1,105 @@
+package egovframework.ragchat.retrieval;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.util.ContentKeys;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 지식 베이스의 검색기를 병렬로 실행하고 결과를 하나로 합치는 검색기.
+ * 제한 시간 안에 끝나지 않은 검색기와 실패한 검색기의 결과는 버리고 끝난 결과만 합친다.
+ * 검색기마다 점수 척도(벡터 유사도, RRF, 교차 인코더)가 다를 수 있으므로 하이브리드 검색과 같이
+ * 각 결과의 순위로 1 / (k + 순위) 를 더한 값으로 정렬한다.
+ * 검색은 스레드 풀에서 실행되므로 요청 스레드의 지표 엔드포인트를 각 검색 작업에 전달한다.
+ * 지식 베이스마다 같은 이름의 문서가 있을 수 있으므로 결과 세그먼트에 지식 베이스 이름을 붙여 서로 다른 세그먼트로 구분한다.
+ */
+@Slf4j
+public class FanOutContentRetriever implements ContentRetriever {
+
+	private final Map<String, ContentRetriever> retrievers;
+	private final ExecutorService executor;
+	private final long deadlineNanos;
+	private final int maxResults;
+	private final int rrfK;
+	private final RagMetrics metrics;
+
+	/**
+	 * @param retrievers 지식 베이스 이름별 검색기 (순서대로 동점 우선)
+	 * @param executor 검색을 실행할 스레드 풀
+	 * @param deadline 검색 제한 시간
+	 * @param maxResults 최종 결과 수
+	 * @param rrfK RRF 상수
+	 * @param metrics 성능 지표
+	 */
+	public FanOutContentRetriever(Map<String, ContentRetriever> retrievers, ExecutorService executor,
+			Duration deadline, int maxResults, int rrfK, RagMetrics metrics) {
+		this.retrievers = new LinkedHashMap<>(retrievers);
+		this.executor = executor;
+		this.deadlineNanos = deadline.toNanos();
+		this.maxResults = maxResults;
+		this.rrfK = rrfK;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public List<Content> retrieve(Query query) {
+		List<String> names = new ArrayList<>(retrievers.keySet());
+		List<Callable<List<Content>>> tasks = new ArrayList<>(names.size());
+		for (String name : names) {
+			ContentRetriever retriever = retrievers.get(name);
+			tasks.add(metrics.withCurrentEndpoint(() -> retriever.retrieve(query)));
+		}
+
+		// 제한 시간이 지나면 끝나지 않은 검색은 취소됨 (대기열에 남은 검색은 실행되지 않음)
+		List<Future<List<Content>>> futures;
+		try {
+			futures = executor.invokeAll(tasks, deadlineNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return List.of();
+		}
+
+		RrfFuser fuser = new RrfFuser(rrfK);
+		for (int i = 0; i < futures.size(); i++) {
+			List<Content> results;
+			try {
+				results = futures.get(i).get();
+			} catch (CancellationException e) {
+				log.warn("지식 베이스 검색 제한 시간 초과, 결과 제외: {}", names.get(i));
+				continue;
+			} catch (ExecutionException e) {
+				log.warn("지식 베이스 검색 중 오류 발생, 결과 제외: {} - {}", names.get(i), e.getCause().getMessage());
+				continue;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			for (int rank = 0; rank < results.size(); rank++) {
+				fuser.add(tag(results.get(rank).textSegment(), names.get(i)), rank);
+			}
+		}
+		return fuser.top(maxResults);
+	}
+
+	private static TextSegment tag(TextSegment segment, String knowledgeBase) {
+		Metadata metadata = segment.metadata().copy().put(ContentKeys.KNOWLEDGE_BASE, knowledgeBase);
+		return TextSegment.from(segment.text(), metadata);
+	}
+
+}
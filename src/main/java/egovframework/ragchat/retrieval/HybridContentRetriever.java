@@ -0,0 +1,65 @@
+package egovframework.ragchat.retrieval;
+
+import java.util.List;
+
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+
+/**
+ * 벡터 검색과 BM25 검색 결과를 RRF(Reciprocal Rank Fusion)로 합치는 검색기.
+ * 두 검색의 점수 척도가 다르므로 순위만 사용하여 1 / (k + 순위) 를 더한 값으로 정렬한다.
+ * 관련도 기준은 융합 전에 각 검색에 적용한다. 벡터 후보는 벡터 검색기의 minScore 로, BM25 후보는
+ * 정규화 점수({@link Bm25Index.Match#getNormalizedScore()})가 lexicalMinScore 이상인 것만 사용한다.
+ * (융합 후에는 BM25 에서만 찾은 세그먼트의 벡터 점수가 없어 minScore 를 적용할 수 없음)
+ */
+public class HybridContentRetriever implements ContentRetriever {
+
+	private final ContentRetriever vectorRetriever;
+	private final LexicalIndex lexicalIndex;
+	private final int lexicalCandidates;
+	private final double lexicalMinScore;
+	private final int maxResults;
+	private final int rrfK;
+
+	/**
+	 * @param vectorRetriever 벡터 검색기 (후보 수만큼 반환하도록 설정)
+	 * @param lexicalIndex BM25 색인
+	 * @param lexicalCandidates BM25 후보 수
+	 * @param lexicalMinScore BM25 후보의 최소 정규화 점수 (0~1)
+	 * @param maxResults 최종 결과 수
+	 * @param rrfK RRF 상수 (클수록 하위 순위의 영향이 커짐)
+	 */
+	public HybridContentRetriever(ContentRetriever vectorRetriever, LexicalIndex lexicalIndex, int lexicalCandidates,
+			double lexicalMinScore, int maxResults, int rrfK) {
+		this.vectorRetriever = vectorRetriever;
+		this.lexicalIndex = lexicalIndex;
+		this.lexicalCandidates = lexicalCandidates;
+		this.lexicalMinScore = lexicalMinScore;
+		this.maxResults = maxResults;
+		this.rrfK = rrfK;
+	}
+
+	@Override
+	public List<Content> retrieve(Query query) {
+		// 벡터 검색 결과가 먼저 들어가므로 같은 세그먼트는 저장소 메타데이터를 유지
+		RrfFuser fuser = new RrfFuser(rrfK);
+
+		List<Content> vectorResults = vectorRetriever.retrieve(query);
+		for (int rank = 0; rank < vectorResults.size(); rank++) {
+			fuser.add(vectorResults.get(rank).textSegment(), rank);
+		}
+
+		List<Bm25Index.Match> lexicalResults = lexicalIndex.get().search(query.text(), lexicalCandidates);
+		for (int rank = 0; rank < lexicalResults.size(); rank++) {
+			// 점수 내림차순이므로 기준 미만이 나오면 나머지도 모두 미만
+			if (lexicalResults.get(rank).getNormalizedScore() < lexicalMinScore) {
+				break;
+			}
+			fuser.add(lexicalResults.get(rank).getSegment(), rank);
+		}
+
+		return fuser.top(maxResults);
+	}
+
+}
@@ -0,0 +1,41 @@
+package egovframework.ragchat.retrieval;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.segment.TextSegment;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 현재 BM25 색인 보관.
+ * 문서 적재 시 새 색인을 만든 뒤 한 번에 교체하므로 검색 중인 요청은 이전 색인을 그대로 사용한다.
+ */
+@Slf4j
+@Component
+public class LexicalIndex {
+
+	private final AtomicReference<Bm25Index> current = new AtomicReference<>(Bm25Index.empty());
+
+	/**
+	 * 현재 색인 조회
+	 */
+	public Bm25Index get() {
+		return current.get();
+	}
+
+	/**
+	 * 세그먼트 목록으로 색인을 다시 만들어 교체.
+	 *
+	 * @param segments 색인할 전체 세그먼트
+	 */
+	public void rebuild(List<TextSegment> segments) {
+		long startTime = System.currentTimeMillis();
+		Bm25Index index = Bm25Index.build(segments);
+		current.set(index);
+		log.info("BM25 색인 생성 완료 - 세그먼트 {}개, 용어 {}개, {}ms", index.size(), index.termCount(),
+				System.currentTimeMillis() - startTime);
+	}
+
+}
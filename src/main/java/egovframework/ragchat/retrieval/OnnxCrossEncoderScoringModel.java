@@ -0,0 +1,108 @@
+package egovframework.ragchat.retrieval;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ai.djl.huggingface.tokenizers.Encoding;
+import ai.djl.huggingface.tokenizers.HuggingFaceTokenizer;
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.scoring.ScoringModel;
+
+/**
+ * ONNX 교차 인코더(cross-encoder) 점수 모델.
+ * 임베딩 모델(langchain4j-embeddings)이 사용하는 onnxruntime 과 HuggingFace 토크나이저로 직접 실행한다.
+ * scoreAll 에 전달한 (질의, 세그먼트) 쌍을 가장 긴 쌍 길이로 패딩하여 한 번의 추론으로 점수화하며,
+ * 점수는 모델의 로짓 값을 그대로 사용한다 (순서 비교에만 사용하므로 정규화하지 않음).
+ */
+public class OnnxCrossEncoderScoringModel implements ScoringModel {
+
+	// BERT 계열 교차 인코더의 최대 입력 토큰 수
+	private static final int MAX_LENGTH = 512;
+
+	private static final String INPUT_IDS = "input_ids";
+	private static final String ATTENTION_MASK = "attention_mask";
+	private static final String TOKEN_TYPE_IDS = "token_type_ids";
+
+	private final OrtEnvironment environment;
+	private final OrtSession session;
+	private final HuggingFaceTokenizer tokenizer;
+	private final boolean usesTokenTypeIds;
+
+	/**
+	 * @param modelPath ONNX 모델 파일 경로
+	 * @param tokenizerPath tokenizer.json 경로
+	 */
+	public OnnxCrossEncoderScoringModel(String modelPath, String tokenizerPath) {
+		try {
+			this.environment = OrtEnvironment.getEnvironment();
+			this.session = environment.createSession(modelPath, new OrtSession.SessionOptions());
+			this.tokenizer = HuggingFaceTokenizer.builder()
+					.optTokenizerPath(Paths.get(tokenizerPath))
+					.optMaxLength(MAX_LENGTH)
+					.optTruncation(true)
+					.optPadding(false)
+					.build();
+			this.usesTokenTypeIds = session.getInputNames().contains(TOKEN_TYPE_IDS);
+		} catch (OrtException | IOException e) {
+			throw new IllegalStateException("교차 인코더 모델 로드 실패: " + modelPath, e);
+		}
+	}
+
+	@Override
+	public Response<List<Double>> scoreAll(List<TextSegment> segments, String query) {
+		if (segments.isEmpty()) {
+			return Response.from(List.of());
+		}
+
+		List<Encoding> encodings = new ArrayList<>(segments.size());
+		int maxLength = 0;
+		for (TextSegment segment : segments) {
+			Encoding encoding = tokenizer.encode(query, segment.text());
+			encodings.add(encoding);
+			maxLength = Math.max(maxLength, encoding.getIds().length);
+		}
+
+		// 패딩 위치는 0 (attention_mask 0 이므로 점수에 영향 없음)
+		long[][] inputIds = new long[encodings.size()][maxLength];
+		long[][] attentionMask = new long[encodings.size()][maxLength];
+		long[][] tokenTypeIds = new long[encodings.size()][maxLength];
+		for (int i = 0; i < encodings.size(); i++) {
+			Encoding encoding = encodings.get(i);
+			System.arraycopy(encoding.getIds(), 0, inputIds[i], 0, encoding.getIds().length);
+			System.arraycopy(encoding.getAttentionMask(), 0, attentionMask[i], 0, encoding.getAttentionMask().length);
+			System.arraycopy(encoding.getTypeIds(), 0, tokenTypeIds[i], 0, encoding.getTypeIds().length);
+		}
+
+		Map<String, OnnxTensor> inputs = new HashMap<>();
+		try {
+			inputs.put(INPUT_IDS, OnnxTensor.createTensor(environment, inputIds));
+			inputs.put(ATTENTION_MASK, OnnxTensor.createTensor(environment, attentionMask));
+			if (usesTokenTypeIds) {
+				inputs.put(TOKEN_TYPE_IDS, OnnxTensor.createTensor(environment, tokenTypeIds));
+			}
+			try (OrtSession.Result result = session.run(inputs)) {
+				float[][] logits = (float[][]) result.get(0).getValue();
+				List<Double> scores = new ArrayList<>(logits.length);
+				for (float[] logit : logits) {
+					// 출력이 [관련 없음, 관련 있음] 두 값인 모델은 마지막 값을 사용
+					scores.add((double) logit[logit.length - 1]);
+				}
+				return Response.from(scores);
+			}
+		} catch (OrtException e) {
+			throw new IllegalStateException("교차 인코더 추론 실패", e);
+		} finally {
+			inputs.values().forEach(OnnxTensor::close);
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package egovframework.ragchat.retrieval;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.scoring.ScoringModel;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 1차 검색 후보를 교차 인코더(cross-encoder)로 재정렬하는 검색기.
+ * 후보를 배치 단위로 점수화하며, 시간 예산을 넘기면 남은 후보는 점수화하지 않고
+ * 점수화한 앞쪽 후보는 재정렬 순서로, 나머지는 1차 검색 순서 그대로 이어 붙인다.
+ * (이미 시작한 배치는 중단할 수 없으므로 배치 크기로 최대 지연을 조절한다)
+ */
+@Slf4j
+public class RerankingContentRetriever implements ContentRetriever {
+
+	private final ContentRetriever candidateRetriever;
+	private final ScoringModel scoringModel;
+	private final int maxResults;
+	private final int batchSize;
+	private final long budgetNanos;
+
+	/**
+	 * @param candidateRetriever 1차 검색기 (재정렬할 후보 수만큼 반환하도록 설정)
+	 * @param scoringModel 교차 인코더 점수 모델
+	 * @param maxResults 최종 결과 수
+	 * @param batchSize 한 번에 점수화할 후보 수
+	 * @param budget 재정렬 시간 예산
+	 */
+	public RerankingContentRetriever(ContentRetriever candidateRetriever, ScoringModel scoringModel, int maxResults,
+			int batchSize, Duration budget) {
+		this.candidateRetriever = candidateRetriever;
+		this.scoringModel = scoringModel;
+		this.maxResults = maxResults;
+		this.batchSize = Math.max(1, batchSize);
+		this.budgetNanos = budget.toNanos();
+	}
+
+	@Override
+	public List<Content> retrieve(Query query) {
+		List<Content> candidates = candidateRetriever.retrieve(query);
+		if (candidates.size() <= 1) {
+			return candidates;
+		}
+
+		long startTime = System.nanoTime();
+		long deadline = startTime + budgetNanos;
+		List<Scored> scored = new ArrayList<>(candidates.size());
+		try {
+			for (int from = 0; from < candidates.size() && System.nanoTime() < deadline; from += batchSize) {
+				List<Content> batch = candidates.subList(from, Math.min(from + batchSize, candidates.size()));
+				List<TextSegment> segments = new ArrayList<>(batch.size());
+				batch.forEach(content -> segments.add(content.textSegment()));
+
+				List<Double> scores = scoringModel.scoreAll(segments, query.text()).content();
+				for (int i = 0; i < batch.size(); i++) {
+					scored.add(new Scored(batch.get(i), scores.get(i)));
+				}
+			}
+		} catch (Exception e) {
+			log.warn("재정렬 중 오류 발생, 1차 검색 순서를 사용합니다: {}", e.getMessage());
+			return candidates.subList(0, Math.min(maxResults, candidates.size()));
+		}
+
+		if (scored.size() < candidates.size()) {
+			log.debug("재정렬 시간 예산 초과 - 후보 {}개 중 {}개만 재정렬", candidates.size(), scored.size());
+		}
+
+		scored.sort((a, b) -> Double.compare(b.score, a.score));
+		List<Content> results = new ArrayList<>(maxResults);
+		for (int i = 0; i < scored.size() && results.size() < maxResults; i++) {
+			results.add(scored.get(i).content);
+		}
+		// 점수화하지 못한 후보는 1차 검색 순서대로 채움
+		for (int i = scored.size(); i < candidates.size() && results.size() < maxResults; i++) {
+			results.add(candidates.get(i));
+		}
+
+		log.debug("재정렬 완료 - 후보 {}개, 결과 {}개, {}ms", candidates.size(), results.size(),
+				(System.nanoTime() - startTime) / 1_000_000);
+		return results;
+	}
+
+	private static final class Scored {
+		private final Content content;
+		private final double score;
+
+		private Scored(Content content, double score) {
+			this.content = content;
+			this.score = score;
+		}
+	}
+
+}
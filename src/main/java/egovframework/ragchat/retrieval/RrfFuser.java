@@ -0,0 +1,66 @@
+package egovframework.ragchat.retrieval;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import egovframework.ragchat.util.ContentKeys;
+
+/**
+ * 여러 순위 목록을 RRF(Reciprocal Rank Fusion)로 합치는 누적기 (검색 한 번당 인스턴스 하나).
+ * 같은 세그먼트는 출처와 본문 기반 키({@link ContentKeys#of(TextSegment)})로 식별하여 순위마다 1 / (k + 순위) 를 더하고,
+ * 처음 추가된 세그먼트를 결과로 사용한다. 점수가 같으면 먼저 추가된 순서를 유지한다.
+ */
+final class RrfFuser {
+
+	private final int rrfK;
+	private final Map<String, Fused> fused = new LinkedHashMap<>();
+
+	/**
+	 * @param rrfK RRF 상수 (클수록 하위 순위의 영향이 커짐)
+	 */
+	RrfFuser(int rrfK) {
+		this.rrfK = rrfK;
+	}
+
+	/**
+	 * 순위 목록의 한 항목 추가
+	 *
+	 * @param segment 세그먼트
+	 * @param rank 목록 안의 순위 (0부터)
+	 */
+	void add(TextSegment segment, int rank) {
+		Fused entry = fused.computeIfAbsent(ContentKeys.of(segment), key -> new Fused(segment));
+		entry.score += 1.0 / (rrfK + rank + 1);
+	}
+
+	/**
+	 * 합친 점수가 높은 순서대로 상위 결과 반환
+	 *
+	 * @param maxResults 최대 결과 수
+	 * @return 결과 목록
+	 */
+	List<Content> top(int maxResults) {
+		List<Fused> ranked = new ArrayList<>(fused.values());
+		ranked.sort((a, b) -> Double.compare(b.score, a.score));
+
+		List<Content> contents = new ArrayList<>(Math.min(maxResults, ranked.size()));
+		for (int i = 0; i < ranked.size() && i < maxResults; i++) {
+			contents.add(Content.from(ranked.get(i).segment));
+		}
+		return contents;
+	}
+
+	private static final class Fused {
+		private final TextSegment segment;
+		private double score;
+
+		private Fused(TextSegment segment) {
+			this.segment = segment;
+		}
+	}
+
+}
@@ -8,5 +8,27 @@ public interface DataIngestionService {
      * @return 처리된 문서 수
      */
 	public int setupRagChatbot();
+
+	/**
+     * 컬렉션을 생성하고 문서를 임베딩하여 저장. 진행 상황을 모니터로 알리고 취소 요청을 확인.
+     * 
+     * @param monitor 진행 상황 수신 및 취소 확인
+     * @return 처리된 문서 수
+     */
+	public int setupRagChatbot(IngestionMonitor monitor);
+
+	/**
+     * 지정한 지식 베이스의 컬렉션을 생성하고 문서를 임베딩하여 저장.
+     * 
+     * @param knowledgeBase 지식 베이스 이름 (없으면 기본 지식 베이스)
+     * @param monitor 진행 상황 수신 및 취소 확인
+     * @return 처리된 문서 수
+     */
+	public int setupRagChatbot(String knowledgeBase, IngestionMonitor monitor);
+
+	/**
+     * 모든 지식 베이스의 현재 문서로 BM25 검색 색인을 다시 생성 (임베딩 없이 분할만 수행).
+     */
+	public void rebuildLexicalIndex();
 	
 }
@@ -0,0 +1,20 @@
+package egovframework.ragchat.service;
+
+import lombok.Getter;
+
+/**
+ * 같은 컬렉션에 이미 실행 중인 적재 작업이 있을 때 발생하는 예외
+ */
+@Getter
+public class IngestionJobConflictException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String runningJobId;
+
+	public IngestionJobConflictException(String collection, String runningJobId) {
+		super("이미 실행 중인 적재 작업이 있습니다. 컬렉션: " + collection);
+		this.runningJobId = runningJobId;
+	}
+
+}
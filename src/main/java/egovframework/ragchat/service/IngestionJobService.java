@@ -0,0 +1,46 @@
+package egovframework.ragchat.service;
+
+import java.util.Optional;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import egovframework.ragchat.dto.IngestionJobStatus;
+import egovframework.ragchat.knowledge.UnknownKnowledgeBaseException;
+
+public interface IngestionJobService {
+
+	/**
+     * 지식 베이스의 문서 적재 작업을 백그라운드에서 시작.
+     * 
+     * @param knowledgeBase 지식 베이스 이름 (없으면 기본 지식 베이스)
+     * @return 시작된 작업 상태
+     * @throws IngestionJobConflictException 같은 컬렉션에 실행 중인 작업이 있는 경우
+     * @throws UnknownKnowledgeBaseException 설정에 없는 지식 베이스인 경우
+     */
+	public IngestionJobStatus startJob(String knowledgeBase);
+
+	/**
+     * 작업 상태 조회.
+     * 
+     * @param jobId 작업 ID
+     * @return 작업 상태
+     */
+	public Optional<IngestionJobStatus> getJob(String jobId);
+
+	/**
+     * 작업 진행 상황을 SSE 로 구독.
+     * 
+     * @param jobId 작업 ID
+     * @return SSE 이미터 (작업이 없으면 empty)
+     */
+	public Optional<SseEmitter> subscribe(String jobId);
+
+	/**
+     * 작업 취소 요청.
+     * 
+     * @param jobId 작업 ID
+     * @return 취소 요청 후 작업 상태
+     */
+	public Optional<IngestionJobStatus> cancel(String jobId);
+
+}
@@ -0,0 +1,58 @@
+package egovframework.ragchat.service;
+
+/**
+ * 문서 적재 진행 상황 수신 및 취소 여부 확인을 위한 인터페이스.
+ * 적재 파이프라인의 여러 작업자 스레드에서 동시에 호출될 수 있다.
+ */
+public interface IngestionMonitor {
+
+	/**
+	 * 진행 상황을 수신하지 않는 기본 모니터
+	 */
+	IngestionMonitor NONE = new IngestionMonitor() {
+	};
+
+	/**
+	 * 처리 대상 문서 로드 완료
+	 */
+	default void onDocumentsLoaded(int documentCount) {
+	}
+
+	/**
+	 * 문서 분할 완료
+	 */
+	default void onSegmentsSplit(int segmentCount) {
+	}
+
+	/**
+	 * 세그먼트 임베딩 완료
+	 */
+	default void onSegmentsEmbedded(int segmentCount) {
+	}
+
+	/**
+	 * 세그먼트 저장 완료
+	 */
+	default void onSegmentsWritten(int segmentCount) {
+	}
+
+	/**
+	 * 문서 하나의 처리 완료 (변경 없음으로 건너뛴 경우 포함)
+	 */
+	default void onDocumentCompleted(String source, boolean success) {
+	}
+
+	/**
+	 * 처리 중 오류 발생
+	 */
+	default void onError(String source, Throwable error) {
+	}
+
+	/**
+	 * 적재 취소 요청 여부
+	 */
+	default boolean isCancelled() {
+		return false;
+	}
+
+}
@@ -0,0 +1,26 @@
+package egovframework.ragchat.service;
+
+import org.springframework.http.codec.ServerSentEvent;
+
+import egovframework.ragchat.dto.ChatRequest;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveChatService {
+
+     /**
+      * RAG를 사용하여 사용자 질의에 대한 스트리밍 응답을 리액티브 스트림으로 생성.
+      * 구독 시점에 검색, 프롬프트 구성, 생성이 시작되며 구독을 취소하면 생성도 중단된다.
+      * 
+      * @param chatRequest 사용자 질의 요청
+      * @return SSE 이벤트 스트림
+      */
+     public Flux<ServerSentEvent<String>> streamRagResponse(ChatRequest chatRequest);
+
+     /**
+      * RAG 없이 일반 채팅 스트리밍 응답을 리액티브 스트림으로 생성.
+      * 
+      * @param chatRequest 사용자 질의 요청
+      * @return SSE 이벤트 스트림
+      */
+     public Flux<ServerSentEvent<String>> streamSimpleResponse(ChatRequest chatRequest);
+}
@@ -1,25 +1,48 @@
 package egovframework.ragchat.service.impl;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import org.egovframe.rte.fdl.cmmn.EgovAbstractServiceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
 import dev.langchain4j.rag.query.Query;
-import dev.langchain4j.service.AiServices;
-import dev.langchain4j.service.SystemMessage;
+import egovframework.ragchat.cache.SemanticAnswerCache;
+import egovframework.ragchat.cache.SemanticAnswerCache.CachedAnswer;
 import egovframework.ragchat.dto.ChatRequest;
+import egovframework.ragchat.knowledge.KnowledgeBaseRegistry;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.ollama.AdmissionRejectedException;
+import egovframework.ragchat.ollama.GenerationCancelledException;
+import egovframework.ragchat.ollama.GenerationScheduler;
+import egovframework.ragchat.retrieval.ContextAssembler;
 import egovframework.ragchat.service.ChatService;
+import egovframework.ragchat.session.ConversationSessions;
+import egovframework.ragchat.session.SessionChatMemory;
+import egovframework.ragchat.stream.FlushPolicy;
+import egovframework.ragchat.stream.InFlightGenerations;
+import egovframework.ragchat.stream.StreamBroadcast;
+import egovframework.ragchat.stream.StreamFlusher;
+import egovframework.ragchat.util.ContentKeys;
+import egovframework.ragchat.util.IncrementalMarkdownRenderer;
 import egovframework.ragchat.util.MarkdownConverter;
+import egovframework.ragchat.util.SseFrame;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,26 +51,83 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ChatServiceImpl extends EgovAbstractServiceImpl implements ChatService {
 
+	// 미확정 텍스트 표시용 이벤트, 최종 HTML 보정용 이벤트 이름
+	private static final String TAIL_EVENT = "tail";
+	private static final String RECONCILE_EVENT = "reconcile";
+	// 생성 슬롯 대기 순번 이벤트 이름
+	private static final String QUEUED_EVENT = "queued";
+
+	// RAG 시스템 프롬프트
+	static final String RAG_SYSTEM_PROMPT = """
+			    당신은 지식 기반 질의응답 시스템입니다.
+			    사용자의 질문에 대해 제공된 문서 내용을 기반으로 정확하고 도움이 되는 답변을 제공하세요.
+			    제공된 문서에 관련 정보가 없는 경우, 솔직하게 모른다고 답변하세요.
+			    답변은 한국어로 제공하세요.
+			""";
+
 	private final ChatLanguageModel chatLanguageModel;
 	private final StreamingChatLanguageModel streamingChatLanguageModel;
-	private final ContentRetriever contentRetriever;
+	private final EmbeddingModel embeddingModel;
 	private final MarkdownConverter markdownConverter;
+	private final SemanticAnswerCache answerCache;
+	private final ContextAssembler contextAssembler;
+	private final GenerationScheduler generationScheduler;
+	private final InFlightGenerations inFlightGenerations;
+	private final FlushPolicy flushPolicy;
+	private final RagMetrics ragMetrics;
+	private final ConversationSessions conversationSessions;
+	private final KnowledgeBaseRegistry knowledgeBaseRegistry;
 
 	@Override
 	public String generateRagResponse(ChatRequest chatRequest) {
 		String query = chatRequest.getQuery();
 		log.info("사용자 질의 수신: {}", query);
 
+		// 요청에서 지정한 지식 베이스의 검색기 (알 수 없는 이름이면 예외를 그대로 전달하여 400 응답)
+		ContentRetriever retriever = knowledgeBaseRegistry.retriever(chatRequest.getKnowledgeBases());
+
 		try {
-			// RAG 챗봇 인터페이스 생성
-			RagChatbot ragChatbot = AiServices.builder(RagChatbot.class).chatLanguageModel(chatLanguageModel)
-					.contentRetriever(contentRetriever).build();
+			ConversationSessions.History history = conversationSessions.history(chatRequest.getSessionId());
+			if (!history.isEmpty()) {
+				// 이전 대화가 있으면 응답이 대화 맥락에 따라 달라지므로 캐시를 사용하지 않음
+				String response = generateRag(chatRequest.getClientId(), query, history,
+						retriever.retrieve(Query.from(query)));
+				log.debug("AI 응답: {}", response);
+				conversationSessions.recordTurn(chatRequest.getSessionId(), query, response);
+				return response;
+			}
+
+			if (!answerCache.isEnabled()) {
+				// 관련 문서를 먼저 검색하고 생성 슬롯은 모델 호출에만 사용
+				String response = generateRag(chatRequest.getClientId(), query, history,
+						retriever.retrieve(Query.from(query)));
+				log.debug("AI 응답: {}", response);
+				conversationSessions.recordTurn(chatRequest.getSessionId(), query, response);
+				return response;
+			}
 
-			// 질의 처리 및 응답 생성
-			String response = ragChatbot.chat(query);
+			// 캐시 조회를 위해 질의 임베딩 및 관련 문서 검색 (임베딩은 질의 임베딩 캐시에서 재사용됨)
+			long cacheEpoch = answerCache.currentEpoch();
+			Embedding queryEmbedding = embeddingModel.embed(query).content();
+			List<Content> relevantDocuments = retriever.retrieve(Query.from(query));
+			List<String> segmentKeys = ContentKeys.of(relevantDocuments);
+
+			Optional<CachedAnswer> cached = answerCache.lookup(queryEmbedding, segmentKeys);
+			if (cached.isPresent()) {
+				log.info("캐시된 응답 반환: {}", query);
+				conversationSessions.recordTurn(chatRequest.getSessionId(), query, cached.get().getAnswer());
+				return cached.get().getAnswer();
+			}
+
+			// 질의 처리 및 응답 생성 (캐시 키에 사용한 검색 결과로 프롬프트를 구성하여 다시 검색하지 않음)
+			String response = generateRag(chatRequest.getClientId(), query, history, relevantDocuments);
 			log.debug("AI 응답: {}", response);
+			answerCache.put(cacheEpoch, queryEmbedding, segmentKeys, response, null);
+			conversationSessions.recordTurn(chatRequest.getSessionId(), query, response);
 			return response;
 
+		} catch (AdmissionRejectedException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("AI 응답 생성 중 오류 발생", e);
 			return handleException(e);
@@ -60,40 +140,33 @@ public class ChatServiceImpl extends EgovAbstractServiceImpl implements ChatServ
 		log.info("일반 채팅 질의 수신: {}", query);
 
 		try {
-			// 사용자 메시지 생성
-			UserMessage userMessage = UserMessage.from(query);
+			// 사용자 메시지 생성 (세션의 이전 대화가 있으면 앞에 추가)
+			List<ChatMessage> messages = conversationSessions.history(chatRequest.getSessionId()).toMessages(null,
+					query);
 
-			// AI 모델에 질의 전송 및 응답 수신
-			AiMessage aiMessage = chatLanguageModel.generate(userMessage).content();
+			// AI 모델에 질의 전송 및 응답 수신 (생성 슬롯을 배정받은 뒤 실행)
+			ragMetrics.recordPrompt(RagMetrics.currentEndpoint(), promptText(messages));
+			AiMessage aiMessage = generate(chatRequest.getClientId(),
+					() -> chatLanguageModel.generate(messages).content());
 
 			log.debug("AI 응답: {}", aiMessage.text());
+			conversationSessions.recordTurn(chatRequest.getSessionId(), query, aiMessage.text());
 			return aiMessage.text();
+		} catch (AdmissionRejectedException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("AI 응답 생성 중 오류 발생", e);
 			return handleException(e);
 		}
 	}
 
-	/**
-	 * RAG 기반 챗봇 인터페이스
-	 */
-	@SystemMessage("""
-			    당신은 지식 기반 질의응답 시스템입니다.
-			    사용자의 질문에 대해 제공된 문서 내용을 기반으로 정확하고 도움이 되는 답변을 제공하세요.
-			    제공된 문서에 관련 정보가 없는 경우, 솔직하게 모른다고 답변하세요.
-			    답변은 한국어로 제공하세요.
-			""")
-	interface RagChatbot {
-		String chat(String query);
-	}
-
 	/**
 	 * 예외 처리를 위한 공통 메서드
 	 * 
 	 * @param e 발생한 예외
 	 * @return 사용자에게 표시할 오류 메시지
 	 */
-	private String handleException(Exception e) {
+	static String handleException(Exception e) {
 		String errorMessage = e.getMessage();
 
 		// 타임아웃 오류 처리
@@ -107,6 +180,205 @@ public class ChatServiceImpl extends EgovAbstractServiceImpl implements ChatServ
 		return "죄송합니다. 응답을 생성하는 중에 오류가 발생했습니다: " + errorMessage;
 	}
 
+	/**
+	 * 점진적 렌더링 결과 전송.
+	 * 확정된 HTML 블록은 기본 이벤트로 이어 붙이도록 전송하고(이전 미확정 텍스트를 지움),
+	 * 새로 추가된 미확정 텍스트는 tail 이벤트로 이어 붙이도록 전송한다.
+	 * tail 도 이어 붙이는 이벤트이므로 늦게 합류한 구독자가 같은 화면을 만들 수 있도록 확정 이벤트로 기록한다.
+	 * 
+	 * @param broadcast 스트림 방송 객체
+	 * @param delta 점진적 렌더링 결과
+	 */
+	private void sendDelta(StreamBroadcast broadcast, IncrementalMarkdownRenderer.Delta delta) {
+		if (delta.isCommitted()) {
+			broadcast.publish(new SseFrame(null, delta.getHtml()));
+		}
+		if (!delta.getTail().isEmpty()) {
+			broadcast.publish(new SseFrame(TAIL_EVENT, delta.getTail()));
+		}
+	}
+
+	/**
+	 * 오류 메시지를 전송하고 스트림 종료
+	 * 
+	 * @param broadcast 스트림 방송 객체
+	 * @param e 발생한 예외
+	 */
+	private void sendError(StreamBroadcast broadcast, Exception e) {
+		String errorMessage = handleException(e);
+		broadcast.publish(new SseFrame(null, markdownConverter.convertToHtml(errorMessage)));
+		broadcast.complete();
+	}
+
+	/**
+	 * 스트리밍 RAG 프롬프트 구성
+	 * 
+	 * @param context 검색 결과로 조립한 컨텍스트
+	 * @param query 사용자 질의
+	 * @return 모델에 보낼 프롬프트
+	 */
+	public static String buildRagPrompt(String context, String query) {
+		return """
+								    시스템: %s
+
+								    컨텍스트:
+				%s
+
+								    사용자: %s
+								""".formatted(RAG_SYSTEM_PROMPT, context, query);
+	}
+
+	/**
+	 * 세션 대화의 RAG 질문 프롬프트 구성 (시스템 프롬프트와 이전 대화는 별도 메시지로 전달)
+	 * 
+	 * @param context 검색 결과로 조립한 컨텍스트
+	 * @param query 사용자 질의
+	 * @return 이번 질문 프롬프트
+	 */
+	private static String buildRagUserPrompt(String context, String query) {
+		return """
+				컨텍스트:
+				%s
+
+				사용자: %s
+				""".formatted(context, query);
+	}
+
+	/**
+	 * 스트리밍 RAG 메시지 목록 구성.
+	 * 이전 대화가 없으면 하나의 프롬프트로, 있으면 시스템 메시지(요약 포함), 이전 대화, 이번 질문 순으로 구성
+	 * 
+	 * @param history 세션의 이전 대화
+	 * @param context 검색 결과로 조립한 컨텍스트
+	 * @param query 사용자 질의
+	 * @return 모델에 보낼 메시지 목록
+	 */
+	static List<ChatMessage> buildRagMessages(ConversationSessions.History history, String context, String query) {
+		if (history.isEmpty()) {
+			return List.of(UserMessage.from(buildRagPrompt(context, query)));
+		}
+		return history.toMessages(RAG_SYSTEM_PROMPT, buildRagUserPrompt(context, query));
+	}
+
+	/**
+	 * 이미 검색한 문서로 블로킹 RAG 응답 생성 (검색은 이번 질의만으로 수행).
+	 * 검색과 컨텍스트 조립은 호출 스레드에서 끝내고 생성 슬롯은 모델 호출 동안만 점유한다.
+	 */
+	private String generateRag(String clientId, String query, ConversationSessions.History history,
+			List<Content> relevantDocuments) {
+		String context = contextAssembler.assemble(relevantDocuments);
+		List<ChatMessage> messages = buildRagMessages(history, context, query);
+		ragMetrics.recordPrompt(RagMetrics.currentEndpoint(), promptText(messages));
+		return generate(clientId, () -> chatLanguageModel.generate(messages).content().text());
+	}
+
+	/**
+	 * 프롬프트 크기 기록용 메시지 본문 연결
+	 */
+	static String promptText(List<ChatMessage> messages) {
+		if (messages.size() == 1) {
+			return SessionChatMemory.text(messages.get(0));
+		}
+		StringBuilder text = new StringBuilder();
+		for (ChatMessage message : messages) {
+			text.append(SessionChatMemory.text(message)).append('\n');
+		}
+		return text.toString();
+	}
+
+	/**
+	 * 생성 슬롯을 배정받은 뒤 블로킹 생성을 실행하고 생성 시간을 기록
+	 * 
+	 * @param clientId 클라이언트 식별자
+	 * @param task 생성 작업
+	 * @return 생성 결과
+	 */
+	private <T> T generate(String clientId, Supplier<T> task) {
+		String endpoint = RagMetrics.currentEndpoint();
+		return generationScheduler.execute(clientId, () -> {
+			RagMetrics.Generation generation = ragMetrics.startGeneration(endpoint);
+			try {
+				T result = task.get();
+				generation.finish("completed", null);
+				return result;
+			} catch (RuntimeException e) {
+				generation.finish("failed", null);
+				throw e;
+			}
+		});
+	}
+
+	/**
+	 * 모델이 보고한 출력 토큰 수 (없으면 null)
+	 */
+	static Integer outputTokens(Response<AiMessage> response) {
+		return response != null && response.tokenUsage() != null ? response.tokenUsage().outputTokenCount() : null;
+	}
+
+	/**
+	 * 스트리밍 생성 요청을 생성 스케줄러에 제출.
+	 * 슬롯을 기다리는 동안 queued 이벤트로 대기 순번을 전송하고, 슬롯이 배정되면 생성을 시작한다.
+	 * 
+	 * @param clientId 클라이언트 식별자
+	 * @param broadcast 스트림 방송 객체
+	 * @param ticket 배정된 티켓 보관용 참조 (생성 종료 및 구독자가 모두 떠났을 때 반환)
+	 * @param generation 슬롯 배정 후 실행할 생성 호출
+	 */
+	private void submitGeneration(String clientId, StreamBroadcast broadcast,
+			AtomicReference<GenerationScheduler.Ticket> ticket, Runnable generation) {
+		ticket.set(generationScheduler.submit(clientId, new GenerationScheduler.Listener() {
+			@Override
+			public void onQueued(int position) {
+				broadcast.publishTransient(new SseFrame(QUEUED_EVENT, String.valueOf(position)));
+			}
+
+			@Override
+			public void onGranted(GenerationScheduler.Ticket granted) {
+				ticket.set(granted);
+				if (broadcast.isCancelled()) {
+					// 슬롯을 기다리는 사이 클라이언트가 모두 떠난 경우 모델을 호출하지 않음
+					granted.cancel();
+					return;
+				}
+				generation.run();
+			}
+		}));
+	}
+
+	/**
+	 * 생성 슬롯 반환 (대기 중이면 대기 취소)
+	 */
+	private static void releaseGeneration(AtomicReference<GenerationScheduler.Ticket> ticket) {
+		GenerationScheduler.Ticket current = ticket.get();
+		if (current != null) {
+			current.release();
+		}
+	}
+
+	/**
+	 * 구독자가 모두 떠난 경우의 생성 취소.
+	 * 대기 중이면 바로 대기를 취소하고, 생성 중이면 다음 토큰 콜백에서 {@link GenerationCancelledException} 으로
+	 * Ollama 응답 스트림을 닫은 뒤 onError 에서 슬롯을 반환한다.
+	 */
+	private static void cancelQueuedGeneration(AtomicReference<GenerationScheduler.Ticket> ticket) {
+		GenerationScheduler.Ticket current = ticket.get();
+		if (current != null && current.isWaiting()) {
+			current.cancel();
+		}
+	}
+
+	/**
+	 * 생성 중단 예외로 끝난 스트림 정리 (슬롯 반환 및 중단 건수 집계)
+	 */
+	private static void onGenerationCancelled(AtomicReference<GenerationScheduler.Ticket> ticket, StreamFlusher flusher) {
+		GenerationScheduler.Ticket current = ticket.get();
+		if (current != null) {
+			current.cancel();
+		}
+		flusher.finish();
+		log.info("클라이언트 연결 종료로 생성 중단");
+	}
+
 	/**
 	 * 스트리밍 RAG 채팅봇 클래스
 	 */
@@ -115,130 +387,169 @@ public class ChatServiceImpl extends EgovAbstractServiceImpl implements ChatServ
 		private final ContentRetriever retriever;
 		private final SseEmitter emitter;
 		private final MarkdownConverter converter;
+		private final AtomicReference<StreamBroadcast> broadcastRef;
 
 		public StreamingRagChatbot(StreamingChatLanguageModel model, ContentRetriever retriever, SseEmitter emitter,
-				MarkdownConverter converter) {
+				MarkdownConverter converter, AtomicReference<StreamBroadcast> broadcastRef) {
 			this.model = model;
 			this.retriever = retriever;
 			this.emitter = emitter;
 			this.converter = converter;
+			this.broadcastRef = broadcastRef;
 		}
 
-		public void chat(String query) {
+		public void chat(String query, String clientId, String sessionId) {
 			try {
 				// 사용자 메시지 생성;
 				Query userQuery = Query.from(query);
 
+				// 세션의 이전 대화 (있으면 응답이 대화 맥락에 따라 달라지므로 캐시를 사용하지 않음)
+				ConversationSessions.History history = conversationSessions.history(sessionId);
+
 				// 관련 문서 검색
-				var relevantDocuments = retriever.retrieve(userQuery);
-				StringBuilder contextBuilder = new StringBuilder();
+				long cacheEpoch = answerCache.currentEpoch();
+				List<Content> relevantDocuments = retriever.retrieve(userQuery);
+
+				// 유사 질의에 대한 캐시된 응답이 있으면 모델 호출 없이 동일한 이벤트 순서로 재전송
+				Embedding queryEmbedding = null;
+				List<String> segmentKeys = ContentKeys.of(relevantDocuments);
+				if (answerCache.isEnabled() && history.isEmpty()) {
+					queryEmbedding = embeddingModel.embed(query).content();
+					Optional<CachedAnswer> cached = answerCache.lookup(queryEmbedding, segmentKeys);
+					if (cached.isPresent()) {
+						log.info("캐시된 스트리밍 응답 재전송: {}", query);
+						replay(cached.get());
+						conversationSessions.recordTurn(sessionId, query, cached.get().getAnswer());
+						return;
+					}
+				}
+				Embedding cacheKeyEmbedding = queryEmbedding;
+
+				// 같은 질의와 컨텍스트로 진행 중인 생성이 있으면 합류하여 버퍼된 앞부분부터 함께 수신
+				// 세션 요청은 응답을 각 세션에 기록해야 하므로 합류하지 않음
+				InFlightGenerations.Flight flight = conversationSessions.tracks(sessionId)
+						? inFlightGenerations.detached(emitter)
+						: inFlightGenerations.attach(InFlightGenerations.key(query, segmentKeys), emitter);
+				StreamBroadcast broadcast = flight.getBroadcast();
+				broadcastRef.set(broadcast);
+				if (!flight.isLeader()) {
+					log.info("진행 중인 생성에 합류: {}", query);
+					return;
+				}
 
-				// 검색된 문서 내용을 컨텍스트로 구성
-				relevantDocuments.forEach(document -> {
-					contextBuilder.append(document.textSegment().toString()).append("\n\n");
-				});
+				// 검색된 문서 내용을 토큰 예산 안에서 컨텍스트로 구성 (겹침 제거, 인접 청크 병합)
+				String context = contextAssembler.assemble(relevantDocuments);
 
 				// 프롬프트 구성
-				String systemPrompt = """
-						    당신은 지식 기반 질의응답 시스템입니다.
-						    사용자의 질문에 대해 제공된 문서 내용을 기반으로 정확하고 도움이 되는 답변을 제공하세요.
-						    제공된 문서에 관련 정보가 없는 경우, 솔직하게 모른다고 답변하세요.
-						    답변은 한국어로 제공하세요.
-						""";
-
-				String fullPrompt = """
-										    시스템: %s
-
-										    컨텍스트:
-						%s
-
-										    사용자: %s
-										""".formatted(systemPrompt, contextBuilder.toString(), query);
+				List<ChatMessage> messages = buildRagMessages(history, context, query);
 
 				// 스트리밍 응답 처리
 				CompletableFuture<Response<AiMessage>> futureResponse = new CompletableFuture<>();
 				StringBuilder responseBuilder = new StringBuilder();
 
-				// 토큰 버퍼링을 위한 StringBuilder
-				StringBuilder tokenBuffer = new StringBuilder();
+				// 스트림 단위 점진적 마크다운 렌더러
+				IncrementalMarkdownRenderer renderer = converter.newIncrementalRenderer();
+
+				// 성능 지표 (모델 콜백 스레드에서도 같은 엔드포인트로 기록)
+				String endpoint = RagMetrics.currentEndpoint();
+				ragMetrics.recordPrompt(endpoint, promptText(messages));
+				RagMetrics.Generation generation = ragMetrics.startGeneration(endpoint);
+				broadcast.setFrameListener(frames -> ragMetrics.recordSseFrames(endpoint, frames));
+
+				// 토큰 버퍼 (최대 지연 시간, 최대 크기, 문장 경계 중 먼저 도달하는 조건으로 전송)
+				StreamFlusher flusher = flushPolicy.newFlusher(chunk -> {
+					// 완성된 마크다운 블록만 HTML로 변환하여 전송
+					IncrementalMarkdownRenderer.Delta delta = ragMetrics.timeRender(endpoint, () -> renderer.append(chunk));
+
+					// 디버그용 로그 추가
+					log.debug("스트리밍 토큰 전송: {}", delta.getHtml());
+
+					sendDelta(broadcast, delta);
+				});
+
+				// 구독자 전원이 떠나야 생성을 취소 (한 명이 끊겨도 나머지에게 계속 전송)
+				AtomicReference<GenerationScheduler.Ticket> ticket = new AtomicReference<>();
+				broadcast.setOnEmpty(() -> {
+					flusher.finish();
+					cancelQueuedGeneration(ticket);
+				});
 
 				// 스트리밍 처리 콜백
-				model.generate(fullPrompt, new StreamingResponseHandler<AiMessage>() {
+				StreamingResponseHandler<AiMessage> handler = new StreamingResponseHandler<AiMessage>() {
 					@Override
 					public void onNext(String token) {
-						try {
-							tokenBuffer.append(token);
-							responseBuilder.append(token);
-							String bufferContent = tokenBuffer.toString();
-
-							// 토큰이 문장 끝, 줄바꾸기, 공백으로 끝나는 경우에만 전송
-							if (token.endsWith(".") || token.endsWith("\n") || token.endsWith(" ") ||
-									token.endsWith("!") || token.endsWith("?") || token.endsWith("\t") ||
-									token.endsWith("\r") || token.endsWith(";") || token.endsWith(":") ||
-									token.endsWith(",") || token.endsWith(")") || token.endsWith("]") ||
-									token.endsWith("}")) {
-
-								// 마크다운을 HTML로 변환
-								String htmlContent = converter.convertToHtml(bufferContent);
-
-								// 디버그용 로그 추가
-								log.debug("스트리밍 토큰 전송: {}", htmlContent);
-
-								// SSE 이벤트 생성 - 이벤트 이름을 지정하지 않고 데이터만 전송
-								SseEmitter.SseEventBuilder event = SseEmitter.event()
-										.data(htmlContent)
-										.id(String.valueOf(System.currentTimeMillis()));
-
-								// 이벤트 전송
-								emitter.send(event);
-								tokenBuffer.setLength(0);
-							}
-						} catch (IOException e) {
-							log.error("스트리밍 응답 전송 중 오류", e);
+						if (broadcast.isCancelled()) {
+							// 예외를 던지면 Ollama 클라이언트가 응답 스트림을 닫아 생성이 멈춤
+							throw new GenerationCancelledException();
 						}
+						generation.onToken();
+						responseBuilder.append(token);
+						flusher.append(token);
 					}
 
 					@Override
 					public void onComplete(Response<AiMessage> response) {
+						releaseGeneration(ticket);
+						generation.finish("completed", outputTokens(response));
+
 						// 버퍼에 남아있는 내용이 있다면 마지막으로 전송
-						try {
-							if (tokenBuffer.length() > 0) {
-								String remainingContent = tokenBuffer.toString();
-								String htmlContent = converter.convertToHtml(remainingContent);
-
-								SseEmitter.SseEventBuilder event = SseEmitter.event()
-										.data(htmlContent)
-										.name("message")
-										.id(String.valueOf(System.currentTimeMillis()));
-
-								emitter.send(event);
-								log.debug("버퍼에 남은 내용 전송: {}", remainingContent);
-							}
-						} catch (IOException e) {
-							log.error("마지막 버퍼 내용 전송 중 오류", e);
+						String remaining = flusher.finish();
+						if (!remaining.isEmpty()) {
+							renderer.append(remaining);
+							log.debug("버퍼에 남은 내용 전송: {}", remaining);
 						}
 
+						// 전체 응답을 한 번 렌더링하여 최종 HTML로 보정
+						broadcast.publish(new SseFrame(RECONCILE_EVENT, ragMetrics.timeRender(endpoint, renderer::finish)));
+
+						// 구독자가 모두 떠나 보정 이벤트가 전송되지 않은 스트림은 재전송할 수 없으므로 캐시하지 않음
+						if (cacheKeyEmbedding != null && !broadcast.isCancelled()) {
+							answerCache.put(cacheEpoch, cacheKeyEmbedding, segmentKeys, responseBuilder.toString(),
+									broadcast.getFrames());
+						}
+						conversationSessions.recordTurn(sessionId, query, responseBuilder.toString());
 						futureResponse.complete(response);
 						log.debug("AI 응답 완료: {}", responseBuilder.toString());
-						emitter.complete();
+						broadcast.complete();
 					}
 
 					@Override
 					public void onError(Throwable error) {
 						futureResponse.completeExceptionally(error);
-						log.error("AI 응답 생성 중 오류 발생", error);
-						try {
-							String errorMessage = handleException(new Exception(error));
-							String htmlError = converter.convertToHtml(errorMessage);
-							emitter.send(SseEmitter.event().data(htmlError));
-							emitter.complete();
-						} catch (IOException e) {
-							emitter.completeWithError(e);
+						if (GenerationCancelledException.isCause(error)) {
+							generation.finish("cancelled", null);
+							onGenerationCancelled(ticket, flusher);
+							return;
 						}
+						generation.finish("failed", null);
+						releaseGeneration(ticket);
+						flusher.finish();
+						log.error("AI 응답 생성 중 오류 발생", error);
+						sendError(broadcast, new Exception(error));
 					}
-				});
+				};
+
+				// 생성 슬롯을 배정받은 뒤 모델 호출
+				try {
+					submitGeneration(clientId, broadcast, ticket, () -> {
+						generation.start();
+						model.generate(messages, handler);
+					});
+				} catch (AdmissionRejectedException e) {
+					// 요청자는 429 로 응답하고, 그 사이 합류한 구독자에게는 안내 후 종료
+					broadcast.unsubscribe(emitter);
+					sendError(broadcast, e);
+					throw e;
+				}
+			} catch (AdmissionRejectedException e) {
+				throw e;
 			} catch (Exception e) {
 				log.error("스트리밍 RAG 응답 생성 중 오류 발생", e);
+				StreamBroadcast broadcast = broadcastRef.get();
+				if (broadcast != null) {
+					sendError(broadcast, e);
+					return;
+				}
 				try {
 					String errorMessage = handleException(e);
 					String htmlError = converter.convertToHtml(errorMessage);
@@ -249,6 +560,22 @@ public class ChatServiceImpl extends EgovAbstractServiceImpl implements ChatServ
 				}
 			}
 		}
+
+		/**
+		 * 캐시된 응답을 저장된 이벤트 순서대로 재전송
+		 */
+		private void replay(CachedAnswer cachedAnswer) throws IOException {
+			List<SseFrame> frames = cachedAnswer.getFrames();
+			if (frames == null) {
+				// 일반 응답으로 저장된 경우 전체 응답을 하나의 보정 이벤트로 전송
+				frames = List.of(new SseFrame(RECONCILE_EVENT,
+						IncrementalMarkdownRenderer.toSseData(converter.convertToHtml(cachedAnswer.getAnswer()))));
+			}
+			for (SseFrame frame : frames) {
+				emitter.send(frame.toEvent());
+			}
+			emitter.complete();
+		}
 	}
 
 	@Override
@@ -258,20 +585,42 @@ public class ChatServiceImpl extends EgovAbstractServiceImpl implements ChatServ
 
 		// SSE 이미터 생성 (타임아웃 설정: 2분)
 		SseEmitter emitter = new SseEmitter(120000L);
-
-		// UTF-8 인코딩 관련 핸들러 추가
-		emitter.onCompletion(() -> log.debug("SSE 완료"));
-		emitter.onTimeout(() -> log.debug("SSE 타임아웃"));
-		emitter.onError((ex) -> log.error("SSE 오류", ex));
+		AtomicReference<StreamBroadcast> broadcastRef = new AtomicReference<>();
+
+		// UTF-8 인코딩 관련 핸들러 추가 (연결이 끝나면 구독 해제)
+		// 완료, 타임아웃, 오류 모두 구독 해제 (마지막 구독자면 생성 취소)
+		Runnable unsubscribe = () -> {
+			StreamBroadcast broadcast = broadcastRef.get();
+			if (broadcast != null) {
+				broadcast.unsubscribe(emitter);
+			}
+		};
+		emitter.onCompletion(() -> {
+			log.debug("스트리밍 RAG 응답 완료");
+			unsubscribe.run();
+		});
+		emitter.onTimeout(() -> {
+			log.debug("SSE 타임아웃");
+			unsubscribe.run();
+		});
+		emitter.onError((ex) -> {
+			log.error("SSE 오류", ex);
+			unsubscribe.run();
+		});
+
+		// 요청에서 지정한 지식 베이스의 검색기 (알 수 없는 이름이면 예외를 그대로 전달하여 400 응답)
+		ContentRetriever retriever = knowledgeBaseRegistry.retriever(chatRequest.getKnowledgeBases());
 
 		try {
 			// 스트리밍 RAG 채팅봇 인터페이스 생성
 			StreamingRagChatbot streamingRagChatbot = new StreamingRagChatbot(streamingChatLanguageModel,
-					contentRetriever, emitter, markdownConverter);
+					retriever, emitter, markdownConverter, broadcastRef);
 
 			// 질의 처리 및 응답 생성 (비동기적으로 스트리밍 처리)
-			streamingRagChatbot.chat(query);
+			streamingRagChatbot.chat(query, chatRequest.getClientId(), chatRequest.getSessionId());
 
+		} catch (AdmissionRejectedException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("스트리밍 RAG 응답 생성 중 오류 발생", e);
 			try {
@@ -295,123 +644,125 @@ public class ChatServiceImpl extends EgovAbstractServiceImpl implements ChatServ
 		// SSE 이미터 생성 (타임아웃 설정: 2분)
 		SseEmitter emitter = new SseEmitter(120000L);
 
-		// UTF-8 인코딩 관련 핸들러 추가
-		emitter.onCompletion(() -> log.debug("SSE 완료"));
-		emitter.onTimeout(() -> log.debug("SSE 타임아웃"));
-		emitter.onError((ex) -> log.error("SSE 오류", ex));
+		// 구독자가 하나뿐인 방송 객체로 전송 (연결이 끊기면 생성 취소)
+		StreamBroadcast broadcast = flushPolicy.newBroadcast();
+		broadcast.subscribe(emitter);
+		AtomicReference<GenerationScheduler.Ticket> ticket = new AtomicReference<>();
+
+		// UTF-8 인코딩 관련 핸들러 추가 (완료, 타임아웃, 오류 모두 구독 해제)
+		emitter.onCompletion(() -> {
+			log.debug("스트리밍 일반 채팅 응답 완료");
+			broadcast.unsubscribe(emitter);
+		});
+		emitter.onTimeout(() -> {
+			log.debug("SSE 타임아웃");
+			broadcast.unsubscribe(emitter);
+		});
+		emitter.onError((ex) -> {
+			log.error("SSE 오류", ex);
+			broadcast.unsubscribe(emitter);
+		});
 
 		try {
-			// 사용자 메시지 생성
-			UserMessage userMessage = UserMessage.from(query);
+			// 사용자 메시지 생성 (세션의 이전 대화가 있으면 앞에 추가)
+			List<ChatMessage> messages = conversationSessions.history(chatRequest.getSessionId()).toMessages(null,
+					query);
 
 			// 스트리밍 응답 처리
 			CompletableFuture<Response<AiMessage>> futureResponse = new CompletableFuture<>();
 			StringBuilder responseBuilder = new StringBuilder();
 
-			// 한글 처리를 위한 버퍼 관리
-			StringBuilder tokenBuffer = new StringBuilder();
+			// 스트림 단위 점진적 마크다운 렌더러
+			IncrementalMarkdownRenderer renderer = markdownConverter.newIncrementalRenderer();
+
+			// 성능 지표 (모델 콜백 스레드에서도 같은 엔드포인트로 기록)
+			String endpoint = RagMetrics.currentEndpoint();
+			ragMetrics.recordPrompt(endpoint, promptText(messages));
+			RagMetrics.Generation generation = ragMetrics.startGeneration(endpoint);
+			broadcast.setFrameListener(frames -> ragMetrics.recordSseFrames(endpoint, frames));
+
+			// 토큰 버퍼 (최대 지연 시간, 최대 크기, 문장 경계 중 먼저 도달하는 조건으로 전송, 문자 단위는 자르지 않음)
+			// 완성된 마크다운 블록만 HTML로 변환하여 전송
+			StreamFlusher flusher = flushPolicy.newFlusher(
+					chunk -> sendDelta(broadcast, ragMetrics.timeRender(endpoint, () -> renderer.append(chunk))));
+			broadcast.setOnEmpty(() -> {
+				flusher.finish();
+				cancelQueuedGeneration(ticket);
+			});
 
-			streamingChatLanguageModel.generate(userMessage, new StreamingResponseHandler<AiMessage>() {
+			StreamingResponseHandler<AiMessage> handler = new StreamingResponseHandler<AiMessage>() {
 				@Override
 				public void onNext(String token) {
-					try {
-						// 토큰 누적
-						responseBuilder.append(token);
-						tokenBuffer.append(token);
-
-						// 완성된 문장이나 단어만 전송 (한글 깨짐 방지)
-						String bufferContent = tokenBuffer.toString();
-
-						// 문장 끝나는 경우에만 전송 (강제 줄바꿈 방지)
-						// 문장 종결 부호나 단락 구분자가 있을 때만 전송
-						if (token.endsWith(".") || token.endsWith("\n") ||
-								token.endsWith("\r") || token.endsWith("\t") || token.endsWith("，") || // 콤마
-								token.endsWith("。") || token.endsWith("、") || // 중국어 문장 부호
-								token.endsWith("…") || token.endsWith("‥") || // 점 부호
-								token.endsWith("？") || token.endsWith("！") || // 물음표, 느낌표
-								token.endsWith(".") || token.endsWith("!") || token.endsWith("?") || // 영문 종결 부호
-								bufferContent.length() >= 30) { // 버퍼 길이 기준 증가 (더 긴 문장 단위로 전송)
-
-							// HTML로 변환하여 전송
-							String htmlContent = markdownConverter.convertToHtml(bufferContent);
-
-							// 이벤트 이름 추가
-							SseEmitter.SseEventBuilder event = SseEmitter.event()
-									.data(htmlContent)
-									.name("message")
-									.id(String.valueOf(System.currentTimeMillis()));
-
-							// 이벤트 전송
-							emitter.send(event);
-							tokenBuffer.setLength(0); // 버퍼 초기화
-						}
-					} catch (IOException e) {
-						log.error("스트리밍 전송 중 오류 발생", e);
-						emitter.completeWithError(e);
+					if (broadcast.isCancelled()) {
+						// 예외를 던지면 Ollama 클라이언트가 응답 스트림을 닫아 생성이 멈춤
+						throw new GenerationCancelledException();
 					}
+
+					// 토큰 누적
+					generation.onToken();
+					responseBuilder.append(token);
+					flusher.append(token);
 				}
 
 				@Override
 				public void onComplete(Response<AiMessage> response) {
+					releaseGeneration(ticket);
+					generation.finish("completed", outputTokens(response));
+
 					// 버퍼에 남아있는 내용이 있다면 마지막으로 전송
-					try {
-						if (tokenBuffer.length() > 0) {
-							String remainingContent = tokenBuffer.toString();
-
-							// UTF-8 문자열 유효성 검사 및 인코딩 보장
-							String validUtf8Content;
-							try {
-								byte[] bytes = remainingContent.getBytes("UTF-8");
-								validUtf8Content = new String(bytes, "UTF-8");
-							} catch (Exception e) {
-								log.warn("마지막 버퍼 내용 UTF-8 변환 중 오류, 원본 내용 사용", e);
-								validUtf8Content = remainingContent;
-							}
-
-							String htmlContent = markdownConverter.convertToHtml(validUtf8Content);
-
-							SseEmitter.SseEventBuilder event = SseEmitter.event()
-									.data(htmlContent)
-									.name("message")
-									.id(String.valueOf(System.currentTimeMillis()));
-
-							emitter.send(event);
-							log.debug("버퍼에 남은 내용 전송: {}", validUtf8Content);
+					String remainingContent = flusher.finish();
+					if (!remainingContent.isEmpty()) {
+
+						// UTF-8 문자열 유효성 검사 및 인코딩 보장
+						String validUtf8Content;
+						try {
+							byte[] bytes = remainingContent.getBytes("UTF-8");
+							validUtf8Content = new String(bytes, "UTF-8");
+						} catch (Exception e) {
+							log.warn("마지막 버퍼 내용 UTF-8 변환 중 오류, 원본 내용 사용", e);
+							validUtf8Content = remainingContent;
 						}
-					} catch (IOException e) {
-						log.error("마지막 버퍼 내용 전송 중 오류", e);
+
+						renderer.append(validUtf8Content);
+						log.debug("버퍼에 남은 내용 전송: {}", validUtf8Content);
 					}
 
+					// 전체 응답을 한 번 렌더링하여 최종 HTML로 보정
+					broadcast.publish(new SseFrame(RECONCILE_EVENT, ragMetrics.timeRender(endpoint, renderer::finish)));
+
+					conversationSessions.recordTurn(chatRequest.getSessionId(), query, responseBuilder.toString());
 					futureResponse.complete(response);
 					log.debug("AI 응답 완료: {}", responseBuilder.toString());
-					emitter.complete();
+					broadcast.complete();
 				}
 
 				@Override
 				public void onError(Throwable error) {
 					futureResponse.completeExceptionally(error);
-					log.error("AI 응답 생성 중 오류 발생", error);
-					try {
-						String errorMessage = handleException(new Exception(error));
-						String htmlError = markdownConverter.convertToHtml(errorMessage);
-						emitter.send(SseEmitter.event().data(htmlError));
-						emitter.complete();
-					} catch (IOException e) {
-						emitter.completeWithError(e);
+					if (GenerationCancelledException.isCause(error)) {
+						generation.finish("cancelled", null);
+						onGenerationCancelled(ticket, flusher);
+						return;
 					}
+					generation.finish("failed", null);
+					releaseGeneration(ticket);
+					flusher.finish();
+					log.error("AI 응답 생성 중 오류 발생", error);
+					sendError(broadcast, new Exception(error));
 				}
+			};
+
+			// 생성 슬롯을 배정받은 뒤 모델 호출 (대기열이 가득 차면 AdmissionRejectedException)
+			submitGeneration(chatRequest.getClientId(), broadcast, ticket, () -> {
+				generation.start();
+				streamingChatLanguageModel.generate(messages, handler);
 			});
 
+		} catch (AdmissionRejectedException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("스트리밍 일반 응답 생성 중 오류 발생", e);
-			try {
-				String errorMessage = handleException(e);
-				String htmlError = markdownConverter.convertToHtml(errorMessage);
-				emitter.send(SseEmitter.event().data(htmlError));
-				emitter.complete();
-			} catch (IOException ioe) {
-				emitter.completeWithError(ioe);
-			}
+			sendError(broadcast, e);
 		}
 
 		return emitter;
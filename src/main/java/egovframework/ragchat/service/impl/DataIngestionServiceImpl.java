@@ -4,13 +4,21 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.egovframe.rte.fdl.cmmn.EgovAbstractServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
@@ -19,13 +27,20 @@ import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.document.splitter.DocumentSplitters;
-import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
-import dev.langchain4j.model.output.Response;
-import dev.langchain4j.store.embedding.EmbeddingStore;
+import egovframework.ragchat.cache.SemanticAnswerCache;
 import egovframework.ragchat.config.RagConfig;
+import egovframework.ragchat.knowledge.KnowledgeBase;
+import egovframework.ragchat.knowledge.KnowledgeBaseRegistry;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.retrieval.LexicalIndex;
 import egovframework.ragchat.service.DataIngestionService;
+import egovframework.ragchat.service.IngestionMonitor;
+import egovframework.ragchat.service.impl.IngestionManifest.ChunkEntry;
+import egovframework.ragchat.service.impl.IngestionManifest.SourceEntry;
+import egovframework.ragchat.service.impl.IngestionPipeline.DocumentResult;
+import egovframework.ragchat.store.SegmentEmbeddingStore;
 import io.qdrant.client.QdrantClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,65 +52,236 @@ public class DataIngestionServiceImpl extends EgovAbstractServiceImpl implements
 	
 	private final QdrantClient qdrantClient;
 	private final EmbeddingModel embeddingModel;
-	private final EmbeddingStore<TextSegment> embeddingStore;
 	private final RagConfig ragConfig;
+	private final SemanticAnswerCache answerCache;
+	private final KnowledgeBaseRegistry knowledgeBaseRegistry;
+	private final RagMetrics ragMetrics;
+
+	@Value("${rag.ingestion.parallelism}")
+	private Integer parallelism;
+
+	@Value("${rag.ingestion.batch-size}")
+	private Integer batchSize;
+
+	@Value("${rag.ingestion.queue-capacity}")
+	private Integer queueCapacity;
+
+	@Value("${rag.ingestion.manifest-dir}")
+	private String manifestDir;
 	
 	@Override
 	public int setupRagChatbot() {
+		return setupRagChatbot(IngestionMonitor.NONE);
+	}
+
+	@Override
+	public int setupRagChatbot(IngestionMonitor monitor) {
+		return setupRagChatbot(null, monitor);
+	}
+
+	@Override
+	public int setupRagChatbot(String knowledgeBaseName, IngestionMonitor monitor) {
+		KnowledgeBase knowledgeBase = knowledgeBaseRegistry.get(knowledgeBaseName);
+
 		// 컬렉션 생성
-        ragConfig.createCollection(qdrantClient);
+        ragConfig.createCollection(qdrantClient, knowledgeBase.getCollectionName());
 
         // 문서 로드 및 임베딩
-        return insertDocuments();
+        return insertDocuments(knowledgeBase, monitor);
 	}
 	
 	/**
      * 문서를 로드하고 임베딩하여 저장.
+     * 매니페스트와 비교하여 변경된 문서의 변경된 청크만 임베딩하고, 사라진 청크와 문서의 포인트는 삭제.
      * 
-     * @return 처리된 문서 수
+     * @param knowledgeBase 적재할 지식 베이스
+     * @param monitor 진행 상황 수신 및 취소 확인
+     * @return 처리된 문서 수 (변경 없는 문서 포함)
      */
-	private int insertDocuments() {
-		// 문서를 Chunk로 분할
-		// 각 Chunk는 최대 문자수 1000, Chunk 간 겹치는 문자 수는 150으로 설정 (문맥을 잃지 않게 하기 위함)
-		DocumentSplitter documentSplitter = DocumentSplitters.recursive(1000, 150);
+	private int insertDocuments(KnowledgeBase knowledgeBase, IngestionMonitor monitor) {
+		DocumentSplitter documentSplitter = createDocumentSplitter();
+		SegmentEmbeddingStore embeddingStore = knowledgeBaseRegistry.store(knowledgeBase);
 		
-		List<Document> documents = loadMarkdownDocuments();
-		
-		int processedCount = 0;
+		List<Document> documents = loadMarkdownDocuments(knowledgeBase.getSource());
+		monitor.onDocumentsLoaded(documents.size());
 
-        log.info("총 {}개의 문서를 처리합니다.", documents.size());
-        
-        for (Document doc : documents) {
-            try {
-                List<TextSegment> segments = documentSplitter.split(doc);
-                Response<List<Embedding>> embeddingResponse = embeddingModel.embedAll(segments);
-                List<Embedding> embeddings = embeddingResponse.content();
-                embeddingStore.addAll(embeddings, segments);
-                processedCount++;
-                String source = doc.metadata().getString("source");
-                log.info("문서 처리 완료: {} (세그먼트 {}개)", (source != null ? source : "unknown"), segments.size());
-            } catch (Exception e) {
-                String errorSource = doc.metadata().getString("source");
-                log.error("문서 처리 중 오류 발생: {}", (errorSource != null ? errorSource : "unknown"), e);
+		// 이전 적재 결과 로드 (저장소가 비어 있으면 이전 결과는 더 이상 유효하지 않음)
+		String collectionName = knowledgeBase.getCollectionName();
+		Path manifestPath = Paths.get(manifestDir, collectionName + ".json");
+		IngestionManifest manifest = IngestionManifest.load(manifestPath, collectionName);
+		long storedCount = embeddingStore.count();
+		if (storedCount == 0 && !manifest.getSources().isEmpty()) {
+			log.info("저장소가 비어 있어 매니페스트를 초기화합니다: {}", manifestPath);
+			manifest.getSources().clear();
+		}
+
+		// 더 이상 존재하지 않는 문서의 포인트 삭제
+		int removedSources = removeStaleSources(embeddingStore, documents, manifest);
+
+        log.info("지식 베이스 {}: 총 {}개의 문서를 처리합니다. (작업자 {}개, 배치 크기 {})", knowledgeBase.getName(),
+                documents.size(), parallelism, batchSize);
+
+        // 분할/임베딩은 병렬로, 저장소 적재는 여러 문서를 묶은 고정 크기 배치로 처리
+        IngestionPipeline pipeline = new IngestionPipeline(embeddingModel, embeddingStore, documentSplitter,
+                parallelism, batchSize, queueCapacity);
+        long pipelineStart = System.nanoTime();
+        List<DocumentResult> results = pipeline.run(documents, manifest.getSources(), storedCount > 0, monitor);
+        long pipelineNanos = System.nanoTime() - pipelineStart;
+
+        int updatedCount = 0;
+        int unchangedCount = 0;
+        int embeddedSegments = 0;
+        for (DocumentResult result : results) {
+            embeddedSegments += result.getEmbeddedSegments();
+            switch (result.getStatus()) {
+            case UPDATED:
+                removeStaleChunks(embeddingStore, result, manifest.getSources().get(result.getSource()));
+                manifest.getSources().put(result.getSource(),
+                        new SourceEntry(result.getSourceHash(), result.getChunks()));
+                updatedCount++;
+                break;
+            case UNCHANGED:
+                unchangedCount++;
+                break;
+            default:
+                // 실패한 문서는 매니페스트를 갱신하지 않아 다음 적재 시 다시 처리됨
+                break;
             }
         }
 
-        log.info("총 {}개 문서 중 {}개 처리 완료", documents.size(), processedCount);
+        ragMetrics.recordIngestion(embeddedSegments, pipelineNanos);
+
+        try {
+            manifest.save(manifestPath);
+        } catch (IOException e) {
+            log.error("매니페스트 저장 중 오류 발생: {}", manifestPath, e);
+        }
+
+        // 컬렉션이 변경되었으므로 이전 문서 기준으로 생성된 캐시 응답 무효화
+        if (updatedCount > 0 || removedSources > 0) {
+            answerCache.invalidate();
+        }
+
+        // BM25 색인은 변경 여부와 관계없이 현재 문서 전체로 다시 생성 (분할만 수행하므로 비용이 작음)
+        buildLexicalIndex(knowledgeBaseRegistry.lexicalIndex(knowledgeBase), documents, documentSplitter);
+
+        int processedCount = updatedCount + unchangedCount;
+        log.info("총 {}개 문서 중 {}개 처리 완료 (변경 {}개, 변경 없음 {}개, 삭제된 문서 {}개)", documents.size(), processedCount,
+                updatedCount, unchangedCount, removedSources);
         
         return processedCount;
 	}
+
+	/**
+	 * 애플리케이션 시작 시 지식 베이스별 BM25 색인 생성 (벡터 저장소는 영속되므로 재적재 없이 색인만 복원)
+	 */
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildLexicalIndex() {
+		for (KnowledgeBase knowledgeBase : knowledgeBaseRegistry.getAll()) {
+			try {
+				buildLexicalIndex(knowledgeBaseRegistry.lexicalIndex(knowledgeBase),
+						loadMarkdownDocuments(knowledgeBase.getSource()), createDocumentSplitter());
+			} catch (Exception e) {
+				log.error("BM25 색인 생성 중 오류 발생: {}", knowledgeBase.getName(), e);
+			}
+		}
+	}
+
+	private void buildLexicalIndex(LexicalIndex lexicalIndex, List<Document> documents,
+			DocumentSplitter documentSplitter) {
+		List<TextSegment> segments = new ArrayList<>();
+		for (Document document : documents) {
+			segments.addAll(documentSplitter.split(document));
+		}
+		lexicalIndex.rebuild(segments);
+	}
+
+	/**
+	 * 문서를 Chunk로 분할하는 분할기 생성
+	 * 각 Chunk는 최대 문자수 1000, Chunk 간 겹치는 문자 수는 150으로 설정 (문맥을 잃지 않게 하기 위함)
+	 */
+	private DocumentSplitter createDocumentSplitter() {
+		return DocumentSplitters.recursive(1000, 150);
+	}
+
+	/**
+	 * 매니페스트에는 있으나 더 이상 존재하지 않는 문서의 포인트 삭제.
+	 * 
+	 * @param embeddingStore 지식 베이스의 저장소
+	 * @param documents 현재 문서 목록
+	 * @param manifest 매니페스트
+	 * @return 삭제된 문서 수
+	 */
+	private int removeStaleSources(SegmentEmbeddingStore embeddingStore, List<Document> documents,
+			IngestionManifest manifest) {
+		Set<String> currentSources = new HashSet<>();
+		for (Document doc : documents) {
+			currentSources.add(doc.metadata().getString("source"));
+		}
+
+		int removedCount = 0;
+		Iterator<String> iterator = manifest.getSources().keySet().iterator();
+		while (iterator.hasNext()) {
+			String source = iterator.next();
+			if (currentSources.contains(source)) {
+				continue;
+			}
+			try {
+				embeddingStore.removeBySource(source);
+				iterator.remove();
+				removedCount++;
+				log.info("삭제된 문서의 포인트 제거: {}", source);
+			} catch (Exception e) {
+				log.error("삭제된 문서의 포인트 제거 중 오류 발생: {}", source, e);
+			}
+		}
+		return removedCount;
+	}
+
+	/**
+	 * 변경된 문서에서 더 이상 존재하지 않는 청크의 포인트 삭제.
+	 * 
+	 * @param embeddingStore 지식 베이스의 저장소
+	 * @param result 문서 처리 결과
+	 * @param previousEntry 이전 매니페스트 항목
+	 */
+	private void removeStaleChunks(SegmentEmbeddingStore embeddingStore, DocumentResult result,
+			SourceEntry previousEntry) {
+		if (previousEntry == null) {
+			return;
+		}
+
+		Set<String> currentIds = new HashSet<>();
+		for (ChunkEntry chunk : result.getChunks()) {
+			currentIds.add(chunk.getId());
+		}
+		List<String> staleIds = new ArrayList<>();
+		for (ChunkEntry chunk : previousEntry.getChunks()) {
+			if (!currentIds.contains(chunk.getId())) {
+				staleIds.add(chunk.getId());
+			}
+		}
+
+		try {
+			embeddingStore.removeByIds(staleIds);
+		} catch (Exception e) {
+			log.error("변경된 문서의 이전 청크 삭제 중 오류 발생: {}", result.getSource(), e);
+		}
+	}
 	
 	/**
-     * 리소스 디렉토리에서 모든 마크다운 파일을 로드.
+     * 지식 베이스의 문서 경로에서 모든 마크다운 파일을 로드.
      * 
+     * @param source 문서 경로 패턴
      * @return 로드된 문서 목록
      */
-	private List<Document> loadMarkdownDocuments() {
+	private List<Document> loadMarkdownDocuments(String source) {
 		List<Document> documents = new ArrayList<>();
 		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
 		
 		try {
-			Resource[] resources = resolver.getResources("classpath:data/*.md");
+			Resource[] resources = resolver.getResources(source);
             log.info("{}개의 마크다운 파일을 찾았습니다.", resources.length);
 
             for (Resource resource : resources) {
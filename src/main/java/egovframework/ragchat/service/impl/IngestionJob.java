@@ -0,0 +1,228 @@
+package egovframework.ragchat.service.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import egovframework.ragchat.dto.IngestionJobStatus;
+import egovframework.ragchat.service.IngestionMonitor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 백그라운드 문서 적재 작업.
+ * 파이프라인의 진행 상황을 누적하고, 취소 요청을 전달하며, 구독 중인 SSE 이미터에 진행 상황을 전송한다.
+ */
+@Slf4j
+class IngestionJob implements IngestionMonitor {
+
+	static final String PROGRESS_EVENT = "progress";
+	static final String DONE_EVENT = "done";
+
+	private static final int MAX_ERRORS = 20;
+
+	enum State {
+		RUNNING, COMPLETED, FAILED, CANCELLED
+	}
+
+	@Getter
+	private final String id;
+	@Getter
+	private final String collection;
+	private final long startedAt = System.currentTimeMillis();
+
+	private final AtomicBoolean cancelRequested = new AtomicBoolean();
+	private final AtomicInteger totalDocuments = new AtomicInteger();
+	private final AtomicInteger completedDocuments = new AtomicInteger();
+	private final AtomicInteger failedDocuments = new AtomicInteger();
+	private final AtomicLong splitSegments = new AtomicLong();
+	private final AtomicLong embeddedSegments = new AtomicLong();
+	private final AtomicLong writtenSegments = new AtomicLong();
+	private final List<String> errors = new ArrayList<>();
+	// 전송 실패 시 콜백에서 제거되므로 순회 중 변경에 안전한 목록 사용
+	private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+	private volatile State state = State.RUNNING;
+	private volatile String message = "문서 적재 중";
+	private volatile Integer processedDocuments;
+	private volatile Long finishedAt;
+
+	IngestionJob(String id, String collection) {
+		this.id = id;
+		this.collection = collection;
+	}
+
+	@Override
+	public void onDocumentsLoaded(int documentCount) {
+		totalDocuments.set(documentCount);
+	}
+
+	@Override
+	public void onSegmentsSplit(int segmentCount) {
+		splitSegments.addAndGet(segmentCount);
+	}
+
+	@Override
+	public void onSegmentsEmbedded(int segmentCount) {
+		embeddedSegments.addAndGet(segmentCount);
+	}
+
+	@Override
+	public void onSegmentsWritten(int segmentCount) {
+		writtenSegments.addAndGet(segmentCount);
+	}
+
+	@Override
+	public void onDocumentCompleted(String source, boolean success) {
+		completedDocuments.incrementAndGet();
+		if (!success) {
+			failedDocuments.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void onError(String source, Throwable error) {
+		addError((source != null ? source + ": " : "") + error.getMessage());
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelRequested.get();
+	}
+
+	boolean isFinished() {
+		return state != State.RUNNING;
+	}
+
+	/**
+	 * 취소 요청. 파이프라인은 처리 중인 문서를 마친 뒤 종료한다.
+	 *
+	 * @return 실행 중인 작업에 취소를 요청했으면 true
+	 */
+	boolean requestCancel() {
+		if (isFinished() || !cancelRequested.compareAndSet(false, true)) {
+			return false;
+		}
+		message = "취소 요청됨";
+		return true;
+	}
+
+	void complete(int processed) {
+		processedDocuments = processed;
+		if (cancelRequested.get()) {
+			state = State.CANCELLED;
+			message = "문서 적재 취소됨";
+		} else {
+			state = State.COMPLETED;
+			message = "컬렉션 생성 및 문서 임베딩 완료";
+		}
+		finishedAt = System.currentTimeMillis();
+	}
+
+	void fail(Exception e) {
+		addError(e.getMessage());
+		state = State.FAILED;
+		message = "컬렉션 생성 중 오류 발생: " + e.getMessage();
+		finishedAt = System.currentTimeMillis();
+	}
+
+	IngestionJobStatus toStatus() {
+		long end = finishedAt != null ? finishedAt : System.currentTimeMillis();
+		double elapsedSeconds = Math.max(1, end - startedAt) / 1000.0;
+		List<String> errorSnapshot;
+		synchronized (errors) {
+			errorSnapshot = new ArrayList<>(errors);
+		}
+		return IngestionJobStatus.builder()
+				.jobId(id)
+				.collection(collection)
+				.state(state.name())
+				.message(message)
+				.totalDocuments(totalDocuments.get())
+				.completedDocuments(completedDocuments.get())
+				.failedDocuments(failedDocuments.get())
+				.splitSegments(splitSegments.get())
+				.embeddedSegments(embeddedSegments.get())
+				.writtenSegments(writtenSegments.get())
+				.embeddingsPerSecond(embeddedSegments.get() / elapsedSeconds)
+				.processedDocuments(processedDocuments)
+				.errors(errorSnapshot)
+				.startedAt(startedAt)
+				.finishedAt(finishedAt)
+				.build();
+	}
+
+	/**
+	 * SSE 구독 추가. 현재 상태를 바로 전송하며, 이미 끝난 작업이면 완료 이벤트 후 종료한다.
+	 */
+	synchronized void subscribe(SseEmitter emitter) {
+		Runnable remove = () -> unsubscribe(emitter);
+		emitter.onCompletion(remove);
+		emitter.onTimeout(remove);
+		emitter.onError(error -> unsubscribe(emitter));
+
+		if (isFinished()) {
+			send(emitter, DONE_EVENT, toStatus());
+			emitter.complete();
+			return;
+		}
+		if (send(emitter, PROGRESS_EVENT, toStatus())) {
+			subscribers.add(emitter);
+		}
+	}
+
+	/**
+	 * 구독자에게 진행 상황 전송
+	 */
+	synchronized void publishProgress() {
+		if (subscribers.isEmpty()) {
+			return;
+		}
+		IngestionJobStatus status = toStatus();
+		subscribers.removeIf(emitter -> !send(emitter, PROGRESS_EVENT, status));
+	}
+
+	/**
+	 * 구독자에게 최종 상태를 전송하고 연결 종료
+	 */
+	synchronized void publishDone() {
+		IngestionJobStatus status = toStatus();
+		for (SseEmitter emitter : subscribers) {
+			if (send(emitter, DONE_EVENT, status)) {
+				emitter.complete();
+			}
+		}
+		subscribers.clear();
+	}
+
+	private synchronized void unsubscribe(SseEmitter emitter) {
+		subscribers.remove(emitter);
+	}
+
+	private boolean send(SseEmitter emitter, String eventName, IngestionJobStatus status) {
+		try {
+			emitter.send(SseEmitter.event().name(eventName).data(status, MediaType.APPLICATION_JSON));
+			return true;
+		} catch (IOException | IllegalStateException e) {
+			log.debug("적재 진행 상황 전송 실패 (구독 해제) - 작업: {}", id);
+			emitter.completeWithError(e);
+			return false;
+		}
+	}
+
+	private void addError(String error) {
+		synchronized (errors) {
+			if (errors.size() < MAX_ERRORS) {
+				errors.add(error);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+package egovframework.ragchat.service.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.egovframe.rte.fdl.cmmn.EgovAbstractServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import egovframework.ragchat.dto.IngestionJobStatus;
+import egovframework.ragchat.knowledge.KnowledgeBase;
+import egovframework.ragchat.knowledge.KnowledgeBaseRegistry;
+import egovframework.ragchat.service.DataIngestionService;
+import egovframework.ragchat.service.IngestionJobConflictException;
+import egovframework.ragchat.service.IngestionJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 문서 적재 작업 관리.
+ * 적재는 요청 스레드가 아닌 별도 스레드에서 실행되며, 컬렉션당 하나의 작업만 실행할 수 있다.
+ * 실행 중인 작업의 진행 상황은 일정 주기로 구독자에게 SSE 로 전송한다.
+ */
+@Slf4j
+@Service("IngestionJobService")
+@RequiredArgsConstructor
+public class IngestionJobServiceImpl extends EgovAbstractServiceImpl implements IngestionJobService {
+
+	// 보관할 완료 작업 수
+	private static final int MAX_FINISHED_JOBS = 20;
+	private static final long SSE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+	private final DataIngestionService dataIngestionService;
+	private final KnowledgeBaseRegistry knowledgeBaseRegistry;
+
+	@Value("${rag.ingestion.progress-interval-ms}")
+	private Long progressIntervalMillis;
+
+	// 시작 순서를 유지하여 오래된 완료 작업부터 정리
+	private final Map<String, IngestionJob> jobs = new LinkedHashMap<>();
+	private final Map<String, IngestionJob> runningJobs = new ConcurrentHashMap<>();
+
+	private ExecutorService jobExecutor;
+	private ScheduledExecutorService progressScheduler;
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		jobExecutor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "ingestion-job-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		progressScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "ingestion-progress");
+			thread.setDaemon(true);
+			return thread;
+		});
+		progressScheduler.scheduleAtFixedRate(this::publishProgress, progressIntervalMillis, progressIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		runningJobs.values().forEach(IngestionJob::requestCancel);
+		progressScheduler.shutdownNow();
+		jobExecutor.shutdown();
+	}
+
+	@Override
+	public IngestionJobStatus startJob(String knowledgeBaseName) {
+		KnowledgeBase knowledgeBase = knowledgeBaseRegistry.get(knowledgeBaseName);
+		String collection = knowledgeBase.getCollectionName();
+		IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), collection);
+
+		IngestionJob running = runningJobs.putIfAbsent(collection, job);
+		if (running != null) {
+			throw new IngestionJobConflictException(collection, running.getId());
+		}
+		register(job);
+
+		log.info("문서 적재 작업 시작 - 작업: {}, 지식 베이스: {}, 컬렉션: {}", job.getId(), knowledgeBase.getName(),
+				collection);
+		jobExecutor.execute(() -> run(job, knowledgeBase.getName()));
+		return job.toStatus();
+	}
+
+	@Override
+	public Optional<IngestionJobStatus> getJob(String jobId) {
+		return findJob(jobId).map(IngestionJob::toStatus);
+	}
+
+	@Override
+	public Optional<SseEmitter> subscribe(String jobId) {
+		return findJob(jobId).map(job -> {
+			SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+			job.subscribe(emitter);
+			return emitter;
+		});
+	}
+
+	@Override
+	public Optional<IngestionJobStatus> cancel(String jobId) {
+		return findJob(jobId).map(job -> {
+			if (job.requestCancel()) {
+				log.info("문서 적재 작업 취소 요청 - 작업: {}", jobId);
+			}
+			return job.toStatus();
+		});
+	}
+
+	private void run(IngestionJob job, String knowledgeBase) {
+		try {
+			int processedCount = dataIngestionService.setupRagChatbot(knowledgeBase, job);
+			job.complete(processedCount);
+			log.info("문서 적재 작업 종료 - 작업: {}, 상태: {}, 처리 문서: {}", job.getId(), job.toStatus().getState(),
+					processedCount);
+		} catch (Exception e) {
+			log.error("문서 적재 작업 중 오류 발생 - 작업: {}", job.getId(), e);
+			job.fail(e);
+		} finally {
+			runningJobs.remove(job.getCollection(), job);
+			job.publishDone();
+		}
+	}
+
+	private void publishProgress() {
+		try {
+			runningJobs.values().forEach(IngestionJob::publishProgress);
+		} catch (Exception e) {
+			// 예외가 전파되면 주기 실행이 중단되므로 기록만 함
+			log.warn("적재 진행 상황 전송 중 오류 발생", e);
+		}
+	}
+
+	private synchronized void register(IngestionJob job) {
+		jobs.put(job.getId(), job);
+
+		int finished = (int) jobs.values().stream().filter(IngestionJob::isFinished).count();
+		Iterator<IngestionJob> iterator = jobs.values().iterator();
+		while (finished > MAX_FINISHED_JOBS && iterator.hasNext()) {
+			if (iterator.next().isFinished()) {
+				iterator.remove();
+				finished--;
+			}
+		}
+	}
+
+	private synchronized Optional<IngestionJob> findJob(String jobId) {
+		return Optional.ofNullable(jobs.get(jobId));
+	}
+
+}
@@ -0,0 +1,136 @@
+package egovframework.ragchat.service.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 증분 적재용 매니페스트.
+ * 문서 출처별 본문 해시와 청크별 해시/포인트 ID를 로컬 JSON 파일로 보관하여
+ * 변경되지 않은 문서와 청크의 재임베딩을 건너뛰고, 사라진 청크와 문서의 포인트를 삭제하는 데 사용한다.
+ */
+@Slf4j
+@Data
+@NoArgsConstructor
+class IngestionManifest {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+			.enable(SerializationFeature.INDENT_OUTPUT);
+
+	private String collection;
+	private Map<String, SourceEntry> sources = new TreeMap<>();
+
+	/**
+	 * 매니페스트 파일 로드 (파일이 없거나 읽을 수 없으면 빈 매니페스트).
+	 *
+	 * @param path 매니페스트 파일 경로
+	 * @param collection 컬렉션 이름
+	 * @return 매니페스트
+	 */
+	static IngestionManifest load(Path path, String collection) {
+		if (Files.exists(path)) {
+			try {
+				IngestionManifest manifest = OBJECT_MAPPER.readValue(path.toFile(), IngestionManifest.class);
+				if (collection.equals(manifest.getCollection())) {
+					return manifest;
+				}
+				log.warn("다른 컬렉션의 매니페스트입니다. 새로 생성합니다: {}", path);
+			} catch (IOException e) {
+				log.warn("매니페스트 읽기 오류, 새로 생성합니다: {}", path, e);
+			}
+		}
+		IngestionManifest manifest = new IngestionManifest();
+		manifest.setCollection(collection);
+		return manifest;
+	}
+
+	/**
+	 * 매니페스트 파일 저장 (임시 파일에 쓴 뒤 교체).
+	 *
+	 * @param path 매니페스트 파일 경로
+	 */
+	void save(Path path) throws IOException {
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		OBJECT_MAPPER.writeValue(temp.toFile(), this);
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * 본문 해시 (SHA-256, 16진수 문자열).
+	 *
+	 * @param text 본문
+	 * @return 해시
+	 */
+	static String hash(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] bytes = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(bytes.length * 2);
+			for (byte b : bytes) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+		}
+	}
+
+	/**
+	 * 결정적 포인트 ID 생성.
+	 * 같은 출처의 같은 본문 청크는 항상 같은 ID를 가지므로 upsert 가 멱등적이다.
+	 * 한 문서에 동일한 본문이 여러 번 나오는 경우를 구분하기 위해 출현 순번을 함께 사용한다.
+	 *
+	 * @param source 문서 출처
+	 * @param chunkHash 청크 본문 해시
+	 * @param occurrence 같은 해시의 출현 순번
+	 * @return UUID 형식의 포인트 ID
+	 */
+	static String chunkId(String source, String chunkHash, int occurrence) {
+		String seed = source + "\n" + chunkHash + "\n" + occurrence;
+		return UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	/**
+	 * 문서 출처별 항목
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class SourceEntry {
+		private String hash;
+		private List<ChunkEntry> chunks = new ArrayList<>();
+	}
+
+	/**
+	 * 청크별 항목
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class ChunkEntry {
+		private String id;
+		private String hash;
+	}
+
+}
@@ -0,0 +1,373 @@
+package egovframework.ragchat.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.DocumentSplitter;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import egovframework.ragchat.service.IngestionMonitor;
+import egovframework.ragchat.service.impl.IngestionManifest.ChunkEntry;
+import egovframework.ragchat.service.impl.IngestionManifest.SourceEntry;
+import egovframework.ragchat.store.SegmentEmbeddingStore;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 단계별 문서 적재 파이프라인.
+ * 분할/임베딩 작업자 여러 개가 병렬로 문서를 처리하고, 결과 세그먼트는 크기가 제한된 큐를 거쳐
+ * 적재 단계에서 여러 문서의 세그먼트를 모아 고정 크기 배치로 저장소에 upsert 한다.
+ * 큐가 가득 차면 작업자가 대기하므로 적재 속도에 맞춰 임베딩 속도가 조절된다.
+ * 매니페스트의 이전 적재 결과와 비교하여 본문이 같은 문서와 이미 저장된 청크는 임베딩하지 않는다.
+ * 진행 상황은 IngestionMonitor 로 알리며, 취소 요청 시 남은 문서는 처리하지 않고 종료한다.
+ */
+@Slf4j
+class IngestionPipeline {
+
+	private final EmbeddingModel embeddingModel;
+	private final SegmentEmbeddingStore embeddingStore;
+	private final DocumentSplitter documentSplitter;
+	private final int parallelism;
+	private final int batchSize;
+	private final int queueCapacity;
+
+	IngestionPipeline(EmbeddingModel embeddingModel, SegmentEmbeddingStore embeddingStore,
+			DocumentSplitter documentSplitter, int parallelism, int batchSize, int queueCapacity) {
+		this.embeddingModel = embeddingModel;
+		this.embeddingStore = embeddingStore;
+		this.documentSplitter = documentSplitter;
+		this.parallelism = Math.max(1, parallelism);
+		this.batchSize = Math.max(1, batchSize);
+		this.queueCapacity = Math.max(this.batchSize, queueCapacity);
+	}
+
+	/**
+	 * 문서 목록을 분할, 임베딩, 적재.
+	 *
+	 * @param documents 적재할 문서 목록
+	 * @param previous 이전 적재 시의 출처별 매니페스트 항목
+	 * @param removeUntracked 매니페스트에 없는 출처의 기존 포인트를 먼저 삭제할지 여부
+	 * @param monitor 진행 상황 수신 및 취소 확인
+	 * @return 문서별 처리 결과 (취소로 처리하지 못한 문서는 포함되지 않음)
+	 */
+	List<DocumentResult> run(List<Document> documents, Map<String, SourceEntry> previous, boolean removeUntracked,
+			IngestionMonitor monitor) {
+		BlockingQueue<EmbeddedSegment> queue = new ArrayBlockingQueue<>(queueCapacity);
+		CountDownLatch remainingDocuments = new CountDownLatch(documents.size());
+		Stats stats = new Stats();
+		List<DocumentResult> results = Collections.synchronizedList(new ArrayList<>());
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "ingestion-worker-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long startTime = System.nanoTime();
+		try {
+			for (Document document : documents) {
+				workers.execute(() -> {
+					try {
+						if (!monitor.isCancelled()) {
+							splitAndEmbed(document, previous.get(sourceOf(document)), removeUntracked, queue, stats,
+									results, monitor);
+						}
+					} finally {
+						remainingDocuments.countDown();
+					}
+				});
+			}
+
+			// 현재 스레드에서 적재 단계 수행
+			write(queue, remainingDocuments, stats, monitor);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.error("문서 적재가 중단되었습니다.", e);
+		} finally {
+			workers.shutdownNow();
+		}
+
+		if (monitor.isCancelled()) {
+			log.info("문서 적재가 취소되었습니다. 처리 완료 문서 {}개", results.size());
+		}
+		stats.report(System.nanoTime() - startTime, parallelism);
+		return new ArrayList<>(results);
+	}
+
+	/**
+	 * 분할/임베딩 단계 (작업자 스레드)
+	 */
+	private void splitAndEmbed(Document document, SourceEntry previousEntry, boolean removeUntracked,
+			BlockingQueue<EmbeddedSegment> queue, Stats stats, List<DocumentResult> results, IngestionMonitor monitor) {
+		String source = sourceOf(document);
+		String sourceHash = IngestionManifest.hash(document.text());
+		DocumentResult result = new DocumentResult(source, sourceHash);
+
+		// 본문이 바뀌지 않은 문서는 분할도 하지 않음
+		if (previousEntry != null && sourceHash.equals(previousEntry.getHash())) {
+			result.status = DocumentStatus.UNCHANGED;
+			result.chunks = previousEntry.getChunks();
+			complete(result, results, monitor);
+			return;
+		}
+
+		try {
+			if (previousEntry == null && removeUntracked) {
+				// 매니페스트 도입 이전에 임의 ID로 저장된 포인트 정리
+				embeddingStore.removeBySource(source);
+			}
+
+			long splitStart = System.nanoTime();
+			List<TextSegment> segments = documentSplitter.split(document);
+			stats.splitNanos.addAndGet(System.nanoTime() - splitStart);
+			stats.splitSegments.addAndGet(segments.size());
+			monitor.onSegmentsSplit(segments.size());
+
+			// 청크별 해시와 결정적 ID 계산, 이미 저장된 청크는 제외
+			Set<String> storedIds = new HashSet<>();
+			if (previousEntry != null) {
+				previousEntry.getChunks().forEach(chunk -> storedIds.add(chunk.getId()));
+			}
+			Map<String, Integer> occurrences = new HashMap<>();
+			List<ChunkEntry> chunks = new ArrayList<>(segments.size());
+			List<String> newIds = new ArrayList<>();
+			List<TextSegment> newSegments = new ArrayList<>();
+			for (TextSegment segment : segments) {
+				String chunkHash = IngestionManifest.hash(segment.text());
+				int occurrence = occurrences.merge(chunkHash, 1, Integer::sum);
+				String chunkId = IngestionManifest.chunkId(source, chunkHash, occurrence);
+				chunks.add(new ChunkEntry(chunkId, chunkHash));
+				if (!storedIds.contains(chunkId)) {
+					newIds.add(chunkId);
+					newSegments.add(segment);
+				}
+			}
+			result.chunks = chunks;
+			result.skippedSegments = segments.size() - newSegments.size();
+			result.embeddedSegments = newSegments.size();
+
+			if (newSegments.isEmpty()) {
+				result.status = DocumentStatus.UPDATED;
+				complete(result, results, monitor);
+				return;
+			}
+
+			long embedStart = System.nanoTime();
+			List<Embedding> embeddings = embeddingModel.embedAll(newSegments).content();
+			stats.embedNanos.addAndGet(System.nanoTime() - embedStart);
+			stats.embeddedSegments.addAndGet(newSegments.size());
+			monitor.onSegmentsEmbedded(newSegments.size());
+
+			DocumentProgress progress = new DocumentProgress(result, newSegments.size(), results, monitor);
+			for (int i = 0; i < newSegments.size(); i++) {
+				// 큐가 가득 차면 적재 단계가 따라올 때까지 대기 (backpressure)
+				queue.put(new EmbeddedSegment(newIds.get(i), newSegments.get(i), embeddings.get(i), progress));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("문서 처리가 중단되었습니다: {}", source);
+			result.status = DocumentStatus.FAILED;
+			complete(result, results, monitor);
+		} catch (Exception e) {
+			stats.failedDocuments.incrementAndGet();
+			log.error("문서 처리 중 오류 발생: {}", source, e);
+			monitor.onError(source, e);
+			result.status = DocumentStatus.FAILED;
+			complete(result, results, monitor);
+		}
+	}
+
+	private static void complete(DocumentResult result, List<DocumentResult> results, IngestionMonitor monitor) {
+		results.add(result);
+		monitor.onDocumentCompleted(result.source, result.status != DocumentStatus.FAILED);
+	}
+
+	/**
+	 * 적재 단계: 여러 문서의 세그먼트를 모아 고정 크기 배치로 저장
+	 */
+	private void write(BlockingQueue<EmbeddedSegment> queue, CountDownLatch remainingDocuments, Stats stats,
+			IngestionMonitor monitor) throws InterruptedException {
+		List<EmbeddedSegment> batch = new ArrayList<>(batchSize);
+		while (!monitor.isCancelled()) {
+			EmbeddedSegment item = queue.poll(100, TimeUnit.MILLISECONDS);
+			if (item != null) {
+				batch.add(item);
+				queue.drainTo(batch, batchSize - batch.size());
+				if (batch.size() >= batchSize) {
+					flush(batch, stats, monitor);
+				}
+			} else if (remainingDocuments.getCount() == 0 && queue.isEmpty()) {
+				break;
+			}
+		}
+		flush(batch, stats, monitor);
+	}
+
+	private void flush(List<EmbeddedSegment> batch, Stats stats, IngestionMonitor monitor) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		List<String> ids = new ArrayList<>(batch.size());
+		List<Embedding> embeddings = new ArrayList<>(batch.size());
+		List<TextSegment> segments = new ArrayList<>(batch.size());
+		for (EmbeddedSegment item : batch) {
+			ids.add(item.id);
+			embeddings.add(item.embedding);
+			segments.add(item.segment);
+		}
+
+		long writeStart = System.nanoTime();
+		boolean written;
+		try {
+			embeddingStore.upsertAll(ids, embeddings, segments);
+			stats.writeNanos.addAndGet(System.nanoTime() - writeStart);
+			stats.writtenSegments.addAndGet(batch.size());
+			stats.batches.incrementAndGet();
+			monitor.onSegmentsWritten(batch.size());
+			written = true;
+		} catch (Exception e) {
+			log.error("세그먼트 {}개 저장 중 오류 발생", batch.size(), e);
+			monitor.onError(null, e);
+			written = false;
+		}
+
+		for (EmbeddedSegment item : batch) {
+			DocumentProgress progress = item.progress;
+			if (!written && !progress.failed) {
+				progress.failed = true;
+				stats.failedDocuments.incrementAndGet();
+			}
+			if (progress.remaining.decrementAndGet() == 0) {
+				progress.complete();
+			}
+		}
+		batch.clear();
+	}
+
+	private static String sourceOf(Document document) {
+		String source = document.metadata().getString("source");
+		return source != null ? source : "unknown";
+	}
+
+	/**
+	 * 문서 처리 상태
+	 */
+	enum DocumentStatus {
+		UNCHANGED, UPDATED, FAILED
+	}
+
+	/**
+	 * 문서별 처리 결과
+	 */
+	@Getter
+	static final class DocumentResult {
+		private final String source;
+		private final String sourceHash;
+		private DocumentStatus status;
+		private List<ChunkEntry> chunks = Collections.emptyList();
+		private int embeddedSegments;
+		private int skippedSegments;
+
+		private DocumentResult(String source, String sourceHash) {
+			this.source = source;
+			this.sourceHash = sourceHash;
+		}
+	}
+
+	/**
+	 * 임베딩이 완료되어 적재 대기 중인 세그먼트
+	 */
+	private static final class EmbeddedSegment {
+		private final String id;
+		private final TextSegment segment;
+		private final Embedding embedding;
+		private final DocumentProgress progress;
+
+		private EmbeddedSegment(String id, TextSegment segment, Embedding embedding, DocumentProgress progress) {
+			this.id = id;
+			this.segment = segment;
+			this.embedding = embedding;
+			this.progress = progress;
+		}
+	}
+
+	/**
+	 * 문서별 적재 진행 상황 (모든 세그먼트가 저장되면 처리 완료)
+	 */
+	private static final class DocumentProgress {
+		private final DocumentResult result;
+		private final AtomicInteger remaining;
+		private final List<DocumentResult> results;
+		private final IngestionMonitor monitor;
+		// 적재 단계(단일 스레드)에서만 변경
+		private boolean failed;
+
+		private DocumentProgress(DocumentResult result, int segmentCount, List<DocumentResult> results,
+				IngestionMonitor monitor) {
+			this.result = result;
+			this.remaining = new AtomicInteger(segmentCount);
+			this.results = results;
+			this.monitor = monitor;
+		}
+
+		private void complete() {
+			result.status = failed ? DocumentStatus.FAILED : DocumentStatus.UPDATED;
+			IngestionPipeline.complete(result, results, monitor);
+			if (!failed) {
+				log.info("문서 처리 완료: {} (임베딩 {}개, 기존 청크 재사용 {}개)", result.source, result.embeddedSegments,
+						result.skippedSegments);
+			}
+		}
+	}
+
+	/**
+	 * 단계별 처리량 통계
+	 */
+	private static final class Stats {
+		private final AtomicLong splitNanos = new AtomicLong();
+		private final AtomicLong embedNanos = new AtomicLong();
+		private final AtomicLong writeNanos = new AtomicLong();
+		private final AtomicLong splitSegments = new AtomicLong();
+		private final AtomicLong embeddedSegments = new AtomicLong();
+		private final AtomicLong writtenSegments = new AtomicLong();
+		private final AtomicLong batches = new AtomicLong();
+		private final AtomicInteger failedDocuments = new AtomicInteger();
+
+		private void report(long elapsedNanos, int parallelism) {
+			log.info("적재 파이프라인 완료 - 소요 {}ms, 작업자 {}개, 실패 문서 {}개", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+					parallelism, failedDocuments.get());
+			log.info("분할 단계: 세그먼트 {}개, 작업 시간 {}ms, {} seg/s", splitSegments.get(),
+					TimeUnit.NANOSECONDS.toMillis(splitNanos.get()), rate(splitSegments.get(), splitNanos.get()));
+			log.info("임베딩 단계: 세그먼트 {}개, 작업 시간 {}ms, {} seg/s", embeddedSegments.get(),
+					TimeUnit.NANOSECONDS.toMillis(embedNanos.get()), rate(embeddedSegments.get(), embedNanos.get()));
+			log.info("적재 단계: 세그먼트 {}개, 배치 {}개, 작업 시간 {}ms, {} seg/s", writtenSegments.get(), batches.get(),
+					TimeUnit.NANOSECONDS.toMillis(writeNanos.get()), rate(writtenSegments.get(), writeNanos.get()));
+			log.info("전체 처리량: {} seg/s", rate(writtenSegments.get(), elapsedNanos));
+		}
+
+		private static String rate(long count, long nanos) {
+			if (nanos <= 0) {
+				return "-";
+			}
+			return String.format("%.1f", count / (nanos / 1_000_000_000.0));
+		}
+	}
+
+}
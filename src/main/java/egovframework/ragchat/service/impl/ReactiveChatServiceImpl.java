@@ -0,0 +1,289 @@
+package egovframework.ragchat.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.egovframe.rte.fdl.cmmn.EgovAbstractServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+import egovframework.ragchat.dto.ChatRequest;
+import egovframework.ragchat.knowledge.KnowledgeBaseRegistry;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.ollama.AdmissionRejectedException;
+import egovframework.ragchat.ollama.GenerationCancelledException;
+import egovframework.ragchat.ollama.GenerationScheduler;
+import egovframework.ragchat.retrieval.ContextAssembler;
+import egovframework.ragchat.service.ReactiveChatService;
+import egovframework.ragchat.session.ConversationSessions;
+import egovframework.ragchat.util.IncrementalMarkdownRenderer;
+import egovframework.ragchat.util.MarkdownConverter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * 리액티브 스트리밍 채팅 서비스.
+ * 검색, 프롬프트 구성, 토큰 생성, 마크다운 렌더링을 하나의 Flux 연산자 체인으로 구성한다.
+ * 블로킹 검색(임베딩, 벡터 검색)은 고정 크기 검색 스케줄러에서 실행하고, 토큰은 Ollama 콜백에서 바로 내보낸다.
+ * 토큰은 최대 개수 또는 최대 지연 시간 단위로 묶어 렌더링하며, 클라이언트가 읽지 못해 쌓인 묶음이
+ * 상한을 넘거나 구독이 취소되면 생성을 중단하여 스트림마다 버퍼 크기가 제한된다.
+ * 대기열이 가득 찬 경우 첫 이벤트 전에 AdmissionRejectedException 으로 종료되어 429 로 응답한다.
+ */
+@Slf4j
+@Service("ReactiveChatService")
+@RequiredArgsConstructor
+public class ReactiveChatServiceImpl extends EgovAbstractServiceImpl implements ReactiveChatService {
+
+	// 미확정 텍스트 표시용 이벤트, 최종 HTML 보정용 이벤트, 생성 슬롯 대기 순번 이벤트 이름
+	private static final String TAIL_EVENT = "tail";
+	private static final String RECONCILE_EVENT = "reconcile";
+	private static final String QUEUED_EVENT = "queued";
+
+	private final StreamingChatLanguageModel streamingChatLanguageModel;
+	private final KnowledgeBaseRegistry knowledgeBaseRegistry;
+	private final ContextAssembler contextAssembler;
+	private final MarkdownConverter markdownConverter;
+	private final GenerationScheduler generationScheduler;
+	private final RagMetrics ragMetrics;
+	private final Scheduler retrievalScheduler;
+	private final ConversationSessions conversationSessions;
+
+	@Value("${rag.streaming.flush.max-latency-ms}")
+	private long flushLatencyMillis;
+
+	@Value("${rag.reactive.flush.max-tokens}")
+	private int flushMaxTokens;
+
+	@Value("${rag.reactive.max-buffered-frames}")
+	private int maxBufferedFrames;
+
+	@Override
+	public Flux<ServerSentEvent<String>> streamRagResponse(ChatRequest chatRequest) {
+		String query = chatRequest.getQuery();
+		String endpoint = RagMetrics.currentEndpoint();
+		log.info("리액티브 스트리밍 RAG 질의 수신: {}", query);
+
+		// 요청에서 지정한 지식 베이스의 검색기 (알 수 없는 이름이면 구독 전에 예외를 던져 400 응답)
+		ContentRetriever retriever = knowledgeBaseRegistry.retriever(chatRequest.getKnowledgeBases());
+
+		Flux<ServerSentEvent<String>> events = Mono.fromCallable(() -> {
+			// 검색 지표는 검색 스케줄러 스레드에서 같은 엔드포인트로 기록
+			try (RagMetrics.Scope scope = ragMetrics.endpoint(endpoint)) {
+				ConversationSessions.History history = conversationSessions.history(chatRequest.getSessionId());
+				String context = contextAssembler.assemble(retriever.retrieve(Query.from(query)));
+				return ChatServiceImpl.buildRagMessages(history, context, query);
+			}
+		})
+				.subscribeOn(retrievalScheduler)
+				.doOnNext(messages -> ragMetrics.recordPrompt(endpoint, ChatServiceImpl.promptText(messages)))
+				.flatMapMany(messages -> render(endpoint, generate(chatRequest.getClientId(), endpoint,
+						handler -> streamingChatLanguageModel.generate(messages, handler),
+						answer -> conversationSessions.recordTurn(chatRequest.getSessionId(), query, answer))));
+		return complete(endpoint, events);
+	}
+
+	@Override
+	public Flux<ServerSentEvent<String>> streamSimpleResponse(ChatRequest chatRequest) {
+		String query = chatRequest.getQuery();
+		String endpoint = RagMetrics.currentEndpoint();
+		log.info("리액티브 스트리밍 일반 채팅 질의 수신: {}", query);
+
+		Flux<ServerSentEvent<String>> events = Flux.defer(() -> {
+			// 세션의 이전 대화가 있으면 앞에 추가
+			List<ChatMessage> messages = conversationSessions.history(chatRequest.getSessionId()).toMessages(null,
+					query);
+			ragMetrics.recordPrompt(endpoint, ChatServiceImpl.promptText(messages));
+			return render(endpoint, generate(chatRequest.getClientId(), endpoint,
+					handler -> streamingChatLanguageModel.generate(messages, handler),
+					answer -> conversationSessions.recordTurn(chatRequest.getSessionId(), query, answer)));
+		});
+		return complete(endpoint, events);
+	}
+
+	/**
+	 * 생성 이벤트를 묶어 렌더링한 SSE 이벤트 스트림.
+	 * 토큰 묶음마다 확정된 HTML 블록(기본 이벤트)과 미확정 텍스트(tail)를 보내고, 끝나면 전체 보정(reconcile)을 보낸다.
+	 */
+	private Flux<ServerSentEvent<String>> render(String endpoint, Flux<GenerationEvent> events) {
+		return Flux.defer(() -> {
+			IncrementalMarkdownRenderer renderer = markdownConverter.newIncrementalRenderer();
+			return events
+					.bufferTimeout(flushMaxTokens, Duration.ofMillis(flushLatencyMillis))
+					// 클라이언트가 읽지 못한 묶음은 상한까지만 보관하고 넘치면 오류로 생성 중단
+					.onBackpressureBuffer(maxBufferedFrames)
+					.concatMapIterable(batch -> toEvents(endpoint, batch, renderer))
+					.concatWith(Mono.fromCallable(() -> event(RECONCILE_EVENT,
+							ragMetrics.timeRender(endpoint, renderer::finish))));
+		});
+	}
+
+	/**
+	 * 전송 이벤트 수 기록 및 오류 처리.
+	 * 수락 거절은 그대로 전달하여 429 로 응답하고, 그 밖의 오류는 오류 메시지 이벤트를 보낸 뒤 종료한다.
+	 */
+	private Flux<ServerSentEvent<String>> complete(String endpoint, Flux<ServerSentEvent<String>> events) {
+		return events
+				.doOnNext(event -> ragMetrics.recordSseFrames(endpoint, 1))
+				.onErrorResume(error -> !(error instanceof AdmissionRejectedException), error -> {
+					log.error("리액티브 스트리밍 응답 생성 중 오류 발생", error);
+					String errorMessage = ChatServiceImpl.handleException(
+							error instanceof Exception ? (Exception) error : new Exception(error));
+					return Flux.just(event(null, IncrementalMarkdownRenderer
+							.toSseData(markdownConverter.convertToHtml(errorMessage))));
+				});
+	}
+
+	private List<ServerSentEvent<String>> toEvents(String endpoint, List<GenerationEvent> batch,
+			IncrementalMarkdownRenderer renderer) {
+		StringBuilder chunk = new StringBuilder();
+		int queuedPosition = 0;
+		for (GenerationEvent generationEvent : batch) {
+			if (generationEvent.token != null) {
+				chunk.append(generationEvent.token);
+			} else {
+				queuedPosition = generationEvent.queuedPosition;
+			}
+		}
+
+		List<ServerSentEvent<String>> events = new ArrayList<>(2);
+		if (queuedPosition > 0) {
+			events.add(event(QUEUED_EVENT, String.valueOf(queuedPosition)));
+		}
+		if (chunk.length() > 0) {
+			IncrementalMarkdownRenderer.Delta delta = ragMetrics.timeRender(endpoint,
+					() -> renderer.append(chunk.toString()));
+			// 확정 이벤트는 이전 미확정 텍스트를 지우고, tail 은 새로 추가된 미확정 텍스트만 담아 이어 붙임
+			if (delta.isCommitted()) {
+				events.add(event(null, delta.getHtml()));
+			}
+			if (!delta.getTail().isEmpty()) {
+				events.add(event(TAIL_EVENT, delta.getTail()));
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * 생성 슬롯을 배정받은 뒤 모델을 호출하여 토큰과 대기 순번을 내보내는 스트림.
+	 * 구독이 취소되면 대기 중인 요청은 대기열에서 빠지고, 생성 중인 요청은 다음 토큰에서 Ollama 응답 스트림을 닫는다.
+	 * 생성이 끝나면 전체 응답을 onAnswer 로 전달한다.
+	 */
+	private Flux<GenerationEvent> generate(String clientId, String endpoint,
+			Consumer<StreamingResponseHandler<AiMessage>> model, Consumer<String> onAnswer) {
+		return Flux.create(sink -> {
+			AtomicBoolean cancelled = new AtomicBoolean();
+			StringBuilder answer = new StringBuilder();
+			AtomicReference<GenerationScheduler.Ticket> ticket = new AtomicReference<>();
+			RagMetrics.Generation generation = ragMetrics.startGeneration(endpoint);
+
+			StreamingResponseHandler<AiMessage> handler = new StreamingResponseHandler<AiMessage>() {
+				@Override
+				public void onNext(String token) {
+					if (cancelled.get()) {
+						// 예외를 던지면 Ollama 클라이언트가 응답 스트림을 닫아 생성이 멈춤
+						throw new GenerationCancelledException();
+					}
+					generation.onToken();
+					answer.append(token);
+					sink.next(GenerationEvent.token(token));
+				}
+
+				@Override
+				public void onComplete(Response<AiMessage> response) {
+					ticket.get().release();
+					generation.finish("completed", ChatServiceImpl.outputTokens(response));
+					onAnswer.accept(answer.toString());
+					sink.complete();
+				}
+
+				@Override
+				public void onError(Throwable error) {
+					if (GenerationCancelledException.isCause(error)) {
+						generation.finish("cancelled", null);
+						ticket.get().cancel();
+						log.info("구독 취소로 생성 중단");
+						return;
+					}
+					generation.finish("failed", null);
+					ticket.get().release();
+					sink.error(error);
+				}
+			};
+
+			// 완료, 오류, 구독 취소 모두에서 호출 (대기 중일 때만 대기 취소)
+			sink.onDispose(() -> {
+				cancelled.set(true);
+				GenerationScheduler.Ticket current = ticket.get();
+				if (current != null && current.isWaiting()) {
+					current.cancel();
+				}
+			});
+
+			ticket.set(generationScheduler.submit(clientId, new GenerationScheduler.Listener() {
+				@Override
+				public void onQueued(int position) {
+					sink.next(GenerationEvent.queued(position));
+				}
+
+				@Override
+				public void onGranted(GenerationScheduler.Ticket granted) {
+					ticket.set(granted);
+					if (cancelled.get()) {
+						// 슬롯을 기다리는 사이 구독이 취소된 경우 모델을 호출하지 않음
+						granted.cancel();
+						return;
+					}
+					generation.start();
+					model.accept(handler);
+				}
+			}));
+		}, FluxSink.OverflowStrategy.BUFFER);
+	}
+
+	private static ServerSentEvent<String> event(String name, String data) {
+		ServerSentEvent.Builder<String> builder = ServerSentEvent.<String>builder(data)
+				.id(String.valueOf(System.currentTimeMillis()));
+		if (name != null) {
+			builder.event(name);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * 생성 스트림 항목 (토큰 또는 대기 순번)
+	 */
+	private static final class GenerationEvent {
+		private final String token;
+		private final int queuedPosition;
+
+		private GenerationEvent(String token, int queuedPosition) {
+			this.token = token;
+			this.queuedPosition = queuedPosition;
+		}
+
+		private static GenerationEvent token(String token) {
+			return new GenerationEvent(token, 0);
+		}
+
+		private static GenerationEvent queued(int position) {
+			return new GenerationEvent(null, position);
+		}
+	}
+
+}
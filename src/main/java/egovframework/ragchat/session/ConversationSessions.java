@@ -0,0 +1,378 @@
+package egovframework.ragchat.session;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import egovframework.ragchat.ollama.GenerationScheduler;
+import egovframework.ragchat.retrieval.ContextAssembler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 서버 측 대화 세션 저장소.
+ * 세션마다 토큰 예산 기준 슬라이딩 윈도우 메모리({@link SessionChatMemory})를 두어 후속 질문에 이전 대화를 함께 보낸다.
+ * 전체 메모리 사용량 상한(LRU)과 유휴 시간(TTL) 기준으로 세션을 정리하므로 세션 수와 관계없이 힙 사용량이 일정하게 유지된다.
+ * 요약을 사용하면 윈도우에서 밀려난 턴을 별도 스레드에서 생성 스케줄러를 거쳐 요약하므로 응답 경로를 지연시키지 않는다.
+ * 세션 식별자는 서버가 발급한 HTTP 세션의 식별자이며, HTTP 세션이 만료되거나 무효화되면 대화도 함께 삭제한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConversationSessions implements HttpSessionListener {
+
+	private static final int MAX_SESSION_ID_LENGTH = 128;
+	// 요약 생성은 하나의 클라이언트로 묶어 사용자 요청과 라운드 로빈으로 번갈아 처리
+	private static final String SUMMARY_CLIENT_ID = "session-summary";
+
+	private final ChatLanguageModel chatLanguageModel;
+	private final GenerationScheduler generationScheduler;
+
+	@Value("${rag.session.enabled}")
+	private boolean enabled;
+
+	@Value("${rag.session.window-tokens}")
+	private int windowTokens;
+
+	@Value("${rag.session.max-bytes}")
+	private long maxBytes;
+
+	@Value("${rag.session.idle-ttl-seconds}")
+	private long idleTtlSeconds;
+
+	@Value("${rag.session.summary.enabled}")
+	private boolean summaryEnabled;
+
+	@Value("${rag.session.summary.max-tokens}")
+	private int summaryMaxTokens;
+
+	// accessOrder=true 로 생성하여 조회 순서 기준 LRU 로 동작
+	private final LinkedHashMap<String, SessionChatMemory> sessions = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalBytes;
+
+	private final ExecutorService summaryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "session-summary");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final LongAdder createdCount = new LongAdder();
+	private final LongAdder idleEvictedCount = new LongAdder();
+	private final LongAdder capacityEvictedCount = new LongAdder();
+	private final LongAdder summarizedCount = new LongAdder();
+	private final LongAdder summaryFailedCount = new LongAdder();
+
+	@PreDestroy
+	public void shutdown() {
+		summaryExecutor.shutdownNow();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * HTTP 세션 종료 시 해당 대화 삭제
+	 *
+	 * @param event 세션 이벤트
+	 */
+	@Override
+	public void sessionDestroyed(HttpSessionEvent event) {
+		remove(event.getSession().getId());
+	}
+
+	/**
+	 * 응답을 기록할 세션 요청인지 여부
+	 *
+	 * @param sessionId 세션 식별자
+	 * @return 세션 사용 여부
+	 */
+	public boolean tracks(String sessionId) {
+		return enabled && sessionId != null && !sessionId.isBlank() && sessionId.length() <= MAX_SESSION_ID_LENGTH;
+	}
+
+	/**
+	 * 세션의 이전 대화 조회 (세션이 없거나 만료되었으면 빈 대화)
+	 *
+	 * @param sessionId 세션 식별자
+	 * @return 이전 대화
+	 */
+	public History history(String sessionId) {
+		if (!tracks(sessionId)) {
+			return History.EMPTY;
+		}
+		synchronized (this) {
+			SessionChatMemory memory = sessions.get(sessionId);
+			if (memory == null) {
+				return History.EMPTY;
+			}
+			if (isIdle(memory, System.currentTimeMillis())) {
+				remove(sessionId, memory);
+				idleEvictedCount.increment();
+				return History.EMPTY;
+			}
+			memory.touch();
+			return new History(memory.summary(), memory.window());
+		}
+	}
+
+	/**
+	 * 완료된 턴(질문과 응답)을 세션에 기록.
+	 *
+	 * @param sessionId 세션 식별자 (세션 요청이 아니면 무시)
+	 * @param query 사용자 질의
+	 * @param answer 마크다운 원문 응답
+	 */
+	public void recordTurn(String sessionId, String query, String answer) {
+		if (!tracks(sessionId) || answer == null || answer.isEmpty()) {
+			return;
+		}
+
+		SessionChatMemory summarizeTarget = null;
+		List<ChatMessage> evicted = List.of();
+		synchronized (this) {
+			SessionChatMemory memory = sessions.get(sessionId);
+			if (memory == null || isIdle(memory, System.currentTimeMillis())) {
+				if (memory != null) {
+					remove(sessionId, memory);
+				}
+				memory = new SessionChatMemory(sessionId, windowTokens, summaryEnabled);
+				sessions.put(sessionId, memory);
+				totalBytes += memory.estimateBytes();
+				createdCount.increment();
+			}
+
+			long before = memory.estimateBytes();
+			memory.add(UserMessage.from(query));
+			memory.add(AiMessage.from(answer));
+			memory.touch();
+			totalBytes += memory.estimateBytes() - before;
+
+			if (memory.hasEvicted() && !memory.summarizing) {
+				memory.summarizing = true;
+				summarizeTarget = memory;
+				long beforeDrain = memory.estimateBytes();
+				evicted = memory.drainEvicted();
+				totalBytes -= beforeDrain - memory.estimateBytes();
+			}
+			evictToCapacity();
+		}
+
+		if (summarizeTarget != null) {
+			submitSummary(summarizeTarget, evicted);
+		}
+	}
+
+	/**
+	 * 세션 삭제
+	 *
+	 * @param sessionId 세션 식별자
+	 * @return 삭제 여부
+	 */
+	public synchronized boolean remove(String sessionId) {
+		SessionChatMemory memory = sessions.get(sessionId);
+		if (memory == null) {
+			return false;
+		}
+		remove(sessionId, memory);
+		return true;
+	}
+
+	/**
+	 * 유휴 시간이 지난 세션 정리
+	 */
+	@Scheduled(initialDelayString = "${rag.session.sweep-interval-ms}",
+			fixedDelayString = "${rag.session.sweep-interval-ms}")
+	public void evictIdle() {
+		long now = System.currentTimeMillis();
+		int evicted = 0;
+		synchronized (this) {
+			Iterator<SessionChatMemory> iterator = sessions.values().iterator();
+			while (iterator.hasNext()) {
+				SessionChatMemory memory = iterator.next();
+				if (isIdle(memory, now)) {
+					totalBytes -= memory.estimateBytes();
+					iterator.remove();
+					evicted++;
+				}
+			}
+		}
+		if (evicted > 0) {
+			idleEvictedCount.add(evicted);
+			log.debug("유휴 세션 정리: {}건", evicted);
+		}
+	}
+
+	/**
+	 * 세션 통계 조회
+	 *
+	 * @return 통계 정보
+	 */
+	public synchronized Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("sessions", sessions.size());
+		stats.put("bytes", totalBytes);
+		stats.put("maxBytes", maxBytes);
+		stats.put("windowTokens", windowTokens);
+		stats.put("created", createdCount.sum());
+		stats.put("idleEvicted", idleEvictedCount.sum());
+		stats.put("capacityEvicted", capacityEvictedCount.sum());
+		stats.put("summaryEnabled", summaryEnabled);
+		stats.put("summarized", summarizedCount.sum());
+		stats.put("summaryFailed", summaryFailedCount.sum());
+		return stats;
+	}
+
+	private boolean isIdle(SessionChatMemory memory, long now) {
+		return now - memory.lastAccessedAt() > idleTtlSeconds * 1000L;
+	}
+
+	/**
+	 * 세션 제거 (lock 보유 상태에서 호출)
+	 */
+	private void remove(String sessionId, SessionChatMemory memory) {
+		sessions.remove(sessionId);
+		totalBytes -= memory.estimateBytes();
+	}
+
+	/**
+	 * 전체 사용량이 상한 이하가 될 때까지 가장 오래 사용하지 않은 세션부터 제거 (lock 보유 상태에서 호출).
+	 * 방금 기록한 세션은 가장 최근 순서이므로 마지막까지 남는다.
+	 */
+	private void evictToCapacity() {
+		Iterator<SessionChatMemory> iterator = sessions.values().iterator();
+		while (totalBytes > maxBytes && sessions.size() > 1 && iterator.hasNext()) {
+			totalBytes -= iterator.next().estimateBytes();
+			iterator.remove();
+			capacityEvictedCount.increment();
+		}
+	}
+
+	/**
+	 * 밀려난 턴을 기존 요약과 합쳐 새 요약 생성 (요약 스레드에서 실행)
+	 */
+	private void submitSummary(SessionChatMemory memory, List<ChatMessage> evicted) {
+		try {
+			summaryExecutor.execute(() -> summarize(memory, evicted));
+		} catch (RejectedExecutionException e) {
+			synchronized (this) {
+				memory.summarizing = false;
+			}
+		}
+	}
+
+	private void summarize(SessionChatMemory memory, List<ChatMessage> evicted) {
+		String previousSummary;
+		synchronized (this) {
+			previousSummary = memory.summary();
+		}
+
+		String summary = null;
+		try {
+			List<ChatMessage> messages = new ArrayList<>();
+			messages.add(SystemMessage.from("다음 대화 내용을 이후 질문에 필요한 사실과 맥락 위주로 " + summaryMaxTokens
+					+ "토큰 이내의 한국어로 요약하세요. 요약문만 출력하세요."));
+			messages.add(UserMessage.from(transcript(previousSummary, evicted)));
+			String generated = generationScheduler.execute(SUMMARY_CLIENT_ID,
+					() -> chatLanguageModel.generate(messages).content().text());
+			summary = generated != null ? ContextAssembler.truncate(generated.trim(), summaryMaxTokens) : null;
+			summarizedCount.increment();
+		} catch (Exception e) {
+			// 요약하지 못한 턴은 버리고 기존 요약을 유지
+			summaryFailedCount.increment();
+			log.warn("세션 대화 요약 실패: {}", e.getMessage());
+		}
+
+		synchronized (this) {
+			memory.summarizing = false;
+			// 요약하는 사이 정리된 세션이면 반영하지 않음
+			if (summary == null || sessions.get((String) memory.id()) != memory) {
+				return;
+			}
+			long before = memory.estimateBytes();
+			memory.applySummary(summary);
+			totalBytes += memory.estimateBytes() - before;
+		}
+	}
+
+	private static String transcript(String previousSummary, List<ChatMessage> messages) {
+		StringBuilder transcript = new StringBuilder();
+		if (previousSummary != null) {
+			transcript.append("기존 요약:\n").append(previousSummary).append("\n\n");
+		}
+		transcript.append("대화:\n");
+		for (ChatMessage message : messages) {
+			transcript.append(message instanceof UserMessage ? "사용자: " : "답변: ")
+					.append(SessionChatMemory.text(message)).append('\n');
+		}
+		return transcript.toString();
+	}
+
+	/**
+	 * 요청 시점의 이전 대화 (요약과 윈도우 메시지)
+	 */
+	public static final class History {
+
+		static final History EMPTY = new History(null, List.of());
+
+		private final String summary;
+		private final List<ChatMessage> messages;
+
+		private History(String summary, List<ChatMessage> messages) {
+			this.summary = summary;
+			this.messages = messages;
+		}
+
+		/**
+		 * 이전 대화가 없는지 여부 (없으면 캐시와 진행 중인 생성 합류를 사용할 수 있음)
+		 */
+		public boolean isEmpty() {
+			return summary == null && messages.isEmpty();
+		}
+
+		/**
+		 * 모델에 보낼 메시지 목록 구성 (시스템 메시지와 요약, 이전 대화, 이번 질문 순)
+		 *
+		 * @param systemPrompt 시스템 프롬프트 (없으면 null)
+		 * @param userPrompt 이번 질문 프롬프트
+		 * @return 메시지 목록
+		 */
+		public List<ChatMessage> toMessages(String systemPrompt, String userPrompt) {
+			List<ChatMessage> result = new ArrayList<>(messages.size() + 2);
+			StringBuilder system = new StringBuilder(systemPrompt != null ? systemPrompt : "");
+			if (summary != null) {
+				if (system.length() > 0) {
+					system.append('\n');
+				}
+				system.append("이전 대화 요약:\n").append(summary);
+			}
+			if (system.length() > 0) {
+				result.add(SystemMessage.from(system.toString()));
+			}
+			result.addAll(messages);
+			result.add(UserMessage.from(userPrompt));
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+package egovframework.ragchat.session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import egovframework.ragchat.retrieval.ContextAssembler;
+
+/**
+ * 대화 세션 하나의 메모리 (추정 토큰 수 기준 슬라이딩 윈도우).
+ * 최근 메시지를 토큰 예산 안에서 보관하고, 예산을 넘으면 가장 오래된 턴(질문과 응답)부터 통째로 밀어낸다.
+ * 요약을 사용하면 밀려난 메시지를 모아 두었다가 요약에 반영하며, 요약은 윈도우 앞에 시스템 메시지로 붙는다.
+ * 동기화는 {@link ConversationSessions} 에서 담당한다.
+ */
+public class SessionChatMemory implements ChatMemory {
+
+	private static final String SUMMARY_PREFIX = "이전 대화 요약:\n";
+	// 메시지마다 역할 구분 등으로 추가되는 토큰 수
+	private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+	private final String id;
+	private final int maxTokens;
+	private final boolean keepEvicted;
+	private final ArrayDeque<ChatMessage> window = new ArrayDeque<>();
+	private final List<ChatMessage> evicted = new ArrayList<>();
+	private int windowTokens;
+	private String summary;
+	private long lastAccessedAt;
+	boolean summarizing;
+
+	/**
+	 * @param id 세션 식별자
+	 * @param maxTokens 윈도우 토큰 예산
+	 * @param keepEvicted 밀려난 메시지를 요약용으로 보관할지 여부
+	 */
+	public SessionChatMemory(String id, int maxTokens, boolean keepEvicted) {
+		this.id = id;
+		this.maxTokens = maxTokens;
+		this.keepEvicted = keepEvicted;
+		this.lastAccessedAt = System.currentTimeMillis();
+	}
+
+	@Override
+	public Object id() {
+		return id;
+	}
+
+	@Override
+	public void add(ChatMessage message) {
+		window.addLast(message);
+		windowTokens += tokens(message);
+		// 마지막 턴은 예산보다 커도 유지
+		while (windowTokens > maxTokens && window.size() > 2) {
+			evictOldestTurn();
+		}
+	}
+
+	@Override
+	public List<ChatMessage> messages() {
+		List<ChatMessage> messages = new ArrayList<>(window.size() + 1);
+		if (summary != null) {
+			messages.add(SystemMessage.from(SUMMARY_PREFIX + summary));
+		}
+		messages.addAll(window);
+		return messages;
+	}
+
+	@Override
+	public void clear() {
+		window.clear();
+		evicted.clear();
+		windowTokens = 0;
+		summary = null;
+	}
+
+	/**
+	 * 윈도우에 남아 있는 메시지 (요약 제외)
+	 *
+	 * @return 메시지 목록 사본
+	 */
+	public List<ChatMessage> window() {
+		return List.copyOf(window);
+	}
+
+	public String summary() {
+		return summary;
+	}
+
+	/**
+	 * 요약 대상으로 모아 둔 메시지를 꺼냄
+	 *
+	 * @return 밀려난 메시지 목록 (없으면 빈 목록)
+	 */
+	public List<ChatMessage> drainEvicted() {
+		List<ChatMessage> drained = List.copyOf(evicted);
+		evicted.clear();
+		return drained;
+	}
+
+	/**
+	 * 요약 갱신
+	 *
+	 * @param summary 새 요약
+	 */
+	public void applySummary(String summary) {
+		this.summary = summary != null && !summary.isBlank() ? summary.trim() : this.summary;
+	}
+
+	public boolean hasEvicted() {
+		return !evicted.isEmpty();
+	}
+
+	public int windowTokens() {
+		return windowTokens;
+	}
+
+	public long lastAccessedAt() {
+		return lastAccessedAt;
+	}
+
+	public void touch() {
+		lastAccessedAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * 메모리 사용량 추정 (바이트)
+	 *
+	 * @return 추정 바이트 수
+	 */
+	public long estimateBytes() {
+		long size = 128L + id.length() * 2L + (summary != null ? summary.length() * 2L : 0L);
+		for (ChatMessage message : window) {
+			size += 48L + text(message).length() * 2L;
+		}
+		for (ChatMessage message : evicted) {
+			size += 48L + text(message).length() * 2L;
+		}
+		return size;
+	}
+
+	/**
+	 * 메시지 본문 (텍스트가 없으면 빈 문자열)
+	 *
+	 * @param message 메시지
+	 * @return 본문
+	 */
+	public static String text(ChatMessage message) {
+		String text = null;
+		if (message instanceof UserMessage) {
+			UserMessage userMessage = (UserMessage) message;
+			text = userMessage.hasSingleText() ? userMessage.singleText() : null;
+		} else if (message instanceof AiMessage) {
+			text = ((AiMessage) message).text();
+		} else if (message instanceof SystemMessage) {
+			text = ((SystemMessage) message).text();
+		}
+		return text != null ? text : "";
+	}
+
+	private static int tokens(ChatMessage message) {
+		return ContextAssembler.estimateTokens(text(message)) + MESSAGE_OVERHEAD_TOKENS;
+	}
+
+	/**
+	 * 가장 오래된 메시지와 그 뒤에 이어진 응답을 밀어냄 (다음 사용자 질문 전까지)
+	 */
+	private void evictOldestTurn() {
+		do {
+			ChatMessage removed = window.pollFirst();
+			windowTokens -= tokens(removed);
+			if (keepEvicted) {
+				evicted.add(removed);
+			}
+		} while (window.size() > 2 && !(window.peekFirst() instanceof UserMessage));
+	}
+
+}
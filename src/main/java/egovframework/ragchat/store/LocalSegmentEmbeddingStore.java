@@ -0,0 +1,538 @@
+package egovframework.ragchat.store;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.RelevanceScore;
+import dev.langchain4j.store.embedding.filter.Filter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 프로세스 내 로컬 세그먼트 저장소 (Qdrant 없이 단일 노드에서 실행할 때 사용).
+ * 벡터는 슬롯 단위로 메모리 맵 파일(vectors.f32)에 float 배열로 저장하고,
+ * 세그먼트 본문/메타데이터와 슬롯 배정은 추가 전용 로그(segments.jsonl)에 기록한다.
+ * 벡터 파일은 고정 크기 구간으로 나누어 매핑하므로 파일이 커져도 기존 매핑을 다시 만들지 않고 구간만 추가한다.
+ * 검색은 전체 슬롯을 순회하는 내적 계산(Qdrant 컬렉션과 같은 Dot 거리)이며, 구간에서 여러 슬롯의 벡터를 한 번에 읽어 계산한다.
+ * 점수는 QdrantEmbeddingStore 와 같은 방식으로 relevance score 로 변환하여 minScore 기준을 그대로 사용할 수 있다.
+ * 파일은 처음 사용할 때 로드한다.
+ */
+@Slf4j
+public class LocalSegmentEmbeddingStore implements SegmentEmbeddingStore, AutoCloseable {
+
+	private static final String VECTOR_FILE = "vectors.f32";
+	private static final String LOG_FILE = "segments.jsonl";
+	private static final int INITIAL_SLOTS = 1024;
+	// 매핑 구간 하나의 슬롯 수, 검색 시 한 번에 읽는 슬롯 수
+	private static final int SLOTS_PER_REGION = 4096;
+	private static final int SEARCH_BLOCK_SLOTS = 64;
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final Path directory;
+	private final int dimension;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// 아래 필드는 쓰기 잠금 안에서만 변경
+	private volatile boolean loaded;
+	private FileChannel vectorChannel;
+	private final List<MappedByteBuffer> regions = new ArrayList<>();
+	private final List<FloatBuffer> regionVectors = new ArrayList<>();
+	private final BitSet dirtyRegions = new BitSet();
+	private int capacity;
+	private int slotCount;
+	private String[] slotIds = new String[0];
+	private TextSegment[] slotSegments = new TextSegment[0];
+	private final Map<String, Integer> slotsById = new HashMap<>();
+	private final Deque<Integer> freeSlots = new ArrayDeque<>();
+	private BufferedWriter logWriter;
+
+	public LocalSegmentEmbeddingStore(Path directory, int dimension) {
+		this.directory = directory;
+		this.dimension = dimension;
+	}
+
+	@Override
+	public String add(Embedding embedding) {
+		String id = UUID.randomUUID().toString();
+		add(id, embedding);
+		return id;
+	}
+
+	@Override
+	public void add(String id, Embedding embedding) {
+		upsertAll(Collections.singletonList(id), Collections.singletonList(embedding),
+				Collections.singletonList(null));
+	}
+
+	@Override
+	public String add(Embedding embedding, TextSegment textSegment) {
+		String id = UUID.randomUUID().toString();
+		upsertAll(Collections.singletonList(id), Collections.singletonList(embedding),
+				Collections.singletonList(textSegment));
+		return id;
+	}
+
+	@Override
+	public List<String> addAll(List<Embedding> embeddings) {
+		return addAll(embeddings, Collections.nCopies(embeddings.size(), null));
+	}
+
+	@Override
+	public List<String> addAll(List<Embedding> embeddings, List<TextSegment> textSegments) {
+		List<String> ids = new ArrayList<>(embeddings.size());
+		for (int i = 0; i < embeddings.size(); i++) {
+			ids.add(UUID.randomUUID().toString());
+		}
+		upsertAll(ids, embeddings, textSegments);
+		return ids;
+	}
+
+	@Override
+	public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
+		ensureLoaded();
+		float[] query = request.queryEmbedding().vector();
+		if (query.length != dimension) {
+			throw new IllegalArgumentException("임베딩 차원이 다릅니다: " + query.length + " (저장소: " + dimension + ")");
+		}
+		int maxResults = request.maxResults();
+		double minScore = request.minScore();
+		Filter filter = request.filter();
+
+		// 점수가 가장 낮은 후보가 맨 앞에 오는 크기 maxResults 의 힙
+		PriorityQueue<Candidate> top = new PriorityQueue<>(maxResults + 1,
+				(a, b) -> Double.compare(a.score, b.score));
+
+		float[] block = new float[SEARCH_BLOCK_SLOTS * dimension];
+		lock.readLock().lock();
+		try {
+			int blockStart = 0;
+			while (blockStart < slotCount) {
+				// 구간 경계를 넘지 않는 범위에서 여러 슬롯의 벡터를 한 번에 읽음
+				int regionOffset = blockStart % SLOTS_PER_REGION;
+				int blockSlots = Math.min(Math.min(SEARCH_BLOCK_SLOTS, slotCount - blockStart),
+						SLOTS_PER_REGION - regionOffset);
+				regionVectors.get(blockStart / SLOTS_PER_REGION).get(regionOffset * dimension, block, 0,
+						blockSlots * dimension);
+
+				for (int i = 0; i < blockSlots; i++) {
+					int slot = blockStart + i;
+					if (slotIds[slot] == null) {
+						continue;
+					}
+					if (filter != null
+							&& (slotSegments[slot] == null || !filter.test(slotSegments[slot].metadata()))) {
+						continue;
+					}
+					double score = RelevanceScore.fromCosineSimilarity(dot(query, block, i * dimension));
+					if (score < minScore) {
+						continue;
+					}
+					if (top.size() < maxResults) {
+						top.add(new Candidate(slot, score));
+					} else if (score > top.peek().score) {
+						top.poll();
+						top.add(new Candidate(slot, score));
+					}
+				}
+				blockStart += blockSlots;
+			}
+
+			List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>(top.size());
+			while (!top.isEmpty()) {
+				Candidate candidate = top.poll();
+				matches.add(new EmbeddingMatch<>(candidate.score, slotIds[candidate.slot],
+						new Embedding(readVector(candidate.slot)), slotSegments[candidate.slot]));
+			}
+			Collections.reverse(matches);
+			return new EmbeddingSearchResult<>(matches);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void upsertAll(List<String> ids, List<Embedding> embeddings, List<TextSegment> segments) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		ensureLoaded();
+
+		lock.writeLock().lock();
+		try {
+			List<Integer> released = new ArrayList<>();
+			for (int i = 0; i < ids.size(); i++) {
+				float[] vector = embeddings.get(i).vector();
+				if (vector.length != dimension) {
+					throw new IllegalArgumentException(
+							"임베딩 차원이 다릅니다: " + vector.length + " (저장소: " + dimension + ")");
+				}
+				// 기존 슬롯을 덮어쓰지 않고 새 슬롯에 쓴 뒤 로그에 기록하여, 기록 전 중단되어도 이전 값이 유지되도록 함
+				// (비운 슬롯은 로그를 반영한 뒤에 재사용하므로 같은 배치의 다음 ID 가 이전 벡터를 덮어쓰지 않음)
+				int slot = allocateSlot();
+				writeVector(slot, vector);
+				appendLog(putRecord(ids.get(i), slot, segments.get(i)));
+				Integer previous = slotsById.put(ids.get(i), slot);
+				if (previous != null) {
+					releaseSlot(previous, released);
+				}
+				slotIds[slot] = ids.get(i);
+				slotSegments[slot] = segments.get(i);
+			}
+			flush();
+			reuseSlots(released);
+		} catch (IOException e) {
+			throw new UncheckedIOException("로컬 저장소 쓰기 실패: " + directory, e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void removeByIds(Collection<String> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		ensureLoaded();
+
+		lock.writeLock().lock();
+		try {
+			List<Integer> released = new ArrayList<>();
+			for (String id : ids) {
+				removeLocked(id, released);
+			}
+			flush();
+			reuseSlots(released);
+			log.debug("세그먼트 {}개 삭제 - 저장소: {}", released.size(), directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException("로컬 저장소 삭제 실패: " + directory, e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void removeBySource(String source) {
+		ensureLoaded();
+
+		lock.writeLock().lock();
+		try {
+			List<Integer> released = new ArrayList<>();
+			for (int slot = 0; slot < slotCount; slot++) {
+				TextSegment segment = slotSegments[slot];
+				if (slotIds[slot] != null && segment != null && source.equals(segment.metadata().getString("source"))) {
+					removeLocked(slotIds[slot], released);
+				}
+			}
+			flush();
+			reuseSlots(released);
+			log.info("출처 기준 세그먼트 {}개 삭제: {} - 저장소: {}", released.size(), source, directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException("로컬 저장소 삭제 실패: " + directory, e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public long count() {
+		ensureLoaded();
+		lock.readLock().lock();
+		try {
+			return slotsById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				return;
+			}
+			flush();
+			logWriter.close();
+			vectorChannel.close();
+			regions.clear();
+			regionVectors.clear();
+			capacity = 0;
+			loaded = false;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void removeLocked(String id, List<Integer> released) throws IOException {
+		Integer slot = slotsById.remove(id);
+		if (slot != null) {
+			appendLog(deleteRecord(id));
+			releaseSlot(slot, released);
+		}
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				load();
+				loaded = true;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("로컬 저장소 로드 실패: " + directory, e);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 로그를 재생하여 ID-슬롯 배정과 세그먼트를 복원하고 벡터 파일을 매핑
+	 */
+	private void load() throws IOException {
+		long startTime = System.currentTimeMillis();
+		Files.createDirectories(directory);
+		Path logPath = directory.resolve(LOG_FILE);
+
+		Map<String, Integer> assignments = new LinkedHashMap<>();
+		Map<Integer, TextSegment> segments = new HashMap<>();
+		int maxSlot = -1;
+		int records = 0;
+		if (Files.exists(logPath)) {
+			try (BufferedReader reader = Files.newBufferedReader(logPath, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isEmpty()) {
+						continue;
+					}
+					Map<String, Object> record;
+					try {
+						record = OBJECT_MAPPER.readValue(line, new TypeReference<Map<String, Object>>() {
+						});
+					} catch (IOException e) {
+						// 기록 도중 중단된 마지막 줄은 무시
+						log.warn("로컬 저장소 로그의 손상된 레코드를 건너뜁니다: {}", logPath);
+						continue;
+					}
+					records++;
+					String id = (String) record.get("id");
+					if ("delete".equals(record.get("op"))) {
+						assignments.remove(id);
+						continue;
+					}
+					int slot = ((Number) record.get("slot")).intValue();
+					assignments.put(id, slot);
+					segments.put(slot, toSegment(record));
+					maxSlot = Math.max(maxSlot, slot);
+				}
+			}
+		}
+
+		slotCount = maxSlot + 1;
+		mapVectors(Math.max(1, slotCount));
+		slotIds = new String[capacity];
+		slotSegments = new TextSegment[capacity];
+		assignments.forEach((id, slot) -> {
+			slotsById.put(id, slot);
+			slotIds[slot] = id;
+			slotSegments[slot] = segments.get(slot);
+		});
+		for (int slot = slotCount - 1; slot >= 0; slot--) {
+			if (slotIds[slot] == null) {
+				freeSlots.push(slot);
+			}
+		}
+
+		// 삭제/덮어쓰기로 쌓인 레코드가 많으면 현재 상태만 남기도록 로그 재작성
+		if (records > 2 * slotsById.size() + INITIAL_SLOTS) {
+			compactLog(logPath);
+		}
+		logWriter = Files.newBufferedWriter(logPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+
+		log.info("로컬 벡터 저장소 로드 - 경로: {}, 세그먼트: {}개, 슬롯: {}개, {}ms", directory, slotsById.size(), slotCount,
+				System.currentTimeMillis() - startTime);
+	}
+
+	private void compactLog(Path logPath) throws IOException {
+		Path temp = logPath.resolveSibling(LOG_FILE + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, Integer> entry : slotsById.entrySet()) {
+				writer.write(putRecord(entry.getKey(), entry.getValue(), slotSegments[entry.getValue()]));
+				writer.newLine();
+			}
+		}
+		Files.move(temp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		log.info("로컬 저장소 로그 정리 완료 - 레코드 {}개", slotsById.size());
+	}
+
+	/**
+	 * 슬롯 수를 담을 수 있을 때까지 매핑 구간 추가 (기존 구간의 매핑은 그대로 사용)
+	 */
+	private void mapVectors(int slots) throws IOException {
+		if (vectorChannel == null) {
+			vectorChannel = FileChannel.open(directory.resolve(VECTOR_FILE), StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+		long regionBytes = (long) SLOTS_PER_REGION * dimension * Float.BYTES;
+		while (capacity < slots) {
+			MappedByteBuffer region = vectorChannel.map(FileChannel.MapMode.READ_WRITE,
+					regions.size() * regionBytes, regionBytes);
+			region.order(ByteOrder.LITTLE_ENDIAN);
+			regions.add(region);
+			regionVectors.add(region.asFloatBuffer());
+			capacity += SLOTS_PER_REGION;
+		}
+	}
+
+	private int allocateSlot() throws IOException {
+		if (!freeSlots.isEmpty()) {
+			return freeSlots.pop();
+		}
+		if (slotCount == capacity) {
+			mapVectors(capacity + 1);
+			slotIds = Arrays.copyOf(slotIds, capacity);
+			slotSegments = Arrays.copyOf(slotSegments, capacity);
+		}
+		return slotCount++;
+	}
+
+	/**
+	 * 슬롯을 검색 대상에서 제외하고 비운 슬롯 목록에 추가 (재사용은 {@link #reuseSlots} 이후)
+	 */
+	private void releaseSlot(int slot, List<Integer> released) {
+		slotIds[slot] = null;
+		slotSegments[slot] = null;
+		released.add(slot);
+	}
+
+	/**
+	 * 로그 반영이 끝난 뒤 비운 슬롯을 재사용 대상으로 돌림.
+	 * 반영 전에 재사용하면 중단 후 재시작 시 로그가 가리키는 이전 슬롯에 다른 벡터가 들어 있을 수 있다.
+	 */
+	private void reuseSlots(List<Integer> released) {
+		released.forEach(freeSlots::push);
+	}
+
+	private void writeVector(int slot, float[] vector) {
+		int region = slot / SLOTS_PER_REGION;
+		regionVectors.get(region).put((slot % SLOTS_PER_REGION) * dimension, vector);
+		dirtyRegions.set(region);
+	}
+
+	private float[] readVector(int slot) {
+		float[] vector = new float[dimension];
+		regionVectors.get(slot / SLOTS_PER_REGION).get((slot % SLOTS_PER_REGION) * dimension, vector);
+		return vector;
+	}
+
+	/**
+	 * 질의 벡터와 블록 안 벡터의 내적 (누적 변수를 나누어 반복 간 의존성을 줄임)
+	 */
+	private double dot(float[] query, float[] block, int offset) {
+		float sum0 = 0;
+		float sum1 = 0;
+		float sum2 = 0;
+		float sum3 = 0;
+		int i = 0;
+		for (; i + 3 < dimension; i += 4) {
+			sum0 += query[i] * block[offset + i];
+			sum1 += query[i + 1] * block[offset + i + 1];
+			sum2 += query[i + 2] * block[offset + i + 2];
+			sum3 += query[i + 3] * block[offset + i + 3];
+		}
+		for (; i < dimension; i++) {
+			sum0 += query[i] * block[offset + i];
+		}
+		return (double) sum0 + sum1 + sum2 + sum3;
+	}
+
+	private void appendLog(String record) throws IOException {
+		logWriter.write(record);
+		logWriter.newLine();
+	}
+
+	private void flush() throws IOException {
+		// 로그가 가리키는 벡터가 먼저 디스크에 반영되도록 순서 유지 (변경된 구간만 반영)
+		for (int region = dirtyRegions.nextSetBit(0); region >= 0; region = dirtyRegions.nextSetBit(region + 1)) {
+			regions.get(region).force();
+		}
+		dirtyRegions.clear();
+		logWriter.flush();
+	}
+
+	private static String putRecord(String id, int slot, TextSegment segment) throws IOException {
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("op", "put");
+		record.put("id", id);
+		record.put("slot", slot);
+		if (segment != null) {
+			record.put("text", segment.text());
+			record.put("metadata", segment.metadata().toMap());
+		}
+		return OBJECT_MAPPER.writeValueAsString(record);
+	}
+
+	private static String deleteRecord(String id) throws IOException {
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("op", "delete");
+		record.put("id", id);
+		return OBJECT_MAPPER.writeValueAsString(record);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TextSegment toSegment(Map<String, Object> record) {
+		String text = (String) record.get("text");
+		if (text == null) {
+			return null;
+		}
+		Map<String, Object> metadata = (Map<String, Object>) record.get("metadata");
+		return TextSegment.from(text, metadata != null ? Metadata.from(metadata) : new Metadata());
+	}
+
+	private static final class Candidate {
+		private final int slot;
+		private final double score;
+
+		private Candidate(int slot, double score) {
+			this.slot = slot;
+			this.score = score;
+		}
+	}
+
+}
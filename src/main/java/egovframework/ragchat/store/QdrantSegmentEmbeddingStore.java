@@ -0,0 +1,249 @@
+package egovframework.ragchat.store;
+
+import static io.qdrant.client.ConditionFactory.matchKeyword;
+import static io.qdrant.client.PointIdFactory.id;
+import static io.qdrant.client.ValueFactory.value;
+import static io.qdrant.client.VectorsFactory.vectors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.RelevanceScore;
+import dev.langchain4j.store.embedding.qdrant.QdrantEmbeddingStore;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.WithPayloadSelectorFactory;
+import io.qdrant.client.WithVectorsSelectorFactory;
+import io.qdrant.client.grpc.JsonWithInt.Value;
+import io.qdrant.client.grpc.Points.Filter;
+import io.qdrant.client.grpc.Points.PointId;
+import io.qdrant.client.grpc.Points.PointStruct;
+import io.qdrant.client.grpc.Points.ScoredPoint;
+import io.qdrant.client.grpc.Points.SearchParams;
+import io.qdrant.client.grpc.Points.SearchPoints;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Qdrant 기반 세그먼트 저장소.
+ * 검색과 기본 저장은 QdrantEmbeddingStore 에 위임하고, ID 지정 upsert 와 삭제는 Qdrant 클라이언트로 직접 처리한다.
+ * 페이로드 구조(본문은 text_segment 키, 메타데이터는 최상위 키)는 QdrantEmbeddingStore 와 동일하게 유지한다.
+ * 메타데이터 필터가 없는 검색은 HNSW ef 와 양자화 재채점 등 검색 파라미터를 지정하여 직접 수행한다.
+ */
+@Slf4j
+public class QdrantSegmentEmbeddingStore implements SegmentEmbeddingStore {
+
+	private static final String PAYLOAD_TEXT_KEY = "text_segment";
+
+	private final QdrantEmbeddingStore delegate;
+	private final QdrantClient client;
+	private final String collectionName;
+	private final SearchParams searchParams;
+
+	public QdrantSegmentEmbeddingStore(QdrantEmbeddingStore delegate, QdrantClient client, String collectionName,
+			SearchParams searchParams) {
+		this.delegate = delegate;
+		this.client = client;
+		this.collectionName = collectionName;
+		this.searchParams = searchParams;
+	}
+
+	@Override
+	public String add(Embedding embedding) {
+		return delegate.add(embedding);
+	}
+
+	@Override
+	public void add(String id, Embedding embedding) {
+		delegate.add(id, embedding);
+	}
+
+	@Override
+	public String add(Embedding embedding, TextSegment textSegment) {
+		return delegate.add(embedding, textSegment);
+	}
+
+	@Override
+	public List<String> addAll(List<Embedding> embeddings) {
+		return delegate.addAll(embeddings);
+	}
+
+	@Override
+	public List<String> addAll(List<Embedding> embeddings, List<TextSegment> textSegments) {
+		return delegate.addAll(embeddings, textSegments);
+	}
+
+	@Override
+	public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
+		if (request.filter() != null) {
+			// 메타데이터 필터 변환은 QdrantEmbeddingStore 에 맡김
+			return delegate.search(request);
+		}
+
+		SearchPoints searchPoints = SearchPoints.newBuilder()
+				.setCollectionName(collectionName)
+				.addAllVector(toList(request.queryEmbedding().vector()))
+				.setLimit(request.maxResults())
+				.setParams(searchParams)
+				.setWithPayload(WithPayloadSelectorFactory.enable(true))
+				// 검색 결과의 벡터는 사용하지 않으므로 받지 않음 (on-disk 벡터/양자화 사용 시 원본 벡터 읽기 방지)
+				.setWithVectors(WithVectorsSelectorFactory.enable(false))
+				.build();
+
+		List<ScoredPoint> points;
+		try {
+			points = client.searchAsync(searchPoints).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("세그먼트 검색 중단: " + collectionName, e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("세그먼트 검색 실패: " + e.getMessage(), e);
+		}
+
+		List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>(points.size());
+		for (ScoredPoint point : points) {
+			// QdrantEmbeddingStore 와 같은 방식으로 점수를 변환하여 minScore 기준 유지
+			double score = RelevanceScore.fromCosineSimilarity(point.getScore());
+			if (score < request.minScore()) {
+				continue;
+			}
+			matches.add(new EmbeddingMatch<>(score, point.getId().getUuid(), null, toSegment(point.getPayloadMap())));
+		}
+		return new EmbeddingSearchResult<>(matches);
+	}
+
+	@Override
+	public void upsertAll(List<String> ids, List<Embedding> embeddings, List<TextSegment> segments) {
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		List<PointStruct> points = new ArrayList<>(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			points.add(PointStruct.newBuilder()
+					.setId(id(UUID.fromString(ids.get(i))))
+					.setVectors(vectors(embeddings.get(i).vector()))
+					.putAllPayload(toPayload(segments.get(i)))
+					.build());
+		}
+
+		try {
+			client.upsertAsync(collectionName, points).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("세그먼트 저장 중단: " + collectionName, e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("세그먼트 저장 실패: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public void removeByIds(Collection<String> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+
+		List<PointId> pointIds = new ArrayList<>(ids.size());
+		for (String pointId : ids) {
+			pointIds.add(id(UUID.fromString(pointId)));
+		}
+
+		try {
+			client.deleteAsync(collectionName, pointIds).get();
+			log.debug("세그먼트 {}개 삭제 - 컬렉션: {}", ids.size(), collectionName);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("세그먼트 삭제 중단: " + collectionName, e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("세그먼트 삭제 실패: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public void removeBySource(String source) {
+		Filter filter = Filter.newBuilder().addMust(matchKeyword("source", source)).build();
+		try {
+			client.deleteAsync(collectionName, filter).get();
+			log.info("출처 기준 세그먼트 삭제: {} - 컬렉션: {}", source, collectionName);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("세그먼트 삭제 중단: " + collectionName, e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("세그먼트 삭제 실패: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public long count() {
+		try {
+			return client.countAsync(collectionName).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("세그먼트 수 조회 중단: " + collectionName, e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("세그먼트 수 조회 실패: " + e.getMessage(), e);
+		}
+	}
+
+	private static List<Float> toList(float[] vector) {
+		List<Float> values = new ArrayList<>(vector.length);
+		for (float v : vector) {
+			values.add(v);
+		}
+		return values;
+	}
+
+	private static TextSegment toSegment(Map<String, Value> payload) {
+		Value text = payload.get(PAYLOAD_TEXT_KEY);
+		if (text == null) {
+			return null;
+		}
+		Map<String, Object> metadata = new HashMap<>();
+		payload.forEach((key, payloadValue) -> {
+			if (PAYLOAD_TEXT_KEY.equals(key)) {
+				return;
+			}
+			switch (payloadValue.getKindCase()) {
+			case INTEGER_VALUE:
+				metadata.put(key, payloadValue.getIntegerValue());
+				break;
+			case DOUBLE_VALUE:
+				metadata.put(key, payloadValue.getDoubleValue());
+				break;
+			case STRING_VALUE:
+				metadata.put(key, payloadValue.getStringValue());
+				break;
+			default:
+				break;
+			}
+		});
+		return TextSegment.from(text.getStringValue(), Metadata.from(metadata));
+	}
+
+	private static Map<String, Value> toPayload(TextSegment segment) {
+		Map<String, Value> payload = new HashMap<>();
+		segment.metadata().toMap().forEach((key, metadataValue) -> payload.put(key, toValue(metadataValue)));
+		payload.put(PAYLOAD_TEXT_KEY, value(segment.text()));
+		return payload;
+	}
+
+	private static Value toValue(Object metadataValue) {
+		if (metadataValue instanceof Integer || metadataValue instanceof Long) {
+			return value(((Number) metadataValue).longValue());
+		}
+		if (metadataValue instanceof Float || metadataValue instanceof Double) {
+			return value(((Number) metadataValue).doubleValue());
+		}
+		return value(String.valueOf(metadataValue));
+	}
+
+}
@@ -0,0 +1,46 @@
+package egovframework.ragchat.store;
+
+import java.util.Collection;
+import java.util.List;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+
+/**
+ * 지정한 ID로 세그먼트를 upsert/삭제할 수 있는 임베딩 저장소.
+ * 결정적인 포인트 ID를 사용하는 증분 적재에서 사용한다.
+ */
+public interface SegmentEmbeddingStore extends EmbeddingStore<TextSegment> {
+
+	/**
+	 * 지정한 ID로 세그먼트 저장 (같은 ID가 있으면 덮어씀).
+	 *
+	 * @param ids 포인트 ID 목록 (UUID 형식)
+	 * @param embeddings 임베딩 목록
+	 * @param segments 세그먼트 목록
+	 */
+	void upsertAll(List<String> ids, List<Embedding> embeddings, List<TextSegment> segments);
+
+	/**
+	 * ID 목록에 해당하는 세그먼트 삭제.
+	 *
+	 * @param ids 포인트 ID 목록
+	 */
+	void removeByIds(Collection<String> ids);
+
+	/**
+	 * 출처(source 메타데이터)가 일치하는 세그먼트 모두 삭제.
+	 *
+	 * @param source 문서 출처
+	 */
+	void removeBySource(String source);
+
+	/**
+	 * 저장된 세그먼트 수 조회.
+	 *
+	 * @return 세그먼트 수
+	 */
+	long count();
+
+}
@@ -0,0 +1,223 @@
+package egovframework.ragchat.stream;
+
+import java.text.BreakIterator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 스트리밍 응답 전송(flush) 정책.
+ * 토큰을 버퍼에 모았다가 최대 지연 시간이 지나거나, 최대 버퍼 크기에 도달하거나,
+ * 문장 부호/공백 같은 경계에 도달하면 먼저 해당하는 조건에 따라 전송한다.
+ * 지연 시간 기준 전송은 별도 스케줄러가 시각을 맞춰 전송 스레드 풀에 넘기므로 모델 출력이 멈춰도 버퍼가 전송되며,
+ * 스트림마다 한 번에 한 스레드만 전송하므로 느린 구독자가 있어도 다른 스트림은 남은 전송 스레드로 전송된다.
+ * 구독자 소켓 쓰기는 방송 객체({@link StreamBroadcast})가 구독자별 대기열을 두고 별도 쓰기 스레드에서 실행한다.
+ */
+@Component
+public class FlushPolicy {
+
+	/**
+	 * 전송 사유
+	 */
+	public enum Reason {
+		DEADLINE, SIZE, BOUNDARY, FINAL
+	}
+
+	// 버퍼가 최소 크기 이상일 때 전송 경계로 보는 문자 (한글/영문/중국어 문장 부호 포함)
+	private static final String BOUNDARY_CHARS = ".!?;:,)]}。、，！？…‥";
+
+	@Value("${rag.streaming.flush.max-latency-ms}")
+	private long maxLatencyMillis;
+
+	@Value("${rag.streaming.flush.max-chars}")
+	private int maxChars;
+
+	@Value("${rag.streaming.flush.min-chars}")
+	private int minChars;
+
+	@Value("${rag.streaming.flush.sender-threads}")
+	private int senderThreads;
+
+	@Value("${rag.streaming.broadcast.max-queued-frames}")
+	private int maxQueuedFrames;
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "sse-flush");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// 지연 시간 기준 전송 실행 (소켓 쓰기가 블로킹될 수 있으므로 스케줄러 스레드와 분리)
+	private ExecutorService senders;
+
+	// 구독자 소켓 쓰기 실행 (블로킹된 구독자가 스레드를 점유해도 다른 구독자 전송이 막히지 않도록 필요한 만큼 생성)
+	private ExecutorService writers;
+
+	private final Map<Reason, LongAdder> flushCounts = new EnumMap<>(Reason.class);
+	private final LongAdder flushedChars = new LongAdder();
+	private final LongAccumulator maxFlushChars = new LongAccumulator(Math::max, 0L);
+	private final AtomicInteger activeStreams = new AtomicInteger();
+
+	public FlushPolicy() {
+		for (Reason reason : Reason.values()) {
+			flushCounts.put(reason, new LongAdder());
+		}
+	}
+
+	@PostConstruct
+	public void init() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+			Thread thread = new Thread(runnable, "sse-flush-send-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		AtomicInteger writerNumber = new AtomicInteger();
+		writers = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "sse-write-" + writerNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		scheduler.shutdownNow();
+		senders.shutdownNow();
+		writers.shutdownNow();
+	}
+
+	/**
+	 * 스트림 하나에 대한 버퍼 생성.
+	 *
+	 * @param sink 전송할 텍스트를 받는 콜백 (버퍼 단위로 순서대로 호출됨)
+	 * @return 스트림 버퍼
+	 */
+	public StreamFlusher newFlusher(Consumer<String> sink) {
+		activeStreams.incrementAndGet();
+		return new StreamFlusher(this, sink);
+	}
+
+	/**
+	 * 생성 스트림 하나에 대한 방송 객체 생성.
+	 *
+	 * @return 방송 객체
+	 */
+	public StreamBroadcast newBroadcast() {
+		return new StreamBroadcast(writers, maxQueuedFrames);
+	}
+
+	/**
+	 * 전송 통계 조회
+	 *
+	 * @return 통계 정보
+	 */
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		long total = 0;
+		Map<String, Long> byReason = new HashMap<>();
+		for (Map.Entry<Reason, LongAdder> entry : flushCounts.entrySet()) {
+			long count = entry.getValue().sum();
+			byReason.put(entry.getKey().name().toLowerCase(Locale.ROOT), count);
+			total += count;
+		}
+		long chars = flushedChars.sum();
+		stats.put("flushes", total);
+		stats.put("flushesByReason", byReason);
+		stats.put("flushedChars", chars);
+		stats.put("averageFlushChars", total > 0 ? (double) chars / total : 0.0);
+		stats.put("maxFlushChars", maxFlushChars.get());
+		stats.put("activeStreams", activeStreams.get());
+		stats.put("maxLatencyMillis", maxLatencyMillis);
+		stats.put("maxChars", maxChars);
+		stats.put("senderThreads", senderThreads);
+		stats.put("maxQueuedFrames", maxQueuedFrames);
+		return stats;
+	}
+
+	ScheduledExecutorService scheduler() {
+		return scheduler;
+	}
+
+	ExecutorService senders() {
+		return senders;
+	}
+
+	long maxLatencyMillis() {
+		return maxLatencyMillis;
+	}
+
+	/**
+	 * 버퍼를 지금 전송해야 하는 사유 (전송하지 않아도 되면 null).
+	 */
+	Reason reasonToFlush(CharSequence buffer) {
+		int length = buffer.length();
+		if (length == 0) {
+			return null;
+		}
+		if (length >= maxChars) {
+			return Reason.SIZE;
+		}
+		char last = buffer.charAt(length - 1);
+		if (last == '\n') {
+			// 단락/목록 구분은 마크다운 블록 확정에 필요하므로 크기와 관계없이 전송
+			return Reason.BOUNDARY;
+		}
+		if (length >= minChars && (Character.isWhitespace(last) || BOUNDARY_CHARS.indexOf(last) >= 0)) {
+			return Reason.BOUNDARY;
+		}
+		return null;
+	}
+
+	void recordFlush(Reason reason, int chars) {
+		flushCounts.get(reason).increment();
+		flushedChars.add(chars);
+		maxFlushChars.accumulate(chars);
+	}
+
+	void streamClosed() {
+		activeStreams.decrementAndGet();
+	}
+
+	/**
+	 * 문자 단위(grapheme cluster)를 자르지 않고 전송할 수 있는 길이.
+	 * 버퍼 끝이 서로게이트 쌍의 앞부분이거나 결합 문자(ZWJ, 이형 선택자 등)가 뒤따를 수 있는 경우
+	 * 마지막 문자 단위는 다음 토큰과 함께 전송하도록 남긴다.
+	 *
+	 * @param buffer 버퍼
+	 * @return 전송할 길이
+	 */
+	static int safeLength(CharSequence buffer) {
+		int length = buffer.length();
+		if (length == 0) {
+			return 0;
+		}
+		char last = buffer.charAt(length - 1);
+		boolean incomplete = Character.isHighSurrogate(last) || last == '\u200D'
+				|| Character.getType(last) == Character.NON_SPACING_MARK
+				|| (last >= '\uFE00' && last <= '\uFE0F')
+				|| (last >= '\u1100' && last <= '\u11FF');
+		if (!incomplete) {
+			return length;
+		}
+		BreakIterator characters = BreakIterator.getCharacterInstance();
+		characters.setText(buffer.toString());
+		int boundary = characters.preceding(length);
+		return boundary == BreakIterator.DONE ? 0 : boundary;
+	}
+
+}
@@ -0,0 +1,132 @@
+package egovframework.ragchat.stream;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 진행 중인 스트리밍 생성 목록 (single-flight).
+ * 정규화한 질의와 검색된 세그먼트 목록이 같은 요청이 동시에 들어오면 생성은 한 번만 실행하고,
+ * 나중에 들어온 요청은 진행 중인 스트림에 구독자로 합류시켜 같은 토큰 스트림을 받게 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class InFlightGenerations {
+
+	private final FlushPolicy flushPolicy;
+
+	@Value("${rag.coalescing.enabled}")
+	private boolean enabled;
+
+	private final ConcurrentHashMap<String, StreamBroadcast> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder leaderCount = new LongAdder();
+	private final LongAdder joinCount = new LongAdder();
+
+	/**
+	 * 합류 결과
+	 */
+	public static final class Flight {
+
+		private final StreamBroadcast broadcast;
+		private final boolean leader;
+
+		private Flight(StreamBroadcast broadcast, boolean leader) {
+			this.broadcast = broadcast;
+			this.leader = leader;
+		}
+
+		public StreamBroadcast getBroadcast() {
+			return broadcast;
+		}
+
+		/**
+		 * 생성을 직접 실행해야 하는지 여부 (false 면 진행 중인 생성에 합류한 것)
+		 */
+		public boolean isLeader() {
+			return leader;
+		}
+	}
+
+	/**
+	 * 같은 키로 진행 중인 생성이 있으면 구독자로 합류하고, 없으면 새 방송을 등록하여 생성 주체가 된다.
+	 *
+	 * @param key 요청 키 ({@link #key(String, List)})
+	 * @param emitter SSE 이미터
+	 * @return 합류 결과
+	 */
+	public Flight attach(String key, SseEmitter emitter) {
+		if (!enabled) {
+			return detached(emitter);
+		}
+
+		while (true) {
+			StreamBroadcast existing = inFlight.get(key);
+			if (existing != null) {
+				if (existing.subscribe(emitter)) {
+					joinCount.increment();
+					return new Flight(existing, false);
+				}
+				// 방금 끝난 스트림은 목록에서 제거하고 다시 시도
+				inFlight.remove(key, existing);
+				continue;
+			}
+
+			StreamBroadcast created = flushPolicy.newBroadcast();
+			if (inFlight.putIfAbsent(key, created) == null) {
+				created.setOnFinish(() -> inFlight.remove(key, created));
+				created.subscribe(emitter);
+				leaderCount.increment();
+				return new Flight(created, true);
+			}
+		}
+	}
+
+	/**
+	 * 진행 중인 생성에 합류하지 않고 단독으로 생성 (이전 대화가 있는 세션 요청 등 응답이 요청마다 다른 경우).
+	 *
+	 * @param emitter SSE 이미터
+	 * @return 합류 결과 (항상 생성 주체)
+	 */
+	public Flight detached(SseEmitter emitter) {
+		StreamBroadcast broadcast = flushPolicy.newBroadcast();
+		broadcast.subscribe(emitter);
+		return new Flight(broadcast, true);
+	}
+
+	/**
+	 * 요청 키 생성 (대소문자와 공백을 정규화한 질의 + 검색된 세그먼트 키 목록).
+	 *
+	 * @param query 질의
+	 * @param segmentKeys 검색된 세그먼트 키 목록
+	 * @return 요청 키
+	 */
+	public static String key(String query, List<String> segmentKeys) {
+		String normalized = query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+		return normalized + "\n" + String.join("\n", segmentKeys);
+	}
+
+	/**
+	 * 통계 조회
+	 *
+	 * @return 통계 정보
+	 */
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("enabled", enabled);
+		stats.put("inFlight", inFlight.size());
+		stats.put("generations", leaderCount.sum());
+		stats.put("joined", joinCount.sum());
+		return stats;
+	}
+
+}
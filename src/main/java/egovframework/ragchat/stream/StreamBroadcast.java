@@ -0,0 +1,408 @@
+package egovframework.ragchat.stream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import egovframework.ragchat.util.SseFrame;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 하나의 생성 스트림을 여러 SSE 구독자에게 전달하는 방송 객체.
+ * 확정된 이벤트는 기록해 두었다가 늦게 합류한 구독자에게 먼저 재전송하고,
+ * tail, queued 같은 임시 이벤트는 마지막 것만 보관한다.
+ * 구독자 한 명의 연결이 끊겨도 스트림은 계속되며, 구독자가 모두 떠나면 스트림을 취소 상태로 바꾸고
+ * onEmpty 콜백을 호출한다. 생성 주체는 {@link #isCancelled()} 로 확인하여 모델 호출을 중단한다.
+ * lock 안에서는 이벤트 기록과 구독자별 대기열 추가만 하고, 소켓 쓰기는 구독자마다 전송 실행기에서 한 번에 한 작업씩
+ * 대기열 순서대로 한다. 느린 구독자가 있어도 생성 스레드와 다른 구독자는 기다리지 않으며,
+ * 대기열이 상한을 넘은 구독자는 연결을 오류로 종료하고 제외한다.
+ */
+@Slf4j
+public class StreamBroadcast {
+
+	private final Executor writers;
+	private final int maxQueuedFrames;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final List<Subscriber> subscribers = new ArrayList<>();
+	private final List<SseFrame> frames = new ArrayList<>();
+	private SseFrame transientFrame;
+	private boolean finished;
+	private volatile boolean cancelled;
+
+	private volatile Runnable onEmpty = () -> {
+	};
+	private volatile Runnable onFinish = () -> {
+	};
+	private volatile IntConsumer frameListener = sent -> {
+	};
+
+	/**
+	 * @param writers 구독자 소켓 쓰기를 실행할 실행기
+	 * @param maxQueuedFrames 구독자별로 전송하지 못하고 쌓아 둘 수 있는 최대 이벤트 수 (합류 시 재전송분 제외)
+	 */
+	public StreamBroadcast(Executor writers, int maxQueuedFrames) {
+		this.writers = writers;
+		this.maxQueuedFrames = maxQueuedFrames;
+	}
+
+	/**
+	 * 구독자가 모두 떠나 스트림이 취소되었을 때 실행할 콜백 설정
+	 *
+	 * @param onEmpty 콜백
+	 */
+	public void setOnEmpty(Runnable onEmpty) {
+		this.onEmpty = onEmpty;
+	}
+
+	/**
+	 * 스트림이 끝났을 때 실행할 콜백 설정
+	 *
+	 * @param onFinish 콜백
+	 */
+	public void setOnFinish(Runnable onFinish) {
+		this.onFinish = onFinish;
+	}
+
+	/**
+	 * 구독자에게 실제로 전송한 이벤트 수를 받을 콜백 설정 (지표 기록용)
+	 *
+	 * @param frameListener 콜백
+	 */
+	public void setFrameListener(IntConsumer frameListener) {
+		this.frameListener = frameListener;
+	}
+
+	/**
+	 * 구독자 추가. 지금까지 확정된 이벤트와 마지막 임시 이벤트를 먼저 재전송한다.
+	 * 재전송 중 연결이 끊기면 구독자에서 제외하고 이미터를 오류로 완료한다.
+	 * (진행 중인 스트림은 그대로이므로 true 를 반환하며, 호출자는 다른 방송을 새로 만들지 않아야 함)
+	 *
+	 * @param emitter SSE 이미터
+	 * @return 합류 여부 (이미 끝난 스트림이면 false)
+	 */
+	public boolean subscribe(SseEmitter emitter) {
+		Subscriber subscriber = new Subscriber(emitter);
+		boolean schedule;
+		lock.lock();
+		try {
+			if (finished) {
+				return false;
+			}
+			subscriber.queue.addAll(frames);
+			if (transientFrame != null) {
+				subscriber.queue.addLast(transientFrame);
+				subscriber.tailTransient = true;
+			}
+			subscribers.add(subscriber);
+			schedule = subscriber.schedule();
+		} finally {
+			lock.unlock();
+		}
+		if (schedule) {
+			writers.execute(subscriber::drain);
+		}
+		return true;
+	}
+
+	/**
+	 * 구독자 제거 (연결 종료 시 호출). 아직 전송하지 않은 이벤트는 버린다.
+	 *
+	 * @param emitter SSE 이미터
+	 */
+	public void unsubscribe(SseEmitter emitter) {
+		boolean empty = false;
+		lock.lock();
+		try {
+			Iterator<Subscriber> iterator = subscribers.iterator();
+			while (iterator.hasNext()) {
+				Subscriber subscriber = iterator.next();
+				if (subscriber.emitter == emitter) {
+					iterator.remove();
+					subscriber.closed = true;
+					subscriber.queue.clear();
+					empty = subscribers.isEmpty() && !finished;
+					break;
+				}
+			}
+			if (empty) {
+				cancel();
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (empty) {
+			onEmpty.run();
+			onFinish.run();
+		}
+	}
+
+	/**
+	 * 확정 이벤트 전송 (늦게 합류한 구독자에게 재전송하도록 기록).
+	 *
+	 * @param frame 이벤트
+	 */
+	public void publish(SseFrame frame) {
+		send(frame, false);
+	}
+
+	/**
+	 * 임시 이벤트 전송 (다음 임시 이벤트로 대체되므로 마지막 것만 보관).
+	 *
+	 * @param frame 이벤트
+	 */
+	public void publishTransient(SseFrame frame) {
+		send(frame, true);
+	}
+
+	/**
+	 * 스트림 종료. 구독자마다 대기열에 남은 이벤트를 전송한 뒤 연결을 완료 처리한다.
+	 */
+	public void complete() {
+		List<Subscriber> scheduled = new ArrayList<>();
+		lock.lock();
+		try {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			transientFrame = null;
+			for (Subscriber subscriber : subscribers) {
+				subscriber.completing = true;
+				if (subscriber.schedule()) {
+					scheduled.add(subscriber);
+				}
+			}
+			subscribers.clear();
+		} finally {
+			lock.unlock();
+		}
+		scheduled.forEach(subscriber -> writers.execute(subscriber::drain));
+		onFinish.run();
+	}
+
+	/**
+	 * 구독자가 모두 떠나 취소되었는지 여부
+	 *
+	 * @return 취소 여부
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * 지금까지 확정된 이벤트 목록 (캐시 재전송용).
+	 *
+	 * @return 이벤트 목록 사본
+	 */
+	public List<SseFrame> getFrames() {
+		lock.lock();
+		try {
+			return new ArrayList<>(frames);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 현재 구독자 수
+	 *
+	 * @return 구독자 수
+	 */
+	public int getSubscriberCount() {
+		lock.lock();
+		try {
+			return subscribers.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void send(SseFrame frame, boolean isTransient) {
+		boolean empty = false;
+		List<Subscriber> scheduled = new ArrayList<>();
+		lock.lock();
+		try {
+			if (finished) {
+				return;
+			}
+			if (isTransient) {
+				transientFrame = frame;
+			} else {
+				// 확정 이벤트는 이전 임시 이벤트를 대체하므로 늦게 합류한 구독자에게 다시 보내지 않음
+				frames.add(frame);
+				transientFrame = null;
+			}
+			Iterator<Subscriber> iterator = subscribers.iterator();
+			while (iterator.hasNext()) {
+				Subscriber subscriber = iterator.next();
+				if (!subscriber.offer(frame, isTransient)) {
+					// 전송이 따라오지 못하는 구독자만 제외하고 나머지 구독자에게는 계속 전송
+					log.debug("구독자 대기열 초과, 구독 해제 - 대기 이벤트: {}개", subscriber.queue.size());
+					iterator.remove();
+					subscriber.queue.clear();
+					subscriber.failure = new IOException("구독자 전송 대기열 초과");
+					empty = subscribers.isEmpty();
+				}
+				if (subscriber.schedule()) {
+					scheduled.add(subscriber);
+				}
+			}
+			if (empty) {
+				cancel();
+			}
+		} finally {
+			lock.unlock();
+		}
+		scheduled.forEach(subscriber -> writers.execute(subscriber::drain));
+		if (empty) {
+			onEmpty.run();
+			onFinish.run();
+		}
+	}
+
+	/**
+	 * 전송 실패한 구독자 제외 (마지막 구독자였다면 스트림 취소)
+	 */
+	private void failed(Subscriber subscriber) {
+		boolean empty;
+		lock.lock();
+		try {
+			empty = subscribers.remove(subscriber) && subscribers.isEmpty() && !finished;
+			subscriber.closed = true;
+			subscriber.queue.clear();
+			if (empty) {
+				cancel();
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (empty) {
+			onEmpty.run();
+			onFinish.run();
+		}
+	}
+
+	/**
+	 * 취소 상태로 전환 (lock 보유 상태에서 호출). 이후 합류 요청은 새 생성을 시작한다.
+	 */
+	private void cancel() {
+		finished = true;
+		cancelled = true;
+		transientFrame = null;
+	}
+
+	/**
+	 * 구독자 하나의 전송 대기열. 아래 필드는 방송 객체의 lock 안에서만 변경하며,
+	 * 이미터 호출은 {@link #drain()} 을 실행하는 전송 작업 하나에서만 한다.
+	 */
+	private final class Subscriber {
+
+		private final SseEmitter emitter;
+		private final ArrayDeque<SseFrame> queue = new ArrayDeque<>();
+		// 대기열 마지막 이벤트가 임시 이벤트인지 (다음 임시 이벤트로 대체)
+		private boolean tailTransient;
+		// 전송 작업이 예약되었거나 실행 중인지
+		private boolean writing;
+		// 대기열을 모두 전송한 뒤 연결을 완료할지
+		private boolean completing;
+		// 대기열 초과로 제외되어 연결을 오류로 완료할 사유
+		private IOException failure;
+		// 연결이 이미 끝나 더 전송하지 않음
+		private boolean closed;
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		/**
+		 * 대기열에 이벤트 추가 (lock 보유 상태에서 호출)
+		 *
+		 * @return 상한을 넘지 않고 추가했는지 여부
+		 */
+		private boolean offer(SseFrame frame, boolean isTransient) {
+			if (isTransient && tailTransient) {
+				// 아직 전송하지 않은 임시 이벤트는 새 임시 이벤트로 대체
+				queue.pollLast();
+			} else if (queue.size() >= maxQueuedFrames) {
+				return false;
+			}
+			queue.addLast(frame);
+			tailTransient = isTransient;
+			return true;
+		}
+
+		/**
+		 * 전송할 일이 있고 전송 작업이 없으면 예약 표시 (lock 보유 상태에서 호출)
+		 *
+		 * @return 호출자가 전송 작업을 실행해야 하는지 여부
+		 */
+		private boolean schedule() {
+			if (writing || closed || (queue.isEmpty() && !completing && failure == null)) {
+				return false;
+			}
+			writing = true;
+			return true;
+		}
+
+		/**
+		 * 대기열이 빌 때까지 lock 밖에서 순서대로 전송하고, 종료 요청이 있으면 연결을 완료한다.
+		 */
+		private void drain() {
+			int sent = 0;
+			try {
+				while (true) {
+					SseFrame frame;
+					boolean complete = false;
+					IOException error = null;
+					lock.lock();
+					try {
+						frame = closed ? null : queue.pollFirst();
+						if (queue.isEmpty()) {
+							tailTransient = false;
+						}
+						if (frame == null) {
+							writing = false;
+							if (!closed) {
+								complete = completing;
+								error = failure;
+								closed = complete || error != null;
+							}
+						}
+					} finally {
+						lock.unlock();
+					}
+
+					if (frame == null) {
+						if (error != null) {
+							emitter.completeWithError(error);
+						} else if (complete) {
+							emitter.complete();
+						}
+						return;
+					}
+					try {
+						emitter.send(frame.toEvent());
+						sent++;
+					} catch (IOException | IllegalStateException e) {
+						log.debug("구독자 전송 실패, 구독 해제: {}", e.getMessage());
+						failed(this);
+						emitter.completeWithError(e);
+						return;
+					}
+				}
+			} finally {
+				if (sent > 0) {
+					frameListener.accept(sent);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+package egovframework.ragchat.stream;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import egovframework.ragchat.stream.FlushPolicy.Reason;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 스트림 하나의 토큰 버퍼.
+ * {@link FlushPolicy} 기준에 따라 모은 텍스트를 전송 콜백으로 넘기며,
+ * 버퍼에 첫 글자가 들어온 시점부터 최대 지연 시간이 지나면 전송 스레드 풀에서 전송한다.
+ * 전송 콜백은 소켓 쓰기로 블로킹될 수 있으므로 lock 밖에서 한 번에 한 스레드만 순서대로 호출하며,
+ * 다른 스레드가 전송 중이면 전송할 텍스트를 대기열에 넣고 바로 반환한다.
+ * (느린 구독자가 있어도 모델 콜백 스레드와 다른 스트림의 지연 시간 기준 전송이 막히지 않음)
+ */
+@Slf4j
+public final class StreamFlusher {
+
+	private final FlushPolicy policy;
+	private final Consumer<String> sink;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition idle = lock.newCondition();
+	private final StringBuilder buffer = new StringBuilder();
+	// 전송 콜백에 넘길 텍스트 (순서대로)
+	private final ArrayDeque<String> pending = new ArrayDeque<>();
+	// 전송 콜백을 실행 중인 스레드 (없으면 null)
+	private Thread sender;
+	private ScheduledFuture<?> deadline;
+	// 취소 직전에 실행이 시작된 예약 작업을 무시하기 위한 예약 순번
+	private int deadlineSequence;
+	private boolean closed;
+
+	StreamFlusher(FlushPolicy policy, Consumer<String> sink) {
+		this.policy = policy;
+		this.sink = sink;
+	}
+
+	/**
+	 * 토큰 추가. 크기나 경계 조건에 해당하면 바로 전송하고, 아니면 지연 시간 기준 전송을 예약한다.
+	 *
+	 * @param token 모델이 생성한 토큰
+	 */
+	public void append(String token) {
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			buffer.append(token);
+			Reason reason = policy.reasonToFlush(buffer);
+			if (reason != null) {
+				flush(reason);
+			}
+			scheduleDeadline();
+		} finally {
+			lock.unlock();
+		}
+		drain();
+	}
+
+	/**
+	 * 스트림 종료. 예약된 전송을 취소하고 아직 전송하지 않은 텍스트를 반환한다 (전송 콜백은 호출하지 않음).
+	 * 다른 스레드가 전송 중이면 끝날 때까지 기다리므로 반환한 텍스트는 이미 전송한 텍스트 뒤에 이어진다.
+	 *
+	 * @return 남은 텍스트
+	 */
+	public String finish() {
+		lock.lock();
+		try {
+			if (closed) {
+				return "";
+			}
+			closed = true;
+			cancelDeadline();
+			policy.streamClosed();
+			// 전송 콜백 안에서 호출된 경우(구독자 이탈 등)는 기다리지 않음
+			while (sender != null && sender != Thread.currentThread()) {
+				idle.awaitUninterruptibly();
+			}
+			if (buffer.length() > 0) {
+				policy.recordFlush(Reason.FINAL, buffer.length());
+			}
+			StringBuilder remaining = new StringBuilder();
+			pending.forEach(remaining::append);
+			pending.clear();
+			remaining.append(buffer);
+			buffer.setLength(0);
+			return remaining.toString();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void onDeadline(int sequence) {
+		lock.lock();
+		try {
+			if (closed || sequence != deadlineSequence) {
+				return;
+			}
+			deadline = null;
+			flush(Reason.DEADLINE);
+			scheduleDeadline();
+		} finally {
+			lock.unlock();
+		}
+		drain();
+	}
+
+	/**
+	 * 전송 가능한 버퍼 내용을 전송 대기열로 이동 (lock 보유 상태에서 호출)
+	 */
+	private void flush(Reason reason) {
+		int length = FlushPolicy.safeLength(buffer);
+		if (length == 0) {
+			return;
+		}
+		String chunk = buffer.substring(0, length);
+		buffer.delete(0, length);
+		cancelDeadline();
+		policy.recordFlush(reason, chunk.length());
+		pending.addLast(chunk);
+	}
+
+	/**
+	 * 다른 스레드가 전송 중이 아니면 대기열이 빌 때까지 lock 밖에서 전송 콜백 호출
+	 */
+	private void drain() {
+		while (true) {
+			String chunk;
+			lock.lock();
+			try {
+				if (sender != null && sender != Thread.currentThread()) {
+					// 전송 중인 스레드가 대기열에 추가된 텍스트까지 이어서 전송함
+					return;
+				}
+				chunk = closed ? null : pending.pollFirst();
+				if (chunk == null) {
+					sender = null;
+					idle.signalAll();
+					return;
+				}
+				sender = Thread.currentThread();
+			} finally {
+				lock.unlock();
+			}
+
+			try {
+				sink.accept(chunk);
+			} catch (RuntimeException e) {
+				log.error("스트리밍 버퍼 전송 중 오류", e);
+			}
+		}
+	}
+
+	/**
+	 * 지연 시간 기준 전송 예약 (lock 보유 상태에서 호출).
+	 * 스케줄러 스레드는 모든 스트림이 함께 사용하므로 시각만 맞추고 전송은 전송 스레드 풀에 넘긴다.
+	 */
+	private void scheduleDeadline() {
+		if (deadline == null && buffer.length() > 0) {
+			int sequence = ++deadlineSequence;
+			deadline = policy.scheduler().schedule(() -> {
+				try {
+					policy.senders().execute(() -> onDeadline(sequence));
+				} catch (RejectedExecutionException e) {
+					log.debug("전송 스레드 풀 종료로 지연 전송 생략");
+				}
+			}, policy.maxLatencyMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void cancelDeadline() {
+		if (deadline != null) {
+			deadline.cancel(false);
+			deadline = null;
+			deadlineSequence++;
+		}
+	}
+
+}
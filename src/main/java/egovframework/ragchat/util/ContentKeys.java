@@ -0,0 +1,54 @@
+package egovframework.ragchat.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+
+/**
+ * 검색된 세그먼트를 식별하기 위한 키 생성 유틸리티.
+ * 검색 결과(Content)에는 저장소의 포인트 ID가 포함되지 않으므로 출처와 본문으로 결정적인 키를 만든다.
+ */
+public final class ContentKeys {
+
+	/**
+	 * 여러 지식 베이스의 검색 결과를 합칠 때 세그먼트에 붙이는 지식 베이스 이름 메타데이터 키.
+	 * 지식 베이스마다 같은 이름의 문서가 있을 수 있으므로 키와 출처 구분에 함께 사용한다.
+	 */
+	public static final String KNOWLEDGE_BASE = "knowledge_base";
+
+	private ContentKeys() {
+	}
+
+	/**
+	 * 세그먼트 키 생성.
+	 *
+	 * @param segment 텍스트 세그먼트
+	 * @return 지식 베이스(있으면), 출처와 본문 기반의 결정적 키
+	 */
+	public static String of(TextSegment segment) {
+		String source = segment.metadata().getString("source");
+		String knowledgeBase = segment.metadata().getString(KNOWLEDGE_BASE);
+		String seed = (knowledgeBase != null ? knowledgeBase + "\n" : "") + (source != null ? source : "") + "\n"
+				+ segment.text();
+		return UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	/**
+	 * 검색 결과 목록의 세그먼트 키 목록 생성 (검색 순서 유지).
+	 *
+	 * @param contents 검색 결과
+	 * @return 세그먼트 키 목록
+	 */
+	public static List<String> of(List<Content> contents) {
+		List<String> keys = new ArrayList<>(contents.size());
+		for (Content content : contents) {
+			keys.add(of(content.textSegment()));
+		}
+		return keys;
+	}
+
+}
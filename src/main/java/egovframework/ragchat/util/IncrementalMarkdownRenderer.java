@@ -0,0 +1,246 @@
+package egovframework.ragchat.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import lombok.Getter;
+
+/**
+ * 스트리밍 응답용 점진적 마크다운 렌더러 (스트림 하나당 인스턴스 하나).
+ * 수신한 청크를 누적하면서 완성된 블록(문단, 목록, 코드 블록, 제목)만 한 번씩 파싱하여 HTML 조각으로 내보내고,
+ * 아직 열려 있는 마지막 블록은 파싱 없이 이스케이프한 임시 텍스트(tail)로 제공한다.
+ * 임시 텍스트는 이전에 내보낸 부분 뒤에 새로 들어온 부분만 내보내며, 블록이 확정되면 클라이언트가 지우고 다시 이어 붙인다.
+ * (청크마다 블록 전체를 다시 이스케이프하여 보내지 않으므로 긴 코드 블록도 청크당 비용이 일정함)
+ * 스트림이 끝나면 전체 문서를 한 번 렌더링하여 최종 HTML 로 보정한다.
+ */
+public class IncrementalMarkdownRenderer {
+
+	private static final Pattern LIST_ITEM = Pattern.compile("^ {0,3}([-+*]|\\d{1,9}[.)])(\\s|$)");
+	private static final Pattern HEADING = Pattern.compile("^ {0,3}#{1,6}(\\s|$)");
+	private static final Pattern FENCE = Pattern.compile("^ {0,3}(`{3,}|~{3,})");
+
+	private enum BlockKind {
+		PARAGRAPH, LIST, FENCE
+	}
+
+	private final MarkdownConverter converter;
+	private final StringBuilder source = new StringBuilder();
+
+	// HTML 로 확정된 위치, 줄 단위 검사를 마친 위치, 임시 텍스트로 내보낸 위치
+	private int committed;
+	private int scanned;
+	private int tailSent;
+	// 마지막 append 에서 블록을 확정했는지 (클라이언트가 임시 텍스트를 지워야 함)
+	private boolean blockCommitted;
+
+	private BlockKind openBlock;
+	private String fence;
+	private int blankBoundary = -1;
+
+	IncrementalMarkdownRenderer(MarkdownConverter converter) {
+		this.converter = converter;
+	}
+
+	/**
+	 * 청크를 추가하고 새로 확정된 블록의 HTML 과 새로 추가된 미확정 텍스트를 반환.
+	 *
+	 * @param chunk 모델이 생성한 마크다운 청크
+	 * @return 확정된 HTML 조각과 미확정 텍스트
+	 */
+	public Delta append(String chunk) {
+		source.append(chunk);
+		blockCommitted = false;
+
+		StringBuilder html = new StringBuilder();
+		int lineEnd;
+		while ((lineEnd = source.indexOf("\n", scanned)) >= 0) {
+			int lineStart = scanned;
+			scanned = lineEnd + 1;
+			scanLine(source.substring(lineStart, lineEnd), lineStart, scanned, html);
+		}
+
+		return new Delta(blockCommitted, toSseData(html.toString()), tail());
+	}
+
+	/**
+	 * 스트림 종료 시 전체 문서를 렌더링한 최종 HTML 반환.
+	 * 청크 경계를 넘는 참조 링크 등 블록 단위 렌더링에서 놓친 부분을 보정한다.
+	 *
+	 * @return 전체 응답의 HTML
+	 */
+	public String finish() {
+		committed = source.length();
+		scanned = source.length();
+		tailSent = source.length();
+		return toSseData(converter.convertToHtml(source.toString()));
+	}
+
+	/**
+	 * 지금까지 누적된 마크다운 원문
+	 */
+	public String getSource() {
+		return source.toString();
+	}
+
+	private void scanLine(String line, int lineStart, int lineEnd, StringBuilder html) {
+		if (openBlock == BlockKind.FENCE) {
+			if (isFenceClose(line)) {
+				commit(lineEnd, html);
+			}
+			return;
+		}
+
+		if (line.trim().isEmpty()) {
+			if (openBlock == null) {
+				committed = lineEnd;
+			} else {
+				// 다음 줄이 들어와야 블록이 끝났는지 알 수 있으므로 경계 후보로만 기록
+				blankBoundary = lineEnd;
+			}
+			return;
+		}
+
+		boolean indented = line.charAt(0) == ' ' || line.charAt(0) == '\t';
+		if (openBlock != null && blankBoundary >= 0) {
+			boolean continues = indented || (openBlock == BlockKind.LIST && LIST_ITEM.matcher(line).find());
+			if (continues) {
+				blankBoundary = -1;
+				return;
+			}
+			commit(blankBoundary, html);
+		} else if (openBlock != null && !(openBlock == BlockKind.LIST && indented)
+				&& (HEADING.matcher(line).find() || FENCE.matcher(line).find())) {
+			// 제목과 코드 블록은 빈 줄 없이도 앞 블록을 끝냄
+			commit(lineStart, html);
+		}
+
+		if (openBlock == null) {
+			startBlock(line, lineEnd, html);
+		}
+	}
+
+	private void startBlock(String line, int lineEnd, StringBuilder html) {
+		blankBoundary = -1;
+		Matcher fenceMatcher = FENCE.matcher(line);
+		if (fenceMatcher.find()) {
+			openBlock = BlockKind.FENCE;
+			fence = fenceMatcher.group(1);
+		} else if (HEADING.matcher(line).find()) {
+			// 제목은 한 줄로 완결되는 블록
+			openBlock = BlockKind.PARAGRAPH;
+			commit(lineEnd, html);
+		} else if (LIST_ITEM.matcher(line).find()) {
+			openBlock = BlockKind.LIST;
+		} else {
+			openBlock = BlockKind.PARAGRAPH;
+		}
+	}
+
+	private boolean isFenceClose(String line) {
+		String trimmed = line.trim();
+		if (trimmed.length() < fence.length()) {
+			return false;
+		}
+		char marker = fence.charAt(0);
+		for (int i = 0; i < trimmed.length(); i++) {
+			if (trimmed.charAt(i) != marker) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void commit(int end, StringBuilder html) {
+		if (end > committed) {
+			html.append(converter.convertToHtml(source.substring(committed, end)));
+			committed = end;
+			// 확정 이벤트가 클라이언트의 임시 텍스트를 지우므로 남은 부분은 확정 위치부터 다시 내보냄
+			tailSent = committed;
+			blockCommitted = true;
+		}
+		openBlock = null;
+		fence = null;
+		blankBoundary = -1;
+	}
+
+	/**
+	 * 지난번 이후 새로 추가된 미확정 텍스트 (확정 위치 이후 공백뿐이면 보이는 글자가 나올 때까지 보류)
+	 */
+	private String tail() {
+		int from = Math.max(tailSent, committed);
+		int end = source.length();
+		if (from == committed && isBlank(committed, end)) {
+			return "";
+		}
+		tailSent = end;
+		StringBuilder escaped = new StringBuilder(end - from + 16);
+		for (int i = from; i < end; i++) {
+			char c = source.charAt(i);
+			switch (c) {
+			case '&':
+				escaped.append("&amp;");
+				break;
+			case '<':
+				escaped.append("&lt;");
+				break;
+			case '>':
+				escaped.append("&gt;");
+				break;
+			case '"':
+				escaped.append("&quot;");
+				break;
+			case '\r':
+				break;
+			case '\n':
+				escaped.append("<br>");
+				break;
+			default:
+				escaped.append(c);
+			}
+		}
+		// SSE 파서는 data: 뒤의 공백 한 칸을 지우므로 이어 붙일 텍스트의 첫 공백은 문자 참조로 보냄
+		if (escaped.length() > 0 && escaped.charAt(0) == ' ') {
+			escaped.replace(0, 1, "&#32;");
+		}
+		return escaped.toString();
+	}
+
+	private boolean isBlank(int from, int end) {
+		for (int i = from; i < end; i++) {
+			if (!Character.isWhitespace(source.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * SSE data 필드는 줄바꿈으로 구분되므로 HTML 의 줄바꿈을 문자 참조로 치환.
+	 * (pre 블록 내부에서도 동일하게 줄바꿈으로 표시됨)
+	 *
+	 * @param html HTML
+	 * @return 한 줄로 된 HTML
+	 */
+	public static String toSseData(String html) {
+		return html.replace("\r", "").replace("\n", "&#10;");
+	}
+
+	/**
+	 * 청크 추가 결과.
+	 * committed 이면 html(비어 있을 수 있음)을 확정 이벤트로 보내 클라이언트의 임시 텍스트를 지우게 하고,
+	 * tail 은 클라이언트가 현재 임시 텍스트 뒤에 이어 붙인다.
+	 */
+	@Getter
+	public static final class Delta {
+		private final boolean committed;
+		private final String html;
+		private final String tail;
+
+		private Delta(boolean committed, String html, String tail) {
+			this.committed = committed;
+			this.html = html;
+			this.tail = tail;
+		}
+	}
+
+}
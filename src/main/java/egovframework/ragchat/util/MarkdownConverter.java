@@ -34,4 +34,13 @@ public class MarkdownConverter {
         return renderer.render(document);
     }
 
+    /**
+     * 스트리밍 응답용 점진적 렌더러 생성 (스트림마다 새로 생성하여 사용).
+     * 
+     * @return 점진적 마크다운 렌더러
+     */
+    public IncrementalMarkdownRenderer newIncrementalRenderer() {
+        return new IncrementalMarkdownRenderer(this);
+    }
+
 }
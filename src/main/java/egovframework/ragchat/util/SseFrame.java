@@ -0,0 +1,46 @@
+package egovframework.ragchat.util;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import lombok.Getter;
+
+/**
+ * 전송된 SSE 이벤트 한 건(이벤트 이름, 데이터)을 보관하는 불변 객체.
+ * 캐시된 응답을 동일한 이벤트 순서로 재전송할 때 사용한다.
+ */
+@Getter
+public final class SseFrame {
+
+	private final String name;
+	private final String data;
+
+	public SseFrame(String name, String data) {
+		this.name = name;
+		this.data = data;
+	}
+
+	/**
+	 * SSE 이벤트 빌더로 변환.
+	 *
+	 * @return SSE 이벤트 빌더
+	 */
+	public SseEmitter.SseEventBuilder toEvent() {
+		SseEmitter.SseEventBuilder event = SseEmitter.event()
+				.data(data)
+				.id(String.valueOf(System.currentTimeMillis()));
+		if (name != null) {
+			event.name(name);
+		}
+		return event;
+	}
+
+	/**
+	 * 메모리 사용량 추정치(바이트).
+	 *
+	 * @return 추정 바이트 수
+	 */
+	public long estimateBytes() {
+		return 48L + (name != null ? name.length() * 2L : 0L) + (data != null ? data.length() * 2L : 0L);
+	}
+
+}
@@ -0,0 +1,78 @@
+package egovframework.ragchat.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 가상 스레드(JDK 21+) 생성 유틸리티.
+ * 컴파일 대상 JDK 에는 가상 스레드 API 가 없으므로 실행 환경에서 리플렉션으로 찾아 사용하고,
+ * 지원하지 않는 런타임에서는 {@link #isSupported()} 가 false 를 반환한다.
+ */
+public final class VirtualThreads {
+
+	private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class,
+			"newThreadPerTaskExecutor", ThreadFactory.class);
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * 현재 런타임에서 가상 스레드를 사용할 수 있는지 여부
+	 *
+	 * @return 사용 가능 여부
+	 */
+	public static boolean isSupported() {
+		return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * 가상 스레드 생성기 (스레드 이름은 prefix 뒤에 순번)
+	 *
+	 * @param prefix 스레드 이름 접두사
+	 * @return 스레드 생성기
+	 * @throws IllegalStateException 가상 스레드를 지원하지 않는 런타임인 경우
+	 */
+	public static ThreadFactory factory(String prefix) {
+		if (!isSupported()) {
+			throw new IllegalStateException("가상 스레드는 JDK 21 이상에서 사용할 수 있습니다. 현재: "
+					+ System.getProperty("java.version"));
+		}
+		try {
+			// Thread.ofVirtual().name(prefix, 0).factory()
+			Object builder = OF_VIRTUAL.invoke(null);
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("가상 스레드 생성기 초기화 실패", e);
+		}
+	}
+
+	/**
+	 * 작업마다 가상 스레드를 새로 만드는 실행기
+	 *
+	 * @param prefix 스레드 이름 접두사
+	 * @return 실행기
+	 * @throws IllegalStateException 가상 스레드를 지원하지 않는 런타임인 경우
+	 */
+	public static ExecutorService newExecutor(String prefix) {
+		ThreadFactory factory = factory(prefix);
+		try {
+			return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("가상 스레드 실행기 초기화 실패", e);
+		}
+	}
+
+	private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+		try {
+			return type.getMethod(name, parameterTypes);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+}
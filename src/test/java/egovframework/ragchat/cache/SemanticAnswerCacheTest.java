@@ -0,0 +1,88 @@
+package egovframework.ragchat.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+/**
+ * 응답 캐시의 세그먼트 목록별 조회, 메모리 상한 초과 시 최근 조회 항목 유지, 저장 시 TTL 만료, 세대 무효화를 검증한다.
+ */
+class SemanticAnswerCacheTest {
+
+	// 한 항목의 크기가 206 바이트가 되도록 맞춘 응답 (세그먼트 키 한 글자, 2차원 벡터)
+	private static final String ANSWER = "0123456789";
+
+	private SemanticAnswerCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new SemanticAnswerCache();
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "similarityThreshold", 0.9);
+		ReflectionTestUtils.setField(cache, "maxBytes", 1000L);
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+	}
+
+	@Test
+	void matchesOnlyWithinTheSameSegmentList() {
+		cache.put(cache.currentEpoch(), vector(1, 0), List.of("a"), ANSWER, null);
+
+		assertTrue(cache.lookup(vector(1, 0.1f), List.of("a")).isPresent());
+		assertFalse(cache.lookup(vector(1, 0), List.of("b")).isPresent());
+		assertFalse(cache.lookup(vector(0, 1), List.of("a")).isPresent());
+	}
+
+	@Test
+	void keepsRecentlyReadEntryWhenOverMemoryLimit() {
+		// 두 항목까지만 들어가는 상한
+		ReflectionTestUtils.setField(cache, "maxBytes", 450L);
+		cache.put(cache.currentEpoch(), vector(1, 0), List.of("a"), ANSWER, null);
+		cache.put(cache.currentEpoch(), vector(1, 0), List.of("b"), ANSWER, null);
+		assertTrue(cache.lookup(vector(1, 0), List.of("a")).isPresent());
+
+		cache.put(cache.currentEpoch(), vector(1, 0), List.of("c"), ANSWER, null);
+
+		assertTrue(cache.lookup(vector(1, 0), List.of("a")).isPresent());
+		assertFalse(cache.lookup(vector(1, 0), List.of("b")).isPresent());
+		assertTrue(cache.lookup(vector(1, 0), List.of("c")).isPresent());
+		assertEquals(2, cache.getStats().get("entries"));
+	}
+
+	@Test
+	void expiresEntriesOnPut() throws InterruptedException {
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+		cache.put(cache.currentEpoch(), vector(1, 0), List.of("a"), ANSWER, null);
+		Thread.sleep(5);
+
+		assertFalse(cache.lookup(vector(1, 0), List.of("a")).isPresent());
+		cache.put(cache.currentEpoch(), vector(1, 0), List.of("b"), ANSWER, null);
+
+		assertEquals(1, cache.getStats().get("entries"));
+	}
+
+	@Test
+	void dropsAnswersGeneratedBeforeInvalidation() {
+		long startEpoch = cache.currentEpoch();
+		cache.put(startEpoch, vector(1, 0), List.of("a"), ANSWER, null);
+
+		cache.invalidate();
+		cache.put(startEpoch, vector(1, 0), List.of("b"), ANSWER, null);
+
+		assertFalse(cache.lookup(vector(1, 0), List.of("a")).isPresent());
+		assertFalse(cache.lookup(vector(1, 0), List.of("b")).isPresent());
+		assertEquals(0L, cache.getStats().get("bytes"));
+	}
+
+	private static Embedding vector(float... values) {
+		return Embedding.from(values);
+	}
+
+}
@@ -0,0 +1,94 @@
+package egovframework.ragchat.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import egovframework.ragchat.service.DataIngestionService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ChatController → ChatServiceImpl → SSE 전체 경로 부하 테스트 (GPU, Qdrant 불필요).
+ * 가짜 Ollama 서버와 로컬 저장소로 애플리케이션을 띄우고 동시 스트림을 열어 TTFT, 전체 지연, 처리량,
+ * 서버 스레드/힙 사용량을 출력한다. 실행 시간이 길어 -Dloadtest=true 를 지정한 경우에만 실행한다.
+ *
+ * <pre>
+ * mvn test -Dtest=ChatLoadTest -Dloadtest=true -Dloadtest.concurrency=32 -Dloadtest.token-delay-ms=20
+ * </pre>
+ *
+ * 조절 항목: loadtest.concurrency(동시 스트림 수), loadtest.requests(전체 요청 수), loadtest.endpoint,
+ * loadtest.ttft-ms(첫 토큰 지연), loadtest.token-delay-ms(토큰 간격), loadtest.tokens(답변 토큰 수).
+ * 애플리케이션 설정(예: -Dollama.generation.max-concurrent=8)도 시스템 속성으로 바꿀 수 있다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Slf4j
+class ChatLoadTest {
+
+	private static final String[] QUERIES = {
+			"OpenSearch 에서 한국어 인덱스는 어떻게 설정하나요?",
+			"Term-level 쿼리의 종류를 알려주세요",
+			"ONNX 로 임베딩을 만들고 벡터 검색하는 방법은?",
+			"Java client 에서 bool 쿼리를 구현하는 방법",
+	};
+
+	private static FakeOllamaServer ollama;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DataIngestionService dataIngestionService;
+
+	@DynamicPropertySource
+	static void properties(DynamicPropertyRegistry registry) throws IOException {
+		ollama = new FakeOllamaServer(Long.getLong("loadtest.ttft-ms", 300L),
+				Long.getLong("loadtest.token-delay-ms", 20L), Integer.getInteger("loadtest.tokens", 120));
+		Path workDirectory = Files.createTempDirectory("ragchat-loadtest");
+		registry.add("ollama.base-url", ollama::getBaseUrl);
+		registry.add("rag.store.local.path", () -> workDirectory.resolve("vector-store").toString());
+		registry.add("rag.ingestion.manifest-dir", () -> workDirectory.resolve("manifest").toString());
+	}
+
+	@AfterAll
+	static void stopOllama() {
+		if (ollama != null) {
+			ollama.close();
+		}
+	}
+
+	@Test
+	void streamingUnderLoad() throws InterruptedException {
+		dataIngestionService.setupRagChatbot();
+
+		int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+		int requests = Integer.getInteger("loadtest.requests", concurrency * 4);
+		String endpoint = System.getProperty("loadtest.endpoint", "/api/chat/streaming");
+		SseLoadDriver driver = new SseLoadDriver(URI.create("http://localhost:" + port + endpoint), concurrency,
+				requests);
+
+		// 질의마다 순번을 붙여 임베딩 캐시와 동일 생성 합류 없이 매번 검색과 생성을 수행
+		SseLoadDriver.Report report = driver.run(index -> QUERIES[index % QUERIES.length] + " (" + index + ")");
+
+		log.info("[부하 테스트] {}, 동시 {}, 요청 {}\n{}", endpoint, concurrency, requests,
+				report.format(ollama.getTokensPerAnswer()));
+		log.info("가짜 Ollama: {}", ollama.getStats());
+
+		assertEquals(0, report.getFailed(), "실패한 스트림");
+	}
+
+}
@@ -0,0 +1,246 @@
+package egovframework.ragchat.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * GPU 없이 부하 테스트를 하기 위한 가짜 Ollama 서버 (JDK HttpServer).
+ * /api/chat 은 첫 토큰까지의 지연(TTFT) 후 토큰마다 지정한 간격으로 NDJSON 을 스트리밍하고,
+ * stream=false 이면 같은 시간을 기다린 뒤 한 번에 응답한다.
+ * /api/generate 는 모델 적재(preload) 요청으로 보고 즉시 완료 응답을 보낸다.
+ * /api/version 은 서버 풀의 상태 확인에 응답한다.
+ * 클라이언트가 연결을 끊으면 쓰기 오류로 생성을 중단하고 취소 건수로 집계한다.
+ */
+public class FakeOllamaServer implements AutoCloseable {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	// 토큰으로 나누어 보낼 마크다운 답변 (문단, 목록, 코드 블록 포함)
+	private static final String ANSWER = """
+			OpenSearch 에서 한국어 검색을 하려면 **nori 분석기**를 사용하는 인덱스를 만들어야 합니다.
+
+			1. `nori_tokenizer` 로 형태소 단위로 분리합니다.
+			2. `nori_part_of_speech` 필터로 조사와 어미를 제거합니다.
+			3. 필요하면 사용자 사전을 추가합니다.
+
+			```json
+			{ "analyzer": { "korean": { "type": "custom", "tokenizer": "nori_tokenizer" } } }
+			```
+
+			이렇게 설정한 분석기를 텍스트 필드의 analyzer 로 지정하면 됩니다.
+
+			""";
+
+	private final long timeToFirstTokenMillis;
+	private final long tokenDelayMillis;
+	private final int tokensPerAnswer;
+	private final List<String> tokens;
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	private final LongAdder chatRequests = new LongAdder();
+	private final LongAdder cancelledStreams = new LongAdder();
+	private final AtomicInteger activeStreams = new AtomicInteger();
+	private final LongAccumulator peakActiveStreams = new LongAccumulator(Math::max, 0L);
+
+	/**
+	 * @param timeToFirstTokenMillis 첫 토큰까지의 지연 (프롬프트 처리 시간)
+	 * @param tokenDelayMillis 토큰 사이 간격 (디코딩 속도)
+	 * @param tokensPerAnswer 답변 한 건의 토큰 수
+	 */
+	public FakeOllamaServer(long timeToFirstTokenMillis, long tokenDelayMillis, int tokensPerAnswer)
+			throws IOException {
+		this.timeToFirstTokenMillis = timeToFirstTokenMillis;
+		this.tokenDelayMillis = tokenDelayMillis;
+		this.tokensPerAnswer = tokensPerAnswer;
+		this.tokens = tokenize(ANSWER);
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "fake-ollama-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/chat", this::handleChat);
+		server.createContext("/api/generate", this::handleGenerate);
+		server.createContext("/api/version", this::handleVersion);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * ollama.base-url 로 사용할 주소
+	 */
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public int getTokensPerAnswer() {
+		return tokensPerAnswer;
+	}
+
+	/**
+	 * 서버 측 통계
+	 */
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("chatRequests", chatRequests.sum());
+		stats.put("cancelledStreams", cancelledStreams.sum());
+		stats.put("peakActiveStreams", peakActiveStreams.get());
+		return stats;
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handleGenerate(HttpExchange exchange) throws IOException {
+		JsonNode request = readBody(exchange);
+		Map<String, Object> response = new LinkedHashMap<>();
+		response.put("model", request.path("model").asText());
+		response.put("created_at", Instant.now().toString());
+		response.put("response", "");
+		response.put("done", true);
+		sendJson(exchange, response);
+	}
+
+	private void handleVersion(HttpExchange exchange) throws IOException {
+		readBody(exchange);
+		sendJson(exchange, Map.of("version", "0.0.0-fake"));
+	}
+
+	private void handleChat(HttpExchange exchange) throws IOException {
+		JsonNode request = readBody(exchange);
+		String model = request.path("model").asText();
+		boolean stream = request.path("stream").asBoolean(true);
+		int promptTokens = request.path("messages").toString().length() / 4;
+		chatRequests.increment();
+
+		if (!stream) {
+			sleep(timeToFirstTokenMillis + tokenDelayMillis * tokensPerAnswer);
+			StringBuilder content = new StringBuilder();
+			for (int i = 0; i < tokensPerAnswer; i++) {
+				content.append(tokens.get(i % tokens.size()));
+			}
+			sendJson(exchange, chunk(model, content.toString(), true, promptTokens));
+			return;
+		}
+
+		peakActiveStreams.accumulate(activeStreams.incrementAndGet());
+		exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+		exchange.sendResponseHeaders(200, 0);
+		try (OutputStream out = exchange.getResponseBody()) {
+			sleep(timeToFirstTokenMillis);
+			for (int i = 0; i < tokensPerAnswer; i++) {
+				if (i > 0) {
+					sleep(tokenDelayMillis);
+				}
+				writeLine(out, chunk(model, tokens.get(i % tokens.size()), false, promptTokens));
+			}
+			writeLine(out, chunk(model, "", true, promptTokens));
+		} catch (IOException e) {
+			// 클라이언트가 연결을 끊어 생성 중단
+			cancelledStreams.increment();
+		} finally {
+			activeStreams.decrementAndGet();
+			exchange.close();
+		}
+	}
+
+	private Map<String, Object> chunk(String model, String content, boolean done, int promptTokens) {
+		Map<String, Object> message = new LinkedHashMap<>();
+		message.put("role", "assistant");
+		message.put("content", content);
+
+		Map<String, Object> chunk = new LinkedHashMap<>();
+		chunk.put("model", model);
+		chunk.put("created_at", Instant.now().toString());
+		chunk.put("message", message);
+		chunk.put("done", done);
+		if (done) {
+			chunk.put("done_reason", "stop");
+			chunk.put("prompt_eval_count", promptTokens);
+			chunk.put("eval_count", tokensPerAnswer);
+		}
+		return chunk;
+	}
+
+	private static JsonNode readBody(HttpExchange exchange) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] body = in.readAllBytes();
+			return body.length > 0 ? OBJECT_MAPPER.readTree(body) : OBJECT_MAPPER.createObjectNode();
+		}
+	}
+
+	private static void sendJson(HttpExchange exchange, Object body) throws IOException {
+		byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(body);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static void writeLine(OutputStream out, Object chunk) throws IOException {
+		out.write(OBJECT_MAPPER.writeValueAsBytes(chunk));
+		out.write('\n');
+		out.flush();
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 실제 모델 출력처럼 2~3자 단위 토큰으로 분할 (줄바꿈은 별도 토큰)
+	 */
+	private static List<String> tokenize(String text) {
+		List<String> result = new ArrayList<>();
+		int start = 0;
+		while (start < text.length()) {
+			int newline = text.indexOf('\n', start);
+			if (newline == start) {
+				result.add("\n");
+				start++;
+				continue;
+			}
+			int end = Math.min(text.length(), start + (result.size() % 2 == 0 ? 2 : 3));
+			if (newline > 0 && newline < end) {
+				end = newline;
+			}
+			result.add(text.substring(start, end));
+			start = end;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,297 @@
+package egovframework.ragchat.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * SSE 스트리밍 엔드포인트 부하 생성기.
+ * 동시 연결 수만큼 작업 스레드가 요청을 순서대로 나누어 보내며, 스트림마다 첫 내용 이벤트까지의 시간(TTFT)과
+ * 스트림 종료까지의 시간을 기록한다. 실행 중에는 같은 JVM 의 서버 요청 스레드 수와 힙 사용량을 주기적으로 측정한다.
+ */
+public class SseLoadDriver {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+	private static final long SAMPLE_INTERVAL_MILLIS = 50L;
+	// 내장 Tomcat 요청 처리 스레드 이름 접두사
+	private static final String SERVER_THREAD_PREFIX = "http-nio-";
+
+	private final URI endpoint;
+	private final int concurrency;
+	private final int requests;
+	private final HttpClient httpClient;
+
+	/**
+	 * @param endpoint 스트리밍 엔드포인트 주소
+	 * @param concurrency 동시 스트림 수
+	 * @param requests 전체 요청 수
+	 */
+	public SseLoadDriver(URI endpoint, int concurrency, int requests) {
+		this.endpoint = endpoint;
+		this.concurrency = concurrency;
+		this.requests = requests;
+		this.httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.executor(Executors.newCachedThreadPool(daemon("load-client")))
+				.build();
+	}
+
+	/**
+	 * 부하 실행
+	 *
+	 * @param queries 요청 순번별 질의
+	 * @return 결과 보고서
+	 */
+	public Report run(IntFunction<String> queries) throws InterruptedException {
+		List<StreamResult> results = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger next = new AtomicInteger();
+		ResourceSampler sampler = new ResourceSampler();
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency, daemon("load-worker"));
+
+		sampler.start();
+		long start = System.nanoTime();
+		for (int worker = 0; worker < concurrency; worker++) {
+			// 작업 스레드마다 다른 클라이언트 주소 (루프백은 신뢰하는 프록시이므로 X-Forwarded-For 가 원격 주소가 됨)
+			String clientId = "10.0." + (worker / 256) + "." + (worker % 256);
+			workers.execute(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < requests) {
+					results.add(stream(clientId, queries.apply(index)));
+				}
+			});
+		}
+		workers.shutdown();
+		if (!workers.awaitTermination(30, TimeUnit.MINUTES)) {
+			workers.shutdownNow();
+		}
+		long wallNanos = System.nanoTime() - start;
+		sampler.stop();
+
+		return new Report(new ArrayList<>(results), wallNanos, sampler);
+	}
+
+	private StreamResult stream(String clientId, String query) {
+		long start = System.nanoTime();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(endpoint)
+					.timeout(Duration.ofMinutes(5))
+					.header("Content-Type", "application/json")
+					.header("Accept", "text/event-stream")
+					.header("X-Forwarded-For", clientId)
+					.POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(Map.of("query", query))))
+					.build();
+			HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+			if (response.statusCode() != 200) {
+				response.body().close();
+				return StreamResult.failed(response.statusCode());
+			}
+
+			long firstContent = 0;
+			int events = 0;
+			String event = null;
+			try (Stream<String> lines = response.body()) {
+				Iterator<String> iterator = lines.iterator();
+				while (iterator.hasNext()) {
+					String line = iterator.next();
+					if (line.startsWith("event:")) {
+						event = line.substring(6).trim();
+					} else if (line.startsWith("data:")) {
+						// 대기 순번(queued) 이벤트는 내용이 아님
+						if (firstContent == 0 && !"queued".equals(event) && line.length() > 5) {
+							firstContent = System.nanoTime();
+						}
+					} else if (line.isEmpty()) {
+						events++;
+						event = null;
+					}
+				}
+			}
+			long end = System.nanoTime();
+			return new StreamResult(200, firstContent > 0 ? firstContent - start : -1, end - start, events);
+		} catch (IOException e) {
+			return StreamResult.failed(-1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return StreamResult.failed(-1);
+		}
+	}
+
+	private static ThreadFactory daemon(String prefix) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + "-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * 스트림 한 건의 결과
+	 */
+	static final class StreamResult {
+		private final int status;
+		private final long ttftNanos;
+		private final long totalNanos;
+		private final int events;
+
+		private StreamResult(int status, long ttftNanos, long totalNanos, int events) {
+			this.status = status;
+			this.ttftNanos = ttftNanos;
+			this.totalNanos = totalNanos;
+			this.events = events;
+		}
+
+		private static StreamResult failed(int status) {
+			return new StreamResult(status, -1, -1, 0);
+		}
+
+		private boolean completed() {
+			return status == 200 && ttftNanos > 0;
+		}
+	}
+
+	/**
+	 * 실행 중 서버 자원 사용량 측정 (요청 처리 스레드 수, 전체 스레드 수, 힙 사용량의 최대값)
+	 */
+	private static final class ResourceSampler {
+		private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		private volatile boolean running;
+		private Thread thread;
+		private int peakServerThreads;
+		private int peakLiveThreads;
+		private long peakHeapBytes;
+
+		private void start() {
+			running = true;
+			thread = new Thread(() -> {
+				while (running) {
+					sample();
+					try {
+						Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}, "load-sampler");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private void stop() throws InterruptedException {
+			running = false;
+			thread.join();
+			sample();
+		}
+
+		private synchronized void sample() {
+			int serverThreads = 0;
+			int liveThreads = 0;
+			for (Thread live : Thread.getAllStackTraces().keySet()) {
+				liveThreads++;
+				if (live.getName().startsWith(SERVER_THREAD_PREFIX)) {
+					serverThreads++;
+				}
+			}
+			peakServerThreads = Math.max(peakServerThreads, serverThreads);
+			peakLiveThreads = Math.max(peakLiveThreads, liveThreads);
+			peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+		}
+	}
+
+	/**
+	 * 부하 실행 결과 보고서
+	 */
+	public static final class Report {
+		private final List<StreamResult> results;
+		private final long wallNanos;
+		private final int peakServerThreads;
+		private final int peakLiveThreads;
+		private final long peakHeapBytes;
+
+		private Report(List<StreamResult> results, long wallNanos, ResourceSampler sampler) {
+			this.results = results;
+			this.wallNanos = wallNanos;
+			synchronized (sampler) {
+				this.peakServerThreads = sampler.peakServerThreads;
+				this.peakLiveThreads = sampler.peakLiveThreads;
+				this.peakHeapBytes = sampler.peakHeapBytes;
+			}
+		}
+
+		public int getCompleted() {
+			return (int) results.stream().filter(StreamResult::completed).count();
+		}
+
+		public int getRejected() {
+			return (int) results.stream().filter(result -> result.status == 429).count();
+		}
+
+		public int getFailed() {
+			return results.size() - getCompleted() - getRejected();
+		}
+
+		/**
+		 * 초당 완료된 스트림 수
+		 */
+		public double getThroughput() {
+			return getCompleted() / (wallNanos / 1_000_000_000.0);
+		}
+
+		/**
+		 * 보고서 문자열
+		 *
+		 * @param tokensPerAnswer 답변 한 건의 토큰 수 (초당 토큰 수 계산용)
+		 */
+		public String format(int tokensPerAnswer) {
+			long[] ttft = results.stream().filter(StreamResult::completed).mapToLong(result -> result.ttftNanos)
+					.sorted().toArray();
+			long[] total = results.stream().filter(StreamResult::completed).mapToLong(result -> result.totalNanos)
+					.sorted().toArray();
+			double events = results.stream().filter(StreamResult::completed).mapToInt(result -> result.events)
+					.average().orElse(0);
+
+			StringBuilder report = new StringBuilder();
+			report.append(String.format(Locale.ROOT, "요청 %d건 - 완료 %d, 거절(429) %d, 실패 %d, 소요 %.1fs%n",
+					results.size(), getCompleted(), getRejected(), getFailed(), wallNanos / 1_000_000_000.0));
+			report.append(String.format(Locale.ROOT, "TTFT      p50 %8.1fms  p95 %8.1fms  p99 %8.1fms%n",
+					percentile(ttft, 50), percentile(ttft, 95), percentile(ttft, 99)));
+			report.append(String.format(Locale.ROOT, "전체 지연  p50 %8.1fms  p95 %8.1fms  p99 %8.1fms%n",
+					percentile(total, 50), percentile(total, 95), percentile(total, 99)));
+			report.append(String.format(Locale.ROOT, "처리량    %.2f 스트림/s, %.1f 토큰/s, 스트림당 SSE 이벤트 %.1f개%n",
+					getThroughput(), getThroughput() * tokensPerAnswer, events));
+			report.append(String.format(Locale.ROOT, "서버 자원  요청 스레드 최대 %d, 전체 스레드 최대 %d, 힙 최대 %.1fMB",
+					peakServerThreads, peakLiveThreads, peakHeapBytes / (1024.0 * 1024.0)));
+			return report.toString();
+		}
+
+		private static double percentile(long[] sortedNanos, int percentile) {
+			if (sortedNanos.length == 0) {
+				return Double.NaN;
+			}
+			int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+			return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, index))] / 1_000_000.0;
+		}
+	}
+
+}
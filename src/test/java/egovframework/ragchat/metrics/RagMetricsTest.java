@@ -0,0 +1,36 @@
+package egovframework.ragchat.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 지표 엔드포인트가 스레드 풀 작업에 전달되고 작업이 끝나면 풀 스레드에서 복원되는지 검증한다.
+ */
+class RagMetricsTest {
+
+	private final RagMetrics metrics = new RagMetrics(new SimpleMeterRegistry());
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void propagatesEndpointToPooledTask() throws Exception {
+		try (RagMetrics.Scope scope = metrics.endpoint(RagMetrics.STREAMING)) {
+			assertEquals(RagMetrics.STREAMING,
+					executor.submit(metrics.withCurrentEndpoint(RagMetrics::currentEndpoint)).get());
+			assertEquals(RagMetrics.NONE, executor.submit(RagMetrics::currentEndpoint).get());
+		}
+		assertEquals(RagMetrics.NONE, executor.submit(RagMetrics::currentEndpoint).get());
+	}
+
+}
@@ -0,0 +1,168 @@
+package egovframework.ragchat.ollama;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 생성 스케줄러의 클라이언트 간 라운드 로빈, 대기열 제한, 용량 갱신, 대기 취소를 검증한다.
+ * 배정과 통지는 submit/release 호출 스레드에서 일어나므로 스레드 없이 순서대로 확인한다.
+ */
+class GenerationSchedulerTest {
+
+	private GenerationScheduler scheduler;
+	private final List<String> granted = new ArrayList<>();
+	// 배정된 순서대로의 티켓
+	private final List<GenerationScheduler.Ticket> tickets = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		scheduler = new GenerationScheduler(1, 4, 2, 1000L);
+	}
+
+	@Test
+	void alternatesBetweenClientsInRoundRobinOrder() {
+		submit("a", "a0");
+		submit("a", "a1");
+		submit("a", "a2");
+		submit("b", "b1");
+		assertEquals(List.of("a0"), granted);
+
+		releaseGranted(3);
+
+		// a 의 나머지 요청은 먼저 들어왔어도 b 와 번갈아 배정됨
+		assertEquals(List.of("a0", "a1", "b1", "a2"), granted);
+	}
+
+	@Test
+	void notifiesQueuePositionsAndUpdatesThemAsTheQueueDrains() {
+		GenerationScheduler.Ticket running = submit("a", "a0");
+		Recorder second = new Recorder("a1");
+		Recorder third = new Recorder("b1");
+		scheduler.submit("a", second);
+		scheduler.submit("b", third);
+		assertEquals(List.of(1), second.positions);
+		assertEquals(List.of(2), third.positions);
+
+		running.release();
+
+		assertEquals(List.of(1), second.positions);
+		assertEquals(List.of(2, 1), third.positions);
+		assertEquals(List.of("a0", "a1"), granted);
+	}
+
+	@Test
+	void rejectsWhenClientOrTotalQueueIsFull() {
+		submit("a", "a0");
+		submit("a", "a1");
+		submit("a", "a2");
+		AdmissionRejectedException perClient = assertThrows(AdmissionRejectedException.class,
+				() -> submit("a", "a3"));
+		assertTrue(perClient.getRetryAfterSeconds() >= 1);
+
+		submit("b", "b1");
+		submit("b", "b2");
+		assertThrows(AdmissionRejectedException.class, () -> submit("c", "c1"));
+
+		assertEquals(1, scheduler.getStats().get("active"));
+		assertEquals(4, scheduler.getStats().get("queued"));
+		assertEquals(2L, scheduler.getStats().get("rejected"));
+	}
+
+	@Test
+	void cancelledWaitingTicketLeavesTheQueue() {
+		GenerationScheduler.Ticket running = submit("a", "a0");
+		GenerationScheduler.Ticket waiting = submit("b", "b1");
+		submit("c", "c1");
+		assertTrue(waiting.isWaiting());
+
+		waiting.release();
+		assertFalse(waiting.isWaiting());
+		running.release();
+
+		assertEquals(List.of("a0", "c1"), granted);
+		assertEquals(1L, scheduler.getStats().get("abandoned"));
+		// 반환된 티켓을 다시 반환해도 상태가 바뀌지 않음
+		waiting.release();
+		assertEquals(1, scheduler.getStats().get("active"));
+	}
+
+	@Test
+	void cancellingActiveTicketIsCountedAndFreesTheSlot() {
+		GenerationScheduler.Ticket running = submit("a", "a0");
+		submit("b", "b1");
+
+		running.cancel();
+
+		assertEquals(List.of("a0", "b1"), granted);
+		assertEquals(1L, scheduler.getStats().get("cancelled"));
+	}
+
+	@Test
+	void followsEndpointCapacityUpdates() {
+		scheduler = new GenerationScheduler(3, 4, 2, 1000L);
+		scheduler.updateCapacity(1);
+		GenerationScheduler.Ticket running = submit("a", "a0");
+		submit("b", "b1");
+		submit("c", "c1");
+		assertEquals(List.of("a0"), granted);
+
+		// 용량이 늘면 대기 요청을 바로 배정
+		scheduler.updateCapacity(3);
+		assertEquals(List.of("a0", "b1", "c1"), granted);
+
+		// 용량이 줄면 실행 중인 생성이 끝나도 상한 아래로 내려갈 때까지 새 배정 없음
+		scheduler.updateCapacity(1);
+		submit("d", "d1");
+		running.release();
+		assertEquals(List.of("a0", "b1", "c1"), granted);
+		assertEquals(2, scheduler.getStats().get("active"));
+	}
+
+	@Test
+	void executeRunsTaskAndReturnsTheSlot() {
+		assertEquals("done", scheduler.execute("a", () -> "done"));
+		assertEquals(0, scheduler.getStats().get("active"));
+	}
+
+	private GenerationScheduler.Ticket submit(String clientId, String name) {
+		return scheduler.submit(clientId, new Recorder(name));
+	}
+
+	/**
+	 * 배정 순서대로 실행 중인 티켓을 반환하여 다음 요청이 배정되게 함
+	 */
+	private void releaseGranted(int count) {
+		for (int i = 0; i < count; i++) {
+			tickets.remove(0).release();
+		}
+	}
+
+	private final class Recorder implements GenerationScheduler.Listener {
+		private final String name;
+		private final List<Integer> positions = new ArrayList<>();
+
+		private Recorder(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void onQueued(int position) {
+			positions.add(position);
+		}
+
+		@Override
+		public void onGranted(GenerationScheduler.Ticket ticket) {
+			granted.add(name);
+			tickets.add(ticket);
+		}
+	}
+
+}
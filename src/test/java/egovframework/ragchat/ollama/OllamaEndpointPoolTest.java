@@ -0,0 +1,119 @@
+package egovframework.ragchat.ollama;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.ollama.OllamaChatModel;
+import dev.langchain4j.model.ollama.OllamaStreamingChatModel;
+import dev.langchain4j.model.output.Response;
+import egovframework.ragchat.loadtest.FakeOllamaServer;
+
+/**
+ * 가짜 Ollama 서버 두 대로 서버 풀의 라우팅(실행 중인 생성이 적은 서버, 서버별 상한)과 상태 확인을 검증한다.
+ */
+class OllamaEndpointPoolTest {
+
+	private static final int MAX_CONCURRENT_PER_ENDPOINT = 2;
+
+	private FakeOllamaServer first;
+	private FakeOllamaServer second;
+	private OllamaEndpointPool pool;
+	private final AtomicInteger capacity = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		first = new FakeOllamaServer(200L, 5L, 10);
+		second = new FakeOllamaServer(200L, 5L, 10);
+		pool = new OllamaEndpointPool(List.of(endpoint(first), endpoint(second)), 1000L, 1000L, 2);
+		pool.setCapacityListener(capacity::set);
+	}
+
+	@AfterEach
+	void tearDown() {
+		first.close();
+		second.close();
+	}
+
+	@Test
+	void spreadsConcurrentGenerationsAcrossEndpoints() {
+		StreamingChatLanguageModel model = new PooledStreamingChatLanguageModel(pool);
+
+		List<CompletableFuture<Response<AiMessage>>> responses = new ArrayList<>();
+		for (int i = 0; i < MAX_CONCURRENT_PER_ENDPOINT * 2; i++) {
+			responses.add(generate(model));
+		}
+		responses.forEach(response -> response.orTimeout(10, TimeUnit.SECONDS).join());
+
+		assertEquals(4, capacity.get());
+		assertEquals(2L, first.getStats().get("chatRequests"));
+		assertEquals(2L, second.getStats().get("chatRequests"));
+		assertTrue((Long) first.getStats().get("peakActiveStreams") <= MAX_CONCURRENT_PER_ENDPOINT);
+		assertTrue((Long) second.getStats().get("peakActiveStreams") <= MAX_CONCURRENT_PER_ENDPOINT);
+		for (OllamaEndpoint endpoint : pool.getEndpoints()) {
+			assertEquals(0, endpoint.getInFlight());
+		}
+	}
+
+	@Test
+	void takesFailedEndpointOutOfRotation() {
+		second.close();
+		pool.probe();
+		pool.probe();
+
+		OllamaEndpoint down = pool.getEndpoints().get(1);
+		assertFalse(down.isHealthy());
+		assertEquals(MAX_CONCURRENT_PER_ENDPOINT, capacity.get());
+
+		StreamingChatLanguageModel model = new PooledStreamingChatLanguageModel(pool);
+		for (int i = 0; i < 3; i++) {
+			generate(model).orTimeout(10, TimeUnit.SECONDS).join();
+		}
+		assertEquals(3L, first.getStats().get("chatRequests"));
+		assertEquals(0, down.getInFlight());
+	}
+
+	private static OllamaEndpoint endpoint(FakeOllamaServer server) {
+		String baseUrl = server.getBaseUrl();
+		return new OllamaEndpoint(baseUrl, MAX_CONCURRENT_PER_ENDPOINT,
+				OllamaChatModel.builder().baseUrl(baseUrl).modelName("fake").timeout(Duration.ofSeconds(10)).build(),
+				OllamaStreamingChatModel.builder().baseUrl(baseUrl).modelName("fake")
+						.timeout(Duration.ofSeconds(10)).build());
+	}
+
+	private static CompletableFuture<Response<AiMessage>> generate(StreamingChatLanguageModel model) {
+		CompletableFuture<Response<AiMessage>> future = new CompletableFuture<>();
+		model.generate("질문", new StreamingResponseHandler<AiMessage>() {
+			@Override
+			public void onNext(String token) {
+			}
+
+			@Override
+			public void onComplete(Response<AiMessage> response) {
+				future.complete(response);
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				future.completeExceptionally(error);
+			}
+		});
+		return future;
+	}
+
+}
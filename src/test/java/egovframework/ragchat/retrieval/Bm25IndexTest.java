@@ -0,0 +1,82 @@
+package egovframework.ragchat.retrieval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+
+/**
+ * BM25 색인의 토큰화, 점수 순서, 정규화 점수와 하이브리드 검색기의 BM25 최소 점수 적용을 검증한다.
+ */
+class Bm25IndexTest {
+
+	private static final List<TextSegment> SEGMENTS = List.of(
+			segment("a.md", "전자정부 표준프레임워크 설치 방법"),
+			segment("b.md", "표준프레임워크 버전별 변경 사항과 설치 주의 사항"),
+			segment("c.md", "Spring Boot 2.7 설정 예시"));
+
+	@Test
+	void tokenizesHangulIntoBigramsAndAsciiIntoLowercaseWords() {
+		assertEquals(List.of("전자", "자정", "정부", "spring", "boot_2"), Bm25Index.tokenize("전자정부 Spring Boot_2!"));
+		assertEquals(List.of("설"), Bm25Index.tokenize("설"));
+	}
+
+	@Test
+	void ranksSegmentsByScore() {
+		Bm25Index index = Bm25Index.build(SEGMENTS);
+
+		List<Bm25Index.Match> matches = index.search("전자정부 설치", 10);
+
+		assertEquals(2, matches.size());
+		assertEquals("a.md", matches.get(0).getSegment().metadata().getString("source"));
+		assertTrue(matches.get(0).getScore() > matches.get(1).getScore());
+	}
+
+	@Test
+	void normalizesScoresAgainstQueryUpperBound() {
+		Bm25Index index = Bm25Index.build(SEGMENTS);
+
+		for (Bm25Index.Match match : index.search("표준프레임워크 설치", 10)) {
+			assertTrue(match.getNormalizedScore() > 0);
+			assertTrue(match.getNormalizedScore() < 1);
+		}
+		// 질의 용어 중 하나만 일치하면 모두 일치할 때보다 정규화 점수가 낮음
+		double full = index.search("spring boot", 1).get(0).getNormalizedScore();
+		double partial = index.search("spring 전자정부", 1).get(0).getNormalizedScore();
+		assertTrue(partial < full);
+	}
+
+	@Test
+	void returnsNothingForUnknownTermsOrEmptyIndex() {
+		assertTrue(Bm25Index.build(SEGMENTS).search("쿠버네티스", 10).isEmpty());
+		assertTrue(Bm25Index.empty().search("설치", 10).isEmpty());
+	}
+
+	@Test
+	void hybridRetrieverDropsWeakLexicalCandidates() {
+		LexicalIndex lexicalIndex = new LexicalIndex();
+		lexicalIndex.rebuild(SEGMENTS);
+		ContentRetriever noVectorResults = query -> List.of();
+
+		List<Content> lenient = new HybridContentRetriever(noVectorResults, lexicalIndex, 10, 0.0, 10, 60)
+				.retrieve(Query.from("spring 전자정부 쿠버네티스 배포"));
+		List<Content> strict = new HybridContentRetriever(noVectorResults, lexicalIndex, 10, 0.9, 10, 60)
+				.retrieve(Query.from("spring 전자정부 쿠버네티스 배포"));
+
+		assertEquals(2, lenient.size());
+		assertTrue(strict.isEmpty());
+	}
+
+	private static TextSegment segment(String source, String text) {
+		return TextSegment.from(text, Metadata.from("source", source));
+	}
+
+}
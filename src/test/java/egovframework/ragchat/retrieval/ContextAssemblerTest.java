@@ -0,0 +1,122 @@
+package egovframework.ragchat.retrieval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.util.ContentKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 컨텍스트 구성의 출처(지식 베이스)별 병합, 인접 청크 겹침 제거, 토큰 예산 적용을 검증한다.
+ */
+class ContextAssemblerTest {
+
+	private static final String OVERLAP = "두 청크가 함께 가지는 겹침 문장입니다.";
+
+	private ContextAssembler assembler;
+
+	@BeforeEach
+	void setUp() {
+		assembler = new ContextAssembler(new RagMetrics(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(assembler, "maxTokens", 1000);
+	}
+
+	@Test
+	void mergesAdjacentChunksInDocumentOrderWithoutOverlap() {
+		String context = assembler.assemble(List.of(
+				content("a.md", 1, OVERLAP + " 뒤 청크 본문."),
+				content("a.md", 0, "앞 청크 본문. " + OVERLAP)));
+
+		assertEquals("[출처: a.md]\n앞 청크 본문. " + OVERLAP + " 뒤 청크 본문.", context);
+	}
+
+	@Test
+	void removesOverlapThatEndsOnWhitespace() {
+		// 공백을 제외하면 최소 겹침 길이보다 짧은 겹침
+		String overlap = "겹치는 부분은 열다섯 글자\n\n\n\n\n\n";
+		String context = assembler.assemble(List.of(
+				content("a.md", 0, "앞 청크 본문. " + overlap),
+				content("a.md", 1, overlap + "뒤 청크 본문.")));
+
+		assertEquals("[출처: a.md]\n앞 청크 본문. " + overlap + "뒤 청크 본문.", context);
+	}
+
+	@Test
+	void separatesNonAdjacentChunksAndGroupsBySource() {
+		String context = assembler.assemble(List.of(
+				content("a.md", 3, "a 네 번째 청크"),
+				content("b.md", 0, "b 첫 번째 청크"),
+				content("a.md", 0, "a 첫 번째 청크"),
+				content("a.md", 1, "a 두 번째 청크")));
+
+		assertEquals("[출처: a.md]\na 첫 번째 청크\na 두 번째 청크\n...\na 네 번째 청크\n\n[출처: b.md]\nb 첫 번째 청크",
+				context);
+	}
+
+	@Test
+	void keepsSameNamedSourcesOfDifferentKnowledgeBasesApart() {
+		String context = assembler.assemble(List.of(
+				content("hr", "guide.md", 0, "인사 안내 첫 청크"),
+				content("it", "guide.md", 0, "전산 안내 첫 청크"),
+				content("hr", "guide.md", 1, "인사 안내 두 번째 청크")));
+
+		assertEquals("[출처: hr/guide.md]\n인사 안내 첫 청크\n인사 안내 두 번째 청크\n\n[출처: it/guide.md]\n전산 안내 첫 청크",
+				context);
+	}
+
+	@Test
+	void skipsDuplicateSegments() {
+		String context = assembler.assemble(List.of(content("a.md", 0, "같은 청크"), content("a.md", 0, "같은 청크")));
+
+		assertEquals("[출처: a.md]\n같은 청크", context);
+	}
+
+	@Test
+	void keepsSelectionWithinTokenBudget() {
+		ReflectionTestUtils.setField(assembler, "maxTokens", 10);
+
+		String context = assembler.assemble(List.of(
+				content("a.md", 0, "가나다라마바"),
+				content("a.md", 5, "예산을 넘는 긴 청크입니다"),
+				content("a.md", 9, "사아자")));
+
+		assertEquals("[출처: a.md]\n가나다라마바\n...\n사아자", context);
+		assertTrue(ContextAssembler.estimateTokens("가나다라마바" + "사아자") <= 10);
+	}
+
+	@Test
+	void truncatesFirstSegmentLargerThanBudget() {
+		ReflectionTestUtils.setField(assembler, "maxTokens", 5);
+
+		String context = assembler.assemble(List.of(content("a.md", 0, "가나다라마바사아자차")));
+
+		assertEquals("[출처: a.md]\n가나다라마", context);
+	}
+
+	@Test
+	void estimatesTokensAndIgnoresWhitespace() {
+		assertEquals(2 + 2, ContextAssembler.estimateTokens("한글 abcd efg\n"));
+		assertEquals(0, ContextAssembler.estimateTokens("  \n"));
+		assertEquals("가나", ContextAssembler.truncate("가나다라", 2));
+	}
+
+	private static Content content(String source, int index, String text) {
+		return Content.from(TextSegment.from(text, new Metadata().put("source", source).put("index", index)));
+	}
+
+	private static Content content(String knowledgeBase, String source, int index, String text) {
+		return Content.from(TextSegment.from(text, new Metadata().put("source", source).put("index", index)
+				.put(ContentKeys.KNOWLEDGE_BASE, knowledgeBase)));
+	}
+
+}
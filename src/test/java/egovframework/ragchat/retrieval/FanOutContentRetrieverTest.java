@@ -0,0 +1,93 @@
+package egovframework.ragchat.retrieval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+import egovframework.ragchat.metrics.RagMetrics;
+import egovframework.ragchat.util.ContentKeys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 여러 지식 베이스 검색 결과의 순위 융합, 지식 베이스별 세그먼트 구분, 제한 시간 초과 결과 제외를 검증한다.
+ */
+class FanOutContentRetrieverTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+	private final RagMetrics metrics = new RagMetrics(new SimpleMeterRegistry());
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void keepsSameSegmentOfDifferentKnowledgeBasesApart() {
+		Map<String, ContentRetriever> retrievers = new LinkedHashMap<>();
+		retrievers.put("hr", query -> List.of(content("guide.md", "같은 본문"), content("hr.md", "인사")));
+		retrievers.put("it", query -> List.of(content("guide.md", "같은 본문")));
+
+		List<Content> results = retriever(retrievers, Duration.ofSeconds(1)).retrieve(Query.from("질의"));
+
+		assertEquals(List.of("hr", "it", "hr"), knowledgeBases(results));
+		assertEquals(List.of("같은 본문", "같은 본문", "인사"), texts(results));
+	}
+
+	@Test
+	void dropsKnowledgeBasesThatMissTheDeadline() {
+		CountDownLatch never = new CountDownLatch(1);
+		Map<String, ContentRetriever> retrievers = new LinkedHashMap<>();
+		retrievers.put("fast", query -> List.of(content("a.md", "빠른 결과")));
+		retrievers.put("slow", query -> {
+			try {
+				never.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return List.of(content("b.md", "느린 결과"));
+		});
+		retrievers.put("broken", query -> {
+			throw new IllegalStateException("검색 실패");
+		});
+
+		List<Content> results = retriever(retrievers, Duration.ofMillis(100)).retrieve(Query.from("질의"));
+
+		assertEquals(List.of("빠른 결과"), texts(results));
+	}
+
+	private FanOutContentRetriever retriever(Map<String, ContentRetriever> retrievers, Duration deadline) {
+		return new FanOutContentRetriever(retrievers, executor, deadline, 10, 60, metrics);
+	}
+
+	private static Content content(String source, String text) {
+		return Content.from(TextSegment.from(text, Metadata.from("source", source)));
+	}
+
+	private static List<String> knowledgeBases(List<Content> contents) {
+		List<String> names = new ArrayList<>();
+		contents.forEach(content -> names.add(content.textSegment().metadata().getString(ContentKeys.KNOWLEDGE_BASE)));
+		return names;
+	}
+
+	private static List<String> texts(List<Content> contents) {
+		List<String> texts = new ArrayList<>();
+		contents.forEach(content -> texts.add(content.textSegment().text()));
+		return texts;
+	}
+
+}
@@ -0,0 +1,99 @@
+package egovframework.ragchat.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+
+/**
+ * 세션 메모리의 토큰 예산 기준 턴 단위 밀어내기, 요약 보관, 요약 메시지 구성을 검증한다.
+ * 메시지 하나는 한글 세 글자(3토큰)와 메시지 부가 토큰(4)을 합해 7토큰으로 계산된다.
+ */
+class SessionChatMemoryTest {
+
+	private static final UserMessage Q1 = UserMessage.from("가나다");
+	private static final AiMessage A1 = AiMessage.from("라마바");
+	private static final UserMessage Q2 = UserMessage.from("사아자");
+	private static final AiMessage A2 = AiMessage.from("차카타");
+	private static final UserMessage Q3 = UserMessage.from("파하가");
+	private static final AiMessage A3 = AiMessage.from("나다라");
+
+	@Test
+	void evictsOldestTurnAsWholeWhenOverBudget() {
+		SessionChatMemory memory = new SessionChatMemory("s", 30, true);
+		addAll(memory, Q1, A1, Q2, A2, Q3, A3);
+
+		assertEquals(List.of(Q2, A2, Q3, A3), memory.window());
+		assertEquals(28, memory.windowTokens());
+		assertTrue(memory.hasEvicted());
+		assertEquals(List.of(Q1, A1), memory.drainEvicted());
+		assertFalse(memory.hasEvicted());
+	}
+
+	@Test
+	void keepsLastTurnEvenIfLargerThanBudget() {
+		SessionChatMemory memory = new SessionChatMemory("s", 5, true);
+		addAll(memory, Q1, A1);
+
+		assertEquals(List.of(Q1, A1), memory.window());
+		assertFalse(memory.hasEvicted());
+	}
+
+	@Test
+	void dropsEvictedMessagesWhenSummaryIsDisabled() {
+		SessionChatMemory memory = new SessionChatMemory("s", 30, false);
+		addAll(memory, Q1, A1, Q2, A2, Q3, A3);
+
+		assertEquals(List.of(Q2, A2, Q3, A3), memory.window());
+		assertTrue(memory.drainEvicted().isEmpty());
+	}
+
+	@Test
+	void prependsSummaryAsSystemMessage() {
+		SessionChatMemory memory = new SessionChatMemory("s", 30, true);
+		addAll(memory, Q1, A1);
+
+		memory.applySummary("  앞선 대화 요약  ");
+		memory.applySummary(" ");
+
+		List<ChatMessage> messages = memory.messages();
+		assertEquals(3, messages.size());
+		assertEquals("이전 대화 요약:\n앞선 대화 요약", ((SystemMessage) messages.get(0)).text());
+		assertEquals(List.of(Q1, A1), messages.subList(1, 3));
+	}
+
+	@Test
+	void clearResetsWindowSummaryAndEvicted() {
+		SessionChatMemory memory = new SessionChatMemory("s", 30, true);
+		addAll(memory, Q1, A1, Q2, A2, Q3, A3);
+		memory.applySummary("요약");
+
+		memory.clear();
+
+		assertTrue(memory.messages().isEmpty());
+		assertEquals(0, memory.windowTokens());
+		assertFalse(memory.hasEvicted());
+	}
+
+	@Test
+	void extractsTextByMessageType() {
+		assertEquals("가나다", SessionChatMemory.text(Q1));
+		assertEquals("라마바", SessionChatMemory.text(A1));
+		assertEquals("규칙", SessionChatMemory.text(SystemMessage.from("규칙")));
+	}
+
+	private static void addAll(SessionChatMemory memory, ChatMessage... messages) {
+		for (ChatMessage message : messages) {
+			memory.add(message);
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+package egovframework.ragchat.store;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+
+/**
+ * 로컬 저장소의 덮어쓰기/삭제 후 재시작 복원과, 로그 반영 전 중단 시 이전 값 유지를 검증한다.
+ */
+class LocalSegmentEmbeddingStoreTest {
+
+	private static final int DIMENSION = 4;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void restoresReplacedAndRemovedSegmentsAfterReopen() throws Exception {
+		try (LocalSegmentEmbeddingStore store = new LocalSegmentEmbeddingStore(directory, DIMENSION)) {
+			store.upsertAll(List.of("a", "b"), List.of(vector(1, 0, 0, 0), vector(0, 1, 0, 0)),
+					List.of(segment("a0"), segment("b0")));
+			store.upsertAll(List.of("a", "c"), List.of(vector(0, 0, 1, 0), vector(0, 0, 0, 1)),
+					List.of(segment("a1"), segment("c0")));
+			store.removeByIds(List.of("b"));
+		}
+
+		try (LocalSegmentEmbeddingStore reopened = new LocalSegmentEmbeddingStore(directory, DIMENSION)) {
+			assertEquals(2, reopened.count());
+			Map<String, EmbeddingMatch<TextSegment>> matches = searchAll(reopened);
+			assertEquals("a1", matches.get("a").embedded().text());
+			assertArrayEquals(vector(0, 0, 1, 0).vector(), matches.get("a").embedding().vector());
+			assertEquals("c0", matches.get("c").embedded().text());
+			assertArrayEquals(vector(0, 0, 0, 1).vector(), matches.get("c").embedding().vector());
+		}
+	}
+
+	@Test
+	void keepsPreviousVectorWhenBatchLogIsLost() throws Exception {
+		Path logPath = directory.resolve("segments.jsonl");
+		byte[] logBeforeBatch;
+		try (LocalSegmentEmbeddingStore store = new LocalSegmentEmbeddingStore(directory, DIMENSION)) {
+			store.upsertAll(List.of("a", "b"), List.of(vector(1, 0, 0, 0), vector(0, 1, 0, 0)),
+					List.of(segment("a0"), segment("b0")));
+			logBeforeBatch = Files.readAllBytes(logPath);
+
+			// 같은 배치에서 a 를 덮어쓰고 새 ID 를 추가 (a 의 이전 슬롯을 재사용하면 안 됨)
+			store.upsertAll(List.of("a", "c"), List.of(vector(0, 0, 1, 0), vector(0, 0, 0, 1)),
+					List.of(segment("a1"), segment("c0")));
+		}
+
+		// 벡터 파일에는 반영됐지만 로그 기록 전에 중단된 상황
+		Files.write(logPath, logBeforeBatch);
+
+		try (LocalSegmentEmbeddingStore reopened = new LocalSegmentEmbeddingStore(directory, DIMENSION)) {
+			Map<String, EmbeddingMatch<TextSegment>> matches = searchAll(reopened);
+			assertEquals(2, matches.size());
+			assertEquals("a0", matches.get("a").embedded().text());
+			assertArrayEquals(vector(1, 0, 0, 0).vector(), matches.get("a").embedding().vector());
+			assertArrayEquals(vector(0, 1, 0, 0).vector(), matches.get("b").embedding().vector());
+		}
+	}
+
+	private static Map<String, EmbeddingMatch<TextSegment>> searchAll(LocalSegmentEmbeddingStore store) {
+		EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+				.queryEmbedding(vector(1, 1, 1, 1))
+				.maxResults(10)
+				.minScore(0.0)
+				.build();
+		Map<String, EmbeddingMatch<TextSegment>> matches = new HashMap<>();
+		for (EmbeddingMatch<TextSegment> match : store.search(request).matches()) {
+			matches.put(match.embeddingId(), match);
+		}
+		return matches;
+	}
+
+	private static Embedding vector(float... values) {
+		return Embedding.from(values);
+	}
+
+	private static TextSegment segment(String text) {
+		return TextSegment.from(text, new Metadata().put("source", "a.md"));
+	}
+
+}
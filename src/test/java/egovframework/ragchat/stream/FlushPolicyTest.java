@@ -0,0 +1,142 @@
+package egovframework.ragchat.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import egovframework.ragchat.stream.FlushPolicy.Reason;
+
+/**
+ * 전송 정책의 전송 사유 판단, 문자 단위 보존 길이, 스트림 버퍼의 전송 스레드 분리를 검증한다.
+ */
+class FlushPolicyTest {
+
+	private static final long MAX_LATENCY_MILLIS = 50L;
+
+	private FlushPolicy policy;
+
+	@BeforeEach
+	void setUp() {
+		policy = new FlushPolicy();
+		ReflectionTestUtils.setField(policy, "maxLatencyMillis", MAX_LATENCY_MILLIS);
+		ReflectionTestUtils.setField(policy, "maxChars", 8);
+		ReflectionTestUtils.setField(policy, "minChars", 4);
+		ReflectionTestUtils.setField(policy, "senderThreads", 2);
+		policy.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		policy.shutdown();
+	}
+
+	@Test
+	void decidesReasonToFlush() {
+		assertNull(policy.reasonToFlush(""));
+		assertNull(policy.reasonToFlush("abcd"));
+		assertNull(policy.reasonToFlush("ab."));
+		assertEquals(Reason.BOUNDARY, policy.reasonToFlush("abc."));
+		assertEquals(Reason.BOUNDARY, policy.reasonToFlush("안녕 "));
+		assertEquals(Reason.BOUNDARY, policy.reasonToFlush("a\n"));
+		assertEquals(Reason.SIZE, policy.reasonToFlush("abcdefgh"));
+	}
+
+	@Test
+	void keepsIncompleteCharacterForNextFlush() {
+		assertEquals(0, FlushPolicy.safeLength(""));
+		assertEquals(3, FlushPolicy.safeLength("abc"));
+		// 완성된 서로게이트 쌍은 그대로, 앞부분만 있으면 남김
+		assertEquals(3, FlushPolicy.safeLength("a\uD83D\uDC4D"));
+		assertEquals(1, FlushPolicy.safeLength("a\uD83D"));
+		// 결합 문자, ZWJ, 이형 선택자, 한글 자모로 끝나면 앞 문자와 함께 남김
+		assertEquals(1, FlushPolicy.safeLength("ae\u0301"));
+		// ZWJ 앞 이모지를 함께 남기는지는 JDK 버전의 문자 경계 규칙에 따라 다르므로 ZWJ 가 남는지만 확인
+		assertTrue(FlushPolicy.safeLength("a\uD83D\uDC69\u200D") < 4);
+		assertEquals(1, FlushPolicy.safeLength("a\u2764\uFE0F"));
+		assertEquals(1, FlushPolicy.safeLength("\uAC00\u1100"));
+	}
+
+	@Test
+	void flushesSizeAndBoundaryOnCallingThread() {
+		List<String> chunks = new CopyOnWriteArrayList<>();
+		StreamFlusher flusher = policy.newFlusher(chunks::add);
+
+		flusher.append("abcdefgh");
+		flusher.append("ijk.");
+
+		assertEquals(List.of("abcdefgh", "ijk."), chunks);
+		assertEquals("", flusher.finish());
+	}
+
+	@Test
+	void flushesDeadlineOnSenderThreadInsteadOfTimerThread() throws InterruptedException {
+		BlockingQueue<String> threads = new LinkedBlockingQueue<>();
+		StreamFlusher flusher = policy.newFlusher(chunk -> threads.add(chunk + "@" + Thread.currentThread().getName()));
+
+		flusher.append("ab");
+
+		String sent = threads.poll(1, TimeUnit.SECONDS);
+		assertNotNull(sent);
+		assertTrue(sent.startsWith("ab@sse-flush-send-"), sent);
+		flusher.finish();
+	}
+
+	@Test
+	void finishReturnsUnsentTextWithoutCallingSink() throws InterruptedException {
+		List<String> chunks = new CopyOnWriteArrayList<>();
+		StreamFlusher flusher = policy.newFlusher(chunks::add);
+
+		flusher.append("ab");
+		assertEquals("ab", flusher.finish());
+		flusher.append("cd");
+
+		Thread.sleep(MAX_LATENCY_MILLIS * 5);
+		assertTrue(chunks.isEmpty());
+		assertEquals("", flusher.finish());
+	}
+
+	@Test
+	void slowSinkDoesNotBlockAppendAndKeepsOrder() throws InterruptedException {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> chunks = new CopyOnWriteArrayList<>();
+		StreamFlusher flusher = policy.newFlusher(chunk -> {
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			chunks.add(chunk);
+		});
+
+		// 지연 시간 기준 전송이 느린 구독자에게 막힌 상태
+		flusher.append("ab");
+		assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+		// 모델 콜백 스레드는 기다리지 않고 전송할 텍스트를 대기열에 넣음
+		assertTimeoutPreemptively(Duration.ofSeconds(1), () -> flusher.append("cdefghij"));
+
+		release.countDown();
+		String remaining = flusher.finish();
+
+		assertEquals("abcdefghij", String.join("", chunks) + remaining);
+		assertEquals("ab", chunks.get(0));
+	}
+
+}
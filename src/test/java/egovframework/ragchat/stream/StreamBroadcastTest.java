@@ -0,0 +1,269 @@
+package egovframework.ragchat.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import egovframework.ragchat.util.SseFrame;
+
+/**
+ * 방송 객체의 늦은 구독자 재전송, 임시 이벤트 대체, 구독 실패 처리, 마지막 구독자 이탈 시 취소,
+ * 느린 구독자 대기열 초과 처리를 검증한다. 대부분의 테스트는 전송 작업을 호출 스레드에서 바로 실행한다.
+ */
+class StreamBroadcastTest {
+
+	private static final int MAX_QUEUED_FRAMES = 4;
+
+	@Test
+	void replaysCommittedFramesAndLatestTransientToLateSubscriber() {
+		StreamBroadcast broadcast = newBroadcast();
+		RecordingEmitter first = new RecordingEmitter();
+		broadcast.subscribe(first);
+		broadcast.publish(new SseFrame(null, "a"));
+		broadcast.publishTransient(new SseFrame("tail", "t1"));
+		broadcast.publishTransient(new SseFrame("tail", "t2"));
+
+		RecordingEmitter late = new RecordingEmitter();
+		assertTrue(broadcast.subscribe(late));
+
+		assertEquals(List.of("a", "t1", "t2"), first.data());
+		assertEquals(List.of("a", "t2"), late.data());
+	}
+
+	@Test
+	void committedFrameReplacesPendingTransient() {
+		StreamBroadcast broadcast = newBroadcast();
+		broadcast.subscribe(new RecordingEmitter());
+		broadcast.publishTransient(new SseFrame("tail", "t"));
+		broadcast.publish(new SseFrame(null, "b"));
+
+		RecordingEmitter late = new RecordingEmitter();
+		broadcast.subscribe(late);
+
+		assertEquals(List.of("b"), late.data());
+		assertEquals(1, broadcast.getFrames().size());
+	}
+
+	@Test
+	void failedReplayCompletesEmitterWithoutJoining() {
+		StreamBroadcast broadcast = newBroadcast();
+		broadcast.subscribe(new RecordingEmitter());
+		broadcast.publish(new SseFrame(null, "a"));
+
+		RecordingEmitter broken = new RecordingEmitter();
+		broken.failing = true;
+
+		assertTrue(broadcast.subscribe(broken));
+		assertTrue(broken.completedWithError);
+		assertEquals(1, broadcast.getSubscriberCount());
+		assertFalse(broadcast.isCancelled());
+	}
+
+	@Test
+	void completeFinishesSubscribersAndRejectsNewOnes() {
+		StreamBroadcast broadcast = newBroadcast();
+		AtomicInteger finished = new AtomicInteger();
+		broadcast.setOnFinish(finished::incrementAndGet);
+		RecordingEmitter emitter = new RecordingEmitter();
+		broadcast.subscribe(emitter);
+
+		broadcast.complete();
+		broadcast.complete();
+
+		assertTrue(emitter.completed);
+		assertEquals(1, finished.get());
+		assertFalse(broadcast.subscribe(new RecordingEmitter()));
+		assertFalse(broadcast.isCancelled());
+	}
+
+	@Test
+	void cancelsWhenLastSubscriberLeaves() {
+		StreamBroadcast broadcast = newBroadcast();
+		AtomicInteger empty = new AtomicInteger();
+		AtomicInteger finished = new AtomicInteger();
+		broadcast.setOnEmpty(empty::incrementAndGet);
+		broadcast.setOnFinish(finished::incrementAndGet);
+		RecordingEmitter first = new RecordingEmitter();
+		RecordingEmitter second = new RecordingEmitter();
+		broadcast.subscribe(first);
+		broadcast.subscribe(second);
+
+		broadcast.unsubscribe(first);
+		assertFalse(broadcast.isCancelled());
+
+		broadcast.unsubscribe(second);
+		assertTrue(broadcast.isCancelled());
+		assertEquals(1, empty.get());
+		assertEquals(1, finished.get());
+
+		// 취소 후 전송은 기록하지 않음
+		broadcast.publish(new SseFrame(null, "late"));
+		assertTrue(broadcast.getFrames().isEmpty());
+	}
+
+	@Test
+	void dropsBrokenSubscriberAndKeepsSendingToOthers() {
+		StreamBroadcast broadcast = newBroadcast();
+		AtomicInteger sentFrames = new AtomicInteger();
+		broadcast.setFrameListener(sentFrames::addAndGet);
+		RecordingEmitter healthy = new RecordingEmitter();
+		RecordingEmitter broken = new RecordingEmitter();
+		broadcast.subscribe(healthy);
+		broadcast.subscribe(broken);
+		broken.failing = true;
+
+		broadcast.publish(new SseFrame(null, "a"));
+		broadcast.publish(new SseFrame(null, "b"));
+
+		assertEquals(List.of("a", "b"), healthy.data());
+		assertEquals(1, broadcast.getSubscriberCount());
+		assertEquals(2, sentFrames.get());
+		assertFalse(broadcast.isCancelled());
+
+		healthy.failing = true;
+		broadcast.publish(new SseFrame(null, "c"));
+		assertTrue(broadcast.isCancelled());
+	}
+
+	@Test
+	void replacesUnsentTransientFrameInSubscriberQueue() {
+		List<Runnable> tasks = new ArrayList<>();
+		StreamBroadcast broadcast = new StreamBroadcast(tasks::add, MAX_QUEUED_FRAMES);
+		RecordingEmitter emitter = new RecordingEmitter();
+		broadcast.subscribe(emitter);
+
+		broadcast.publish(new SseFrame(null, "a"));
+		broadcast.publishTransient(new SseFrame("tail", "t1"));
+		broadcast.publishTransient(new SseFrame("tail", "t2"));
+		broadcast.complete();
+		assertTrue(emitter.data().isEmpty());
+
+		// 전송 작업은 구독자마다 하나만 예약됨
+		assertEquals(1, tasks.size());
+		tasks.forEach(Runnable::run);
+
+		assertEquals(List.of("a", "t2"), emitter.data());
+		assertTrue(emitter.completed);
+	}
+
+	@Test
+	void slowSubscriberDoesNotBlockOthersAndIsDroppedOnOverflow() throws InterruptedException {
+		ExecutorService writers = Executors.newCachedThreadPool();
+		try {
+			StreamBroadcast broadcast = new StreamBroadcast(writers, MAX_QUEUED_FRAMES);
+			CountDownLatch entered = new CountDownLatch(1);
+			CountDownLatch release = new CountDownLatch(1);
+			CountDownLatch slowClosed = new CountDownLatch(1);
+			CountDownLatch fastReceived = new CountDownLatch(MAX_QUEUED_FRAMES + 2);
+			// 소켓 쓰기가 막힌 구독자
+			RecordingEmitter slow = new RecordingEmitter() {
+				@Override
+				public void send(SseEventBuilder builder) throws IOException {
+					entered.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					super.send(builder);
+				}
+
+				@Override
+				public void completeWithError(Throwable ex) {
+					super.completeWithError(ex);
+					slowClosed.countDown();
+				}
+			};
+			RecordingEmitter fast = new RecordingEmitter() {
+				@Override
+				public void send(SseEventBuilder builder) throws IOException {
+					super.send(builder);
+					fastReceived.countDown();
+				}
+			};
+			broadcast.subscribe(slow);
+			broadcast.subscribe(fast);
+
+			broadcast.publish(new SseFrame(null, "0"));
+			assertTrue(entered.await(5, TimeUnit.SECONDS));
+			// 느린 구독자 대기열을 채우고 하나 더 보내 초과시킴
+			for (int i = 1; i <= MAX_QUEUED_FRAMES + 1; i++) {
+				broadcast.publish(new SseFrame(null, String.valueOf(i)));
+			}
+
+			assertTrue(fastReceived.await(5, TimeUnit.SECONDS));
+			assertEquals(List.of("0", "1", "2", "3", "4", "5"), fast.data());
+			assertEquals(1, broadcast.getSubscriberCount());
+			assertFalse(broadcast.isCancelled());
+
+			release.countDown();
+			assertTrue(slowClosed.await(5, TimeUnit.SECONDS));
+			assertEquals(List.of("0"), slow.data());
+		} finally {
+			writers.shutdownNow();
+		}
+	}
+
+	private static StreamBroadcast newBroadcast() {
+		return new StreamBroadcast(Runnable::run, MAX_QUEUED_FRAMES);
+	}
+
+	/**
+	 * 전송한 이벤트의 데이터를 기록하는 이미터 (failing 이면 연결이 끊긴 것처럼 전송 실패)
+	 */
+	private static class RecordingEmitter extends SseEmitter {
+
+		private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+		private volatile boolean failing;
+		private volatile boolean completed;
+		private volatile boolean completedWithError;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (failing) {
+				throw new IOException("연결 끊김");
+			}
+			StringBuilder event = new StringBuilder();
+			for (DataWithMediaType part : builder.build()) {
+				event.append(part.getData());
+			}
+			sent.add(event.toString());
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			completedWithError = true;
+		}
+
+		/**
+		 * 전송한 이벤트별 data 필드 값
+		 */
+		private List<String> data() {
+			List<String> data = new ArrayList<>(sent.size());
+			for (String event : sent) {
+				int start = event.indexOf("data:") + "data:".length();
+				data.add(event.substring(start, event.indexOf('\n', start)));
+			}
+			return data;
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package egovframework.ragchat.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 점진적 렌더러의 블록 확정 시점(청크 경계를 넘는 코드 블록, 빈 줄 뒤에 이어지는 목록, 문단을 끊는 제목),
+ * 미확정 텍스트의 이어 붙이기, 종료 시 전체 보정을 검증한다.
+ * 클라이언트처럼 확정 이벤트는 HTML 에 이어 붙이며 임시 텍스트를 지우고, tail 은 임시 텍스트에 이어 붙여 화면 상태를 비교한다.
+ */
+class IncrementalMarkdownRendererTest {
+
+	private IncrementalMarkdownRenderer renderer;
+	private final StringBuilder html = new StringBuilder();
+	private final StringBuilder tail = new StringBuilder();
+
+	@BeforeEach
+	void setUp() {
+		renderer = new MarkdownConverter().newIncrementalRenderer();
+	}
+
+	@Test
+	void sendsOnlyAppendedTailText() {
+		assertEquals("Hello", append("Hello").getTail());
+		// 이어 붙일 텍스트의 첫 공백은 SSE 파서가 지우지 않도록 문자 참조로 보냄
+		assertEquals("&#32;wor", append(" wor").getTail());
+		assertEquals("ld &lt;b&gt;", append("ld <b>").getTail());
+
+		assertEquals("", html.toString());
+		assertEquals("Hello&#32;world &lt;b&gt;", tail.toString());
+	}
+
+	@Test
+	void commitsFenceSplitAcrossChunksOnlyWhenClosed() {
+		append("```ja");
+		append("va\nint a = 1 < 2;\n``");
+		assertEquals("", html.toString());
+		assertEquals("```java<br>int a = 1 &lt; 2;<br>``", tail.toString());
+
+		IncrementalMarkdownRenderer.Delta delta = append("`\nafter");
+
+		assertTrue(delta.isCommitted());
+		assertTrue(html.toString().contains("<pre><code class=\"language-java\">int a = 1 &lt; 2;"));
+		assertEquals("after", tail.toString());
+	}
+
+	@Test
+	void keepsListOpenWhenItemFollowsBlankLine() {
+		append("- a\n");
+		append("\n");
+		append("- b\n");
+		append("\n");
+		assertEquals("", html.toString());
+
+		append("next\n");
+
+		String list = html.toString();
+		assertEquals(1, count(list, "<ul>"));
+		assertEquals(2, count(list, "<li>"));
+		assertEquals("next<br>", tail.toString());
+	}
+
+	@Test
+	void headingInterruptsParagraphWithoutBlankLine() {
+		append("para ");
+		append("line\n# Ti");
+		assertEquals("para line<br># Ti", tail.toString());
+
+		append("tle\n");
+
+		assertEquals("<p>para line</p>&#10;<h1>Title</h1>&#10;", html.toString());
+		assertEquals("", tail.toString());
+	}
+
+	@Test
+	void finishReconcilesWholeDocument() {
+		append("See [docs][1].\n\n");
+		append("[1]: http://example.com\n");
+		assertFalse(html.toString().contains("<a href"));
+
+		String reconciled = renderer.finish();
+
+		assertTrue(reconciled.contains("<a href=\"http://example.com\">docs</a>"));
+		assertFalse(reconciled.contains("\n"));
+		assertEquals("See [docs][1].\n\n[1]: http://example.com\n", renderer.getSource());
+	}
+
+	/**
+	 * 청크를 추가하고 클라이언트 화면 상태에 반영
+	 */
+	private IncrementalMarkdownRenderer.Delta append(String chunk) {
+		IncrementalMarkdownRenderer.Delta delta = renderer.append(chunk);
+		if (delta.isCommitted()) {
+			html.append(delta.getHtml());
+			tail.setLength(0);
+		}
+		tail.append(delta.getTail());
+		return delta;
+	}
+
+	private static int count(String text, String token) {
+		int count = 0;
+		for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+			count++;
+		}
+		return count;
+	}
+
+}